@@ -0,0 +1,58 @@
+package animation;
+
+import geometries.AccelerationMode;
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import scene.Scene;
+
+/**
+ * The scenes of the rendering tests, for the benchmarks.
+ * <br>
+ * The scenes are fields of the test classes, which are compiled with the benchmarks. This class is in
+ * the same package so it can create them without copying the geometries - a benchmark always renders
+ * the same scene as the test.
+ *
+ * @author danielattali, itiskvales
+ */
+public abstract class BenchmarkScenes {
+
+    /**
+     * Empty private constructor to hide the public one
+     */
+    private BenchmarkScenes() {}
+
+    /**
+     * @return the scene of {@link CornelBoxTests}
+     */
+    public static Scene cornellBox() {
+        return new CornelBoxTests().scene;
+    }
+
+    /**
+     * @return a camera looking into the Cornell box, the same view as {@link CornelBoxTests#testingCornelBox()}
+     */
+    public static Camera cornellBoxCamera() {
+        return new Camera(new Point(0, 120, 40), new Vector(0, -1, 0), new Vector(0, 0, 1))
+                .setVPSize(250, 250)
+                .setVPDistance(160)
+                .pitchCamera(20);
+    }
+
+    /**
+     * @return the scene of {@link FinalImageTest}, with an axis aligned bounding box tree
+     */
+    public static Scene finalImage() {
+        return new FinalImageTest().scene.setAccelerationMode(AccelerationMode.AABB_TREE);
+    }
+
+    /**
+     * @return a camera looking at the final image, the same view as {@link FinalImageTest#testingWithAllImprovement()}
+     */
+    public static Camera finalImageCamera() {
+        return new Camera(new Point(0, 320, 150), new Vector(0, -1, 0), new Vector(0, 0, 1))
+                .setVPSize(100, 100)
+                .setVPDistance(120)
+                .pitchCamera(30);
+    }
+}
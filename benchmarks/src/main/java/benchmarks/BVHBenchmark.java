@@ -0,0 +1,119 @@
+package benchmarks;
+
+import geometries.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and traversing the acceleration structures of {@link Geometries}.
+ * <br>
+ * The scene is a cube of randomly placed small spheres (the same spheres for every run), the rays
+ * start on one side of the cube and cross it towards random points on the other side.
+ * The build benchmark runs once per iteration since building a tree of a million spheres takes seconds.
+ * The benchmark JVM has the jdk.incubator.vector module, so the SIMD leaf tests use the Vector API.
+ *
+ * @author danielattali, itiskvales
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules=jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class BVHBenchmark {
+    /**
+     * the amount of rays in a batch
+     */
+    private static final int RAYS = 1024;
+
+    /**
+     * the amount of spheres in the scene
+     */
+    @Param({"100", "10000", "1000000"})
+    public int count;
+
+    /**
+     * the acceleration structure
+     */
+    @Param({"AABB_TREE", "FLAT_BVH"})
+    public AccelerationMode mode;
+
+    /**
+     * the strategy used to build the tree
+     */
+    @Param({"sah", "median"})
+    public String builder;
+
+    /**
+     * test the geometries of the leaves in SIMD lanes (used only by the flat BVH)
+     */
+    @Param({"false", "true"})
+    public boolean simd;
+
+    private Geometries geometries;
+    private Ray[] rays;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        // the spheres take about 1% of the volume of the cube
+        double side = 1000;
+        double radius = side * Math.cbrt(0.01 * 3 / (4 * Math.PI * count));
+
+        Intersectable[] spheres = new Intersectable[count];
+        for (int i = 0; i < count; i++)
+            spheres[i] = new Sphere(randomPoint(random, side), radius);
+
+        geometries = new Geometries(spheres).setBVHBuilder(createBuilder()).setSimd(simd);
+        geometries.setAccelerationMode(mode);
+
+        rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; i++) {
+            Point start = new Point(side * random.nextDouble(), side * random.nextDouble(), -1);
+            Point end = new Point(side * random.nextDouble(), side * random.nextDouble(), side + 1);
+            rays[i] = new Ray(start, end.subtract(start));
+        }
+    }
+
+    /**
+     * @return a new builder of the kind of the benchmark
+     */
+    private BVHBuilder createBuilder() {
+        return switch (builder) {
+            case "sah" -> new SAHBuilder();
+            case "median" -> new MedianSplitBuilder();
+            default -> throw new IllegalArgumentException("Unknown builder " + builder);
+        };
+    }
+
+    /**
+     * @param random the random generator
+     * @param side   the side of the cube
+     * @return a random point in the cube [0, side]^3
+     */
+    private static Point randomPoint(Random random, double side) {
+        return new Point(side * random.nextDouble(), side * random.nextDouble(), side * random.nextDouble());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Geometries build() {
+        return geometries.setBVHBuilder(createBuilder());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void closestHit(Blackhole blackhole) {
+        for (Ray ray : rays)
+            blackhole.consume(geometries.findClosestGeoIntersection(ray));
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import geometries.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of a single ray / geometry intersection, for every kind of basic geometry.
+ * <br>
+ * The rays start around the origin and point at the geometry with a random spread, so about half
+ * of them hit it. The rays are created once (with a fixed seed) - only the intersection is measured.
+ *
+ * @author danielattali, itiskvales
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntersectionBenchmark {
+    /**
+     * the amount of rays in a batch
+     */
+    private static final int RAYS = 1024;
+
+    /**
+     * the geometry to intersect
+     */
+    @Param({"sphere", "triangle", "polygon", "cylinder"})
+    public String geometry;
+
+    private Intersectable target;
+    private Ray[] rays;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        target = switch (geometry) {
+            case "sphere" -> new Sphere(new Point(0, 0, -100), 30);
+            case "triangle" -> new Triangle(new Point(-40, -30, -100), new Point(40, -30, -100), new Point(0, 40, -100));
+            case "polygon" -> new Polygon(new Point(-30, -30, -100), new Point(30, -30, -100),
+                    new Point(40, 10, -100), new Point(0, 40, -100), new Point(-40, 10, -100));
+            case "cylinder" -> new Cylinder(20, new Ray(new Point(0, -30, -100), new Vector(0, 1, 0)), 60);
+            default -> throw new IllegalArgumentException("Unknown geometry " + geometry);
+        };
+
+        Random random = new Random(42);
+        rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; i++) {
+            Point start = new Point(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 0);
+            Vector direction = new Vector(80 * (random.nextDouble() - 0.5), 80 * (random.nextDouble() - 0.5), -100);
+            rays[i] = new Ray(start, direction);
+        }
+    }
+
+    /**
+     * @return the next ray of the batch
+     */
+    private Ray nextRay() {
+        Ray ray = rays[next];
+        next = (next + 1) & (RAYS - 1);
+        return ray;
+    }
+
+    @Benchmark
+    public void allIntersections(Blackhole blackhole) {
+        blackhole.consume(target.findGeoIntersections(nextRay()));
+    }
+
+    @Benchmark
+    public void closestIntersection(Blackhole blackhole) {
+        blackhole.consume(target.findClosestGeoIntersection(nextRay()));
+    }
+}
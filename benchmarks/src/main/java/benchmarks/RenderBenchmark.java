@@ -0,0 +1,79 @@
+package benchmarks;
+
+import animation.BenchmarkScenes;
+import geometries.AccelerationMode;
+import org.openjdk.jmh.annotations.*;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a whole frame of a scene - the number the users of the engine actually care about.
+ * <br>
+ * The image is rendered with a single ray per pixel and is not written to a file, the render runs
+ * on all the cores (in tiles) or on a single thread. The scenes use the flat BVH, the only structure a packet
+ * of primary rays traverses together, so the packet sizes are compared on the same tree.
+ *
+ * @author danielattali, itiskvales
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+    /**
+     * the scene to render
+     */
+    @Param({"cornellBox", "finalImage"})
+    public String scene;
+
+    /**
+     * the width and height of the image
+     */
+    @Param({"100", "200"})
+    public int resolution;
+
+    /**
+     * render with several threads or not
+     */
+    @Param({"true", "false"})
+    public boolean multithreading;
+
+    /**
+     * the width and height of the packets of primary rays (1 traces every ray on its own)
+     */
+    @Param({"1", "2", "4"})
+    public int packetSize;
+
+    private Camera camera;
+
+    @Setup
+    public void setup() {
+        Scene benchmarkScene;
+        if (scene.equals("cornellBox")) {
+            benchmarkScene = BenchmarkScenes.cornellBox();
+            camera = BenchmarkScenes.cornellBoxCamera();
+        } else {
+            benchmarkScene = BenchmarkScenes.finalImage();
+            camera = BenchmarkScenes.finalImageCamera();
+        }
+
+        benchmarkScene.setAccelerationMode(AccelerationMode.FLAT_BVH);
+        camera.setRayTracer(new RayTracerBasic(benchmarkScene))
+                .setImageWriter(new ImageWriter("benchmark", resolution, resolution))
+                .setAliasRays(1)
+                .setMultiThreading(multithreading)
+                .setPacketSize(packetSize)
+                .setPrintProgress(false);
+    }
+
+    @Benchmark
+    public Camera render() {
+        return camera.renderImage();
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import animation.BenchmarkScenes;
+import org.openjdk.jmh.annotations.*;
+import primitives.Color;
+import primitives.Ray;
+import renderer.Camera;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracing a single primary ray through a whole scene - shading, shadows, reflections and refractions.
+ * <br>
+ * The rays are the primary rays of a small image of the scene, one ray through the center of every pixel.
+ *
+ * @author danielattali, itiskvales
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TraceRayBenchmark {
+    /**
+     * the width and height of the image the rays are taken from
+     */
+    private static final int SIZE = 32;
+
+    /**
+     * the scene to render
+     */
+    @Param({"cornellBox", "finalImage"})
+    public String scene;
+
+    private RayTracerBasic rayTracer;
+    private Ray[] rays;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Scene benchmarkScene;
+        Camera camera;
+        if (scene.equals("cornellBox")) {
+            benchmarkScene = BenchmarkScenes.cornellBox();
+            camera = BenchmarkScenes.cornellBoxCamera();
+        } else {
+            benchmarkScene = BenchmarkScenes.finalImage();
+            camera = BenchmarkScenes.finalImageCamera();
+        }
+
+        rayTracer = new RayTracerBasic(benchmarkScene);
+        rays = new Ray[SIZE * SIZE];
+        for (int i = 0; i < SIZE; i++)
+            for (int j = 0; j < SIZE; j++)
+                rays[i * SIZE + j] = camera.constructRay(SIZE, SIZE, j, i);
+    }
+
+    @Benchmark
+    public Color traceRay() {
+        Ray ray = rays[next];
+        next = (next + 1) % rays.length;
+        return rayTracer.traceRay(ray);
+    }
+}
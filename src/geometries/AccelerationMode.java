@@ -0,0 +1,23 @@
+package geometries;
+
+/**
+ * The acceleration structure {@link Geometries} uses to find the intersections of a ray
+ *
+ * @author danielattali, itiskvales
+ */
+public enum AccelerationMode {
+    /**
+     * every ray is tested against every geometry
+     */
+    NONE,
+
+    /**
+     * the boundable geometries are kept in a tree of {@link AxisAlignedBoundingBox} objects
+     */
+    AABB_TREE,
+
+    /**
+     * the tree of boxes is compiled into a {@link FlatBVH} - arrays traversed with an explicit stack
+     */
+    FLAT_BVH
+}
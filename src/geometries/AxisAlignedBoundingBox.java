@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -171,83 +172,91 @@ public class AxisAlignedBoundingBox extends Intersectable implements Boundable {
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        //the ray's head and direction points
-        Vector dir = ray.getDir();
-        double xDir = dir.getX();
-        double yDir = dir.getY();
-        double zDir = dir.getZ();
+        // if the ray misses the box it misses all of its contents
+        if (!hitsBox(ray, maxDistance))
+            return null;
 
-        Point point = ray.getP0();
-        double xPoint = point.getX();
-        double yPoint = point.getY();
-        double zPoint = point.getZ();
-        double xMax, yMax, zMax, xMin, yMin, zMin;
-        // if the vector's x coordinate is zero
-        if (isZero(xDir)) {
-            //if the point's x value is in the box,
-            if (maxX >= xPoint && minX <= xPoint) {
-                xMax = Double.MAX_VALUE;
-                xMin = Double.MIN_VALUE;
-            } else
-                return null;
-        }
-        //if the vector's x coordinate is not zero, we need to check if we have values
-        //where (MaxX - xPoint) / xDir > (MinX - xPoint) / xDir
-        else {
-            double t1 = (maxX - xPoint) / xDir;
-            double t2 = (minX - xPoint) / xDir;
-            xMin = Math.min(t1, t2);
-            xMax = Math.max(t1, t2);
-        }
-        //if the vector's y coordinate is zero
-        if (isZero(yDir)) {
-            //if the point's y value is in the box,
-            if (maxX >= yPoint && minY <= yPoint) {
-                yMax = Double.MAX_VALUE;
-                yMin = Double.MIN_VALUE;
-            } else
-                return null;
-        }
-        //if the vector's y coordinate is not zero, we need to check if we have values
-        //where (MaxY - yPoint) / yDir > (MinY - yPoint) / yDir
-        else {
-            double t1 = (maxY - yPoint) / yDir;
-            double t2 = (minY - yPoint) / yDir;
-            yMin = Math.min(t1, t2);
-            yMax = Math.max(t1, t2);
+        // return all the intersection points of the contents of the box,
+        // the list is created only once there is something to put in it
+        List<GeoPoint> lst = null;
+        for (Boundable geo : contains) {
+            List<GeoPoint> pointLst = ((Intersectable) geo).findGeoIntersections(ray, maxDistance);
+            if (pointLst != null) {
+                if (lst == null)
+                    lst = new LinkedList<>(pointLst);
+                else
+                    lst.addAll(pointLst);
+            }
         }
+        return lst;
+    }
 
-        //if the vector's z coordinate is zero
-        if (isZero(zDir)) {
-            //if the point's z value is in the box,
-            if (maxZ >= zPoint && minZ <= zPoint) {
-                zMax = Double.MAX_VALUE;
-                zMin = Double.MIN_VALUE;
-            } else
-                return null;
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        // a box that the ray enters after the best hit so far can't hold a closer hit
+        if (!hitsBox(ray, maxDistance))
+            return null;
+
+        GeoPoint closest = null;
+        Point p0 = ray.getP0();
+        for (Boundable geo : contains) {
+            GeoPoint gp = ((Intersectable) geo).findClosestGeoIntersection(ray, maxDistance);
+            if (gp != null) {
+                double distance = gp.point.distance(p0);
+                if (distance < maxDistance) {
+                    closest = gp;
+                    maxDistance = distance;
+                }
+            }
         }
-        //if the vector's z coordinate is not zero, we need to check if we have values
-        //where (MaxZ - zPoint) / zDir > (MinZ - zPoint) / zDir
-        else {
-            double t1 = (maxZ - zPoint) / zDir;
-            double t2 = (minZ - zPoint) / zDir;
-            zMin = Math.min(t1, t2);
-            zMax = Math.max(t1, t2);
+        return closest;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minTransmittance) {
+        if (!hitsBox(ray, maxDistance))
+            return ktr;
+
+        for (Boundable geo : contains) {
+            ktr = ((Intersectable) geo).findTransmittanceHelper(ray, maxDistance, ktr, minTransmittance);
+            if (ktr == Double3.ZERO)
+                return ktr;
         }
+        return ktr;
+    }
 
-        //check if such a point exists
-        if (xMin > yMax || xMin > zMax || yMin > xMax || yMin > zMax || zMin > yMax || zMin > xMax)
-            return null; // if not return null
-            // if they do, return all the intersection points of the contents of the box
-        else {
-            List<GeoPoint> lst = new LinkedList<>();
-            for (Boundable geo : contains) {
-                List<GeoPoint> pointLst = ((Intersectable) geo).findGeoIntersections(ray, maxDistance);
-                if (pointLst != null)
-                    lst.addAll(pointLst);
+    /**
+     * the slab test of the ray against the box
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance along the ray
+     * @return true if the ray enters the box before the max distance
+     */
+    boolean hitsBox(Ray ray, double maxDistance) {
+        Vector dir = ray.getDir();
+        Point point = ray.getP0();
+
+        double tNear = 0;
+        double tFar = maxDistance;
+        for (int axis = 0; axis < 3; axis++) {
+            double d = axis == 0 ? dir.getX() : (axis == 1 ? dir.getY() : dir.getZ());
+            double o = axis == 0 ? point.getX() : (axis == 1 ? point.getY() : point.getZ());
+            double min = getMin(axis), max = getMax(axis);
+            // the ray is parallel to the slab, so it has to start inside it
+            if (isZero(d)) {
+                if (o < min || o > max)
+                    return false;
+                continue;
             }
-            return lst;
+            double inv = 1 / d;
+            double t1 = (min - o) * inv;
+            double t2 = (max - o) * inv;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+            if (tNear > tFar)
+                return false;
         }
+        return true;
     }
 
     @Override
@@ -258,61 +267,31 @@ public class AxisAlignedBoundingBox extends Intersectable implements Boundable {
     /**
      * Creates an AxisAlignedBoundingBox tree given a list of boundable objects.
      * Used to create an axis aligned bounding box tree for a scene with geometries.
+     * The tree is built with a {@link SAHBuilder}, the default builder of {@link Geometries}.
      *
      * @param boundables a list of boundable objects
      * @return axis aligned bounding box tree if size > 0, else null
      */
     public static AxisAlignedBoundingBox createTree(List<Boundable> boundables) {
-        //if we got 0 boundables to bound
-        if (boundables.size() == 0)
-            return null;
-
-        else {
-            //turn the list of boundables into a list of boxes that encapsulate the boundables
-            ArrayList<AxisAlignedBoundingBox> boxes = new ArrayList<>(boundables.stream().map(Boundable::getAxisAlignedBoundingBox).toList());
-            return createTreeRec(boxes);
-        }
+        return createTree(boundables, new SAHBuilder());
     }
 
     /**
-     * Create a tree of boxes given a list of boxes to turn into a tree
+     * Creates an AxisAlignedBoundingBox tree given a list of boundable objects and the builder
+     * that decides how the boxes are split into sub-trees.
      *
-     * @param boxes list of boxes
-     * @return axis aligned bounding box tree
+     * @param boundables a list of boundable objects
+     * @param builder    the strategy used to build the tree
+     * @return axis aligned bounding box tree if size > 0, else null
      */
-    private static AxisAlignedBoundingBox createTreeRec(ArrayList<AxisAlignedBoundingBox> boxes) {
-        //create a box that encapsulates all the other ones
-        AxisAlignedBoundingBox node = new AxisAlignedBoundingBox(boxes);
-
-        //find the longest edge of the box
-        double x = node.maxX - node.minX;
-        double y = node.maxY - node.minY;
-        double z = node.maxZ - node.minZ;
-        int edge = x > y && x > z ? 0 : (y > x && y > z ? 1 : 2);
-        int numberOfBoxes = boxes.size();
-
-        //base of the recursion, if the list has 1 box, return it
-        if (numberOfBoxes == 1)
-            return boxes.get(0);
-
-            //base of the recursion, if the list has 2 boxes
-        else if (numberOfBoxes <= 2) {
-            for (AxisAlignedBoundingBox box : boxes)
-                node.addToContains(box);//add them to this box
-        }
-        //recursion step, if we have more boxes left
-        else {
-            ArrayList<AxisAlignedBoundingBox> left, right;
-            //sort the boxes according to how they align on that edge
-            sortBoxesByAxis(boxes, edge);
-            //split the list into 2 even pieces
-            left = new ArrayList<>(boxes.subList(0, numberOfBoxes / 2));
-            right = new ArrayList<>(boxes.subList(numberOfBoxes / 2, numberOfBoxes));
-            //go down the recursion
-            node.addToContains(createTreeRec(left));
-            node.addToContains(createTreeRec(right));
-        }
-        return node;
+    public static AxisAlignedBoundingBox createTree(List<Boundable> boundables, BVHBuilder builder) {
+        //if we got 0 boundables to bound
+        if (boundables.size() == 0)
+            return null;
+
+        //turn the list of boundables into a list of boxes that encapsulate the boundables
+        ArrayList<AxisAlignedBoundingBox> boxes = new ArrayList<>(boundables.stream().map(Boundable::getAxisAlignedBoundingBox).toList());
+        return builder.build(boxes);
     }
 
     /**
@@ -323,15 +302,63 @@ public class AxisAlignedBoundingBox extends Intersectable implements Boundable {
      */
     public static void sortBoxesByAxis(ArrayList<AxisAlignedBoundingBox> boxes, int axis) {
         switch (axis) {
-            case 0:
-                boxes.sort((AxisAlignedBoundingBox x, AxisAlignedBoundingBox y) -> Double.compare(y.midX, x.midX));
-            case 1:
-                boxes.sort((AxisAlignedBoundingBox x, AxisAlignedBoundingBox y) -> Double.compare(y.midY, x.midY));
-            case 2:
-                boxes.sort((AxisAlignedBoundingBox x, AxisAlignedBoundingBox y) -> Double.compare(y.midZ, x.midZ));
+            case 0 -> boxes.sort((AxisAlignedBoundingBox x, AxisAlignedBoundingBox y) -> Double.compare(y.midX, x.midX));
+            case 1 -> boxes.sort((AxisAlignedBoundingBox x, AxisAlignedBoundingBox y) -> Double.compare(y.midY, x.midY));
+            case 2 -> boxes.sort((AxisAlignedBoundingBox x, AxisAlignedBoundingBox y) -> Double.compare(y.midZ, x.midZ));
         }
     }
 
+    /**
+     * Gets the minimum value of the box on the given axis
+     *
+     * @param axis 0 for x, 1 for y and 2 for z
+     * @return The value
+     */
+    public double getMin(int axis) {
+        return axis == 0 ? minX : (axis == 1 ? minY : minZ);
+    }
+
+    /**
+     * Gets the maximum value of the box on the given axis
+     *
+     * @param axis 0 for x, 1 for y and 2 for z
+     * @return The value
+     */
+    public double getMax(int axis) {
+        return axis == 0 ? maxX : (axis == 1 ? maxY : maxZ);
+    }
+
+    /**
+     * Gets the middle of the box on the given axis (the centroid used when splitting)
+     *
+     * @param axis 0 for x, 1 for y and 2 for z
+     * @return The value
+     */
+    public double getMid(int axis) {
+        return axis == 0 ? midX : (axis == 1 ? midY : midZ);
+    }
+
+    /**
+     * Calculates the surface area of the box, the measure the surface area heuristic is based on
+     *
+     * @return the surface area
+     */
+    public double surfaceArea() {
+        double x = maxX - minX;
+        double y = maxY - minY;
+        double z = maxZ - minZ;
+        return 2 * (x * y + y * z + z * x);
+    }
+
+    /**
+     * Gets the objects directly contained in this box
+     *
+     * @return list of boundable objects
+     */
+    List<Boundable> getContains() {
+        return contains;
+    }
+
     /**
      * A function that returns a list of all the geometries kept
      * inside an axis aligned bounding box tree
@@ -0,0 +1,19 @@
+package geometries;
+
+import java.util.List;
+
+/**
+ * A strategy for building a Bounding Volume Hierarchy out of a list of boxes
+ *
+ * @author danielattali, itiskvales
+ */
+public interface BVHBuilder {
+
+    /**
+     * Builds a tree of boxes that bounds all the given boxes
+     *
+     * @param boxes the boxes of the geometries we want to bound (not empty)
+     * @return the root of the tree
+     */
+    AxisAlignedBoundingBox build(List<AxisAlignedBoundingBox> boxes);
+}
@@ -0,0 +1,180 @@
+package geometries;
+
+/**
+ * A report on the quality of a Bounding Volume Hierarchy, used to compare the trees
+ * different {@link BVHBuilder}s create for the same scene.
+ * <br>
+ * The cost is the expected cost of tracing a random ray that hits the root box according to
+ * the Surface Area Heuristic: every box is weighted by the probability of a ray hitting it
+ * (its surface area divided by the surface area of the root).
+ *
+ * @author danielattali, itiskvales
+ */
+public class BVHCostReport {
+    /**
+     * the default cost of testing a ray against a box
+     */
+    public static final double TRAVERSAL_COST = 1.0;
+
+    /**
+     * the default cost of testing a ray against a geometry
+     */
+    public static final double INTERSECTION_COST = 2.0;
+
+    /**
+     * the amount of boxes in the tree
+     */
+    private int nodes;
+
+    /**
+     * the amount of boxes in the tree that contain geometries
+     */
+    private int leaves;
+
+    /**
+     * the amount of geometries in the tree
+     */
+    private int geometries;
+
+    /**
+     * the depth of the deepest box in the tree (the root is at depth 1)
+     */
+    private int maxDepth;
+
+    /**
+     * the expected cost of a ray hitting the root
+     */
+    private double cost;
+
+    /**
+     * the cost of testing a ray against a box
+     */
+    private final double traversalCost;
+
+    /**
+     * the cost of testing a ray against a geometry
+     */
+    private final double intersectionCost;
+
+    /**
+     * ctor for an empty report, use {@link BVHCostReport#of(AxisAlignedBoundingBox)}
+     *
+     * @param traversalCost    the cost of testing a ray against a box
+     * @param intersectionCost the cost of testing a ray against a geometry
+     */
+    BVHCostReport(double traversalCost, double intersectionCost) {
+        this.traversalCost = traversalCost;
+        this.intersectionCost = intersectionCost;
+    }
+
+    /**
+     * Calculate the report of a tree with the default costs
+     *
+     * @param root the root of the tree
+     * @return the report
+     */
+    public static BVHCostReport of(AxisAlignedBoundingBox root) {
+        return of(root, TRAVERSAL_COST, INTERSECTION_COST);
+    }
+
+    /**
+     * Calculate the report of a tree
+     *
+     * @param root             the root of the tree
+     * @param traversalCost    the cost of testing a ray against a box
+     * @param intersectionCost the cost of testing a ray against a geometry
+     * @return the report
+     */
+    public static BVHCostReport of(AxisAlignedBoundingBox root, double traversalCost, double intersectionCost) {
+        BVHCostReport report = new BVHCostReport(traversalCost, intersectionCost);
+        if (root != null)
+            report.visit(root, root.surfaceArea(), 1);
+        return report;
+    }
+
+    /**
+     * add a box and all of its sub-tree to the report
+     *
+     * @param box      the box
+     * @param rootArea the surface area of the root
+     * @param depth    the depth of the box
+     */
+    private void visit(AxisAlignedBoundingBox box, double rootArea, int depth) {
+        int contained = 0;
+        for (Boundable item : box.getContains()) {
+            if (item instanceof AxisAlignedBoundingBox child)
+                visit(child, rootArea, depth + 1);
+            else
+                contained++;
+        }
+        addNode(box.surfaceArea(), rootArea, contained, depth);
+    }
+
+    /**
+     * add a single box to the report
+     *
+     * @param area      the surface area of the box
+     * @param rootArea  the surface area of the root
+     * @param contained the amount of geometries directly inside the box
+     * @param depth     the depth of the box
+     */
+    void addNode(double area, double rootArea, int contained, int depth) {
+        nodes++;
+        maxDepth = Math.max(maxDepth, depth);
+
+        double probability = rootArea == 0 ? 1 : area / rootArea;
+        cost += probability * traversalCost;
+
+        if (contained > 0) {
+            leaves++;
+            geometries += contained;
+            cost += probability * intersectionCost * contained;
+        }
+    }
+
+    /**
+     * @return the amount of boxes in the tree
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the amount of boxes in the tree that contain geometries
+     */
+    public int getLeaves() {
+        return leaves;
+    }
+
+    /**
+     * @return the amount of geometries in the tree
+     */
+    public int getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * @return the depth of the deepest box in the tree
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the expected cost of a ray hitting the root box
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        return "BVHCostReport{" +
+                "cost=" + cost +
+                ", nodes=" + nodes +
+                ", leaves=" + leaves +
+                ", geometries=" + geometries +
+                ", maxDepth=" + maxDepth +
+                '}';
+    }
+}
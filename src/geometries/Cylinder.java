@@ -1,16 +1,14 @@
 package geometries;
 
-import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VecMath.*;
 
 /**
  * Cylinder class will represent a Cylinder in 3D space (cylinder is a finite tube)
@@ -36,6 +34,21 @@ public class Cylinder extends Tube implements Boundable {
      */
     final double length;
 
+    /**
+     * the center of the far cap (at the end of the axis)
+     */
+    private final Point farCenter;
+
+    /**
+     * the center of the near cap (the head of the axis ray) as doubles
+     */
+    private final double cx, cy, cz;
+
+    /**
+     * the direction of the axis as doubles
+     */
+    private final double vx, vy, vz;
+
 
     /** ctor for {@link Cylinder}
      * @param radius a double value that represent the radius of the cylinder
@@ -45,6 +58,17 @@ public class Cylinder extends Tube implements Boundable {
     public Cylinder(double radius, Ray axisRay, double length) {
         super(radius, axisRay);
         this.length = length;
+
+        // the caps are calculated once, the intersection only works with doubles
+        Point p0 = axisRay.getP0();
+        Vector v = axisRay.getDir();
+        cx = p0.getX();
+        cy = p0.getY();
+        cz = p0.getZ();
+        vx = v.getX();
+        vy = v.getY();
+        vz = v.getZ();
+        farCenter = axisRay.getPoint(length);
     }
 
     @Override
@@ -56,12 +80,11 @@ public class Cylinder extends Tube implements Boundable {
 
         Vector vec1 = axisRay.getP0().subtract(point);
 
-        // p.s. I created getPoint know because I knew we will be needing it in the future so DRY.
         // if the condition is true the point is in the center of the top
-        if(axisRay.getPoint(length).equals(point))
+        if(farCenter.equals(point))
             return axisRay.getDir();
 
-        Vector vec2 = axisRay.getPoint(length).subtract(point);
+        Vector vec2 = farCenter.subtract(point);
         // let's check if vec1 or vec2 is orthogonal to axis vector
         // if one of the is orthogonal to the axis vector vec_i * v = 0 we know for sure that the point is on one of the edges
         // if vec1 * dir == 0 so the point on the edge (where p0 is) if vec2 * dir == 0 the point is on the edge (the other edge)
@@ -74,58 +97,101 @@ public class Cylinder extends Tube implements Boundable {
         return super.getNormal(point);
     }
 
-    @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> intersections = super.findGeoIntersectionsHelper(ray, maxDistance);
-        Point p0 = axisRay.getP0();
-        Vector dir = axisRay.getDir();
-        if (intersections != null) {
-            List<GeoPoint> temp = new LinkedList<>();
-            for (GeoPoint g : intersections) {
-                double pointHeight = alignZero(g.point.subtract(p0).dotProduct(dir));
-                if (pointHeight > 0 && pointHeight < length) {
-                    temp.add(g);
-                }
+    /**
+     * the intersection of a ray with the cylinder - the round part between the caps and the two caps
+     * (the rims of the caps are not part of the cylinder), calculated on doubles without creating any object
+     *
+     * @param ray         the ray
+     * @param minDistance only hits further than this are considered (0 for the closest hit)
+     * @param maxDistance the max distance from which there is no intersection
+     * @return the distance along the ray to the closest hit between the min and the max distance,
+     * 0 if there is no such hit
+     */
+    private double findIntersectionDistance(Ray ray, double minDistance, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector d = ray.getDir();
+        double dx = d.getX(), dy = d.getY(), dz = d.getZ();
+        // x = p0 - the center of the near cap
+        double xx = p0.getX() - cx, xy = p0.getY() - cy, xz = p0.getZ() - cz;
+        double dv = dot(dx, dy, dz, vx, vy, vz);
+        double xv = dot(xx, xy, xz, vx, vy, vz);
+
+        double best = Double.POSITIVE_INFINITY;
+
+        // the round part - the hits of the infinite tube between the caps
+        double a = 1 - dv * dv;
+        if (!isZero(a)) {
+            double b = 2 * dot(dx, dy, dz, xx, xy, xz) - 2 * dv * xv;
+            double c = lengthSquared(xx, xy, xz) - xv * xv - radius * radius;
+            double delta = alignZero(b * b - 4 * a * c);
+            if (delta > 0) {
+                double sqrt = Math.sqrt(delta);
+                best = closer(best, alignZero(-(b + sqrt) / (2 * a)), xv, dv, minDistance, maxDistance);
+                best = closer(best, alignZero(-(b - sqrt) / (2 * a)), xv, dv, minDistance, maxDistance);
             }
-            if (temp.isEmpty())
-                intersections = null;
-            else
-                intersections = temp;
         }
 
-        List<GeoPoint> planeIntersection = new Plane(p0, dir).findGeoIntersections(ray);
-        if (planeIntersection != null) {
-            GeoPoint point = planeIntersection.get(0);
-            if (point.point.equals(p0) || alignZero(point.point.subtract(p0).lengthSquared() - radius * radius) < 0) {
-                if (intersections == null) {
-                    intersections = new LinkedList<>();
-                }
-                point.geometry = this;
-                intersections.add(point);
-            }
+        // the caps - the planes orthogonal to the axis at its two ends, inside the radius
+        if (!isZero(dv)) {
+            best = closerOnCap(best, alignZero(-xv / dv), xx, xy, xz, dx, dy, dz, 0, minDistance, maxDistance);
+            best = closerOnCap(best, alignZero((length - xv) / dv), xx, xy, xz, dx, dy, dz, length, minDistance, maxDistance);
         }
 
-        Point p1 = p0.add(dir.scale(length));
-
-        planeIntersection = new Plane(p1, dir).findGeoIntersections(ray);
-        if (planeIntersection != null) {
-            GeoPoint point = planeIntersection.get(0);
-            if (point.point.equals(p1) || alignZero(point.point.subtract(p1).lengthSquared() - radius * radius) < 0) {
-                if (intersections == null) {
-                    intersections = new LinkedList<>();
-                }
-                point.geometry = this;
-                intersections.add(point);
-            }
-        }
+        return best == Double.POSITIVE_INFINITY ? 0 : best;
+    }
 
-        if (intersections != null) {
-            for (GeoPoint g : intersections) {
-                g.geometry = this;
-            }
-        }
+    /**
+     * @param best        the closest hit so far
+     * @param t           the distance to a hit on the infinite tube
+     * @param xv          the height of the head of the ray along the axis
+     * @param dv          the cosine between the ray and the axis
+     * @param minDistance the min distance
+     * @param maxDistance the max distance
+     * @return t if it is a hit between the caps and between the distances and closer than the best, else the best
+     */
+    private double closer(double best, double t, double xv, double dv, double minDistance, double maxDistance) {
+        if (t <= minDistance || t >= best || alignZero(maxDistance - t) <= 0)
+            return best;
+        double height = alignZero(xv + t * dv);
+        return height > 0 && height < length ? t : best;
+    }
 
-        return intersections;
+    /**
+     * @param best        the closest hit so far
+     * @param t           the distance to the plane of a cap
+     * @param xx          the head of the ray relative to the center of the near cap
+     * @param dx          the direction of the ray
+     * @param height      the height of the cap along the axis (0 or the length)
+     * @param minDistance the min distance
+     * @param maxDistance the max distance
+     * @return t if it is a hit inside the cap and between the distances and closer than the best, else the best
+     */
+    private double closerOnCap(double best, double t, double xx, double xy, double xz, double dx, double dy, double dz,
+                               double height, double minDistance, double maxDistance) {
+        if (t <= minDistance || t >= best || alignZero(t - maxDistance) >= 0)
+            return best;
+        // the hit relative to the center of the cap
+        double wx = xx + t * dx - height * vx, wy = xy + t * dy - height * vy, wz = xz + t * dz - height * vz;
+        return isZeroVector(wx, wy, wz) || alignZero(lengthSquared(wx, wy, wz) - radius * radius) < 0 ? t : best;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = findIntersectionDistance(ray, 0, maxDistance);
+        if (t == 0)
+            return null;
+
+        // a line crosses the surface of a cylinder at most twice
+        double second = findIntersectionDistance(ray, t, maxDistance);
+        if (second == 0)
+            return List.of(new GeoPoint(this, ray.getPoint(t)));
+        return List.of(new GeoPoint(this, ray.getPoint(t)), new GeoPoint(this, ray.getPoint(second)));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = findIntersectionDistance(ray, 0, maxDistance);
+        return t == 0 ? null : new GeoPoint(this, ray.getPoint(t));
     }
 
 
@@ -150,7 +216,7 @@ public class Cylinder extends Tube implements Boundable {
     public AxisAlignedBoundingBox getAxisAlignedBoundingBox() {
         double minX, minY, minZ, maxX, maxY, maxZ;
         Point o1 = axisRay.getP0(); // middle of first end
-        Point o2 = o1.add(axisRay.getDir().scale(length)); // middle of second end
+        Point o2 = farCenter; // middle of second end
         double o2X = o2.getX();
         double o1X = o1.getX();
         // middle point of side circles plus a radius offset is a good approximation for the bounding box
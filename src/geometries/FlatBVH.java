@@ -0,0 +1,631 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.isZero;
+
+/**
+ * A Bounding Volume Hierarchy compiled from a tree of {@link AxisAlignedBoundingBox} objects into flat arrays.
+ * <br>
+ * The tree is traversed with an explicit stack instead of recursion, the bounds of all the nodes sit next to each
+ * other in one array, and the children of a node are visited nearest first according to the direction of the ray.
+ * <br>
+ * A packet of coherent rays (see {@link Intersectable#findClosestGeoIntersections(Ray[])}) goes down the tree
+ * together, a node is visited once for all the rays that hit its box, and once only a single ray is left it
+ * continues on its own.
+ * <br>
+ * Optionally the boxes (and spheres) of all the geometries of a leaf are tested at once, laid out in SIMD lanes
+ * (see {@link GeometryLanes}), so only the geometries the ray may hit are intersected.
+ * <br>
+ * contains:
+ * <ul>
+ *     <li>{@link FlatBVH#bounds} - 6 values for each node (minX, minY, minZ, maxX, maxY, maxZ)</li>
+ *     <li>{@link FlatBVH#nodes} - {@link FlatBVH#NODE_SIZE} values for each node (children, geometries and split axis)</li>
+ *     <li>{@link FlatBVH#geometries} - the geometries of all the leaves, each leaf owns a contiguous range</li>
+ * </ul>
+ *
+ * @author danielattali, itiskvales
+ */
+public class FlatBVH extends Intersectable {
+    /**
+     * the amount of int values stored for each node
+     */
+    private static final int NODE_SIZE = 5;
+
+    /**
+     * offset of the index of the first child
+     */
+    private static final int FIRST_CHILD = 0;
+
+    /**
+     * offset of the amount of children (children are stored one after the other)
+     */
+    private static final int CHILD_COUNT = 1;
+
+    /**
+     * offset of the index of the first geometry in {@link FlatBVH#geometries}
+     */
+    private static final int FIRST_GEOMETRY = 2;
+
+    /**
+     * offset of the amount of geometries in the node
+     */
+    private static final int GEOMETRY_COUNT = 3;
+
+    /**
+     * offset of the axis the two children are split on, negative if the second child is the lower one
+     * (stored as axis + 1 so the sign is never lost)
+     */
+    private static final int SPLIT_AXIS = 4;
+
+    /**
+     * the bounds of the nodes
+     */
+    private final double[] bounds;
+
+    /**
+     * the structure of the nodes
+     */
+    private final int[] nodes;
+
+    /**
+     * the geometries of the leaves
+     */
+    private final Intersectable[] geometries;
+
+    /**
+     * the initial size of the traversal stack (it grows if the tree is deeper)
+     */
+    private static final int STACK_SIZE = 64;
+
+    /**
+     * the most rays a packet is traversed with (the rays that reach a node are kept as the bits of an int),
+     * bigger packets are traced ray by ray
+     */
+    private static final int MAX_PACKET_RAYS = Integer.SIZE;
+
+    /**
+     * a packet with fewer active rays than this has diverged, the rays that are left are traced on their own
+     */
+    private static final int MIN_PACKET_RAYS = 2;
+
+    /**
+     * the lanes of the geometries for the leaf tests (null if the geometries of a leaf are tested one by one)
+     */
+    private final GeometryLanes lanes;
+
+    /**
+     * tests a ray against all the geometries of a leaf at once (null if the geometries are tested one by one)
+     */
+    private final LaneTester laneTester;
+
+    /**
+     * Compile a tree of boxes into a flat BVH
+     *
+     * @param root the root of the tree
+     */
+    public FlatBVH(AxisAlignedBoundingBox root) {
+        this(root, false);
+    }
+
+    /**
+     * Compile a tree of boxes into a flat BVH
+     *
+     * @param root the root of the tree
+     * @param simd true to test the boxes (and spheres) of all the geometries of a leaf at once before their exact
+     *             intersections, with the JDK Vector API when the jdk.incubator.vector module is present and with
+     *             scalar code otherwise
+     */
+    public FlatBVH(AxisAlignedBoundingBox root, boolean simd) {
+        int[] count = new int[2];
+        countTree(root, count);
+
+        bounds = new double[count[0] * 6];
+        nodes = new int[count[0] * NODE_SIZE];
+        geometries = new Intersectable[count[1]];
+
+        // the next free node and the next free geometry
+        compile(root, 0, new int[]{1, 0});
+
+        lanes = simd ? new GeometryLanes(geometries) : null;
+        laneTester = simd ? LaneTester.get(true) : null;
+    }
+
+    /**
+     * @return true if the JDK Vector API can be used for the leaf tests (the jdk.incubator.vector module is present)
+     */
+    public static boolean isVectorApiAvailable() {
+        return LaneTester.isVectorAvailable();
+    }
+
+    /**
+     * count the nodes and geometries of a tree
+     *
+     * @param box   the root of the tree
+     * @param count the counters (nodes, geometries)
+     */
+    private static void countTree(AxisAlignedBoundingBox box, int[] count) {
+        count[0]++;
+        for (Boundable item : box.getContains()) {
+            if (item instanceof AxisAlignedBoundingBox child)
+                countTree(child, count);
+            else
+                count[1]++;
+        }
+    }
+
+    /**
+     * write a box and all of its sub-tree into the arrays
+     *
+     * @param box   the box
+     * @param index the index reserved for the box
+     * @param next  the index of the next free node and of the next free geometry, advanced by the sub-tree
+     */
+    private void compile(AxisAlignedBoundingBox box, int index, int[] next) {
+        for (int axis = 0; axis < 3; axis++) {
+            bounds[index * 6 + axis] = box.getMin(axis);
+            bounds[index * 6 + axis + 3] = box.getMax(axis);
+        }
+
+        List<AxisAlignedBoundingBox> children = new ArrayList<>();
+        int node = index * NODE_SIZE;
+        nodes[node + FIRST_GEOMETRY] = next[1];
+        for (Boundable item : box.getContains()) {
+            if (item instanceof AxisAlignedBoundingBox child)
+                children.add(child);
+            else
+                geometries[next[1]++] = (Intersectable) item;
+        }
+        nodes[node + GEOMETRY_COUNT] = next[1] - nodes[node + FIRST_GEOMETRY];
+
+        // the children are stored one after the other, so we reserve their indexes before going down the tree
+        int first = next[0];
+        next[0] += children.size();
+        nodes[node + FIRST_CHILD] = first;
+        nodes[node + CHILD_COUNT] = children.size();
+
+        if (children.size() == 2) {
+            // the axis on which the centers of the children are the furthest apart
+            int axis = 0;
+            double best = -1;
+            for (int i = 0; i < 3; i++) {
+                double d = Math.abs(children.get(0).getMid(i) - children.get(1).getMid(i));
+                if (d > best) {
+                    best = d;
+                    axis = i;
+                }
+            }
+            boolean firstIsLower = children.get(0).getMid(axis) <= children.get(1).getMid(axis);
+            nodes[node + SPLIT_AXIS] = firstIsLower ? axis + 1 : -(axis + 1);
+        }
+
+        for (int i = 0; i < children.size(); i++)
+            compile(children.get(i), first + i, next);
+    }
+
+    /**
+     * @return all the geometries in the BVH
+     */
+    public List<Intersectable> getAllGeometries() {
+        return List.of(geometries);
+    }
+
+    /**
+     * @return a report of the expected cost of the BVH
+     */
+    public BVHCostReport getCostReport() {
+        BVHCostReport report = new BVHCostReport(BVHCostReport.TRAVERSAL_COST, BVHCostReport.INTERSECTION_COST);
+        double rootArea = surfaceArea(0);
+        int[] stack = new int[STACK_SIZE * 2];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = 1;
+        while (top > 0) {
+            int depth = stack[--top];
+            int index = stack[--top];
+            int node = index * NODE_SIZE;
+            report.addNode(surfaceArea(index), rootArea, nodes[node + GEOMETRY_COUNT], depth);
+            for (int i = 0; i < nodes[node + CHILD_COUNT]; i++) {
+                if (top + 2 > stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = nodes[node + FIRST_CHILD] + i;
+                stack[top++] = depth + 1;
+            }
+        }
+        return report;
+    }
+
+    /**
+     * @param index the index of the node
+     * @return the surface area of the node
+     */
+    private double surfaceArea(int index) {
+        int b = index * 6;
+        double x = bounds[b + 3] - bounds[b];
+        double y = bounds[b + 4] - bounds[b + 1];
+        double z = bounds[b + 5] - bounds[b + 2];
+        return 2 * (x * y + y * z + z * x);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        RayData r = new RayData(ray);
+
+        List<GeoPoint> intersections = null;
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int index = stack[--top];
+            if (!r.hitsBox(bounds, index * 6, maxDistance))
+                continue;
+
+            int node = index * NODE_SIZE;
+            int firstGeometry = nodes[node + FIRST_GEOMETRY];
+            int end = firstGeometry + nodes[node + GEOMETRY_COUNT];
+            int candidates = cullLeaf(node, r, maxDistance);
+            for (int i = firstGeometry; i < end; i++) {
+                if ((candidates & 1 << (i - firstGeometry)) == 0)
+                    continue;
+                List<GeoPoint> points = geometries[i].findGeoIntersections(ray, maxDistance);
+                if (points != null) {
+                    if (intersections == null)
+                        intersections = new LinkedList<>(points);
+                    else
+                        intersections.addAll(points);
+                }
+            }
+
+            int childCount = nodes[node + CHILD_COUNT];
+            if (top + childCount > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + childCount));
+            top = pushChildren(stack, top, node, r);
+        }
+        return intersections;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        return findClosest(ray, new RayData(ray), 0, maxDistance);
+    }
+
+    /**
+     * find the closest intersection of a single ray in a sub-tree
+     *
+     * @param ray         the ray
+     * @param r           the data of the ray for the box tests
+     * @param root        the index of the root of the sub-tree
+     * @param maxDistance the max distance from which there is no intersection
+     * @return the closest GeoPoint, or null if there is no intersection closer than the max distance
+     */
+    private GeoPoint findClosest(Ray ray, RayData r, int root, double maxDistance) {
+        Point p0 = ray.getP0();
+
+        GeoPoint closest = null;
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = root;
+
+        while (top > 0) {
+            int index = stack[--top];
+            // the max distance shrinks with every hit, so nodes behind the best hit so far are skipped
+            if (!r.hitsBox(bounds, index * 6, maxDistance))
+                continue;
+
+            int node = index * NODE_SIZE;
+            int firstGeometry = nodes[node + FIRST_GEOMETRY];
+            int end = firstGeometry + nodes[node + GEOMETRY_COUNT];
+            int candidates = cullLeaf(node, r, maxDistance);
+            for (int i = firstGeometry; i < end; i++) {
+                if ((candidates & 1 << (i - firstGeometry)) == 0)
+                    continue;
+                GeoPoint gp = geometries[i].findClosestGeoIntersection(ray, maxDistance);
+                if (gp != null) {
+                    double distance = gp.point.distance(p0);
+                    if (distance < maxDistance) {
+                        closest = gp;
+                        maxDistance = distance;
+                    }
+                }
+            }
+
+            int childCount = nodes[node + CHILD_COUNT];
+            if (top + childCount > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + childCount));
+            top = pushChildren(stack, top, node, r);
+        }
+        return closest;
+    }
+
+    @Override
+    protected void findClosestGeoIntersectionsHelper(Ray[] rays, double[] maxDistances, GeoPoint[] closest) {
+        if (rays.length > MAX_PACKET_RAYS) {
+            super.findClosestGeoIntersectionsHelper(rays, maxDistances, closest);
+            return;
+        }
+
+        RayData[] data = new RayData[rays.length];
+        for (int k = 0; k < rays.length; k++)
+            data[k] = new RayData(rays[k]);
+
+        // the stack holds pairs of a node and the rays that reached its parent (a bit for every ray)
+        int[] stack = new int[STACK_SIZE * 2];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = rays.length == MAX_PACKET_RAYS ? -1 : (1 << rays.length) - 1;
+
+        while (top > 0) {
+            int mask = stack[--top];
+            int index = stack[--top];
+
+            // interval culling - every ray is tested against the box up to its own best hit so far
+            int active = 0;
+            for (int m = mask; m != 0; m &= m - 1) {
+                int k = Integer.numberOfTrailingZeros(m);
+                if (data[k].hitsBox(bounds, index * 6, maxDistances[k]))
+                    active |= 1 << k;
+            }
+            if (active == 0)
+                continue;
+
+            if (Integer.bitCount(active) < MIN_PACKET_RAYS) {
+                // the packet diverged, the ray that is left goes through the rest of the sub-tree on its own
+                int k = Integer.numberOfTrailingZeros(active);
+                GeoPoint gp = findClosest(rays[k], data[k], index, maxDistances[k]);
+                if (gp != null) {
+                    double distance = gp.point.distance(rays[k].getP0());
+                    if (distance < maxDistances[k]) {
+                        closest[k] = gp;
+                        maxDistances[k] = distance;
+                    }
+                }
+                continue;
+            }
+
+            int node = index * NODE_SIZE;
+            int firstGeometry = nodes[node + FIRST_GEOMETRY];
+            int end = firstGeometry + nodes[node + GEOMETRY_COUNT];
+            for (int m = active; m != 0; m &= m - 1) {
+                int k = Integer.numberOfTrailingZeros(m);
+                int candidates = cullLeaf(node, data[k], maxDistances[k]);
+                for (int i = firstGeometry; i < end; i++) {
+                    if ((candidates & 1 << (i - firstGeometry)) == 0)
+                        continue;
+                    GeoPoint gp = geometries[i].findClosestGeoIntersection(rays[k], maxDistances[k]);
+                    if (gp != null) {
+                        double distance = gp.point.distance(rays[k].getP0());
+                        if (distance < maxDistances[k]) {
+                            closest[k] = gp;
+                            maxDistances[k] = distance;
+                        }
+                    }
+                }
+            }
+
+            int childCount = nodes[node + CHILD_COUNT];
+            if (top + childCount * 2 > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + childCount * 2));
+            // the rays of a packet are coherent, so the order of the first active ray suits all of them
+            top = pushChildren(stack, top, node, data[Integer.numberOfTrailingZeros(active)], active);
+        }
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minTransmittance) {
+        RayData r = new RayData(ray);
+
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int index = stack[--top];
+            if (!r.hitsBox(bounds, index * 6, maxDistance))
+                continue;
+
+            int node = index * NODE_SIZE;
+            int firstGeometry = nodes[node + FIRST_GEOMETRY];
+            int end = firstGeometry + nodes[node + GEOMETRY_COUNT];
+            int candidates = cullLeaf(node, r, maxDistance);
+            for (int i = firstGeometry; i < end; i++) {
+                if ((candidates & 1 << (i - firstGeometry)) == 0)
+                    continue;
+                ktr = geometries[i].findTransmittanceHelper(ray, maxDistance, ktr, minTransmittance);
+                // the first opaque hit ends the traversal
+                if (ktr == Double3.ZERO)
+                    return ktr;
+            }
+
+            int childCount = nodes[node + CHILD_COUNT];
+            if (top + childCount > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + childCount));
+            top = pushChildren(stack, top, node, r);
+        }
+        return ktr;
+    }
+
+    /**
+     * test a ray against the boxes (and spheres) of all the geometries of a leaf at once
+     *
+     * @param node        the offset of the node in {@link FlatBVH#nodes}
+     * @param r           the ray
+     * @param maxDistance the maximum distance along the ray
+     * @return bit i is set if the ray may hit the geometry i of the node (all bits are set if the geometries
+     * aren't tested in lanes)
+     */
+    private int cullLeaf(int node, RayData r, double maxDistance) {
+        int count = nodes[node + GEOMETRY_COUNT];
+        if (laneTester == null || count == 0 || count > LaneTester.MAX_LANES)
+            return -1;
+        return laneTester.cull(lanes, nodes[node + FIRST_GEOMETRY], count, r, maxDistance);
+    }
+
+    /**
+     * push the children of a node to the traversal stack, the nearest child is pushed last so it is visited first
+     *
+     * @param stack the stack
+     * @param top   the top of the stack
+     * @param node  the offset of the node in {@link FlatBVH#nodes}
+     * @param r     the ray
+     * @return the new top of the stack
+     */
+    private int pushChildren(int[] stack, int top, int node, RayData r) {
+        int first = nodes[node + FIRST_CHILD];
+        int childCount = nodes[node + CHILD_COUNT];
+        if (childCount == 2 && nodes[node + SPLIT_AXIS] != 0) {
+            boolean firstIsNear = isFirstChildNear(node, r);
+            stack[top++] = firstIsNear ? first + 1 : first;
+            stack[top++] = firstIsNear ? first : first + 1;
+        } else {
+            for (int i = childCount - 1; i >= 0; i--)
+                stack[top++] = first + i;
+        }
+        return top;
+    }
+
+    /**
+     * push the children of a node to the traversal stack of a packet, each child with the rays that reached the node
+     *
+     * @param stack the stack (pairs of a node and its rays)
+     * @param top   the top of the stack
+     * @param node  the offset of the node in {@link FlatBVH#nodes}
+     * @param r     the ray which decides the order of the children
+     * @param mask  the rays that reached the node
+     * @return the new top of the stack
+     */
+    private int pushChildren(int[] stack, int top, int node, RayData r, int mask) {
+        int first = nodes[node + FIRST_CHILD];
+        int childCount = nodes[node + CHILD_COUNT];
+        if (childCount == 2 && nodes[node + SPLIT_AXIS] != 0) {
+            boolean firstIsNear = isFirstChildNear(node, r);
+            stack[top++] = firstIsNear ? first + 1 : first;
+            stack[top++] = mask;
+            stack[top++] = firstIsNear ? first : first + 1;
+            stack[top++] = mask;
+        } else {
+            for (int i = childCount - 1; i >= 0; i--) {
+                stack[top++] = first + i;
+                stack[top++] = mask;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * @param node the offset of a node with two children in {@link FlatBVH#nodes}
+     * @param r    the ray
+     * @return true if the ray reaches the first child before the second one
+     */
+    private boolean isFirstChildNear(int node, RayData r) {
+        int split = nodes[node + SPLIT_AXIS];
+        int axis = Math.abs(split) - 1;
+        // the first child is the near one if it is the lower one and the ray goes up the axis (or the opposite)
+        return (split > 0) == (r.dir[axis] >= 0);
+    }
+
+    /**
+     * The data of a ray the box test needs, calculated once for every traversal
+     */
+    static class RayData {
+        /**
+         * the head of the ray
+         */
+        final double[] origin = new double[3];
+
+        /**
+         * the direction of the ray
+         */
+        final double[] dir = new double[3];
+
+        /**
+         * the inverse of the direction of the ray (1 / dir), used to replace division with multiplication
+         */
+        final double[] invDir = new double[3];
+
+        /**
+         * true for every axis the ray is parallel to
+         */
+        final boolean[] parallel = new boolean[3];
+
+        /**
+         * @param ray the ray
+         */
+        RayData(Ray ray) {
+            Point p0 = ray.getP0();
+            Vector v = ray.getDir();
+            origin[0] = p0.getX();
+            origin[1] = p0.getY();
+            origin[2] = p0.getZ();
+            dir[0] = v.getX();
+            dir[1] = v.getY();
+            dir[2] = v.getZ();
+            for (int axis = 0; axis < 3; axis++) {
+                parallel[axis] = isZero(dir[axis]);
+                invDir[axis] = 1 / dir[axis];
+            }
+        }
+
+        /**
+         * the slab test of the ray against a box
+         *
+         * @param bounds      the bounds array
+         * @param offset      the offset of the box in the array
+         * @param maxDistance the maximum distance along the ray
+         * @return the distance along the ray where it enters the box (0 if it starts inside),
+         * or {@link Double#POSITIVE_INFINITY} if it misses the box
+         */
+        double enterBox(double[] bounds, int offset, double maxDistance) {
+            double tNear = 0;
+            double tFar = maxDistance;
+            for (int axis = 0; axis < 3; axis++) {
+                double min = bounds[offset + axis];
+                double max = bounds[offset + axis + 3];
+                if (parallel[axis]) {
+                    // the ray never crosses the slab, so it has to start inside it
+                    if (origin[axis] < min || origin[axis] > max)
+                        return Double.POSITIVE_INFINITY;
+                    continue;
+                }
+                double t1 = (min - origin[axis]) * invDir[axis];
+                double t2 = (max - origin[axis]) * invDir[axis];
+                if (t1 > t2) {
+                    double temp = t1;
+                    t1 = t2;
+                    t2 = temp;
+                }
+                if (t1 > tNear) tNear = t1;
+                if (t2 < tFar) tFar = t2;
+                if (tNear > tFar)
+                    return Double.POSITIVE_INFINITY;
+            }
+            return tNear;
+        }
+
+        /**
+         * @param bounds      the bounds array
+         * @param offset      the offset of the box in the array
+         * @param maxDistance the maximum distance along the ray
+         * @return true if the ray hits the box before the max distance
+         */
+        boolean hitsBox(double[] bounds, int offset, double maxDistance) {
+            return enterBox(bounds, offset, maxDistance) != Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FlatBVH{" +
+                "nodes=" + bounds.length / 6 +
+                ", geometries=" + geometries.length +
+                '}';
+    }
+}
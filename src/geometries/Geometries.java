@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Ray;
 
 import java.util.*;
@@ -18,9 +19,19 @@ public class Geometries extends Intersectable {
     List<Intersectable> geometries;
 
     /**
-     * If true, then the geometries class will use axis aligned bounding box in the calculations, and vice versa.
+     * the strategy used to build the axis aligned bounding box tree
      */
-    public static boolean axisAlignedBoundingBox = false;
+    private BVHBuilder bvhBuilder = new SAHBuilder();
+
+    /**
+     * the acceleration structure used in the calculations, see {@link Geometries#setAccelerationMode(AccelerationMode)}
+     */
+    private AccelerationMode acceleration = AccelerationMode.NONE;
+
+    /**
+     * test the geometries of the leaves of the flat BVH in SIMD lanes, see {@link Geometries#setSimd(boolean)}
+     */
+    private boolean simd = false;
 
     /**
      * ctor for geometries init an empty list of intersectable
@@ -34,66 +45,122 @@ public class Geometries extends Intersectable {
      * @param geometries a list of none specified length of Intersectable object
      */
     public Geometries(Intersectable... geometries) {
-        if (axisAlignedBoundingBox) {
-            this.geometries = List.of(geometries);
+        this.geometries = new LinkedList<>(List.of(geometries));
+    }
 
-            // create a list of all the geometries in the scene
-            List<Intersectable> geos = new ArrayList<>(List.of(geometries));
+    /**
+     * add Intersectable object to our composite
+     * @param geometries a list of none specified length of Intersectable object
+     */
+    public void add(Intersectable... geometries) {
+        if (acceleration != AccelerationMode.NONE) {
+            //create a list of all the geometries already existing in the scene (taking them out of the old tree)
+            List<Intersectable> geos = getAllGeometries();
+            // Add all new geometries to the existing ones and build the tree again
+            geos.addAll(Arrays.asList(geometries));
+            this.geometries = buildTree(geos);
+        } else
+            this.geometries.addAll(Arrays.asList(geometries));
+    }
 
-            // a list of all the boundable geometries in the scene
-            List<Boundable> boundables = new LinkedList<>();
+    /**
+     * @param bvhBuilder the strategy used to build the axis aligned bounding box tree,
+     *                   if the geometries are already in a tree it is built again
+     * @return this according to the Builder Pattern
+     */
+    public Geometries setBVHBuilder(BVHBuilder bvhBuilder) {
+        this.bvhBuilder = bvhBuilder;
+        if (acceleration != AccelerationMode.NONE)
+            this.geometries = buildTree(getAllGeometries());
+        return this;
+    }
 
-            // move all the boundables from geos to boundables list
-            for (Intersectable g : geometries) {
-                if (g instanceof Boundable) {
-                    geos.remove(g);
-                    boundables.add((Boundable) g);
-                }
-            }
+    /**
+     * @param acceleration the acceleration structure used in the calculations, the geometries are arranged again
+     * @return this according to the Builder Pattern
+     */
+    public Geometries setAccelerationMode(AccelerationMode acceleration) {
+        List<Intersectable> all = getAllGeometries();
+        this.acceleration = acceleration;
+        this.geometries = acceleration == AccelerationMode.NONE ? new LinkedList<>(all) : buildTree(all);
+        return this;
+    }
 
-            // create an axis aligned bounding box tree for the boundable geometries and add the tree to the geometry list
-            geos.add(AxisAlignedBoundingBox.createTree(boundables));
-            this.geometries = geos;
-        } else
-            this.geometries = List.of(geometries);
+    /**
+     * test the boxes (and spheres) of the geometries of every leaf of the {@link FlatBVH} at once before their
+     * exact intersections. The JDK Vector API is used when the JVM runs with --add-modules jdk.incubator.vector,
+     * otherwise the same tests run as scalar code. Off by default, used only in {@link AccelerationMode#FLAT_BVH}
+     * @param simd true or false (on or off), the flat BVH is built again
+     * @return this according to the Builder Pattern
+     */
+    public Geometries setSimd(boolean simd) {
+        this.simd = simd;
+        if (acceleration == AccelerationMode.FLAT_BVH)
+            this.geometries = buildTree(getAllGeometries());
+        return this;
     }
 
     /**
-     * add Intersectable object to our composite
-     * @param geometries a list of none specified length of Intersectable object
+     * @return the acceleration structure used in the calculations
      */
-    public void add(Intersectable... geometries) {
-        if (axisAlignedBoundingBox) {
-            //create a list of all the geometries already existing in the scene
-            List<Intersectable> geos = new ArrayList<>();
-            //add all the un-boundable ones to the ones that are bounded in boxes
-            for (Intersectable item : this.geometries) {
-                if (item instanceof Boundable)
-                    geos.addAll(((Boundable) item).getAxisAlignedBoundingBox().getAllGeometries());
-                else
-                    geos.add(item);
+    public AccelerationMode getAccelerationMode() {
+        return acceleration;
+    }
 
-            }
-            // Add all new geometries to the existing ones
-            geos.addAll(Arrays.asList(geometries));
+    /**
+     * @return a report of the expected cost of the bounding volume hierarchy, or null if there is none
+     */
+    public BVHCostReport getTreeCostReport() {
+        for (Intersectable item : this.geometries) {
+            if (item instanceof AxisAlignedBoundingBox tree)
+                return BVHCostReport.of(tree);
+            if (item instanceof FlatBVH bvh)
+                return bvh.getCostReport();
+        }
+        return null;
+    }
+
+    /**
+     * create an axis aligned bounding box tree for the boundable geometries
+     * @param intersectables all the geometries
+     * @return a list of the un-boundable geometries and the tree
+     */
+    private List<Intersectable> buildTree(List<Intersectable> intersectables) {
+        // a list of all the un-boundable geometries in the scene
+        List<Intersectable> geos = new ArrayList<>();
+
+        // a list of all the boundable geometries in the scene
+        List<Boundable> boundables = new ArrayList<>();
+
+        // move all the boundables to the boundables list
+        for (Intersectable g : intersectables) {
+            if (g instanceof Boundable)
+                boundables.add((Boundable) g);
+            else
+                geos.add(g);
+        }
 
-            //a list of all the boundable geometries in the scene
-            List<Boundable> boundables = new ArrayList<>();
+        // create an axis aligned bounding box tree for the boundable geometries and add the tree to the geometry list
+        AxisAlignedBoundingBox tree = AxisAlignedBoundingBox.createTree(boundables, bvhBuilder);
+        if (tree != null)
+            geos.add(acceleration == AccelerationMode.FLAT_BVH ? new FlatBVH(tree, simd) : tree);
+        return geos;
+    }
 
-            //move all the boundables from geos to boundables list
-            for (Intersectable g : geometries) {
-                if (g instanceof Boundable) {
-                    geos.remove(g);
-                    boundables.add((Boundable) g);
-                }
-            }
-            // create an axis aligned bounding box tree for the boundable geometries and add the tree to the geometry list
-            AxisAlignedBoundingBox axisAlignedBoundingBox = AxisAlignedBoundingBox.createTree(boundables);
-            if (axisAlignedBoundingBox != null)
-                geos.add(axisAlignedBoundingBox);
-            this.geometries = geos;
-        } else
-            this.geometries.addAll(Arrays.asList(geometries));
+    /**
+     * @return all the geometries in the composite, the ones inside the tree included
+     */
+    private List<Intersectable> getAllGeometries() {
+        List<Intersectable> geos = new ArrayList<>();
+        for (Intersectable item : this.geometries) {
+            if (item instanceof AxisAlignedBoundingBox tree)
+                geos.addAll(tree.getAllGeometries());
+            else if (item instanceof FlatBVH bvh)
+                geos.addAll(bvh.getAllGeometries());
+            else
+                geos.add(item);
+        }
+        return geos;
     }
 
     /**
@@ -103,7 +170,7 @@ public class Geometries extends Intersectable {
     public void addAll(List<Intersectable> geometries) {
         if(geometries == null)
             return;
-        this.geometries.addAll(geometries);
+        add(geometries.toArray(new Intersectable[0]));
     }
 
 
@@ -122,6 +189,41 @@ public class Geometries extends Intersectable {
         return intersections;
     }
 
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+        for (Intersectable g : geometries) {
+            // every hit we find shrinks the max distance for the rest of the geometries
+            GeoPoint gp = g.findClosestGeoIntersection(ray, maxDistance);
+            if (gp != null) {
+                double distance = gp.point.distance(ray.getP0());
+                if (distance < maxDistance) {
+                    closest = gp;
+                    maxDistance = distance;
+                }
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    protected void findClosestGeoIntersectionsHelper(Ray[] rays, double[] maxDistances, GeoPoint[] closest) {
+        // a flat BVH traverses its nodes once for the whole packet, the rest go ray by ray
+        for (Intersectable g : geometries)
+            g.findClosestGeoIntersectionsHelper(rays, maxDistances, closest);
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minTransmittance) {
+        for (Intersectable g : geometries) {
+            ktr = g.findTransmittanceHelper(ray, maxDistance, ktr, minTransmittance);
+            // the light is blocked, there is no need to look any further
+            if (ktr == Double3.ZERO)
+                return ktr;
+        }
+        return ktr;
+    }
+
     /**
      * @return the list of geometry in the Composite patter
      */
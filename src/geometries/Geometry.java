@@ -58,6 +58,14 @@ public abstract class Geometry extends Intersectable {
         return emission;
     }
 
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minTransmittance) {
+        // if a single hit is enough to block the light we only need to know if there is any hit at all
+        if (material.kT.product(ktr).lowerThan(minTransmittance))
+            return findClosestGeoIntersectionHelper(ray, maxDistance) == null ? ktr : Double3.ZERO;
+        return super.findTransmittanceHelper(ray, maxDistance, ktr, minTransmittance);
+    }
+
     // ==================== Abstract Methods ====================
 
     /**
@@ -0,0 +1,71 @@
+package geometries;
+
+import primitives.Point;
+
+/**
+ * The bounding boxes and spheres of the geometries of a {@link FlatBVH} laid out in lanes (structure of arrays),
+ * so a {@link LaneTester} can test a ray against all the geometries of a leaf at once.
+ * <br>
+ * Lane i belongs to the geometry i of the BVH, the geometries of a leaf are contiguous so they are neighbouring
+ * lanes. The boxes and spheres are grown by {@link GeometryLanes#MARGIN}, the lane tests only skip geometries the
+ * ray surely misses and the exact intersection of the geometry decides the rest.
+ *
+ * @author danielattali, itiskvales
+ */
+class GeometryLanes {
+    /**
+     * how much the boxes and spheres are grown, so rounding never drops a hit the exact test would find
+     */
+    static final double MARGIN = 1e-7;
+
+    /**
+     * the lower bounds of the boxes, one array for every axis
+     */
+    final double[][] min = new double[3][];
+
+    /**
+     * the upper bounds of the boxes, one array for every axis
+     */
+    final double[][] max = new double[3][];
+
+    /**
+     * the centers of the spheres, one array for every axis
+     */
+    final double[][] center = new double[3][];
+
+    /**
+     * the radius of the spheres squared, infinite for the geometries that are not spheres (so they always pass)
+     */
+    final double[] radiusSquared;
+
+    /**
+     * @param geometries the geometries of the BVH (all of them are {@link Boundable})
+     */
+    GeometryLanes(Intersectable[] geometries) {
+        int n = geometries.length;
+        for (int axis = 0; axis < 3; axis++) {
+            min[axis] = new double[n];
+            max[axis] = new double[n];
+            center[axis] = new double[n];
+        }
+        radiusSquared = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            AxisAlignedBoundingBox box = ((Boundable) geometries[i]).getAxisAlignedBoundingBox();
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis][i] = box == null ? Double.NEGATIVE_INFINITY : box.getMin(axis) - MARGIN;
+                max[axis][i] = box == null ? Double.POSITIVE_INFINITY : box.getMax(axis) + MARGIN;
+            }
+
+            if (geometries[i] instanceof Sphere sphere) {
+                Point c = sphere.getCenter();
+                center[0][i] = c.getX();
+                center[1][i] = c.getY();
+                center[2][i] = c.getZ();
+                double radius = sphere.getRadius() + MARGIN;
+                radiusSquared[i] = radius * radius;
+            } else
+                radiusSquared[i] = Double.POSITIVE_INFINITY;
+        }
+    }
+}
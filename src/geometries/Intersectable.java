@@ -1,8 +1,10 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -50,6 +52,125 @@ public abstract class Intersectable {
         return findGeoIntersectionsHelper(ray, maxDistance);
     }
 
+    /**
+     * function findClosestGeoIntersection() will return only the closest intersection point between a ray and the object
+     * @param ray a ray which will intersect the object
+     * @return the closest GeoPoint, or null if there is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * function findClosestGeoIntersection() will return only the closest intersection point between a ray and the object
+     * which is closer than the max distance (using the NVI Pattern)
+     * @param ray a ray which will intersect the object
+     * @param maxDistance the max distance from which there is no intersection (the distance of the best hit so far)
+     * @return the closest GeoPoint, or null if there is no intersection closer than the max distance
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * the default implementation finds all the intersections and picks the closest one, composites and geometries
+     * that can do better (prune by the max distance, skip building lists) override it
+     * @param ray a ray which will intersect the object
+     * @param maxDistance the max distance from which there is no intersection
+     * @return the closest GeoPoint, or null if there is no intersection closer than the max distance
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> points = findGeoIntersectionsHelper(ray, maxDistance);
+        if (points == null)
+            return null;
+
+        Point p0 = ray.getP0();
+        GeoPoint closest = null;
+        double closestDistance = maxDistance * maxDistance;
+        for (GeoPoint gp : points) {
+            double distance = gp.point.distanceSquared(p0);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = gp;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * function findClosestGeoIntersections() will return the closest intersection of every ray of a packet (a bundle of
+     * neighbouring rays, like the primary rays of a few pixels next to each other)
+     * @param rays the rays of the packet
+     * @return the closest GeoPoint of every ray (null for a ray without an intersection), in the order of the rays
+     */
+    public final GeoPoint[] findClosestGeoIntersections(Ray[] rays) {
+        double[] maxDistances = new double[rays.length];
+        Arrays.fill(maxDistances, Double.POSITIVE_INFINITY);
+        GeoPoint[] closest = new GeoPoint[rays.length];
+        findClosestGeoIntersectionsHelper(rays, maxDistances, closest);
+        return closest;
+    }
+
+    /**
+     * the default implementation finds the closest intersection of every ray on its own, composites that can
+     * traverse their content once for the whole packet override it
+     * @param rays the rays of the packet
+     * @param maxDistances the max distance of every ray (the distance of its best hit so far), updated with every
+     *                     closer hit
+     * @param closest the best hit of every ray so far, updated with every closer hit
+     */
+    protected void findClosestGeoIntersectionsHelper(Ray[] rays, double[] maxDistances, GeoPoint[] closest) {
+        for (int i = 0; i < rays.length; i++) {
+            GeoPoint gp = findClosestGeoIntersection(rays[i], maxDistances[i]);
+            if (gp != null) {
+                double distance = gp.point.distance(rays[i].getP0());
+                if (distance < maxDistances[i]) {
+                    closest[i] = gp;
+                    maxDistances[i] = distance;
+                }
+            }
+        }
+    }
+
+    /**
+     * function findTransmittance() will return how much light passes along a ray (a shadow ray) through the object,
+     * the product of the transparency (kT) of every geometry the ray passes through.
+     * the search stops as soon as the light is blocked (the first opaque geometry usually settles it)
+     * @param ray the ray from the point towards the light source
+     * @param maxDistance the distance to the light source
+     * @param minTransmittance the value under which we consider the light as blocked
+     * @return the transmittance along the ray, {@link Double3#ZERO} if the light is blocked
+     */
+    public final Double3 findTransmittance(Ray ray, double maxDistance, double minTransmittance) {
+        return findTransmittanceHelper(ray, maxDistance, Double3.ONE, minTransmittance);
+    }
+
+    /**
+     * the default implementation goes over all the intersections, composites and geometries that can stop
+     * earlier override it
+     * @param ray the ray from the point towards the light source
+     * @param maxDistance the distance to the light source
+     * @param ktr the transmittance found so far
+     * @param minTransmittance the value under which we consider the light as blocked
+     * @return the transmittance along the ray, {@link Double3#ZERO} if the light is blocked
+     */
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minTransmittance) {
+        List<GeoPoint> points = findGeoIntersectionsHelper(ray, maxDistance);
+        if (points == null)
+            return ktr;
+
+        Point p0 = ray.getP0();
+        double maxDistanceSquared = maxDistance * maxDistance;
+        for (GeoPoint gp : points) {
+            if (gp.point.distanceSquared(p0) >= maxDistanceSquared)
+                continue;
+            ktr = gp.geometry.getMaterial().kT.product(ktr);
+            if (ktr.lowerThan(minTransmittance))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
     /**
      * PDS for storing the data of on what geometry is a certain point
      */
@@ -0,0 +1,115 @@
+package geometries;
+
+/**
+ * Tests a ray against several lanes of {@link GeometryLanes} at once, the result is a bit for every lane the ray
+ * may hit.
+ * <br>
+ * This class is the scalar implementation, {@link VectorLaneTester} does the same with the JDK Vector API
+ * (jdk.incubator.vector). {@link LaneTester#get(boolean)} picks the vector one when it is asked for and the
+ * module is present at runtime (--add-modules jdk.incubator.vector), and falls back to the scalar one otherwise.
+ *
+ * @author danielattali, itiskvales
+ */
+class LaneTester {
+    /**
+     * the most lanes that can be tested at once (one bit of an int for every lane)
+     */
+    static final int MAX_LANES = Integer.SIZE;
+
+    /**
+     * the scalar tester
+     */
+    private static final LaneTester SCALAR = new LaneTester();
+
+    /**
+     * the vector tester, or the scalar one if the Vector API is not available
+     */
+    private static final LaneTester VECTOR = loadVectorTester();
+
+    /**
+     * @param simd true to use the SIMD units of the cpu when they are available
+     * @return the tester
+     */
+    static LaneTester get(boolean simd) {
+        return simd ? VECTOR : SCALAR;
+    }
+
+    /**
+     * @return true if the vector tester can be used
+     */
+    static boolean isVectorAvailable() {
+        return VECTOR != SCALAR;
+    }
+
+    /**
+     * @return the vector tester, or the scalar one if the incubator module isn't in the boot layer
+     */
+    private static LaneTester loadVectorTester() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return SCALAR;
+        try {
+            // loaded by name, so the class (and the module) is never touched when it isn't there
+            return (LaneTester) Class.forName("geometries.VectorLaneTester").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    /**
+     * test a ray against a run of lanes - their boxes, and their spheres for the geometries that are spheres
+     *
+     * @param lanes       the lanes
+     * @param from        the first lane
+     * @param count       the amount of lanes (at most {@link LaneTester#MAX_LANES})
+     * @param r           the ray
+     * @param maxDistance the maximum distance along the ray
+     * @return bit i is set if the ray may hit the geometry of lane from + i
+     */
+    int cull(GeometryLanes lanes, int from, int count, FlatBVH.RayData r, double maxDistance) {
+        int mask = 0;
+        for (int lane = 0; lane < count; lane++) {
+            int i = from + lane;
+            if (hitsBox(lanes, i, r, maxDistance) && hitsSphere(lanes, i, r, maxDistance))
+                mask |= 1 << lane;
+        }
+        return mask;
+    }
+
+    /**
+     * the slab test of a lane, the same test as {@link FlatBVH.RayData#enterBox(double[], int, double)}
+     */
+    private static boolean hitsBox(GeometryLanes lanes, int i, FlatBVH.RayData r, double maxDistance) {
+        double tNear = 0;
+        double tFar = maxDistance;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = lanes.min[axis][i];
+            double max = lanes.max[axis][i];
+            double origin = r.origin[axis];
+            if (r.parallel[axis]) {
+                if (origin < min || origin > max)
+                    return false;
+                continue;
+            }
+            double t1 = (min - origin) * r.invDir[axis];
+            double t2 = (max - origin) * r.invDir[axis];
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+        }
+        return tNear <= tFar;
+    }
+
+    /**
+     * the sphere test of a lane, true if the ray crosses the sphere between its head and the max distance
+     */
+    private static boolean hitsSphere(GeometryLanes lanes, int i, FlatBVH.RayData r, double maxDistance) {
+        double lx = lanes.center[0][i] - r.origin[0];
+        double ly = lanes.center[1][i] - r.origin[1];
+        double lz = lanes.center[2][i] - r.origin[2];
+        double tm = lx * r.dir[0] + ly * r.dir[1] + lz * r.dir[2];
+        double th2 = lanes.radiusSquared[i] - (lx * lx + ly * ly + lz * lz - tm * tm);
+        if (th2 < 0)
+            return false;
+        double th = Math.sqrt(th2);
+        return tm + th >= 0 && tm - th <= maxDistance;
+    }
+}
@@ -0,0 +1,55 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the BVH by sorting the boxes along the longest edge of their bounding box
+ * and splitting the list in half by count
+ *
+ * @author danielattali, itiskvales
+ */
+public class MedianSplitBuilder implements BVHBuilder {
+
+    @Override
+    public AxisAlignedBoundingBox build(List<AxisAlignedBoundingBox> boxes) {
+        return createTreeRec(new ArrayList<>(boxes));
+    }
+
+    /**
+     * Create a tree of boxes given a list of boxes to turn into a tree
+     *
+     * @param boxes list of boxes
+     * @return axis aligned bounding box tree
+     */
+    private static AxisAlignedBoundingBox createTreeRec(ArrayList<AxisAlignedBoundingBox> boxes) {
+        int numberOfBoxes = boxes.size();
+
+        //base of the recursion, if the list has 1 box, return it
+        if (numberOfBoxes == 1)
+            return boxes.get(0);
+
+        //create a box that encapsulates all the other ones
+        AxisAlignedBoundingBox node = new AxisAlignedBoundingBox(boxes);
+
+        //base of the recursion, if the list has 2 boxes
+        if (numberOfBoxes == 2) {
+            for (AxisAlignedBoundingBox box : boxes)
+                node.addToContains(box);//add them to this box
+            return node;
+        }
+
+        //find the longest edge of the box
+        double x = node.getMaxX() - node.getMinX();
+        double y = node.getMaxY() - node.getMinY();
+        double z = node.getMaxZ() - node.getMinZ();
+        int edge = x > y && x > z ? 0 : (y > x && y > z ? 1 : 2);
+
+        //recursion step, sort the boxes according to how they align on that edge
+        AxisAlignedBoundingBox.sortBoxesByAxis(boxes, edge);
+        //split the list into 2 even pieces and go down the recursion
+        node.addToContains(createTreeRec(new ArrayList<>(boxes.subList(0, numberOfBoxes / 2))));
+        node.addToContains(createTreeRec(new ArrayList<>(boxes.subList(numberOfBoxes / 2, numberOfBoxes))));
+        return node;
+    }
+}
@@ -6,6 +6,8 @@ import primitives.Vector;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VecMath.dot;
+import static primitives.VecMath.isZeroVector;
 
 
 import java.util.LinkedList;
@@ -81,23 +83,37 @@ public class Plane extends Geometry {
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        // checking if the starting point of ray is q0
-        if(this.q0.equals(ray.getP0()))
-            return null;
+        double t = findIntersectionDistance(ray, maxDistance);
+        return t == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
-        double t = alignZero(this.normal.dotProduct(this.q0.subtract(ray.getP0())) / this.normal.dotProduct(ray.getDir()));
+    /**
+     * the distance along the ray to the plane, calculated without creating any vector
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance along the ray
+     * @return the distance t (0 &lt; t &lt; maxDistance) or 0 if there is no intersection
+     */
+    double findIntersectionDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
 
+        // checking if the starting point of ray is q0
+        double qx = q0.getX() - p0.getX(), qy = q0.getY() - p0.getY(), qz = q0.getZ() - p0.getZ();
+        if(isZeroVector(qx, qy, qz))
+            return 0;
 
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double t = alignZero(dot(nx, ny, nz, qx, qy, qz) / dot(nx, ny, nz, dir.getX(), dir.getY(), dir.getZ()));
 
         // checking if t>0 the is one intersection point
         if(t > 0) {
             // if the distance is greater than the max distance we don't return anything
-            if(alignZero(t - maxDistance) >= 0) {
-                return null;
-            }
-            return List.of(new GeoPoint(this, ray.getPoint(t)));
+            if(alignZero(t - maxDistance) >= 0)
+                return 0;
+            return t;
         }
-        return null;
+        return 0;
     }
 
     @Override
@@ -2,12 +2,11 @@ package geometries;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VecMath.*;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -22,6 +21,9 @@ public class Polygon extends Geometry implements Boundable {
    /** Associated plane in which the polygon lays */
    protected final Plane       plane;
    private final int           size;
+   /** The planes of the edges - 4 values for each edge (the normal of the plane, pointing into the polygon,
+    * and its distance from the origin), calculated once so the intersection is only scalar math */
+   private final double[]      edgePlanes;
 
    /** Polygon constructor based on vertices list. The list must be ordered by edge
     * path. The polygon must be convex.
@@ -53,6 +55,7 @@ public class Polygon extends Geometry implements Boundable {
       // polygon with this plane.
       // The plane holds the invariant normal (orthogonal unit) vector to the polygon
       plane         = new Plane(vertices[0], vertices[1], vertices[2]);
+      edgePlanes    = calcEdgePlanes();
       if (size == 3) return; // no need for more tests for a Triangle
 
       Vector  n        = plane.getNormal();
@@ -96,52 +99,86 @@ public class Polygon extends Geometry implements Boundable {
       return this.vertices;
    }
 
-   @Override
-   protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-      // since we first find if the is intersection with the plane containing the triangle
-      List<GeoPoint> intersectionPoints = this.plane.findGeoIntersections(ray, maxDistance);
-
-      // if intersectionPoints == null there is no intersection
-      if(intersectionPoints == null)
-         return null;
-
-      Point p0 = intersectionPoints.get(0).point;
-
-      // we need to check for if the point is one of the triangle Point
-      for (Point point : this.vertices) {
-         if(p0.equals(point))
-            return null;
+   /**
+    * calculate the planes of the edges, the plane of the edge from vertex i to vertex i + 1 contains the edge
+    * and is orthogonal to the polygon, its normal points into the polygon
+    * @return the planes of the edges (normal x, y, z and the distance d for each edge)
+    */
+   private double[] calcEdgePlanes() {
+      Vector n = plane.getNormal();
+      double nx = n.getX(), ny = n.getY(), nz = n.getZ();
+
+      // the center of the vertices is inside a convex polygon, it decides the direction of the normals
+      double cx = 0, cy = 0, cz = 0;
+      for (Point v : vertices) {
+         cx += v.getX() / size;
+         cy += v.getY() / size;
+         cz += v.getZ() / size;
       }
 
-      List<Vector> vectors = new ArrayList<>();
-      for (Point point : this.vertices) {
-         vectors.add(point.subtract(p0));
+      double[] planes = new double[size * 4];
+      for (int i = 0; i < size; i++) {
+         Point a = vertices.get(i);
+         Point b = vertices.get(i == size - 1 ? 0 : i + 1);
+         double ex = b.getX() - a.getX(), ey = b.getY() - a.getY(), ez = b.getZ() - a.getZ();
+         double mx = crossX(nx, ny, nz, ex, ey, ez);
+         double my = crossY(nx, ny, nz, ex, ey, ez);
+         double mz = crossZ(nx, ny, nz, ex, ey, ez);
+         double length = Math.sqrt(lengthSquared(mx, my, mz));
+         // a zero edge is rejected later by the validation of the vertices
+         if (length == 0)
+            continue;
+         if (dot(mx, my, mz, cx - a.getX(), cy - a.getY(), cz - a.getZ()) < 0)
+            length = -length;
+         mx /= length;
+         my /= length;
+         mz /= length;
+         planes[i * 4] = mx;
+         planes[i * 4 + 1] = my;
+         planes[i * 4 + 2] = mz;
+         planes[i * 4 + 3] = dot(mx, my, mz, a.getX(), a.getY(), a.getZ());
       }
-      // the try catch is in case of a zero vector
-      try {
-         List<Vector> normals = new ArrayList<>();
-         for (int i = 0; i < size - 1; i++) {
-            Vector vi = vectors.get(i);
-            Vector vj = vectors.get(i + 1);
-
-            normals.add(vi.crossProduct(vj).normalize());
-         }
-         normals.add(vectors.get(size - 1).crossProduct(vectors.get(0).normalize()));
-
-         List<Double> t = new ArrayList<>();
-         for (int i = 0; i < size; i++) {
-            Vector ni = normals.get(i);
-            Double ti = alignZero(ray.getDir().dotProduct(ni));
-            t.add(ti);
-         }
-
-         if(t.stream().allMatch(d -> d > 0) || t.stream().allMatch(d -> d < 0))
-            return intersectionPoints;
-      } catch (IllegalArgumentException e) {
-         return null;
+      return planes;
+   }
+
+   /**
+    * @param ray         the ray
+    * @param maxDistance the max distance from which there is no intersection
+    * @return the distance along the ray to the polygon, 0 if there is no intersection
+    * (the edges and the vertices of the polygon are not part of it)
+    */
+   private double findIntersectionDistance(Ray ray, double maxDistance) {
+      // since we first find if the is intersection with the plane containing the polygon
+      double t = this.plane.findIntersectionDistance(ray, maxDistance);
+
+      // if t == 0 there is no intersection, a ray parallel to the plane never reaches the polygon
+      if (t == 0 || Double.isInfinite(t))
+         return 0;
+
+      Point p0 = ray.getP0();
+      Vector dir = ray.getDir();
+      double px = p0.getX() + t * dir.getX();
+      double py = p0.getY() + t * dir.getY();
+      double pz = p0.getZ() + t * dir.getZ();
+
+      // the point has to be strictly inside all the edges, the first edge it is outside of ends the test
+      for (int i = 0; i < edgePlanes.length; i += 4) {
+         if (alignZero(dot(edgePlanes[i], edgePlanes[i + 1], edgePlanes[i + 2], px, py, pz) - edgePlanes[i + 3]) <= 0)
+            return 0;
       }
+      return t;
+   }
+
+   @Override
+   protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+      double t = findIntersectionDistance(ray, maxDistance);
+      return t == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+   }
 
-      return null;
+   @Override
+   protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+      double t = findIntersectionDistance(ray, maxDistance);
+      return t == 0 ? null : new GeoPoint(this, ray.getPoint(t));
    }
 
    @Override
@@ -0,0 +1,268 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the BVH using a binned Surface Area Heuristic (SAH).
+ * <br>
+ * At every node the centroids of the boxes are put into {@link SAHBuilder#bins} buckets along each axis,
+ * and the split plane between two buckets with the lowest expected cost is chosen:
+ * <br>
+ * cost = traversalCost + intersectionCost * (area(L) * count(L) + area(R) * count(R)) / area(node)
+ * <br>
+ * A node becomes a leaf when it has at most {@link SAHBuilder#leafSize} boxes and splitting it is not cheaper.
+ *
+ * @author danielattali, itiskvales
+ */
+public class SAHBuilder implements BVHBuilder {
+    /**
+     * the amount of buckets the centroids are sorted into on each axis
+     */
+    private int bins = 16;
+
+    /**
+     * the maximum amount of geometries in a leaf
+     */
+    private int leafSize = 4;
+
+    /**
+     * the cost of testing a ray against a box
+     */
+    private double traversalCost = BVHCostReport.TRAVERSAL_COST;
+
+    /**
+     * the cost of testing a ray against a geometry
+     */
+    private double intersectionCost = BVHCostReport.INTERSECTION_COST;
+
+    // ==================== Setters (Builder Pattern) ====================
+
+    /**
+     * @param bins the amount of buckets on each axis (at least 2)
+     * @return this according to the Builder Pattern
+     */
+    public SAHBuilder setBins(int bins) {
+        if (bins < 2)
+            throw new IllegalArgumentException("The number of bins must be at least 2");
+        this.bins = bins;
+        return this;
+    }
+
+    /**
+     * @param leafSize the maximum amount of geometries in a leaf (at least 1)
+     * @return this according to the Builder Pattern
+     */
+    public SAHBuilder setLeafSize(int leafSize) {
+        if (leafSize < 1)
+            throw new IllegalArgumentException("The leaf size must be greater than 0");
+        this.leafSize = leafSize;
+        return this;
+    }
+
+    /**
+     * @param traversalCost the cost of testing a ray against a box
+     * @param intersectionCost the cost of testing a ray against a geometry
+     * @return this according to the Builder Pattern
+     */
+    public SAHBuilder setCosts(double traversalCost, double intersectionCost) {
+        if (traversalCost <= 0 || intersectionCost <= 0)
+            throw new IllegalArgumentException("The costs must be greater than 0");
+        this.traversalCost = traversalCost;
+        this.intersectionCost = intersectionCost;
+        return this;
+    }
+
+    // ==================== Methods ====================
+
+    @Override
+    public AxisAlignedBoundingBox build(List<AxisAlignedBoundingBox> boxes) {
+        return buildRec(new ArrayList<>(boxes));
+    }
+
+    /**
+     * Build the sub-tree of the given boxes
+     *
+     * @param boxes list of boxes
+     * @return axis aligned bounding box tree
+     */
+    private AxisAlignedBoundingBox buildRec(List<AxisAlignedBoundingBox> boxes) {
+        int n = boxes.size();
+
+        //base of the recursion, a single box is its own tree
+        if (n == 1)
+            return boxes.get(0);
+
+        //find the bounds of the centroids, the bins are spread over them
+        double[] cMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] cMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (AxisAlignedBoundingBox box : boxes) {
+            for (int axis = 0; axis < 3; axis++) {
+                double c = box.getMid(axis);
+                if (c < cMin[axis]) cMin[axis] = c;
+                if (c > cMax[axis]) cMax[axis] = c;
+            }
+        }
+
+        AxisAlignedBoundingBox node = new AxisAlignedBoundingBox(boxes);
+        double nodeArea = node.surfaceArea();
+
+        int bestAxis = -1, bestSplit = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+
+        int[] counts = new int[bins];
+        double[][] bounds = new double[bins][6];
+        double[] rightArea = new double[bins];
+        int[] rightCount = new int[bins];
+
+        for (int axis = 0; axis < 3; axis++) {
+            double extent = cMax[axis] - cMin[axis];
+            if (extent <= 0)
+                continue;
+
+            //sort the boxes into the bins
+            for (int b = 0; b < bins; b++) {
+                counts[b] = 0;
+                resetBounds(bounds[b]);
+            }
+            for (AxisAlignedBoundingBox box : boxes) {
+                int b = binOf(box.getMid(axis), cMin[axis], extent);
+                counts[b]++;
+                grow(bounds[b], box);
+            }
+
+            //sweep from the right to get the area and count of every right side
+            double[] acc = new double[6];
+            resetBounds(acc);
+            int count = 0;
+            for (int b = bins - 1; b > 0; b--) {
+                count += counts[b];
+                grow(acc, bounds[b]);
+                rightCount[b] = count;
+                rightArea[b] = area(acc);
+            }
+
+            //sweep from the left and evaluate the split after every bin
+            resetBounds(acc);
+            count = 0;
+            for (int b = 0; b < bins - 1; b++) {
+                count += counts[b];
+                grow(acc, bounds[b]);
+                if (count == 0 || rightCount[b + 1] == 0)
+                    continue;
+                double cost = traversalCost + intersectionCost *
+                        (area(acc) * count + rightArea[b + 1] * rightCount[b + 1]) / nodeArea;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = b;
+                }
+            }
+        }
+
+        //if splitting isn't worth it (or impossible) and the boxes fit in a leaf we stop here
+        if (n <= leafSize && (bestAxis == -1 || bestCost >= intersectionCost * n))
+            return createLeaf(node, boxes);
+
+        List<AxisAlignedBoundingBox> left = new ArrayList<>(), right = new ArrayList<>();
+        if (bestAxis == -1) {
+            //all the centroids are in the same place, so we fall back to splitting by count
+            left.addAll(boxes.subList(0, n / 2));
+            right.addAll(boxes.subList(n / 2, n));
+        } else {
+            for (AxisAlignedBoundingBox box : boxes) {
+                if (binOf(box.getMid(bestAxis), cMin[bestAxis], cMax[bestAxis] - cMin[bestAxis]) <= bestSplit)
+                    left.add(box);
+                else
+                    right.add(box);
+            }
+        }
+
+        node.addToContains(buildRec(left));
+        node.addToContains(buildRec(right));
+        return node;
+    }
+
+    /**
+     * Move the content of all the boxes directly into the leaf node, so a ray that hits the leaf
+     * is tested against the geometries without testing each of their boxes
+     *
+     * @param leaf  the box bounding all the boxes
+     * @param boxes the boxes of the leaf
+     * @return the leaf
+     */
+    private static AxisAlignedBoundingBox createLeaf(AxisAlignedBoundingBox leaf, List<AxisAlignedBoundingBox> boxes) {
+        for (AxisAlignedBoundingBox box : boxes)
+            for (Boundable item : box.getContains())
+                leaf.addToContains(item);
+        return leaf;
+    }
+
+    /**
+     * @param c      the centroid value
+     * @param min    the minimum centroid value on the axis
+     * @param extent the extent of the centroids on the axis
+     * @return the bin the centroid falls into
+     */
+    private int binOf(double c, double min, double extent) {
+        int b = (int) (bins * (c - min) / extent);
+        return b >= bins ? bins - 1 : b;
+    }
+
+    /**
+     * set the bounds array (minX, minY, minZ, maxX, maxY, maxZ) to an empty box
+     *
+     * @param b bounds array
+     */
+    private static void resetBounds(double[] b) {
+        b[0] = b[1] = b[2] = Double.POSITIVE_INFINITY;
+        b[3] = b[4] = b[5] = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * grow the bounds array to contain the box
+     *
+     * @param b   bounds array
+     * @param box the box
+     */
+    private static void grow(double[] b, AxisAlignedBoundingBox box) {
+        for (int axis = 0; axis < 3; axis++) {
+            b[axis] = Math.min(b[axis], box.getMin(axis));
+            b[axis + 3] = Math.max(b[axis + 3], box.getMax(axis));
+        }
+    }
+
+    /**
+     * grow the bounds array to contain the other bounds array
+     *
+     * @param b     bounds array
+     * @param other another bounds array
+     */
+    private static void grow(double[] b, double[] other) {
+        for (int axis = 0; axis < 3; axis++) {
+            b[axis] = Math.min(b[axis], other[axis]);
+            b[axis + 3] = Math.max(b[axis + 3], other[axis + 3]);
+        }
+    }
+
+    /**
+     * @param b bounds array
+     * @return the surface area of the bounds (0 for an empty box)
+     */
+    private static double area(double[] b) {
+        if (b[0] > b[3])
+            return 0;
+        double x = b[3] - b[0], y = b[4] - b[1], z = b[5] - b[2];
+        return 2 * (x * y + y * z + z * x);
+    }
+
+    @Override
+    public String toString() {
+        return "SAHBuilder{" +
+                "bins=" + bins +
+                ", leafSize=" + leafSize +
+                ", traversalCost=" + traversalCost +
+                ", intersectionCost=" + intersectionCost +
+                '}';
+    }
+}
@@ -1,8 +1,8 @@
 package geometries;
 
 import static primitives.Util.alignZero;
+import static primitives.VecMath.*;
 
-import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -55,55 +55,86 @@ public class Sphere extends RadialGeometry implements Boundable{
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
 
-        try {
-            // we added a try catch block because if center == p0 u is a zero vector
-            Vector u = this.center.subtract(ray.getP0());
+        // u = center - p0
+        double ux = center.getX() - p0.getX();
+        double uy = center.getY() - p0.getY();
+        double uz = center.getZ() - p0.getZ();
 
-            double tm = alignZero(ray.getDir().dotProduct(u));
-            double d =  alignZero(Math.sqrt(u.lengthSquared()- tm * tm));
+        // in the case that the center == p0 so u = zero vector, so we know that the point = center + radius * dir
+        if (isZeroVector(ux, uy, uz))
+            return List.of(new GeoPoint(this, ray.getPoint(this.radius)));
+
+        double tm = alignZero(dot(dir.getX(), dir.getY(), dir.getZ(), ux, uy, uz));
+        double d =  alignZero(Math.sqrt(lengthSquared(ux, uy, uz) - tm * tm));
+
+        // if d == r the ray is tangent to the sphere and if d > r the line doesn't intersect the sphere at all
+        if(d >= this.radius) {
+            return null;
+        }
+        // √(r^2 - d^2)
+        double th = alignZero(Math.sqrt(this.radius * this.radius - d * d));
 
-            // if d == r the ray is tangent to the sphere and if d > r the line doesn't intersect the sphere at all
-            if(d >= this.radius) {
+        double t1 = alignZero(tm - th);
+        double t2 = alignZero(tm + th);
+
+
+        // if t1 or t2 < 0 the ray is not intersecting the sphere it means that the ray is after the sphere
+        // if t1 or t2 == 0 the ray is starting on the sphere so there is no intersection
+        if(t1 > 0 && t2 > 0) {
+            // if the distance is too big
+            if(alignZero(t1 - maxDistance) >= 0 && alignZero(t2 - maxDistance) >= 0)
+                return null;
+            // since we want to give the closet point we just need to compare the t's and the smallest one is the closest
+            double min = Math.min(t1, t2);
+            double max = Math.max(t1, t2);
+
+            return List.of(new GeoPoint(this, ray.getPoint(min)),new GeoPoint(this, ray.getPoint(max)));
+        } else if (t1 > 0) {
+            if(alignZero(t1 - maxDistance) >= 0) {
                 return null;
             }
-            // √(r^2 - d^2)
-            double th = alignZero(Math.sqrt(this.radius * this.radius - d * d));
-
-            double t1 = alignZero(tm - th);
-            double t2 = alignZero(tm + th);
-
-
-            // if t1 or t2 < 0 the ray is not intersecting the sphere it means that the ray is after the sphere
-            // if t1 or t2 == 0 the ray is starting on the sphere so there is no intersection
-            if(t1 > 0 && t2 > 0) {
-                // if the distance is too big
-                if(alignZero(t1 - maxDistance) >= 0 && alignZero(t2 - maxDistance) >= 0)
-                    return null;
-                // since we want to give the closet point we just need to compare the t's and the smallest one is the closest
-                double min = Math.min(t1, t2);
-                double max = Math.max(t1, t2);
-
-                return List.of(new GeoPoint(this, ray.getPoint(min)),new GeoPoint(this, ray.getPoint(max)));
-            } else if (t1 > 0) {
-                if(alignZero(t1 - maxDistance) >= 0) {
-                    return null;
-                }
-                return List.of(new GeoPoint(this,ray.getPoint(t1)));
-            } else if(t2 > 0) {
-                if(alignZero(t2 - maxDistance) >= 0) {
-                    return null;
-                }
-                return List.of(new GeoPoint(this, ray.getPoint(t2)));
+            return List.of(new GeoPoint(this,ray.getPoint(t1)));
+        } else if(t2 > 0) {
+            if(alignZero(t2 - maxDistance) >= 0) {
+                return null;
             }
-//        in the case that the center == p0 so u = zero vector, so we know that the point = center + radius * dir
-        } catch (IllegalArgumentException e) {
-            return List.of(new GeoPoint(this, ray.getPoint(this.radius)));
+            return List.of(new GeoPoint(this, ray.getPoint(t2)));
         }
 
         return null;
     }
 
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        // the same calculation as above, but only the closest point is created
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+
+        double ux = center.getX() - p0.getX();
+        double uy = center.getY() - p0.getY();
+        double uz = center.getZ() - p0.getZ();
+
+        if (isZeroVector(ux, uy, uz))
+            return new GeoPoint(this, ray.getPoint(this.radius));
+
+        double tm = alignZero(dot(dir.getX(), dir.getY(), dir.getZ(), ux, uy, uz));
+        double d =  alignZero(Math.sqrt(lengthSquared(ux, uy, uz) - tm * tm));
+        if(d >= this.radius)
+            return null;
+
+        double th = alignZero(Math.sqrt(this.radius * this.radius - d * d));
+
+        // th >= 0 so t1 <= t2, the closest point is t1 unless the ray starts inside the sphere
+        double t1 = alignZero(tm - th);
+        double t = t1 > 0 ? t1 : alignZero(tm + th);
+        if (t <= 0 || alignZero(t - maxDistance) >= 0)
+            return null;
+        return new GeoPoint(this, ray.getPoint(t));
+    }
+
     public Point getCenter() {
         return this.center;
     }
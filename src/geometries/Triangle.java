@@ -1,7 +1,7 @@
 package geometries;
 
 import static primitives.Util.alignZero;
-import static primitives.Util.isZero;
+import static primitives.VecMath.*;
 
 import primitives.Point;
 import primitives.Ray;
@@ -13,12 +13,22 @@ import java.util.Objects;
 
 /**
  * class Triangle represent a triangle in 3D space
+ * <br>
+ * Unlike its super class {@link Polygon}, the edges and the vertices are part of a triangle - a ray through the
+ * edge shared by two triangles hits at least one of them (see {@link Triangle#intersect}), while the two halves
+ * of a quad built as a {@link Polygon} leave its diagonal out.
  *
  * @author danielattali, itiskvales
  */
 public class Triangle extends Polygon {
     // decided to store the point in the triangle for better performance
 
+    /**
+     * a ray is parallel to the triangle if the cosine of the angle between the ray and the normal is
+     * smaller than this (squared, the same accuracy as {@link primitives.Util#isZero(double)})
+     */
+    private static final double PARALLEL_EPSILON_SQUARED = 1e-20;
+
     /**
      * first point
      */
@@ -34,6 +44,16 @@ public class Triangle extends Polygon {
      */
     final Point p3;
 
+    /**
+     * the vertices as doubles
+     */
+    private final double ax, ay, az, bx, by, bz, cx, cy, cz;
+
+    /**
+     * the length of the normal (p2 - p1) x (p3 - p1) squared (twice the area of the triangle, squared)
+     */
+    private final double normalLengthSquared;
+
     /**
      * @return the first point of the triangle
      */
@@ -69,63 +89,143 @@ public class Triangle extends Polygon {
         this.p1 = p1;
         this.p2 = p2;
         this.p3 = p3;
+
+        // the coordinates are read once, the intersection only works with them
+        ax = p1.getX();
+        ay = p1.getY();
+        az = p1.getZ();
+        bx = p2.getX();
+        by = p2.getY();
+        bz = p2.getZ();
+        cx = p3.getX();
+        cy = p3.getY();
+        cz = p3.getZ();
+        normalLengthSquared = normalLengthSquared(ax, ay, az, bx, by, bz, cx, cy, cz);
+    }
+
+    /**
+     * @param ray         the ray
+     * @param maxDistance the max distance from which there is no intersection
+     * @return the distance along the ray to the triangle, 0 if there is no intersection
+     */
+    double findIntersectionDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return intersect(p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(),
+                ax, ay, az, bx, by, bz, cx, cy, cz, normalLengthSquared, maxDistance, null);
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        // since we first find if the is intersection with the plane containing the triangle
-        List<GeoPoint> intersectionPoints = this.plane.findGeoIntersections(ray, maxDistance);
-
-        // if intersectionPoints == null there is no intersection
-        if(intersectionPoints == null)
-            return null;
-
-        // there can't be more than one point of intersection with a triangle
-        Point p0 = intersectionPoints.get(0).point;
-
-        // we need to check for if the point is one of the triangle Point
-        if(p0.equals(p1) || p0.equals(p2) || p0.equals(p3))
-            return null;
-
-        // now that we have the point on the plane we need to check if it's in the triangle
-
-        Vector v1 = this.p1.subtract(p0);
-        Vector v2 = this.p2.subtract(p0);
-        Vector v3 = this.p3.subtract(p0);
-
-        Vector n_v1 = v1.normalize();
-        Vector n_v2 = v2.normalize();
-        Vector n_v3 = v3.normalize();
-
-        // checking if the point is on the one of the line on the one of the line
-        // between two point
-        if(isZero(v1.dotProduct(v2)) || isZero(v2.dotProduct(v3)) || isZero(v3.dotProduct(v1)))
-            return null;
-
-        // outside the triangle
-        if(n_v1.equals(n_v2) || n_v1.equals(n_v3) || n_v2.equals(n_v3))
-            return null;
-
-        try {
-            // using the algorithm given to check if the point is in the triangle and not outside
-            Vector n1 = v1.crossProduct(v2).normalize();
-            Vector n2 = v2.crossProduct(v3).normalize();
-            Vector n3 = v3.crossProduct(v1).normalize();
-
-            double t1 = alignZero(ray.getDir().dotProduct(n1));
-            double t2 = alignZero(ray.getDir().dotProduct(n2));
-            double t3 = alignZero(ray.getDir().dotProduct(n3));
-
-            if ((t1 > 0 && t2 > 0 && t3 > 0) || (t1 < 0 && t2 < 0 && t3 < 0)) {
-                // return the geo point
-                return List.of(new GeoPoint(this, p0));
-            }
-        } catch (IllegalArgumentException e) {
-            return null;
-        }
-        return null;
+        double t = findIntersectionDistance(ray, maxDistance);
+        return t == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
     }
 
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = findIntersectionDistance(ray, maxDistance);
+        return t == 0 ? null : new GeoPoint(this, ray.getPoint(t));
+    }
+
+    /**
+     * @param ax the first vertex
+     * @param bx the second vertex
+     * @param cx the third vertex
+     * @return the length of the normal (b - a) x (c - a) squared
+     */
+    static double normalLengthSquared(double ax, double ay, double az, double bx, double by, double bz,
+                                      double cx, double cy, double cz) {
+        double e1x = bx - ax, e1y = by - ay, e1z = bz - az;
+        double e2x = cx - ax, e2y = cy - ay, e2z = cz - az;
+        return lengthSquared(
+                crossX(e1x, e1y, e1z, e2x, e2y, e2z),
+                crossY(e1x, e1y, e1z, e2x, e2y, e2z),
+                crossZ(e1x, e1y, e1z, e2x, e2y, e2z));
+    }
+
+    /**
+     * The watertight intersection of a ray with a triangle (Woop, Benthin and Wald), on plain doubles.
+     * <br>
+     * The axes are rotated so the ray goes mostly along z, and the vertices (relative to the head of the ray)
+     * are sheared so the ray becomes the z axis. The hit is then a 2D test of the origin against the sheared
+     * triangle: the edge functions u, v and w (twice the signed areas of the origin with every edge) must not
+     * have different signs. An edge function depends only on the two vertices of its edge, and a triangle that
+     * shares the edge computes the same products in another order, so it gets exactly the negated value - a ray
+     * through a shared edge hits at least one of the triangles, there are no cracks along the edges of a mesh.
+     * The edges and the vertices are part of the triangle. No points and no vectors are created.
+     *
+     * @param ox                  the head of the ray
+     * @param dx                  the direction of the ray (normalized)
+     * @param ax                  the first vertex of the triangle
+     * @param bx                  the second vertex of the triangle
+     * @param cx                  the third vertex of the triangle
+     * @param normalLengthSquared the length of (b - a) x (c - a) squared, used to decide if the ray is parallel
+     * @param maxDistance         the max distance from which there is no intersection
+     * @param uv                  if not null, receives the barycentric coordinates of the hit - the weights of
+     *                            the second and the third vertices
+     * @return the distance t along the ray to the hit, 0 if there is no intersection
+     */
+    static double intersect(double ox, double oy, double oz, double dx, double dy, double dz,
+                            double ax, double ay, double az,
+                            double bx, double by, double bz,
+                            double cx, double cy, double cz,
+                            double normalLengthSquared, double maxDistance, double[] uv) {
+        // the vertices relative to the head of the ray
+        ax -= ox;
+        ay -= oy;
+        az -= oz;
+        bx -= ox;
+        by -= oy;
+        bz -= oz;
+        cx -= ox;
+        cy -= oy;
+        cz -= oz;
+
+        // rotate the axes (x, y, z) -> (y, z, x) or (z, x, y) so the largest part of the direction is z
+        double t;
+        double adx = Math.abs(dx), ady = Math.abs(dy), adz = Math.abs(dz);
+        if (adx > ady && adx > adz) {
+            t = dx; dx = dy; dy = dz; dz = t;
+            t = ax; ax = ay; ay = az; az = t;
+            t = bx; bx = by; by = bz; bz = t;
+            t = cx; cx = cy; cy = cz; cz = t;
+        } else if (ady > adz) {
+            t = dz; dz = dy; dy = dx; dx = t;
+            t = az; az = ay; ay = ax; ax = t;
+            t = bz; bz = by; by = bx; bx = t;
+            t = cz; cz = cy; cy = cx; cx = t;
+        }
+
+        // shear the vertices so the ray is the z axis
+        double sx = dx / dz, sy = dy / dz;
+        double axs = ax - sx * az, ays = ay - sy * az;
+        double bxs = bx - sx * bz, bys = by - sy * bz;
+        double cxs = cx - sx * cz, cys = cy - sy * cz;
+
+        // the edge functions of the edges bc, ca and ab
+        double u = cxs * bys - cys * bxs;
+        double v = axs * cys - ays * cxs;
+        double w = bxs * ays - bys * axs;
+        if ((u < 0 || v < 0 || w < 0) && (u > 0 || v > 0 || w > 0))
+            return 0;
+
+        // the ray is parallel to the plane of the triangle (det is the cosine times the length of the normal,
+        // divided by the z of the direction)
+        double det = u + v + w;
+        if (det * det * dz * dz < PARALLEL_EPSILON_SQUARED * normalLengthSquared)
+            return 0;
+
+        // the z of the hit (the weighted vertices) is t times the z of the direction
+        t = alignZero((u * az + v * bz + w * cz) / (det * dz));
+        if (t <= 0 || alignZero(t - maxDistance) >= 0)
+            return 0;
+
+        if (uv != null) {
+            uv[0] = v / det;
+            uv[1] = w / det;
+        }
+        return t;
+    }
 
     @Override
     public boolean equals(Object o) {
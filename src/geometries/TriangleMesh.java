@@ -0,0 +1,654 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+import static primitives.VecMath.*;
+
+/**
+ * class TriangleMesh represent a mesh of triangles that share their vertices, stored in primitive arrays
+ * <br>
+ * A mesh of {@link Triangle} objects costs a few hundred bytes for every face (points, a list of the points,
+ * a plane and a material), a TriangleMesh costs 20 bytes for every face (the vertex indexes and the length of
+ * the normal) and 24 bytes for every vertex plus its bounding volume hierarchy.
+ * <br>
+ * contains:
+ * <ul>
+ *     <li>{@link TriangleMesh#vertices} - 3 values for each vertex (x, y, z)</li>
+ *     <li>{@link TriangleMesh#indices} - 3 vertex indexes for each face, the faces are reordered so every leaf
+ *     of the hierarchy owns a contiguous range of them</li>
+ *     <li>{@link TriangleMesh#normalLengths} - the length of the normal of each face squared, for the
+ *     intersection</li>
+ *     <li>{@link TriangleMesh#bounds} - 6 values for each node of the hierarchy (minX, minY, minZ, maxX, maxY, maxZ)</li>
+ *     <li>{@link TriangleMesh#nodes} - 2 values for each node (first child and 0 for an inner node,
+ *     first face and the amount of faces for a leaf)</li>
+ * </ul>
+ * A hit returns a {@link GeoPoint} on a {@link Face} - a light object created for the hit, which knows its mesh
+ * and the index of the face, so the ray tracer gets the normal of the face and the material of the mesh.
+ * <br>
+ * The faces are intersected like a {@link Triangle} - a ray through an edge or a vertex hits the mesh,
+ * there are no cracks between the faces. The intersection reads the vertices of the face directly, only the
+ * length of the normal is kept for every face.
+ * <br>
+ * Memory over time: no object is kept for a face, so every hit allocates its {@link Face} (once for the
+ * closest hit of a ray, once per face for all the hits) and every normal is computed again from the vertices
+ * when it is asked for.
+ *
+ * @author danielattali, itiskvales
+ */
+public class TriangleMesh extends Geometry implements Boundable {
+    /**
+     * the maximum amount of faces in a leaf of the hierarchy
+     */
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * the initial size of the traversal stack (it grows if the tree is deeper)
+     */
+    private static final int STACK_SIZE = 64;
+
+    /**
+     * the coordinates of the vertices
+     */
+    private final double[] vertices;
+
+    /**
+     * the vertex indexes of the faces
+     */
+    private final int[] indices;
+
+    /**
+     * the bounds of the nodes of the hierarchy
+     */
+    private final double[] bounds;
+
+    /**
+     * the structure of the nodes of the hierarchy
+     */
+    private final int[] nodes;
+
+    /**
+     * the length of the normal of every face squared, in the order of the faces in the hierarchy
+     */
+    private final double[] normalLengths;
+
+    // ========================== Ctor ===============================
+
+    /**
+     * ctor for a mesh given its vertices as coordinates, the arrays are copied
+     *
+     * @param vertices the coordinates of the vertices (x, y, z for each vertex)
+     * @param indices  the indexes of the vertices of the faces (3 for each face)
+     * @throws IllegalArgumentException if the arrays aren't made of triplets or an index isn't a vertex
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (vertices.length == 0 || vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices must be triplets of coordinates!");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("The faces must be triplets of vertex indexes!");
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("The vertex index " + index + " is not in the mesh!");
+
+        this.vertices = vertices.clone();
+
+        int faces = indices.length / 3;
+        int[] order = new int[faces];
+        double[] centroids = new double[faces * 3];
+        for (int f = 0; f < faces; f++) {
+            order[f] = f;
+            for (int axis = 0; axis < 3; axis++)
+                centroids[f * 3 + axis] = (vertices[indices[f * 3] * 3 + axis]
+                        + vertices[indices[f * 3 + 1] * 3 + axis]
+                        + vertices[indices[f * 3 + 2] * 3 + axis]) / 3;
+        }
+
+        // a binary tree with leaves of at least one face has less than 2 * faces nodes
+        double[] nodeBounds = new double[2 * faces * 6];
+        int[] nodeData = new int[2 * faces * 2];
+        int nodeCount = build(0, 1, 0, faces, order, centroids, indices, nodeBounds, nodeData);
+        bounds = Arrays.copyOf(nodeBounds, nodeCount * 6);
+        nodes = Arrays.copyOf(nodeData, nodeCount * 2);
+
+        // the faces in the order of the leaves
+        this.indices = new int[indices.length];
+        for (int f = 0; f < faces; f++)
+            System.arraycopy(indices, order[f] * 3, this.indices, f * 3, 3);
+
+        normalLengths = new double[faces];
+        for (int f = 0; f < faces; f++) {
+            int a = this.indices[f * 3] * 3, b = this.indices[f * 3 + 1] * 3, c = this.indices[f * 3 + 2] * 3;
+            normalLengths[f] = Triangle.normalLengthSquared(
+                    vertices[a], vertices[a + 1], vertices[a + 2],
+                    vertices[b], vertices[b + 1], vertices[b + 2],
+                    vertices[c], vertices[c + 1], vertices[c + 2]);
+        }
+    }
+
+    /**
+     * ctor for a mesh given its vertices as points
+     *
+     * @param vertices the vertices
+     * @param indices  the indexes of the vertices of the faces (3 for each face)
+     * @throws IllegalArgumentException if the indexes aren't triplets or an index isn't a vertex
+     */
+    public TriangleMesh(List<Point> vertices, int[] indices) {
+        this(toCoordinates(vertices), indices);
+    }
+
+    /**
+     * @param points a list of points
+     * @return the coordinates of the points one after the other
+     */
+    private static double[] toCoordinates(List<Point> points) {
+        double[] coordinates = new double[points.size() * 3];
+        int i = 0;
+        for (Point p : points) {
+            coordinates[i++] = p.getX();
+            coordinates[i++] = p.getY();
+            coordinates[i++] = p.getZ();
+        }
+        return coordinates;
+    }
+
+    // ==================== Building the hierarchy ====================
+
+    /**
+     * build a node and its sub-tree, the faces are split at the median of their centers on the longest axis
+     *
+     * @param node      the index reserved for the node
+     * @param next      the index of the next free node
+     * @param start     the first face of the node (in the order array)
+     * @param end       the end of the faces of the node (exclusive)
+     * @param order     the faces in their order in the tree
+     * @param centroids the centers of the faces
+     * @param indices   the vertex indexes of the faces
+     * @param bounds    the bounds of the nodes
+     * @param nodes     the structure of the nodes
+     * @return the index of the next free node after the sub-tree
+     */
+    private int build(int node, int next, int start, int end, int[] order, double[] centroids, int[] indices,
+                      double[] bounds, int[] nodes) {
+        int b = node * 6;
+        double[] centerMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] centerMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int axis = 0; axis < 3; axis++) {
+            bounds[b + axis] = Double.POSITIVE_INFINITY;
+            bounds[b + axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+        for (int i = start; i < end; i++) {
+            int face = order[i];
+            for (int axis = 0; axis < 3; axis++) {
+                for (int k = 0; k < 3; k++) {
+                    double value = vertices[indices[face * 3 + k] * 3 + axis];
+                    if (value < bounds[b + axis]) bounds[b + axis] = value;
+                    if (value > bounds[b + axis + 3]) bounds[b + axis + 3] = value;
+                }
+                double center = centroids[face * 3 + axis];
+                if (center < centerMin[axis]) centerMin[axis] = center;
+                if (center > centerMax[axis]) centerMax[axis] = center;
+            }
+        }
+
+        // the axis on which the centers of the faces are spread the most
+        int axis = 0;
+        for (int i = 1; i < 3; i++)
+            if (centerMax[i] - centerMin[i] > centerMax[axis] - centerMin[axis])
+                axis = i;
+
+        // a leaf - few faces, or faces with the same center which can't be split
+        if (end - start <= LEAF_SIZE || centerMax[axis] - centerMin[axis] <= 0) {
+            nodes[node * 2] = start;
+            nodes[node * 2 + 1] = end - start;
+            return next;
+        }
+
+        int mid = (start + end) >>> 1;
+        select(order, centroids, start, end, mid, axis);
+
+        // the children are stored one after the other
+        int first = next;
+        nodes[node * 2] = first;
+        nodes[node * 2 + 1] = 0;
+        next = build(first, first + 2, start, mid, order, centroids, indices, bounds, nodes);
+        return build(first + 1, next, mid, end, order, centroids, indices, bounds, nodes);
+    }
+
+    /**
+     * partially sort the faces so the face at k is the one that would be there if they were sorted by their
+     * center on the axis, the faces before it are not greater and the faces after it are not smaller
+     *
+     * @param order     the faces
+     * @param centroids the centers of the faces
+     * @param start     the first face in the range
+     * @param end       the end of the range (exclusive)
+     * @param k         the place of the median
+     * @param axis      the axis
+     */
+    private static void select(int[] order, double[] centroids, int start, int end, int k, int axis) {
+        int lo = start;
+        int hi = end - 1;
+        while (hi > lo) {
+            double pivot = centroids[order[(lo + hi) >>> 1] * 3 + axis];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (centroids[order[i] * 3 + axis] < pivot) i++;
+                while (centroids[order[j] * 3 + axis] > pivot) j--;
+                if (i <= j) {
+                    int temp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = temp;
+                }
+            }
+            if (k <= j)
+                hi = j;
+            else if (k >= i)
+                lo = i;
+            else
+                return;
+        }
+    }
+
+    // ==================== Getters ====================
+
+    /**
+     * @return the amount of vertices in the mesh
+     */
+    public int getVertexCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * @return the amount of faces in the mesh
+     */
+    public int getFaceCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * @param vertex the index of a vertex
+     * @return the vertex
+     */
+    public Point getVertex(int vertex) {
+        return new Point(vertices[vertex * 3], vertices[vertex * 3 + 1], vertices[vertex * 3 + 2]);
+    }
+
+    /**
+     * @param face the index of a face (the faces are stored in the order of the hierarchy, not the order given)
+     * @param k    0, 1 or 2
+     * @return the index of the k-th vertex of the face
+     */
+    public int getFaceVertex(int face, int k) {
+        return indices[face * 3 + k];
+    }
+
+    /**
+     * @param face the index of a face
+     * @return the normal of the face, (v1 - v0) x (v2 - v0) normalized
+     */
+    public Vector getFaceNormal(int face) {
+        int a = indices[face * 3] * 3, b = indices[face * 3 + 1] * 3, c = indices[face * 3 + 2] * 3;
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        return new Vector(
+                crossX(e1x, e1y, e1z, e2x, e2y, e2z),
+                crossY(e1x, e1y, e1z, e2x, e2y, e2z),
+                crossZ(e1x, e1y, e1z, e2x, e2y, e2z)).normalize();
+    }
+
+    /**
+     * the normal of the face the point is on, only the faces of the leaves whose bounds contain the point are
+     * checked - the ray tracer gets the normal from the {@link Face} of the hit instead
+     *
+     * @param point the point which the normal vector is sitting on
+     * @return the normal of the first face the point is on
+     * @throws IllegalArgumentException if the point isn't on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int index = stack[--top];
+            if (!containsPoint(index, px, py, pz))
+                continue;
+
+            int first = nodes[index * 2];
+            int count = nodes[index * 2 + 1];
+            if (count > 0) {
+                for (int face = first; face < first + count; face++)
+                    if (isOnFace(face, px, py, pz))
+                        return getFaceNormal(face);
+                continue;
+            }
+
+            if (top + 2 > stack.length)
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top++] = first;
+            stack[top++] = first + 1;
+        }
+        throw new IllegalArgumentException("The point isn't on the mesh!");
+    }
+
+    /**
+     * @param node the index of the node
+     * @param px   the x coordinate of the point
+     * @param py   the y coordinate of the point
+     * @param pz   the z coordinate of the point
+     * @return true if the point is inside the bounds of the node (or on them)
+     */
+    private boolean containsPoint(int node, double px, double py, double pz) {
+        int b = node * 6;
+        return alignZero(px - bounds[b]) >= 0 && alignZero(bounds[b + 3] - px) >= 0
+                && alignZero(py - bounds[b + 1]) >= 0 && alignZero(bounds[b + 4] - py) >= 0
+                && alignZero(pz - bounds[b + 2]) >= 0 && alignZero(bounds[b + 5] - pz) >= 0;
+    }
+
+    /**
+     * @param face the index of the face
+     * @param px   the x coordinate of the point
+     * @param py   the y coordinate of the point
+     * @param pz   the z coordinate of the point
+     * @return true if the point is on the face (its edges included)
+     */
+    private boolean isOnFace(int face, double px, double py, double pz) {
+        int a = indices[face * 3] * 3, b = indices[face * 3 + 1] * 3, c = indices[face * 3 + 2] * 3;
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        double nx = crossX(e1x, e1y, e1z, e2x, e2y, e2z);
+        double ny = crossY(e1x, e1y, e1z, e2x, e2y, e2z);
+        double nz = crossZ(e1x, e1y, e1z, e2x, e2y, e2z);
+        double area = lengthSquared(nx, ny, nz);
+        if (isZero(area))
+            return false;
+
+        // the point has to be on the plane of the face
+        double sx = px - vertices[a], sy = py - vertices[a + 1], sz = pz - vertices[a + 2];
+        if (!isZero(dot(sx, sy, sz, nx, ny, nz) / Math.sqrt(area)))
+            return false;
+
+        // and inside it - the barycentric coordinates are all positive
+        double u = dot(nx, ny, nz, crossX(sx, sy, sz, e2x, e2y, e2z), crossY(sx, sy, sz, e2x, e2y, e2z),
+                crossZ(sx, sy, sz, e2x, e2y, e2z)) / area;
+        double v = dot(nx, ny, nz, crossX(e1x, e1y, e1z, sx, sy, sz), crossY(e1x, e1y, e1z, sx, sy, sz),
+                crossZ(e1x, e1y, e1z, sx, sy, sz)) / area;
+        return alignZero(u) >= 0 && alignZero(v) >= 0 && alignZero(u + v - 1) <= 0;
+    }
+
+    @Override
+    public AxisAlignedBoundingBox getAxisAlignedBoundingBox() {
+        AxisAlignedBoundingBox res = new AxisAlignedBoundingBox(
+                bounds[0], bounds[1], bounds[2],
+                bounds[3], bounds[4], bounds[5]);
+        res.addToContains(this);
+        return res;
+    }
+
+    // ==================== Intersections ====================
+
+    /**
+     * the intersection of a ray with a face, see {@link Triangle#intersect}
+     *
+     * @param face        the index of the face
+     * @param r           the ray
+     * @param maxDistance the max distance from which there is no intersection
+     * @return the distance along the ray to the face, 0 if there is no intersection
+     */
+    private double intersectFace(int face, FlatBVH.RayData r, double maxDistance) {
+        int a = indices[face * 3] * 3, b = indices[face * 3 + 1] * 3, c = indices[face * 3 + 2] * 3;
+        double[] o = r.origin, d = r.dir;
+        return Triangle.intersect(o[0], o[1], o[2], d[0], d[1], d[2],
+                vertices[a], vertices[a + 1], vertices[a + 2],
+                vertices[b], vertices[b + 1], vertices[b + 2],
+                vertices[c], vertices[c + 1], vertices[c + 2],
+                normalLengths[face], maxDistance, null);
+    }
+
+    /**
+     * find the closest face the ray hits, the hierarchy is traversed with an explicit stack and the nearest
+     * child first, nodes that start behind the best hit so far are skipped
+     *
+     * @param r           the ray
+     * @param maxDistance the max distance from which there is no intersection
+     * @param anyHit      stop at the first face that is hit (not necessarily the closest)
+     * @return the index of the face, -1 if there is no hit
+     */
+    private int findClosestFace(FlatBVH.RayData r, double maxDistance, boolean anyHit) {
+        if (!r.hitsBox(bounds, 0, maxDistance))
+            return -1;
+
+        int closest = -1;
+        int[] stack = new int[STACK_SIZE];
+        double[] entries = new double[STACK_SIZE];
+        int top = 0;
+        stack[top] = 0;
+        entries[top++] = 0;
+
+        while (top > 0) {
+            int index = stack[--top];
+            if (entries[top] >= maxDistance)
+                continue;
+
+            int first = nodes[index * 2];
+            int count = nodes[index * 2 + 1];
+            if (count > 0) {
+                for (int face = first; face < first + count; face++) {
+                    double t = intersectFace(face, r, maxDistance);
+                    if (t > 0) {
+                        if (anyHit)
+                            return face;
+                        closest = face;
+                        maxDistance = t;
+                    }
+                }
+                continue;
+            }
+
+            double near = r.enterBox(bounds, first * 6, maxDistance);
+            double far = r.enterBox(bounds, (first + 1) * 6, maxDistance);
+            int nearChild = first, farChild = first + 1;
+            if (far < near) {
+                double temp = near;
+                near = far;
+                far = temp;
+                nearChild = first + 1;
+                farChild = first;
+            }
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            // the near child is pushed last so it is visited first
+            if (far != Double.POSITIVE_INFINITY) {
+                stack[top] = farChild;
+                entries[top++] = far;
+            }
+            if (near != Double.POSITIVE_INFINITY) {
+                stack[top] = nearChild;
+                entries[top++] = near;
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        FlatBVH.RayData r = new FlatBVH.RayData(ray);
+        if (!r.hitsBox(bounds, 0, maxDistance))
+            return null;
+
+        List<GeoPoint> intersections = null;
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int index = stack[--top];
+            int first = nodes[index * 2];
+            int count = nodes[index * 2 + 1];
+            if (count > 0) {
+                for (int face = first; face < first + count; face++) {
+                    double t = intersectFace(face, r, maxDistance);
+                    if (t > 0) {
+                        if (intersections == null)
+                            intersections = new LinkedList<>();
+                        intersections.add(new GeoPoint(new Face(this, face), ray.getPoint(t)));
+                    }
+                }
+                continue;
+            }
+
+            if (top + 2 > stack.length)
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            for (int child = first; child < first + 2; child++)
+                if (r.hitsBox(bounds, child * 6, maxDistance))
+                    stack[top++] = child;
+        }
+        return intersections;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        FlatBVH.RayData r = new FlatBVH.RayData(ray);
+        int face = findClosestFace(r, maxDistance, false);
+        if (face < 0)
+            return null;
+        return new GeoPoint(new Face(this, face), ray.getPoint(intersectFace(face, r, Double.POSITIVE_INFINITY)));
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minTransmittance) {
+        // if a single face is enough to block the light any face will do
+        if (getMaterial().kT.product(ktr).lowerThan(minTransmittance))
+            return findClosestFace(new FlatBVH.RayData(ray), maxDistance, true) < 0 ? ktr : Double3.ZERO;
+        return super.findTransmittanceHelper(ray, maxDistance, ktr, minTransmittance);
+    }
+
+    @Override
+    public String toString() {
+        return "TriangleMesh{" +
+                "vertices=" + getVertexCount() +
+                ", faces=" + getFaceCount() +
+                ", nodes=" + nodes.length / 2 +
+                ", emission=" + emission +
+                "} ";
+    }
+
+    /**
+     * A single face of a mesh, created for every hit of a ray with the mesh.
+     * <br>
+     * The face takes its normal from the mesh and shares the material and the emission of the mesh,
+     * setting them on the face sets them on the whole mesh.
+     */
+    public static final class Face extends Geometry {
+        /**
+         * the mesh of the face
+         */
+        private final TriangleMesh mesh;
+
+        /**
+         * the index of the face in the mesh
+         */
+        private final int index;
+
+        /**
+         * ctor for a face of a mesh
+         *
+         * @param mesh  the mesh
+         * @param index the index of the face in the mesh
+         */
+        private Face(TriangleMesh mesh, int index) {
+            this.mesh = mesh;
+            this.index = index;
+        }
+
+        /**
+         * @return the mesh of the face
+         */
+        public TriangleMesh getMesh() {
+            return mesh;
+        }
+
+        /**
+         * @return the index of the face in the mesh
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return mesh.getFaceNormal(index);
+        }
+
+        @Override
+        public Material getMaterial() {
+            return mesh.getMaterial();
+        }
+
+        @Override
+        public Color getEmission() {
+            return mesh.getEmission();
+        }
+
+        /**
+         * set the emission of the mesh of the face, which is the emission of all of its faces
+         *
+         * @param emission the emission
+         * @return the face
+         */
+        @Override
+        public Face setEmission(Color emission) {
+            mesh.setEmission(emission);
+            return this;
+        }
+
+        /**
+         * set the material of the mesh of the face, which is the material of all of its faces
+         *
+         * @param material the material
+         * @return the face
+         */
+        @Override
+        public Face setMaterial(Material material) {
+            mesh.setMaterial(material);
+            return this;
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            double t = mesh.intersectFace(index, new FlatBVH.RayData(ray), maxDistance);
+            return t > 0 ? List.of(new GeoPoint(this, ray.getPoint(t))) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Face face)) return false;
+            return mesh == face.mesh && index == face.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(mesh) + index;
+        }
+
+        @Override
+        public String toString() {
+            return "Face{" +
+                    "index=" + index +
+                    ", mesh=" + mesh +
+                    "} ";
+        }
+    }
+}
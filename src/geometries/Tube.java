@@ -4,13 +4,12 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VecMath.*;
 
 /**
  * class Tube will represent a tube in 3D space
@@ -42,17 +41,21 @@ public class Tube extends RadialGeometry {
         // first we find the value t such as P0 + v = O (O is the projection of the point P on the Ray
         // t = v * (P - P0)
         // BVA: if t == 0
-        double t = axisRay.getDir().dotProduct(point.subtract(axisRay.getP0()));
+        Point p0 = axisRay.getP0();
+        Vector v = axisRay.getDir();
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
 
-        Point O;
+        double t = dot(vx, vy, vz, px - p0.getX(), py - p0.getY(), pz - p0.getZ());
 
         // O = P0 + t*v
-        if (isZero(t)) {
-            O = axisRay.getP0();
-        } else {
-            O = axisRay.getP0().add(axisRay.getDir().scale(t));
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        if (!isZero(t)) {
+            ox += vx * t;
+            oy += vy * t;
+            oz += vz * t;
         }
-        return point.subtract(O).normalize();
+        return new Vector(px - ox, py - oy, pz - oz).normalize();
     }
 
 
@@ -80,11 +83,18 @@ public class Tube extends RadialGeometry {
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Point axisP0 = axisRay.getP0();
         Vector d = ray.getDir();
         Vector v = axisRay.getDir();
-        double dv = d.dotProduct(v);
+        double dx = d.getX(), dy = d.getY(), dz = d.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double dv = dot(dx, dy, dz, vx, vy, vz);
+
+        // x = p0 - axisP0
+        double xx = p0.getX() - axisP0.getX(), xy = p0.getY() - axisP0.getY(), xz = p0.getZ() - axisP0.getZ();
 
-        if (ray.getP0().equals(axisRay.getP0())) {
+        if (isZeroVector(xx, xy, xz)) {
             if (isZero(dv)) {
                 if (alignZero(maxDistance - radius) > 0)
                     return List.of(new GeoPoint(this, ray.getPoint(radius)));
@@ -92,25 +102,24 @@ public class Tube extends RadialGeometry {
                     return null;
             }
 
-            Vector dvv = v.scale(d.dotProduct(v));
+            // d - (d*v)v
+            double rx = dx - vx * dv, ry = dy - vy * dv, rz = dz - vz * dv;
 
-            if (d.equals(dvv)) {
+            if (isZeroVector(rx, ry, rz)) {
                 return null;
             }
-            double t = Math.sqrt(radius * radius / d.subtract(dvv).lengthSquared());
+            double t = Math.sqrt(radius * radius / lengthSquared(rx, ry, rz));
             if(alignZero(maxDistance-t) > 0)
                 return List.of(new GeoPoint(this, ray.getPoint(t)));
             else
                 return null;
         }
 
-        Vector x = ray.getP0().subtract(axisRay.getP0());
-
-        double xv = x.dotProduct(v);
+        double xv = dot(xx, xy, xz, vx, vy, vz);
 
         double a = 1 - dv * dv;
-        double b = 2 * d.dotProduct(x) - 2 * dv * xv;
-        double c = x.lengthSquared() - xv * xv - radius * radius;
+        double b = 2 * dot(dx, dy, dz, xx, xy, xz) - 2 * dv * xv;
+        double c = lengthSquared(xx, xy, xz) - xv * xv - radius * radius;
 
         if (isZero(a)) {
             if (isZero(b)) {
@@ -128,20 +137,17 @@ public class Tube extends RadialGeometry {
         if (delta <= 0)
             return null;
 
-        List<GeoPoint> intersections = null;
+        GeoPoint first = null, second = null;
         double t = alignZero(-(b + Math.sqrt(delta)) / (2 * a));
-        if (t > 0 && alignZero(maxDistance-t) > 0) {
-            intersections = new LinkedList<>();
-            intersections.add(new GeoPoint(this, ray.getPoint(t)));
-        }
+        if (t > 0 && alignZero(maxDistance-t) > 0)
+            first = new GeoPoint(this, ray.getPoint(t));
+
         t = alignZero(-(b - Math.sqrt(delta)) / (2 * a));
-        if (t > 0 && alignZero(maxDistance-t) > 0) {
-            if (intersections == null) {
-                intersections = new LinkedList<>();
-            }
-            intersections.add(new GeoPoint(this, ray.getPoint(t)));
-        }
+        if (t > 0 && alignZero(maxDistance-t) > 0)
+            second = new GeoPoint(this, ray.getPoint(t));
 
-        return intersections;
+        if (first == null)
+            return second == null ? null : List.of(second);
+        return second == null ? List.of(first) : List.of(first, second);
     }
 }
@@ -0,0 +1,65 @@
+package geometries;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link LaneTester} built on the JDK Vector API, a ray is tested against 4 lanes at once on AVX2 cpus and
+ * 8 lanes at once on AVX-512 cpus (the preferred species of the cpu).
+ * <br>
+ * Never refer to this class directly, {@link LaneTester#get(boolean)} loads it by name only when the
+ * jdk.incubator.vector module is present.
+ *
+ * @author danielattali, itiskvales
+ */
+final class VectorLaneTester extends LaneTester {
+    /**
+     * the widest vector of doubles the cpu handles well
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    int cull(GeometryLanes lanes, int from, int count, FlatBVH.RayData r, double maxDistance) {
+        int mask = 0;
+        for (int lane = 0; lane < count; lane += SPECIES.length()) {
+            int i = from + lane;
+            VectorMask<Double> inRange = SPECIES.indexInRange(lane, count);
+
+            // the slab test of the boxes
+            VectorMask<Double> hit = inRange;
+            DoubleVector tNear = DoubleVector.zero(SPECIES);
+            DoubleVector tFar = DoubleVector.broadcast(SPECIES, maxDistance);
+            for (int axis = 0; axis < 3; axis++) {
+                DoubleVector min = DoubleVector.fromArray(SPECIES, lanes.min[axis], i, inRange);
+                DoubleVector max = DoubleVector.fromArray(SPECIES, lanes.max[axis], i, inRange);
+                double origin = r.origin[axis];
+                if (r.parallel[axis]) {
+                    hit = hit.and(min.compare(VectorOperators.LE, origin)).and(max.compare(VectorOperators.GE, origin));
+                    continue;
+                }
+                DoubleVector t1 = min.sub(origin).mul(r.invDir[axis]);
+                DoubleVector t2 = max.sub(origin).mul(r.invDir[axis]);
+                tNear = tNear.max(t1.min(t2));
+                tFar = tFar.min(t1.max(t2));
+            }
+            hit = hit.and(tNear.compare(VectorOperators.LE, tFar));
+
+            // the spheres (the lanes that aren't spheres have an infinite radius and always pass)
+            DoubleVector lx = DoubleVector.fromArray(SPECIES, lanes.center[0], i, inRange).sub(r.origin[0]);
+            DoubleVector ly = DoubleVector.fromArray(SPECIES, lanes.center[1], i, inRange).sub(r.origin[1]);
+            DoubleVector lz = DoubleVector.fromArray(SPECIES, lanes.center[2], i, inRange).sub(r.origin[2]);
+            DoubleVector tm = lx.mul(r.dir[0]).add(ly.mul(r.dir[1])).add(lz.mul(r.dir[2]));
+            DoubleVector th2 = DoubleVector.fromArray(SPECIES, lanes.radiusSquared, i, inRange)
+                    .sub(lx.mul(lx).add(ly.mul(ly)).add(lz.mul(lz)).sub(tm.mul(tm)));
+            DoubleVector th = th2.max(0).sqrt();
+            hit = hit.and(th2.compare(VectorOperators.GE, 0))
+                    .and(tm.add(th).compare(VectorOperators.GE, 0))
+                    .and(tm.sub(th).compare(VectorOperators.LE, maxDistance));
+
+            mask |= (int) hit.toLong() << lane;
+        }
+        return mask;
+    }
+}
@@ -2,6 +2,7 @@ package lighting;
 
 import primitives.Color;
 import primitives.Point;
+import primitives.Sampler;
 import primitives.Vector;
 
 import java.util.List;
@@ -35,4 +36,15 @@ public interface LightSource {
      * @return all vectors who created
      */
     public List<Vector> getL2(Point p);
+
+    /**
+     * Gets vectors from the given point to the light source, spread over the light by the sampler
+     *
+     * @param p the point
+     * @param sampler the sampler that spreads the vectors over the light
+     * @return all vectors who created
+     */
+    default List<Vector> getL2(Point p, Sampler sampler) {
+        return getL2(p);
+    }
 }
@@ -1,11 +1,12 @@
 package lighting;
 
-import geometries.Plane;
 import primitives.Color;
 import primitives.Point;
+import primitives.Sampler;
+import primitives.StratifiedSampler;
 import primitives.Vector;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Point.generatePoints;
@@ -48,10 +49,10 @@ public class PointLight extends Light implements LightSource {
     private double lengthOfTheSide;
 
     /**
-     * The amount of rays of the soft shadow.
+     * The amount of rays of the soft shadow of this light.
      * (set 0 to `turn off` the action)
      */
-    public static int softShadowsRays;
+    private int softShadowsRays = 0;
 
 
     /**
@@ -109,15 +110,36 @@ public class PointLight extends Light implements LightSource {
      * Set the number of `soft shadows` rays
      *
      * @param numOfRays the number of `soft shadows` rays
-     * @return the updated camera object
+     * @return the updated point light
      */
     public PointLight setSoftShadowsRays(int numOfRays) {
         if (numOfRays < 0)
             throw new IllegalArgumentException("numOfRays must be greater then 0!");
-        softShadowsRays = numOfRays;
+        this.softShadowsRays = numOfRays;
         return this;
     }
 
+    /**
+     * @return the origin point of the light
+     */
+    public Point getPosition() {
+        return p;
+    }
+
+    /**
+     * @return the radius of the disk (facing the lit point) the soft shadow rays are spread over, 0 for a point
+     */
+    public double getLengthOfTheSide() {
+        return lengthOfTheSide;
+    }
+
+    /**
+     * @return the number of `soft shadows` rays of this light
+     */
+    public int getSoftShadowsRays() {
+        return softShadowsRays;
+    }
+
     // =================== Methods =========================
 
 
@@ -143,24 +165,26 @@ public class PointLight extends Light implements LightSource {
 
     @Override
     public List<Vector> getL2(Point p) {
+        return getL2(p, new StratifiedSampler());
+    }
+
+    @Override
+    public List<Vector> getL2(Point p, Sampler sampler) {
         if (lengthOfTheSide == 0) return List.of(getL(p));
 
-        List<Vector> vectors = new LinkedList<>();
         Vector l = getL(p);
-        // plane of the light
-        Plane plane = new Plane(this.p, l);
 
-        // vectors of the plane
-        List<Vector> vectorsOfThePlane = plane.findVectorsOfPlane();
-        Vector u = vectorsOfThePlane.get(0), v = vectorsOfThePlane.get(1);
+        // vectors of the plane of the light
+        Vector[] basis = l.orthonormalBasis();
+        Vector u = basis[0], v = basis[1];
 
-        List<Point> points = generatePoints(u, v, softShadowsRays, this.p, lengthOfTheSide);
+        List<Point> points = generatePoints(u, v, softShadowsRays, this.p, lengthOfTheSide, sampler);
 
-        for (int k = 0; k < points.size() && k < softShadowsRays; k++) {
+        List<Vector> vectors = new ArrayList<>(points.size() + 1);
+        for (Point point : points) {
             vectors.add(
-                    p.subtract(points.get(k))
+                    p.subtract(point)
             );
-
         }
 
         vectors.add(l);
@@ -0,0 +1,124 @@
+package primitives;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counter based random numbers - every number is a hash of its key (the seed of the render, the pixel, the sample
+ * of the pixel and the dimension) instead of the next state of a shared generator.
+ * <br>
+ * The {@link renderer.Camera} starts every pixel (and every sample of the pixel) on the thread that renders it, and
+ * every call of a {@link Sampler} on that thread takes the next dimension. So the random numbers of a pixel depend
+ * only on the seed and the pixel - not on the thread that renders it or the order of the tiles - and a pixel
+ * (or a tile) can be rendered again on another thread or another machine with exactly the same result.
+ * <br>
+ * A thread that didn't start a pixel (e.g. outside of a render) gets a random key of its own.
+ *
+ * @author danielattali, itiskvales
+ */
+public final class CounterRandom {
+    /**
+     * the odd constant of the golden ratio, used to spread consecutive counters over the 64 bits
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * the key of the random numbers of the current thread
+     */
+    private static final ThreadLocal<Stream> STREAM = ThreadLocal.withInitial(Stream::new);
+
+    /**
+     * the state of the random numbers of a thread
+     */
+    private static class Stream {
+        /**
+         * the key of the current pixel
+         */
+        long pixelKey = ThreadLocalRandom.current().nextLong();
+
+        /**
+         * the key of the current sample of the pixel
+         */
+        long sampleKey = pixelKey;
+
+        /**
+         * the dimensions taken from the current sample
+         */
+        long dimension = 0;
+    }
+
+    /**
+     * Empty private constructor to hide the public one
+     */
+    private CounterRandom() {}
+
+    /**
+     * start the random numbers of a pixel on the current thread
+     *
+     * @param seed the seed of the render
+     * @param pixel the index of the pixel in the image
+     */
+    public static void startPixel(long seed, long pixel) {
+        Stream stream = STREAM.get();
+        stream.pixelKey = hash(hash(seed) + pixel);
+        stream.sampleKey = stream.pixelKey;
+        stream.dimension = 0;
+    }
+
+    /**
+     * start the random numbers of a sample (e.g. an alias ray) of the current pixel on the current thread
+     *
+     * @param sample the index of the sample in the pixel
+     */
+    public static void startSample(long sample) {
+        Stream stream = STREAM.get();
+        stream.sampleKey = hash(stream.pixelKey ^ hash(sample + 1));
+        stream.dimension = 0;
+    }
+
+    /**
+     * @return the key of the next dimension of the current sample - the numbers of a single sampler call
+     */
+    public static long nextDimension() {
+        Stream stream = STREAM.get();
+        return hash(stream.sampleKey + (++stream.dimension) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * @param key the key of a dimension
+     * @param index the index of the number in the dimension
+     * @return 64 random bits
+     */
+    public static long bits(long key, long index) {
+        return hash(key + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * @param key the key of a dimension
+     * @param index the index of the number in the dimension
+     * @return a random number in [0, 1)
+     */
+    public static double uniform(long key, long index) {
+        // the top 53 bits fill the mantissa of the double
+        return (bits(key, index) >>> 11) * 0x1p-53;
+    }
+
+    /**
+     * @return a random number in [0, 1) from the next dimension of the current sample
+     */
+    public static double next() {
+        return uniform(nextDimension(), 0);
+    }
+
+    /**
+     * the finalizer of SplitMix64 - a bijection of the 64 bit numbers whose every output bit depends on all
+     * the input bits
+     *
+     * @param z the number
+     * @return the hash of the number
+     */
+    static long hash(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,51 @@
+package primitives;
+
+/**
+ * Low discrepancy sampling with the Halton sequence in bases 2 and 3.
+ * <br>
+ * Any run of consecutive points of the sequence is spread over the unit square evenly, for any amount of
+ * points (unlike the cells of a jittered grid). Every call starts at a random index of the sequence so
+ * neighbouring pixels don't get the same pattern.
+ *
+ * @author danielattali, itiskvales
+ */
+public class HaltonSampler implements Sampler {
+    /**
+     * the calls start at a random index below this
+     */
+    private static final int MAX_START = 1 << 20;
+
+    @Override
+    public void sample2D(double[] samples, int count) {
+        int start = (int) (CounterRandom.uniform(CounterRandom.nextDimension(), 0) * MAX_START);
+        for (int k = 0; k < count; k++) {
+            samples[2 * k] = radicalInverse2(start + k);
+            samples[2 * k + 1] = radicalInverse(start + k, 3);
+        }
+    }
+
+    /**
+     * @param index the index of the point in the sequence
+     * @return the digits of the index in base 2 mirrored around the decimal point
+     */
+    static double radicalInverse2(int index) {
+        // reversing the bits of the index, 0x1p-32 moves them after the decimal point
+        return (Integer.reverse(index) & 0xFFFFFFFFL) * 0x1p-32;
+    }
+
+    /**
+     * @param index the index of the point in the sequence
+     * @param base the base of the digits
+     * @return the digits of the index in the base mirrored around the decimal point
+     */
+    static double radicalInverse(int index, int base) {
+        double inverse = 0;
+        double digitValue = 1.0 / base;
+        while (index > 0) {
+            inverse += (index % base) * digitValue;
+            index /= base;
+            digitValue /= base;
+        }
+        return inverse;
+    }
+}
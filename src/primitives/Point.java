@@ -1,11 +1,8 @@
 package primitives;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
-import static primitives.Util.alignZero;
-import static primitives.Vector.generateVector;
-
 
 /**
  * class Point Implement the point object in a 3D space
@@ -79,10 +76,10 @@ public class Point {
      * @param other is a Point
      * @return a double value which represent d*d */
     public double distanceSquared(Point other) {
-        Double3 diff = other.xyz.subtract(this.xyz);
-        return  (diff.d1 * diff.d1) +
-                (diff.d2 * diff.d2) +
-                (diff.d3 * diff.d3);
+        return VecMath.lengthSquared(
+                other.xyz.d1 - this.xyz.d1,
+                other.xyz.d2 - this.xyz.d2,
+                other.xyz.d3 - this.xyz.d3);
     }
 
     /**
@@ -120,42 +117,99 @@ public class Point {
         return xyz.d3;
     }
 
+    /**
+     * the arrays the samplers write their points into, one for every thread so they are allocated only once
+     */
+    private static final ThreadLocal<double[]> SAMPLES = ThreadLocal.withInitial(() -> new double[0]);
+
+    /**
+     * the sampler used when none is given
+     */
+    private static final Sampler DEFAULT_SAMPLER = new StratifiedSampler();
+
     /**
      * @param vX the x vector of the plane
      * @param vY the y vector of the plane
      * @param amount the amount of point to generate
      * @param center the 'center' of the generation
      * @param size the size of the circle of the generation
-     * @return a list of point generated using Jittered Pattern inside a circle around center
+     * @return a list of amount points generated using Jittered Pattern inside a circle around center
      */
     public static List<Point> generatePoints(Vector vX, Vector vY, int amount, Point center, double size) {
-        List<Point> points = new LinkedList<>();
-
-//        amount = (int) (1.273 * amount);
-
-        double divider = Math.sqrt(amount);
-        double r = size / divider;
-
-//        double size2 = size * size;
-
-        for (int k = 0; k < divider; k++) {
-            for (int l = 0; l < divider; l++) {
-                double yI = alignZero( -(k - (divider - 1) / 2) * r);
-                double xJ = alignZero( -(l - (divider - 1) / 2) * r);
-
-                Point pIJ = center;
+        return generatePoints(vX, vY, amount, center, size, DEFAULT_SAMPLER);
+    }
 
-                if (xJ != 0) pIJ = pIJ.add(vX.scale(xJ));
-                if (yI != 0) pIJ = pIJ.add(vY.scale(yI));
+    /**
+     * @param vX the x vector of the plane
+     * @param vY the y vector of the plane
+     * @param amount the amount of point to generate
+     * @param center the 'center' of the generation
+     * @param size the size (radius) of the circle of the generation
+     * @param sampler the sampler that spreads the points
+     * @return a list of amount points inside a circle around center
+     */
+    public static List<Point> generatePoints(Vector vX, Vector vY, int amount, Point center, double size, Sampler sampler) {
+        double[] samples = samples(amount);
+        sampler.sample2D(samples, amount);
+        Sampler.squareToDisk(samples, amount);
+        return toPoints(vX, vY, amount, center, samples, size, size);
+    }
 
-                // adding some random jitter
-                pIJ = pIJ.add(generateVector(vX, vY, r));
+    /**
+     * @param vX the x vector of the plane
+     * @param vY the y vector of the plane
+     * @param amount the amount of point to generate
+     * @param center the center of the rectangle
+     * @param width the width of the rectangle (along vX)
+     * @param height the height of the rectangle (along vY)
+     * @param sampler the sampler that spreads the points
+     * @return a list of amount points inside a rectangle around center (e.g. a pixel)
+     */
+    public static List<Point> generatePointsInRectangle(Vector vX, Vector vY, int amount, Point center,
+                                                        double width, double height, Sampler sampler) {
+        double[] samples = samples(amount);
+        sampler.sample2D(samples, amount);
+        // moving the square to [-1, 1) x [-1, 1) like the disk
+        for (int k = 0; k < 2 * amount; k++)
+            samples[k] = 2 * samples[k] - 1;
+        return toPoints(vX, vY, amount, center, samples, width / 2, height / 2);
+    }
 
-//                if(alignZero(pIJ.distanceSquared(center)) < size2)
-                points.add(pIJ);
-            }
+    /**
+     * @param amount the amount of points
+     * @return the array of the samples of the current thread, long enough for amount points
+     */
+    static double[] samples(int amount) {
+        double[] samples = SAMPLES.get();
+        if (samples.length < 2 * amount) {
+            samples = new double[2 * amount];
+            SAMPLES.set(samples);
         }
+        return samples;
+    }
 
+    /**
+     * @param vX the x vector of the plane
+     * @param vY the y vector of the plane
+     * @param amount the amount of points
+     * @param center the center of the points
+     * @param samples the points in [-1, 1] x [-1, 1]
+     * @param scaleX the scale of the points along vX
+     * @param scaleY the scale of the points along vY
+     * @return the points center + a * scaleX * vX + b * scaleY * vY for every sample (a, b)
+     */
+    private static List<Point> toPoints(Vector vX, Vector vY, int amount, Point center,
+                                        double[] samples, double scaleX, double scaleY) {
+        List<Point> points = new ArrayList<>(amount);
+        for (int k = 0; k < amount; k++) {
+            // adding the coordinates directly, scaling a vector by 0 would throw
+            double a = samples[2 * k] * scaleX;
+            double b = samples[2 * k + 1] * scaleY;
+            points.add(new Point(
+                    center.xyz.d1 + a * vX.xyz.d1 + b * vY.xyz.d1,
+                    center.xyz.d2 + a * vX.xyz.d2 + b * vY.xyz.d2,
+                    center.xyz.d3 + a * vX.xyz.d3 + b * vY.xyz.d3));
+        }
         return points;
     }
 
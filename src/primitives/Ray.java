@@ -5,7 +5,7 @@ package primitives;
 
 import geometries.Intersectable;
 
-import java.util.*;
+import java.util.List;
 
 import static primitives.Util.isZero;
 import static geometries.Intersectable.GeoPoint;
@@ -79,11 +79,12 @@ public class Ray {
     public Point getPoint(double t) {
         if(isZero(t) || t == 0.0d)
             return getP0();
-        try {
-            return p0.add(dir.scale(t));
-        } catch (Exception e) {
+
+        // p0 + t*v without the temporary vector
+        double x = dir.xyz.d1 * t, y = dir.xyz.d2 * t, z = dir.xyz.d3 * t;
+        if (VecMath.isZeroVector(x, y, z))
             return getP0();
-        }
+        return new Point(p0.xyz.d1 + x, p0.xyz.d2 + y, p0.xyz.d3 + z);
 
     }
 
@@ -116,23 +117,22 @@ public class Ray {
      */
     public GeoPoint findClosestGeoPoint(List<GeoPoint> geoPoints) {
         // if the list is null we return null
-        if(geoPoints == null || geoPoints.isEmpty())
+        if(geoPoints == null)
             return null;
 
-        Map<GeoPoint, Double> map = new HashMap<>();
+        GeoPoint closest = null;
+        double closestDistance = Double.POSITIVE_INFINITY;
 
-        // mapping each point with the distance to the origin of the ray
+        // a single pass keeping the point with the smallest distance to the origin of the ray
         for (GeoPoint p: geoPoints) {
-            map.put(p, p.point.distanceSquared(this.p0));
+            double distance = p.point.distanceSquared(this.p0);
+            if (closest == null || distance < closestDistance) {
+                closest = p;
+                closestDistance = distance;
+            }
         }
 
-        // put the map in a list and sort by the value (double
-        List<Map.Entry<GeoPoint, Double>> list = new LinkedList<>(map.entrySet());
-
-        // Sort the list
-        list.sort((Comparator<Map.Entry<GeoPoint, Double>>) (o1, o2) -> (o1.getValue()).compareTo(o2.getValue()));
-
-        return list.get(0).getKey();
+        return closest;
     }
 
 }
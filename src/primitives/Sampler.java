@@ -0,0 +1,54 @@
+package primitives;
+
+/**
+ * A strategy that generates the 2D sample points used by the distributed ray tracing effects
+ * (antialiasing, depth of field, soft shadows and glossy surfaces).
+ * <br>
+ * A sampler writes its points into an array given by the caller, so the same array can be reused
+ * for every pixel. The implementations keep no state of their own - their random numbers come from
+ * {@link CounterRandom}, keyed by the pixel the current thread renders - so a single sampler can be shared by
+ * all the render threads, and the samples of a pixel are the same in every render with the same seed.
+ *
+ * @author danielattali, itiskvales
+ */
+public interface Sampler {
+
+    /**
+     * Generates points spread over the unit square [0, 1) x [0, 1)
+     *
+     * @param samples the array the points are written to, the point k is (samples[2k], samples[2k + 1])
+     *                (its length is at least 2 * count)
+     * @param count the amount of points to generate
+     */
+    void sample2D(double[] samples, int count);
+
+    /**
+     * Maps points of the unit square to the unit disk (centered at the origin, radius 1) with the concentric
+     * mapping of Shirley and Chiu, which keeps the points of different cells of the square in different
+     * parts of the disk
+     *
+     * @param samples the points (as in {@link Sampler#sample2D(double[], int)}), replaced with the mapped points
+     * @param count the amount of points
+     */
+    static void squareToDisk(double[] samples, int count) {
+        for (int k = 0; k < count; k++) {
+            double a = 2 * samples[2 * k] - 1;
+            double b = 2 * samples[2 * k + 1] - 1;
+
+            double r, phi;
+            if (a == 0 && b == 0) {
+                r = 0;
+                phi = 0;
+            } else if (Math.abs(a) > Math.abs(b)) {
+                r = a;
+                phi = Math.PI / 4 * (b / a);
+            } else {
+                r = b;
+                phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+            }
+
+            samples[2 * k] = r * Math.cos(phi);
+            samples[2 * k + 1] = r * Math.sin(phi);
+        }
+    }
+}
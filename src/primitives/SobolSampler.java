@@ -0,0 +1,47 @@
+package primitives;
+
+/**
+ * Low discrepancy sampling with the first two dimensions of the Sobol sequence.
+ * <br>
+ * The first 2^m points of the sequence have exactly one point in every box of area 1/2^m whose sides are powers
+ * of two, so it is best with 4, 16, 64... rays. The bits of the points of every call are flipped by random masks
+ * (a random digit scrambling), which moves the points without losing that property, so neighbouring pixels don't
+ * get the same pattern.
+ *
+ * @author danielattali, itiskvales
+ */
+public class SobolSampler implements Sampler {
+
+    @Override
+    public void sample2D(double[] samples, int count) {
+        long scramble = CounterRandom.bits(CounterRandom.nextDimension(), 0);
+        int scrambleX = (int) scramble;
+        int scrambleY = (int) (scramble >>> 32);
+
+        for (int k = 0; k < count; k++) {
+            samples[2 * k] = toUnit(Integer.reverse(k) ^ scrambleX);
+            samples[2 * k + 1] = toUnit(sobol2(k) ^ scrambleY);
+        }
+    }
+
+    /**
+     * @param index the index of the point in the sequence
+     * @return the bits of the second dimension of the Sobol sequence (the first is the index reversed)
+     */
+    static int sobol2(int index) {
+        int bits = 0;
+        // the direction numbers of the second dimension, every one is the previous xor itself shifted once
+        for (int direction = 1 << 31; index != 0; index >>>= 1, direction ^= direction >>> 1)
+            if ((index & 1) != 0)
+                bits ^= direction;
+        return bits;
+    }
+
+    /**
+     * @param bits the bits of a number after the decimal point
+     * @return the number in [0, 1)
+     */
+    private static double toUnit(int bits) {
+        return (bits & 0xFFFFFFFFL) * 0x1p-32;
+    }
+}
@@ -0,0 +1,33 @@
+package primitives;
+
+/**
+ * Jittered (stratified) sampling - the unit square is split to as many cells of the same area as there are
+ * points, and every cell gets one random point.
+ * <br>
+ * When the amount of points is not a square, the rows have a different amount of cells and the height of every
+ * row is set so that all the cells still have the same area (so no part of the square gets more weight than another).
+ *
+ * @author danielattali, itiskvales
+ */
+public class StratifiedSampler implements Sampler {
+
+    @Override
+    public void sample2D(double[] samples, int count) {
+        long key = CounterRandom.nextDimension();
+
+        int rows = Math.max(1, (int) Math.sqrt(count));
+        int k = 0;
+        double y0 = 0;
+        for (int row = 0; row < rows; row++) {
+            // the first rows get the cells left over from the division
+            int cells = count / rows + (row < count % rows ? 1 : 0);
+            double height = (double) cells / count;
+
+            for (int cell = 0; cell < cells; cell++, k++) {
+                samples[2 * k] = (cell + CounterRandom.uniform(key, 2 * k)) / cells;
+                samples[2 * k + 1] = y0 + CounterRandom.uniform(key, 2 * k + 1) * height;
+            }
+            y0 += height;
+        }
+    }
+}
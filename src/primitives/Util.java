@@ -1,7 +1,5 @@
 package primitives;
 
-import java.util.Random;
-
 /**
  * Util class is used for some internal utilities, e.g. controlling accuracy
  * 
@@ -12,8 +10,6 @@ public abstract class Util {
 	private static final int ACCURACY = -40;
 	private static final double EPSILON = 0.0000001;
 
-	private static Random random = new Random();
-
 	/**
 	 * Empty private constructor to hide the public one
 	 */
@@ -71,11 +67,12 @@ public abstract class Util {
 	 * @return the random value
 	 */
 	public static double random(double min, double max) {
-		return Math.random() * (max - min) + min;
+		return CounterRandom.next() * (max - min) + min;
 	}
 
 	/**
 	 * A function that calculates a random number in a particular field
+	 * (the numbers come from {@link CounterRandom}, so they are the same in every render with the same seed)
 	 *
 	 * @param min minimum
 	 * @param max maximum
@@ -83,7 +80,7 @@ public abstract class Util {
 	 */
 	public static double randomDoubleBetweenTwoNumbers(double min, double max) {
 		min += EPSILON;
-		return min + (max - min) * random.nextDouble();
+		return min + (max - min) * CounterRandom.next();
 	}
 
 }
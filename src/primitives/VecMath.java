@@ -0,0 +1,64 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * VecMath is the allocation free version of the {@link Vector} operations, it works on the
+ * coordinates as plain doubles.
+ * <br>
+ * It is used inside the intersection calculations and the ray tracer, where millions of short-lived
+ * vectors would otherwise be created for every image. The public API of the geometries still uses
+ * the immutable {@link Point} and {@link Vector} objects, the results of the calculations are the
+ * same (the operations are done in the same order).
+ *
+ * @author danielattali, itiskvales
+ */
+public abstract class VecMath {
+
+    /**
+     * Empty private constructor to hide the public one
+     */
+    private VecMath() {}
+
+    /**
+     * @return the dot product a * b
+     */
+    public static double dot(double ax, double ay, double az, double bx, double by, double bz) {
+        return ax * bx + ay * by + az * bz;
+    }
+
+    /**
+     * @return the length of (x, y, z) squared
+     */
+    public static double lengthSquared(double x, double y, double z) {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * @return true if (x, y, z) is [almost] the zero vector (the same check the {@link Vector} ctor does)
+     */
+    public static boolean isZeroVector(double x, double y, double z) {
+        return isZero(x) && isZero(y) && isZero(z);
+    }
+
+    /**
+     * @return the x coordinate of the cross product a x b
+     */
+    public static double crossX(double ax, double ay, double az, double bx, double by, double bz) {
+        return ay * bz - az * by;
+    }
+
+    /**
+     * @return the y coordinate of the cross product a x b
+     */
+    public static double crossY(double ax, double ay, double az, double bx, double by, double bz) {
+        return az * bx - ax * bz;
+    }
+
+    /**
+     * @return the z coordinate of the cross product a x b
+     */
+    public static double crossZ(double ax, double ay, double az, double bx, double by, double bz) {
+        return ax * by - ay * bx;
+    }
+}
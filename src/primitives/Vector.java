@@ -1,8 +1,6 @@
 package primitives;
 
-import geometries.Plane;
-
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import static geometries.Intersectable.GeoPoint;
@@ -26,7 +24,7 @@ public class Vector extends Point {
     public Vector(double x, double y, double z) {
         super(x, y, z);
 
-        if(this.xyz.equals(Double3.ZERO)) {
+        if(VecMath.isZeroVector(x, y, z)) {
             throw new IllegalArgumentException("we can't have a 0 vector");
         }
     }
@@ -40,7 +38,7 @@ public class Vector extends Point {
     public Vector(Double3 xyz) {
         super(xyz);
 
-        if(this.xyz.equals(Double3.ZERO)) {
+        if(VecMath.isZeroVector(xyz.d1, xyz.d2, xyz.d3)) {
             throw new IllegalArgumentException("we can't have a 0 vector");
         }
     }
@@ -69,10 +67,10 @@ public class Vector extends Point {
      * function scale() scale the Vector by a value of d
      * @param d is a double by which we scale the vector
      * @return a new Vector resulting from the operation
+     * @throws IllegalArgumentException if the result is the zero vector (d is 0)
      */
     public Vector scale(double d) {
-        if(isZero(d))
-            return new Vector(this.xyz);
+       // scaling by 0 gives the zero vector, so the ctor throws an IllegalArgumentException
        return new Vector(this.xyz.scale(d));
     }
 
@@ -131,23 +129,75 @@ public class Vector extends Point {
      * @return list of random direction vector within the cone defined by the normal vector
      */
     public static List<Vector> generateRandomDirectionInCone(GeoPoint gp, Vector n, double coneAngle, int amount) {
-        List<Vector> result = new LinkedList<>();
-
-        double size = Math.tan(coneAngle) / 2;
+        return generateRandomDirectionInCone(gp, n, coneAngle, amount, new StratifiedSampler());
+    }
 
-        Plane plane = new Plane(gp.point, n);
-        List<Vector> vectors = plane.findVectorsOfPlane();
-        Vector v = vectors.get(0), u = vectors.get(1);
+    /**
+     * @param gp gp the GeoPoint at the surface of the geometry
+     * @param n n the normal to the surface of the geometry at the point of gp.point
+     * @param coneAngle coneAngle the angle of the cone in which the rays will be generated (in radians)
+     * @param amount the number of vectors to generate
+     * @param sampler the sampler that spreads the vectors over the cone
+     * @return list of direction vectors within the cone defined by the normal vector
+     */
+    public static List<Vector> generateRandomDirectionInCone(GeoPoint gp, Vector n, double coneAngle, int amount,
+                                                             Sampler sampler) {
+        double[] directions = new double[3 * amount];
+        generateDirectionsInCone(n, coneAngle, amount, sampler, directions);
+
+        List<Vector> result = new ArrayList<>(amount);
+        for (int k = 0; k < amount; k++)
+            result.add(new Vector(directions[3 * k], directions[3 * k + 1], directions[3 * k + 2]));
+        return result;
+    }
 
-        List<Point> points = generatePoints(u, v, amount, gp.point.add(n), size);
+    /**
+     * Writes directions within a cone around the axis into a buffer - the directions are axis + a * u + b * v for
+     * points (a, b) of a disk of radius tan(coneAngle) / 2, where u, v is the {@link Vector#orthonormalBasis()}
+     * of the axis. Nothing but the basis is allocated, so a caller can reuse the same buffer for every bounce
+     *
+     * @param axis the axis of the cone (normalized)
+     * @param coneAngle the angle of the cone (in radians)
+     * @param amount the number of directions to generate
+     * @param sampler the sampler that spreads the directions over the cone
+     * @param directions the buffer the directions are written to, the direction k is
+     *                   (directions[3k], directions[3k + 1], directions[3k + 2]) (its length is at least 3 * amount)
+     */
+    public static void generateDirectionsInCone(Vector axis, double coneAngle, int amount, Sampler sampler,
+                                                double[] directions) {
+        Vector[] basis = axis.orthonormalBasis();
+        Double3 u = basis[0].xyz, v = basis[1].xyz, w = axis.xyz;
 
-        for (Point p: points) {
-            result.add(
-                    p.subtract(gp.point)
-            );
+        double size = Math.tan(coneAngle) / 2;
+        double[] samples = samples(amount);
+        sampler.sample2D(samples, amount);
+        Sampler.squareToDisk(samples, amount);
+
+        for (int k = 0; k < amount; k++) {
+            double a = samples[2 * k] * size;
+            double b = samples[2 * k + 1] * size;
+            directions[3 * k] = w.d1 + a * u.d1 + b * v.d1;
+            directions[3 * k + 1] = w.d2 + a * u.d2 + b * v.d2;
+            directions[3 * k + 2] = w.d3 + a * u.d3 + b * v.d3;
         }
+    }
 
-        return result;
+    /**
+     * Builds two vectors that together with this vector are an orthonormal basis, with the branchless method of
+     * Duff et al. (an improvement of Frisvad's) - no cross products, no normalization and no checks of the
+     * direction of the vector
+     *
+     * @return the two unit vectors {u, v} orthogonal to this vector and to each other (this vector must be normalized)
+     */
+    public Vector[] orthonormalBasis() {
+        double x = xyz.d1, y = xyz.d2, z = xyz.d3;
+        double sign = Math.copySign(1.0, z);
+        double a = -1.0 / (sign + z);
+        double b = x * y * a;
+        return new Vector[]{
+                new Vector(1.0 + sign * x * x * a, sign * b, -sign * x),
+                new Vector(b, sign + y * y * a, -y)
+        };
     }
 
     /**
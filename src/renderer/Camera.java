@@ -1,13 +1,14 @@
 package renderer;
 
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import primitives.*;
 import primitives.Vector;
 
-import static primitives.Pixel.*;
 import static primitives.Point.generatePoints;
+import static primitives.Point.generatePointsInRectangle;
 import static primitives.Util.*;
 
 
@@ -26,10 +27,24 @@ import static primitives.Util.*;
  *     <li>a Image Writer obj of {@link ImageWriter} used to snap the image using the camera</li>
  *     <li>a Ray Tracer obj that extends the {@link RayTracerBase} and is used to trace all their ray created by the camera using {@link Camera#constructRay(int, int, int, int)}</li>
  * </ul>
+ * The multi threaded renders of the camera share the pool of its {@link TileScheduler}, which is kept between the
+ * renders (the frames of an animation don't create threads of their own) until {@link Camera#close()}.
  *
  * @author danielattali, itiskvales
  */
-public class Camera {
+public class Camera implements AutoCloseable {
+    /**
+     * the points of the alias rays of the pixel the current thread renders with adaptive antialiasing,
+     * reused for every pixel
+     */
+    private static final ThreadLocal<double[]> ALIAS_SAMPLES = ThreadLocal.withInitial(() -> new double[0]);
+
+    /**
+     * the order the alias rays of the pixel the current thread renders with adaptive antialiasing are traced in,
+     * reused for every pixel
+     */
+    private static final ThreadLocal<int[]> ALIAS_ORDER = ThreadLocal.withInitial(() -> new int[0]);
+
     /**
      * starting point of the camera
      */
@@ -90,9 +105,24 @@ public class Camera {
     private int focalRays = 1;
 
     /**
-     * a bool to determine if we are in multi threading mode or not
+     * the settings of the renders (multi threading, tiles, recursion), copied at the start of every render
+     */
+    private RenderSettings renderSettings = new RenderSettings();
+
+    /**
+     * the observers of the renders of the camera
      */
-    private boolean multithreading = false;
+    private final List<RenderProgress.Listener> progressListeners = new ArrayList<>();
+
+    /**
+     * the progress of the last render (null before the first render)
+     */
+    private volatile RenderProgress renderProgress;
+
+    /**
+     * the scheduler of the multi threaded renders, its pool is rebuilt only when the amount of threads changes
+     */
+    private final TileScheduler tileScheduler = new TileScheduler();
 
     // ========================== Ctor ===============================
 
@@ -180,6 +210,20 @@ public class Camera {
         return rayTracer;
     }
 
+    /**
+     * @return the settings of the renders of the camera
+     */
+    public RenderSettings getRenderSettings() {
+        return renderSettings;
+    }
+
+    /**
+     * @return the progress of the current (or last) render, null before the first render
+     */
+    public RenderProgress getRenderProgress() {
+        return renderProgress;
+    }
+
 
     /**
      * a setter for the View Plane argument
@@ -270,7 +314,116 @@ public class Camera {
      * @return the camera object according to the builder pattern
      */
     public Camera setMultiThreading(boolean multiThreading) {
-        this.multithreading = multiThreading;
+        renderSettings.setMultithreading(multiThreading);
+        return this;
+    }
+
+    /**
+     * @param tileSize the width and height of the tiles in multi threading mode (> 0)
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setTileSize(int tileSize) {
+        renderSettings.setTileSize(tileSize);
+        return this;
+    }
+
+    /**
+     * @param threads the amount of threads in multi threading mode (> 0),
+     *                by default the amount of available processors
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setThreadsCount(int threads) {
+        renderSettings.setThreads(threads);
+        return this;
+    }
+
+    /**
+     * @param tileOrder the order the tiles are rendered in multi threading mode
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setTileOrder(TileScheduler.TileOrder tileOrder) {
+        renderSettings.setTileOrder(tileOrder);
+        return this;
+    }
+
+    /**
+     * @param packetSize the width and height (in pixels) of the packets the primary rays are traced in,
+     *                   1 (the default) traces every ray on its own
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setPacketSize(int packetSize) {
+        renderSettings.setPacketSize(packetSize);
+        return this;
+    }
+
+    /**
+     * @param adaptiveAntialiasing true to trace more alias rays only through the noisy pixels, the alias rays
+     *                             are the maximum for a pixel (see {@link RenderSettings#setAdaptiveAntialiasing(boolean)})
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setAdaptiveAntialiasing(boolean adaptiveAntialiasing) {
+        renderSettings.setAdaptiveAntialiasing(adaptiveAntialiasing);
+        return this;
+    }
+
+    /**
+     * @param adaptiveSoftShadows true to trace all the shadow rays of an area light only from the points in the
+     *                            penumbra (see {@link RenderSettings#setAdaptiveSoftShadows(boolean)})
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setAdaptiveSoftShadows(boolean adaptiveSoftShadows) {
+        renderSettings.setAdaptiveSoftShadows(adaptiveSoftShadows);
+        return this;
+    }
+
+    /**
+     * @param sampler the sampler that spreads the rays of antialiasing, depth of field, soft shadows and glossy
+     *                surfaces (see {@link RenderSettings#setSampler(Sampler)})
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setSampler(Sampler sampler) {
+        renderSettings.setSampler(sampler);
+        return this;
+    }
+
+    /**
+     * @param seed the seed of the random numbers of the renders, renders with the same seed give the same image
+     *             (see {@link RenderSettings#setSeed(long)})
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setSeed(long seed) {
+        renderSettings.setSeed(seed);
+        return this;
+    }
+
+    /**
+     * @param listener an observer that will be added to every render of the camera
+     * @return the camera object according to the builder pattern
+     */
+    public Camera addProgressListener(RenderProgress.Listener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("The listener can't be null!");
+        progressListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * @param printProgress true or false (print the progress to the console in multi threading mode or not)
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setPrintProgress(boolean printProgress) {
+        renderSettings.setPrintProgress(printProgress);
+        return this;
+    }
+
+    /**
+     * @param renderSettings the settings of the renders of the camera, the setters of the camera change them
+     * @return the camera object according to the builder pattern
+     */
+    public Camera setRenderSettings(RenderSettings renderSettings) {
+        if (renderSettings == null)
+            throw new IllegalArgumentException("The render settings can't be null!");
+        this.renderSettings = renderSettings;
         return this;
     }
 
@@ -286,22 +439,7 @@ public class Camera {
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
         // using the mathematical model given to us in the theoretical course
-
-        Point pCenter = p0.add(this.vTo.scale(this.distance));
-
-        double rY = this.height / nY;
-        double rX = this.width  / nX;
-
-        double yI = alignZero( -(i - (double) (nY - 1) / 2) * rY);
-        double xJ = alignZero(  (j - (double) (nX - 1) / 2) * rX);
-
-        Point pIJ = pCenter;
-
-        // checking xJ != 0 and yI != 0 because if we scale by 0 we get a 0 vector which will raise an Exception
-        if (xJ != 0) pIJ = pIJ.add(vRight.scale(xJ));
-        if (yI != 0) pIJ = pIJ.add(vUp.scale(yI));
-
-//        System.out.println(pIJ);
+        Point pIJ = pixelCenter(nX, nY, j, i);
         Vector vIJ = pIJ.subtract(p0);
 
         return new Ray(p0, vIJ);
@@ -315,48 +453,48 @@ public class Camera {
      * @return the rays from the camera to the of the pixel[i,j] + a random factor according to the Jittered Pattern
      */
     public List<Ray> constructRays(int nX, int nY, int j, int i) {
+        return constructRays(nX, nY, j, i, renderSettings);
+    }
+
+    /**
+     * @param nX the line width
+     * @param nY the column height
+     * @param j the column of the pixel
+     * @param i the line of the pixel
+     * @param settings the settings of the render, the points on the pixel and the lens are spread by their sampler
+     * @return the rays from the camera to the of the pixel[i,j] + a random factor according to the sampler
+     */
+    private List<Ray> constructRays(int nX, int nY, int j, int i, RenderSettings settings) {
         // if both antialiasing and depth of field it turned off
         if (aliasRays == 1 && lensRadius == 0.0)
             return List.of(constructRay(nX, nY, j, i));
 
         List<Ray> rayBeam = new LinkedList<>();
-        // Choosing the biggest scalar to scale the vectors.
-        Point pCenter = p0.add(this.vTo.scale(this.distance));
 
         double rY = this.height / nY;
         double rX = this.width  / nX;
 
-        double size = Math.min(rY, rX);
-
-        double yI = alignZero( -(i - (double) (nY - 1) / 2) * rY);
-        double xJ = alignZero(  (j - (double) (nX - 1) / 2) * rX);
-
-        Point pIJ = pCenter;
-
-        // checking xJ != 0 and yI != 0 because if we scale by 0 we get a 0 vector which will raise an Exception
-        if (xJ != 0) pIJ = pIJ.add(vRight.scale(xJ));
-        if (yI != 0) pIJ = pIJ.add(vUp.scale(yI));
+        Point pIJ = pixelCenter(nX, nY, j, i);
 
         if(aliasRays > 1 && lensRadius == 0.0) {
 
-            // Constructing (rays * rays) rays in random directions.
-            List<Point> points = generatePoints(vRight, vUp, aliasRays, pIJ, size);
+            // Constructing rays through points spread over the pixel.
+            List<Point> points = generatePointsInRectangle(vRight, vUp, aliasRays, pIJ, rX, rY, settings.getSampler());
 
-            for (int k = 0; k < points.size() && k < aliasRays; k++) {
+            for (Point point : points) {
                 rayBeam.add(
-                        new Ray(p0, points.get(k).subtract(p0))
+                        new Ray(p0, point.subtract(p0))
                 );
             }
 
         }
         if(aliasRays == 1 && lensRadius > 0) {
 
-            // Constructing (rays * rays) rays in random directions.
-            List<Point> points = generatePoints(vRight, vUp, focalRays, p0, lensRadius);
+            // Constructing rays from points spread over the lens.
+            List<Point> points = generatePoints(vRight, vUp, focalRays, p0, lensRadius, settings.getSampler());
 
             // Construct rays in random directions with depth of field effect
-            for (int k = 0; k < focalRays && k < points.size(); k++) {
-                Point p = points.get(k);
+            for (Point p : points) {
                 rayBeam.add(
                         new Ray(p, pIJ.subtract(p))
                 );
@@ -373,67 +511,484 @@ public class Camera {
     /**
      * will render an image using all the data above
      * @throws MissingResourceException if one of the field is null we will throw the exception above
+     * @throws IllegalStateException if the ray tracer is in the middle of another render
      * @return this according to the Builder patter
      */
     public Camera renderImage() throws MissingResourceException {
         // we first make sure all the necessary field aren't null
-        if(
-                (this.imageWriter == null)  ||
-                (this.rayTracer == null)
-
-        ) {
-            // for now the exception is Missing Resource but in the future we need a better Exception
-            throw new MissingResourceException("image write of ray tracer", "camera", "image writer or ray tracer");
-        }
+        checkResources();
 
         int nX = imageWriter.getNx();
         int nY = imageWriter.getNy();
 
-        if(!multithreading) {
+        // a copy, so changing the settings during the render won't affect it
+        RenderSettings settings = new RenderSettings(renderSettings);
+        RayTracerBase tracer = startRender(settings);
+        try {
+            renderPixels(nX, nY, settings, startProgress(nX, nY, settings));
+        } finally {
+            tracer.finishRender();
+        }
+
+        return this;
+    }
+
+    /**
+     * render all the pixels of the image (the body of {@link Camera#renderImage()})
+     * @param nX the line width
+     * @param nY the column height
+     * @param settings the settings of the render
+     * @param progress the progress of the render
+     */
+    private void renderPixels(int nX, int nY, RenderSettings settings, RenderProgress progress) {
+        // a single primary ray for every pixel, so neighbouring pixels can be traced as a packet
+        int packetSize = aliasRays == 1 && lensRadius == 0.0 ? settings.getPacketSize() : 1;
+
+        if(packetSize > 1) {
+            if (!settings.isMultithreading()) {
+                for (int x = 0; x < nX; x += packetSize) {
+                    int x1 = Math.min(x + packetSize, nX);
+                    for (int y = 0; y < nY; y += packetSize)
+                        renderPacket(nX, nY, x, y, x1, Math.min(y + packetSize, nY));
+                    progress.pixelsDone((x1 - x) * nY);
+                }
+            } else {
+                tileScheduler(settings).render(nX, nY, tileRenderer(nX, nY, settings, packetSize),
+                        tile -> progress.pixelsDone(tile.size()));
+            }
+        } else if(!settings.isMultithreading()) {
+            FrameBuffer samples = adaptiveSamples(nX, nY, settings);
 
             // for each pixel in our image we loop over and cast a ray through the center of the pixel,
             // and we calculate the color at the pixel and color it accordingly
             for (int i = 0; i < nX; i++) {
                 for (int j = 0; j < nY; j++) {
-                    Color color = getAveragePixelColor(nX, nY, i, j);
+                    Color color = getAveragePixelColor(nX, nY, i, j, settings, samples);
 
                     imageWriter.writePixel(i, j, color);
                 }
+                progress.pixelsDone(nY);
             }
         } else {
-            Pixel.initialize(nY, nX, printInterval);
-            IntStream.range(0, nY).parallel().forEach(i -> {
-                IntStream.range(0, nX).parallel().forEach(j -> {
-                    Color color = getAveragePixelColor(nX, nY, j, i);
-                    imageWriter.writePixel(j, i, color);
-                    Pixel.pixelDone();
-                    Pixel.printPixel();
-                });
+            tileScheduler(settings).render(nX, nY, tileRenderer(nX, nY, settings, packetSize),
+                    tile -> progress.pixelsDone(tile.size()));
+        }
+    }
+
+    /**
+     * render the image asynchronously on the pool of the camera, with {@link RenderSettings#getThreads() the threads}
+     * of the settings in multi threading mode (a single thread otherwise), the pool is kept for the next renders
+     * @throws MissingResourceException if the image writer or the ray tracer are missing
+     * @throws IllegalStateException if the ray tracer is in the middle of another render
+     * @return the future of the render, see {@link Camera#renderAsync(Executor)}
+     */
+    public RenderFuture renderAsync() throws MissingResourceException {
+        return startAsync(null);
+    }
+
+    /**
+     * render the image asynchronously, the method returns at once.
+     * <br>
+     * The tiles are rendered by {@link RenderSettings#getThreads() the threads} of the settings in multi threading
+     * mode (a single thread otherwise) that run on the executor, none of them waits for another, so the executor
+     * may be shared with other work. Cancelling the future (or completing it in any other way, e.g. by
+     * {@link java.util.concurrent.CompletableFuture#orTimeout orTimeout}) stops the render between tiles - the ones
+     * being rendered are finished, and {@link RenderFuture#getPartialResult()} gives the camera with the tiles that
+     * were done. The ray tracer is kept by the render until the future {@link RenderFuture#whenStopped() is stopped},
+     * a new render can't start before.
+     * @param executor the executor the render runs on
+     * @throws MissingResourceException if the image writer or the ray tracer are missing
+     * @throws IllegalStateException if the ray tracer is in the middle of another render
+     * @return the future of the render, completed with this camera once all the pixels are done
+     */
+    public RenderFuture renderAsync(Executor executor) throws MissingResourceException {
+        if (executor == null)
+            throw new IllegalArgumentException("The executor can't be null!");
+        return startAsync(executor);
+    }
+
+    /**
+     * start an asynchronous render (see {@link Camera#renderAsync(Executor)})
+     * @param executor the executor the render runs on, null for the pool of the camera
+     * @return the future of the render
+     */
+    private RenderFuture startAsync(Executor executor) {
+        checkResources();
+
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+
+        // a copy, so changing the settings during the render won't affect it
+        RenderSettings settings = new RenderSettings(renderSettings);
+        RayTracerBase tracer = startRender(settings);
+        RenderFuture future;
+        try {
+            RenderProgress progress = startProgress(nX, nY, settings);
+            future = new RenderFuture(this, progress);
+
+            int packetSize = aliasRays == 1 && lensRadius == 0.0 ? settings.getPacketSize() : 1;
+            TileScheduler scheduler = tileScheduler(settings).setStopCondition(future::isDone);
+            TileScheduler.TileRenderer renderer = tileRenderer(nX, nY, settings, packetSize);
+            TileScheduler.TileListener listener = tile -> progress.pixelsDone(tile.size());
+            CompletableFuture<Void> workers = executor == null
+                    ? scheduler.renderAsync(nX, nY, renderer, listener)
+                    : scheduler.renderAsync(nX, nY, renderer, listener, executor);
+            workers.whenComplete((done, failure) -> {
+                // the next render may start once the future is stopped
+                tracer.finishRender();
+                future.workersDone(failure);
             });
+        } catch (RuntimeException e) {
+            tracer.finishRender();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * @param settings the settings of the render
+     * @return the tile scheduler of the camera with the threads (a single thread without multi threading), tiles
+     * and tile order of the settings, and no stop condition
+     */
+    private TileScheduler tileScheduler(RenderSettings settings) {
+        return tileScheduler
+                .setThreads(settings.isMultithreading() ? settings.getThreads() : 1)
+                .setTileSize(settings.getTileSize())
+                .setTileOrder(settings.getTileOrder())
+                .setStopCondition(() -> false);
+    }
+
+    /**
+     * shut down the pool of the multi threaded renders, the next render creates a new one
+     */
+    @Override
+    public void close() {
+        tileScheduler.close();
+    }
+
+    /**
+     * @param nX the line width
+     * @param nY the column height
+     * @param settings the settings of the render
+     * @param packetSize the width and height of the packets of primary rays, 1 to trace the pixels one by one
+     * @return the work of rendering a tile and writing its pixels
+     */
+    private TileScheduler.TileRenderer tileRenderer(int nX, int nY, RenderSettings settings, int packetSize) {
+        if (packetSize > 1)
+            return tile -> {
+                for (int y = tile.y0; y < tile.y1; y += packetSize)
+                    for (int x = tile.x0; x < tile.x1; x += packetSize)
+                        renderPacket(nX, nY, x, y,
+                                Math.min(x + packetSize, tile.x1), Math.min(y + packetSize, tile.y1));
+            };
+        // the tiles never overlap, so the threads add samples to different pixels
+        FrameBuffer samples = adaptiveSamples(nX, nY, settings);
+        return tile -> {
+            for (int y = tile.y0; y < tile.y1; y++)
+                for (int x = tile.x0; x < tile.x1; x++)
+                    imageWriter.writePixel(x, y, getAveragePixelColor(nX, nY, x, y, settings, samples));
+        };
+    }
+
+    /**
+     * @param nX the line width
+     * @param nY the column height
+     * @param settings the settings of the render
+     * @return the frame buffer the samples of the adaptive antialiasing are added to, null without it
+     */
+    private FrameBuffer adaptiveSamples(int nX, int nY, RenderSettings settings) {
+        return settings.isAdaptiveAntialiasing() && aliasRays > 1 && lensRadius == 0.0 ? new FrameBuffer(nX, nY) : null;
+    }
+
+    /**
+     * render the image progressively (see {@link ProgressiveRender}) - the pixels get samples in passes until the
+     * render stops. Every sample is a single ray through a random point of the pixel (from a random point of the
+     * lens with depth of field), so the amount of alias and focal rays of the camera isn't used
+     * @param render the stopping conditions and the listeners of the render, it keeps the samples of the pixels
+     * @throws MissingResourceException if the image writer or the ray tracer are missing
+     * @throws IllegalStateException if the ray tracer is in the middle of another render
+     * @return this according to the Builder patter
+     */
+    public Camera renderProgressive(ProgressiveRender render) throws MissingResourceException {
+        if (render == null)
+            throw new IllegalArgumentException("The progressive render can't be null!");
+        checkResources();
+
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+
+        // a copy, so changing the settings during the render won't affect it
+        RenderSettings settings = new RenderSettings(renderSettings);
+        RayTracerBase tracer = startRender(settings);
+        try {
+            render.start(nX, nY);
+        } catch (RuntimeException e) {
+            tracer.finishRender();
+            throw e;
         }
 
+        // the passes share the pool of the camera, the tiles left once a pass is stopped are skipped
+        TileScheduler scheduler = settings.isMultithreading()
+                ? tileScheduler(settings).setStopCondition(render::isInterrupted)
+                : null;
+        try {
+            boolean stop;
+            do {
+                int samples = render.nextPassSamples();
+                // every pass has its own progress
+                RenderProgress progress = startProgress(nX, nY, settings);
+
+                if (!settings.isMultithreading()) {
+                    for (int x = 0; x < nX && !render.isInterrupted(); x++) {
+                        for (int y = 0; y < nY; y++)
+                            renderProgressivePixel(render, nX, nY, x, y, samples, settings);
+                        progress.pixelsDone(nY);
+                    }
+                } else {
+                    scheduler.render(nX, nY,
+                            tile -> {
+                                for (int y = tile.y0; y < tile.y1; y++)
+                                    for (int x = tile.x0; x < tile.x1; x++)
+                                        renderProgressivePixel(render, nX, nY, x, y, samples, settings);
+                            },
+                            tile -> progress.pixelsDone(tile.size()));
+                }
+                // the image is tone mapped once the pass is done, not after every sample
+                render.getFrameBuffer().writeTo(imageWriter);
+                stop = render.passDone(samples);
+            } while (!stop);
+        } finally {
+            tracer.finishRender();
+        }
 
         return this;
     }
 
+    /**
+     * add the samples of a pass to a pixel of a progressive render
+     * @param render the progressive render
+     * @param nX the line width
+     * @param nY the column height
+     * @param x the column of the pixel
+     * @param y the line of the pixel
+     * @param samples the amount of samples the pass adds
+     * @param settings the settings of the render
+     */
+    private void renderProgressivePixel(ProgressiveRender render, int nX, int nY, int x, int y, int samples,
+                                        RenderSettings settings) {
+        if (render.isConverged(x, y))
+            return;
+
+        FrameBuffer frameBuffer = render.getFrameBuffer();
+        // the sample k of a pixel has the same random numbers whichever pass it is in
+        CounterRandom.startPixel(settings.getSeed(), (long) y * nX + x);
+        for (int k = 0; k < samples && !render.isConverged(x, y); k++) {
+            CounterRandom.startSample(frameBuffer.getCount(x, y));
+            frameBuffer.addSample(x, y, rayTracer.traceRay(constructSampleRay(nX, nY, x, y, settings)));
+        }
+    }
+
+    /**
+     * @param nX the line width
+     * @param nY the column height
+     * @param j the column of the pixel
+     * @param i the line of the pixel
+     * @param settings the settings of the render, the points on the pixel and the lens are taken by their sampler
+     * @return a ray through a random point of the pixel[i, j], from a random point of the lens with depth of field
+     */
+    private Ray constructSampleRay(int nX, int nY, int j, int i, RenderSettings settings) {
+        double rY = this.height / nY;
+        double rX = this.width / nX;
+        Point pIJ = generatePointsInRectangle(vRight, vUp, 1, pixelCenter(nX, nY, j, i), rX, rY,
+                settings.getSampler()).get(0);
+        Point origin = lensRadius > 0
+                ? generatePoints(vRight, vUp, 1, p0, lensRadius, settings.getSampler()).get(0)
+                : p0;
+        return new Ray(origin, pIJ.subtract(origin));
+    }
+
+    /**
+     * @param nX the line width
+     * @param nY the column height
+     * @param j the column of the pixel
+     * @param i the line of the pixel
+     * @return the center of the pixel[i, j] on the view plane
+     */
+    private Point pixelCenter(int nX, int nY, int j, int i) {
+        Point pCenter = p0.add(this.vTo.scale(this.distance));
+
+        double yI = alignZero(-(i - (double) (nY - 1) / 2) * (this.height / nY));
+        double xJ = alignZero((j - (double) (nX - 1) / 2) * (this.width / nX));
+
+        Point pIJ = pCenter;
+        // checking xJ != 0 and yI != 0 because if we scale by 0 we get a 0 vector which will raise an Exception
+        if (xJ != 0) pIJ = pIJ.add(vRight.scale(xJ));
+        if (yI != 0) pIJ = pIJ.add(vUp.scale(yI));
+        return pIJ;
+    }
+
+    /**
+     * @throws MissingResourceException if the image writer or the ray tracer are missing
+     */
+    private void checkResources() throws MissingResourceException {
+        if (this.imageWriter == null || this.rayTracer == null) {
+            // for now the exception is Missing Resource but in the future we need a better Exception
+            throw new MissingResourceException("image write of ray tracer", "camera", "image writer or ray tracer");
+        }
+    }
+
+    /**
+     * create the progress of a render with the listeners of the camera and hand it to the ray tracer
+     * @param nX the line width
+     * @param nY the column height
+     * @param settings the settings of the render
+     * @return the progress of the render
+     */
+    private RenderProgress startProgress(int nX, int nY, RenderSettings settings) {
+        RenderProgress progress = new RenderProgress((long) nX * nY);
+        progressListeners.forEach(progress::addListener);
+        if (settings.isMultithreading() && settings.isPrintProgress())
+            progress.addListener(RenderProgress.printer());
+        renderProgress = progress;
+        rayTracer.setRenderProgress(progress);
+        return progress;
+    }
+
+    /**
+     * start a render on the ray tracer, which renders a single image at a time
+     * @param settings the settings of the render
+     * @return the ray tracer of the render, {@link RayTracerBase#finishRender()} has to be called once none of
+     * its tiles is rendered anymore
+     * @throws IllegalStateException if the ray tracer is in the middle of another render (e.g. an asynchronous
+     * render that wasn't stopped yet, see {@link RenderFuture#whenStopped()})
+     */
+    private RayTracerBase startRender(RenderSettings settings) {
+        RayTracerBase tracer = rayTracer;
+        tracer.startRender(settings);
+        return tracer;
+    }
+
     /**
      * @param nX the line width
      * @param nY the column height
      * @param j the column of the pixel
      * @param i the line of the pixel
+     * @param settings the settings of the render
+     * @param samples the samples of the adaptive antialiasing, null to trace all the alias rays
      * @return the average color at the pixel[i, j]
      */
-    private Color getAveragePixelColor(int nX, int nY, int i, int j) {
-        List<Ray> rays = constructRays(nX, nY, i, j);
+    private Color getAveragePixelColor(int nX, int nY, int i, int j, RenderSettings settings, FrameBuffer samples) {
+        // the random numbers of the pixel depend only on the seed and the pixel, not on the thread
+        CounterRandom.startPixel(settings.getSeed(), (long) j * nX + i);
+
+        if (samples != null)
+            return getAdaptivePixelColor(nX, nY, i, j, settings, samples);
+
+        List<Ray> rays = constructRays(nX, nY, i, j, settings);
 
         Color color = Color.BLACK;
 
-        for (Ray ray : rays)
+        int sample = 0;
+        for (Ray ray : rays) {
+            CounterRandom.startSample(sample++);
             color = color.add(rayTracer.traceRay(ray));
+        }
 
         return color.scale((double) 1 / rays.size());
     }
 
+    /**
+     * adaptive antialiasing - trace the alias rays of a pixel until its color isn't noisy anymore
+     * @param nX the line width
+     * @param nY the column height
+     * @param j the column of the pixel
+     * @param i the line of the pixel
+     * @param settings the settings of the render
+     * @param samples the frame buffer the samples of the pixel are added to
+     * @return the average color of the rays traced through the pixel[i, j]
+     */
+    private Color getAdaptivePixelColor(int nX, int nY, int i, int j, RenderSettings settings, FrameBuffer samples) {
+        // only the points of the jittered grid are taken up front, a ray is built once its point is traced
+        double[] points = ALIAS_SAMPLES.get();
+        int[] order = ALIAS_ORDER.get();
+        if (order.length < aliasRays) {
+            points = new double[2 * aliasRays];
+            order = new int[aliasRays];
+            ALIAS_SAMPLES.set(points);
+            ALIAS_ORDER.set(order);
+        }
+        settings.getSampler().sample2D(points, aliasRays);
+        for (int k = 0; k < aliasRays; k++)
+            order[k] = k;
+
+        Point pIJ = pixelCenter(nX, nY, i, j);
+        double rX = this.width / nX;
+        double rY = this.height / nY;
+
+        // the cells of the grid in a random order, so the first rays cover the whole pixel - every step of the
+        // shuffle picks the next cell out of the cells left, so a pixel that converges early doesn't shuffle the rest
+        long key = CounterRandom.nextDimension();
+        for (int k = 0; k < aliasRays; k++) {
+            int pick = k + (int) (CounterRandom.uniform(key, k) * (aliasRays - k));
+            int cell = order[pick];
+            order[pick] = order[k];
+            order[k] = cell;
+
+            CounterRandom.startSample(samples.getCount(i, j));
+            samples.addSample(i, j, rayTracer.traceRay(constructAliasRay(pIJ, rX, rY, points, cell)));
+            if (samples.getCount(i, j) >= settings.getAdaptiveMinRays()
+                    && samples.getStandardError(i, j) <= settings.getAdaptiveThreshold())
+                break;
+        }
+        return samples.getColor(i, j);
+    }
+
+    /**
+     * @param pIJ the center of the pixel
+     * @param rX the width of the pixel
+     * @param rY the height of the pixel
+     * @param points the points of the alias rays in the unit square, the point k is (points[2k], points[2k + 1])
+     * @param k the index of the point of the ray
+     * @return the ray from the camera through the point k of the pixel
+     */
+    private Ray constructAliasRay(Point pIJ, double rX, double rY, double[] points, int k) {
+        // adding the coordinates directly, scaling a vector by 0 would throw
+        double a = (points[2 * k] - 0.5) * rX;
+        double b = (points[2 * k + 1] - 0.5) * rY;
+        Point point = new Point(
+                pIJ.getX() + a * vRight.getX() + b * vUp.getX(),
+                pIJ.getY() + a * vRight.getY() + b * vUp.getY(),
+                pIJ.getZ() + a * vRight.getZ() + b * vUp.getZ());
+        return new Ray(p0, point.subtract(p0));
+    }
+
+    /**
+     * trace the primary rays of a block of pixels as a single packet and write their colors
+     * @param nX the line width
+     * @param nY the column height
+     * @param x0 the first column of the block
+     * @param y0 the first line of the block
+     * @param x1 the column after the last column of the block
+     * @param y1 the line after the last line of the block
+     */
+    private void renderPacket(int nX, int nY, int x0, int y0, int x1, int y1) {
+        Ray[] rays = new Ray[(x1 - x0) * (y1 - y0)];
+        long[] pixels = new long[rays.length];
+        int k = 0;
+        for (int y = y0; y < y1; y++)
+            for (int x = x0; x < x1; x++) {
+                pixels[k] = (long) y * nX + x;
+                rays[k++] = constructRay(nX, nY, x, y);
+            }
+
+        Color[] colors = rayTracer.traceRays(rays, pixels);
+
+        k = 0;
+        for (int y = y0; y < y1; y++)
+            for (int x = x0; x < x1; x++)
+                imageWriter.writePixel(x, y, colors[k++]);
+    }
+
     /**
      * cast the ray and find the color of object at the intersection
      * @param nx the line width
@@ -576,8 +1131,8 @@ public class Camera {
         double cos = Math.cos(radian);
         double sin = Math.sin(radian);
 
-        Vector newVTo = vTo.scale(cos).add(vRight.scale(sin));
-        Vector newVRight = vRight.scale(cos).subtract(vTo.scale(sin));
+        Vector newVTo = rotateVector(vTo, cos, vRight, sin);
+        Vector newVRight = rotateVector(vRight, cos, vTo, -sin);
 
         vTo = newVTo;
         vRight = newVRight;
@@ -599,8 +1154,8 @@ public class Camera {
         double cos = Math.cos(radian);
         double sin = Math.sin(radian);
 
-        Vector newVUp = vUp.scale(cos).subtract(vRight.scale(sin));
-        Vector newVRight = vRight.scale(cos).add(vUp.scale(sin));
+        Vector newVUp = rotateVector(vUp, cos, vRight, -sin);
+        Vector newVRight = rotateVector(vRight, cos, vUp, sin);
 
         vUp = newVUp;
         vRight = newVRight;
@@ -621,12 +1176,27 @@ public class Camera {
         double cos = Math.cos(radian);
         double sin = Math.sin(radian);
 
-        Vector newVTo = vTo.scale(cos).subtract(vUp.scale(sin));
-        Vector newVUp = vUp.scale(cos).add(vTo.scale(sin));
+        Vector newVTo = rotateVector(vTo, cos, vUp, -sin);
+        Vector newVUp = rotateVector(vUp, cos, vTo, sin);
 
         vTo = newVTo;
         vUp = newVUp;
 
         return this;
     }
+
+    /**
+     * rotate a vector of the camera in the plane of another (orthogonal) vector of the camera
+     * @param v the vector to rotate
+     * @param cos the cosine of the angle
+     * @param u the other vector
+     * @param sin the sine of the angle
+     * @return v * cos + u * sin (cos or sin may be 0, e.g. at 90 degrees)
+     */
+    private static Vector rotateVector(Vector v, double cos, Vector u, double sin) {
+        return new Vector(
+                v.getX() * cos + u.getX() * sin,
+                v.getY() * cos + u.getY() * sin,
+                v.getZ() * cos + u.getZ() * sin);
+    }
 }
@@ -0,0 +1,288 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.Arrays;
+
+/**
+ * A high dynamic range image that accumulates the samples of its pixels - the running mean and variance of every
+ * channel (Welford's algorithm) are kept in primitive float arrays, with the amount of samples of every pixel.
+ * The standard error of a pixel tells when it has enough samples, for the passes of a {@link ProgressiveRender}
+ * and for the adaptive antialiasing of a {@link Camera}.
+ * <br>
+ * The colors aren't clamped or quantized while samples are added, {@link FrameBuffer#writeTo(ImageWriter)} tone
+ * maps them (see {@link ToneMapping}) and writes them to an {@link ImageWriter} once, when the image is needed.
+ * <br>
+ * The pixels are independent, so threads may write different pixels at the same time (the tiles of a
+ * {@link TileScheduler} never overlap) - a pixel must not be written by two threads at once. The samples of a
+ * render are visible to the thread that waits for it once it is done.
+ *
+ * @author danielattali, itiskvales
+ */
+public class FrameBuffer {
+    /**
+     * The way the colors of the pixels are mapped to the 0-255 range of the image
+     */
+    public enum ToneMapping {
+        /**
+         * the channels above 255 are clamped to 255
+         */
+        CLAMP,
+        /**
+         * every channel c (in 0-255 units) is mapped to 255c / (255 + c), the bright colors are compressed
+         * instead of clamped
+         */
+        REINHARD
+    }
+
+    /**
+     * the width of the image
+     */
+    private final int nX;
+
+    /**
+     * the height of the image
+     */
+    private final int nY;
+
+    /**
+     * the mean of every channel of every pixel [3 * (y * nX + x) + channel]
+     */
+    private final float[] mean;
+
+    /**
+     * the sum of the squared distances from the mean of every channel of every pixel, same order as the mean
+     */
+    private final float[] m2;
+
+    /**
+     * the amount of samples of every pixel [y * nX + x]
+     */
+    private final int[] count;
+
+    /**
+     * the way the colors are mapped to the image
+     */
+    private ToneMapping toneMapping = ToneMapping.CLAMP;
+
+    /**
+     * the factor the colors are scaled by before the tone mapping
+     */
+    private double exposure = 1;
+
+    /**
+     * ctor for an empty frame buffer (no pixel has samples)
+     *
+     * @param nX the width of the image
+     * @param nY the height of the image
+     */
+    public FrameBuffer(int nX, int nY) {
+        if (nX < 1 || nY < 1)
+            throw new IllegalArgumentException("The width and height of the frame buffer must be greater then 0!");
+        this.nX = nX;
+        this.nY = nY;
+        mean = new float[3 * nX * nY];
+        m2 = new float[3 * nX * nY];
+        count = new int[nX * nY];
+    }
+
+    // ========================= Setters (builder pattern) ==========================
+
+    /**
+     * @param toneMapping the way the colors are mapped to the image
+     * @return the frame buffer according to the builder pattern
+     */
+    public FrameBuffer setToneMapping(ToneMapping toneMapping) {
+        if (toneMapping == null)
+            throw new IllegalArgumentException("The tone mapping can't be null!");
+        this.toneMapping = toneMapping;
+        return this;
+    }
+
+    /**
+     * @param exposure the factor the colors are scaled by before the tone mapping (> 0)
+     * @return the frame buffer according to the builder pattern
+     */
+    public FrameBuffer setExposure(double exposure) {
+        if (exposure <= 0)
+            throw new IllegalArgumentException("The exposure must be greater then 0!");
+        this.exposure = exposure;
+        return this;
+    }
+
+    // ========================= Getters ==========================
+
+    /**
+     * @return the width of the image
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * @return the height of the image
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * @return the way the colors are mapped to the image
+     */
+    public ToneMapping getToneMapping() {
+        return toneMapping;
+    }
+
+    /**
+     * @return the factor the colors are scaled by before the tone mapping
+     */
+    public double getExposure() {
+        return exposure;
+    }
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return the amount of samples of the pixel
+     */
+    public int getCount(int x, int y) {
+        return count[index(x, y)];
+    }
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return the mean color of the samples of the pixel, not clamped (black if there are none)
+     */
+    public Color getColor(int x, int y) {
+        int i = 3 * index(x, y);
+        return new Color(mean[i], mean[i + 1], mean[i + 2]);
+    }
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return the standard error of the mean of the noisiest channel of the pixel, infinite with less than two
+     * samples
+     */
+    public double getStandardError(int x, int y) {
+        int pixel = index(x, y);
+        int n = count[pixel];
+        if (n < 2)
+            return Double.POSITIVE_INFINITY;
+        int i = 3 * pixel;
+        double variance = Math.max(m2[i], Math.max(m2[i + 1], m2[i + 2])) / (n - 1);
+        return Math.sqrt(variance / n);
+    }
+
+    /**
+     * @return the standard error of the noisiest pixel (infinite while a pixel has less than two samples)
+     */
+    public double getNoise() {
+        double noise = 0;
+        for (int y = 0; y < nY; y++)
+            for (int x = 0; x < nX; x++)
+                noise = Math.max(noise, getStandardError(x, y));
+        return noise;
+    }
+
+    // ========================= Operations ==========================
+
+    /**
+     * add a sample to a pixel
+     *
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @param color the color of the sample
+     */
+    public void addSample(int x, int y, Color color) {
+        int pixel = index(x, y);
+        int n = ++count[pixel];
+        int i = 3 * pixel;
+        addChannel(i, n, color.getRgb().getX());
+        addChannel(i + 1, n, color.getRgb().getY());
+        addChannel(i + 2, n, color.getRgb().getZ());
+    }
+
+    /**
+     * set the color of a pixel, as its only sample
+     *
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @param color the color of the pixel
+     */
+    public void setPixel(int x, int y, Color color) {
+        int pixel = index(x, y);
+        count[pixel] = 1;
+        int i = 3 * pixel;
+        mean[i] = (float) color.getRgb().getX();
+        mean[i + 1] = (float) color.getRgb().getY();
+        mean[i + 2] = (float) color.getRgb().getZ();
+        m2[i] = m2[i + 1] = m2[i + 2] = 0;
+    }
+
+    /**
+     * remove the samples of all the pixels
+     */
+    public void clear() {
+        Arrays.fill(mean, 0);
+        Arrays.fill(m2, 0);
+        Arrays.fill(count, 0);
+    }
+
+    /**
+     * tone map the pixels that have samples and write them to an image, the pixels without samples keep the color
+     * the image has
+     *
+     * @param imageWriter the image, of the same size as the frame buffer
+     */
+    public void writeTo(ImageWriter imageWriter) {
+        if (imageWriter.getNx() != nX || imageWriter.getNy() != nY)
+            throw new IllegalArgumentException("The image must be of the same size as the frame buffer!");
+        for (int y = 0; y < nY; y++)
+            for (int x = 0; x < nX; x++) {
+                int pixel = y * nX + x;
+                if (count[pixel] == 0)
+                    continue;
+                int i = 3 * pixel;
+                imageWriter.writePixel(x, y, new Color(map(mean[i]), map(mean[i + 1]), map(mean[i + 2])));
+            }
+    }
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return the index of the pixel in the arrays of the samples
+     */
+    private int index(int x, int y) {
+        if (x < 0 || x >= nX || y < 0 || y >= nY)
+            throw new IllegalArgumentException("The pixel [" + x + ", " + y + "] is out of the frame buffer!");
+        return y * nX + x;
+    }
+
+    /**
+     * add a sample to a channel of a pixel (Welford's algorithm)
+     *
+     * @param i the index of the channel
+     * @param n the amount of samples of the pixel, the new one included
+     * @param value the value of the channel in the sample
+     */
+    private void addChannel(int i, int n, double value) {
+        double delta = value - mean[i];
+        double newMean = mean[i] + delta / n;
+        mean[i] = (float) newMean;
+        m2[i] = (float) (m2[i] + delta * (value - newMean));
+    }
+
+    /**
+     * @param channel the value of a channel
+     * @return the value after the exposure and the tone mapping, in 0-255 (quantized by the image writer)
+     */
+    private double map(double channel) {
+        double value = channel * exposure;
+        return switch (toneMapping) {
+            case CLAMP -> Math.min(value, 255);
+            case REINHARD -> 255 * value / (255 + value);
+        };
+    }
+}
@@ -0,0 +1,387 @@
+package renderer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A progressive render - the image is rendered in passes, every pass adds samples to the pixels (as many as all the
+ * passes before it, so the samples per pixel are 1, 2, 4, 8 ...). The samples are accumulated in a
+ * {@link FrameBuffer}, which is tone mapped to the image of the {@link Camera} once after every pass.
+ * <br>
+ * The render stops after {@link ProgressiveRender#setMaxSamples(int) the max samples per pixel}, or before them:
+ * <ul>
+ *     <li>once {@link ProgressiveRender#setTimeBudget(long) the time budget} is spent, in the middle of a pass</li>
+ *     <li>once every pixel is less noisy than {@link ProgressiveRender#setTargetNoise(double) the target noise},
+ *     a pixel that is gets no more samples</li>
+ *     <li>once {@link ProgressiveRender#cancel()} is called (from any thread), in the middle of a pass</li>
+ * </ul>
+ * A pass is stopped between tiles in multi threading mode (between columns otherwise), the pixels the pass didn't
+ * reach keep the samples of the passes before it. The listeners are called after every pass (the stopped one
+ * included) from the thread that renders, while the image is complete.
+ * <br>
+ * A ProgressiveRender holds the samples of a single render, {@link Camera#renderProgressive(ProgressiveRender)}
+ * can't use it twice.
+ *
+ * @author danielattali, itiskvales
+ */
+public class ProgressiveRender {
+    /**
+     * the default max amount of samples of a pixel
+     */
+    public static final int DEFAULT_MAX_SAMPLES = 256;
+
+    /**
+     * the default amount of samples a pixel has before its noise is checked
+     */
+    public static final int DEFAULT_MIN_SAMPLES = 4;
+
+    /**
+     * The reason a progressive render stopped
+     */
+    public enum StopReason {
+        /**
+         * every pixel got the max samples
+         */
+        MAX_SAMPLES,
+        /**
+         * the time budget was spent
+         */
+        TIME_BUDGET,
+        /**
+         * every pixel is less noisy than the target noise
+         */
+        TARGET_NOISE,
+        /**
+         * the render was cancelled
+         */
+        CANCELLED
+    }
+
+    /**
+     * Observer of the passes of a progressive render
+     */
+    @FunctionalInterface
+    public interface PassListener {
+        /**
+         * called after every pass, the image writer of the camera has the image of the pass
+         *
+         * @param render the progressive render
+         */
+        void passDone(ProgressiveRender render);
+    }
+
+    /**
+     * the max amount of samples of a pixel
+     */
+    private int maxSamples = DEFAULT_MAX_SAMPLES;
+
+    /**
+     * the time the render may take in milliseconds, 0 for no limit
+     */
+    private long timeBudget = 0;
+
+    /**
+     * the noise (the standard error of the color of a pixel, in 0-255 units) a pixel stops at, 0 for no target
+     */
+    private double targetNoise = 0;
+
+    /**
+     * the amount of samples a pixel has before its noise is checked
+     */
+    private int minSamples = DEFAULT_MIN_SAMPLES;
+
+    /**
+     * the observers of the passes
+     */
+    private final List<PassListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * true once the render is cancelled
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * the way the colors of the frame buffer are mapped to the image
+     */
+    private FrameBuffer.ToneMapping toneMapping = FrameBuffer.ToneMapping.CLAMP;
+
+    /**
+     * the samples of every pixel, null before the render
+     */
+    private FrameBuffer frameBuffer;
+
+    /**
+     * the time the render started (in nanoseconds, see {@link System#nanoTime()})
+     */
+    private long startTime;
+
+    /**
+     * the amount of passes done
+     */
+    private volatile int passes = 0;
+
+    /**
+     * the amount of samples a pixel has after the passes done (if it didn't stop before)
+     */
+    private volatile int samples = 0;
+
+    /**
+     * the reason the render stopped, null while it runs
+     */
+    private volatile StopReason stopReason;
+
+    // ========================= Setters (builder pattern) ==========================
+
+    /**
+     * @param maxSamples the max amount of samples of a pixel (> 0)
+     * @return the progressive render according to the builder pattern
+     */
+    public ProgressiveRender setMaxSamples(int maxSamples) {
+        if (maxSamples < 1)
+            throw new IllegalArgumentException("The max samples must be greater then 0!");
+        this.maxSamples = maxSamples;
+        return this;
+    }
+
+    /**
+     * @param timeBudget the time the render may take (0 for no limit)
+     * @param unit the unit of the time
+     * @return the progressive render according to the builder pattern
+     */
+    public ProgressiveRender setTimeBudget(long timeBudget, TimeUnit unit) {
+        if (timeBudget < 0)
+            throw new IllegalArgumentException("The time budget can't be negative!");
+        this.timeBudget = unit.toMillis(timeBudget);
+        return this;
+    }
+
+    /**
+     * @param timeBudget the time the render may take in milliseconds (0 for no limit)
+     * @return the progressive render according to the builder pattern
+     */
+    public ProgressiveRender setTimeBudget(long timeBudget) {
+        return setTimeBudget(timeBudget, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param targetNoise the noise a pixel stops at - the standard error of its color in 0-255 units (0 for no
+     *                    target), the noise is checked from {@link ProgressiveRender#setMinSamples(int) the min
+     *                    samples}
+     * @return the progressive render according to the builder pattern
+     */
+    public ProgressiveRender setTargetNoise(double targetNoise) {
+        if (targetNoise < 0)
+            throw new IllegalArgumentException("The target noise can't be negative!");
+        this.targetNoise = targetNoise;
+        return this;
+    }
+
+    /**
+     * @param minSamples the amount of samples a pixel has before its noise is checked (> 1, a single sample can't
+     *                   tell the noise)
+     * @return the progressive render according to the builder pattern
+     */
+    public ProgressiveRender setMinSamples(int minSamples) {
+        if (minSamples < 2)
+            throw new IllegalArgumentException("The min samples must be greater then 1!");
+        this.minSamples = minSamples;
+        return this;
+    }
+
+    /**
+     * @param toneMapping the way the colors of the frame buffer are mapped to the image of the camera
+     * @return the progressive render according to the builder pattern
+     */
+    public ProgressiveRender setToneMapping(FrameBuffer.ToneMapping toneMapping) {
+        if (toneMapping == null)
+            throw new IllegalArgumentException("The tone mapping can't be null!");
+        this.toneMapping = toneMapping;
+        return this;
+    }
+
+    /**
+     * @param listener an observer of the passes
+     * @return the progressive render according to the builder pattern
+     */
+    public ProgressiveRender addPassListener(PassListener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("The listener can't be null!");
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * stop the render at the next tile, may be called from any thread (before the render starts as well)
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // ========================= Getters ==========================
+
+    /**
+     * @return the max amount of samples of a pixel
+     */
+    public int getMaxSamples() {
+        return maxSamples;
+    }
+
+    /**
+     * @return the time the render may take in milliseconds (0 for no limit)
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @return the noise a pixel stops at (0 for no target)
+     */
+    public double getTargetNoise() {
+        return targetNoise;
+    }
+
+    /**
+     * @return the amount of samples a pixel has before its noise is checked
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * @return the way the colors of the frame buffer are mapped to the image
+     */
+    public FrameBuffer.ToneMapping getToneMapping() {
+        return toneMapping;
+    }
+
+    /**
+     * @return the samples of the pixels (their high dynamic range colors), null before the render starts
+     */
+    public FrameBuffer getFrameBuffer() {
+        return frameBuffer;
+    }
+
+    /**
+     * @return true if the render was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the amount of passes done
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * @return the amount of samples a pixel has after the passes done, unless it reached the target noise before or
+     * the last pass was stopped
+     */
+    public int getSamplesPerPixel() {
+        return samples;
+    }
+
+    /**
+     * @return the reason the render stopped, null while it runs (or before it starts)
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * @return the time since the render started in milliseconds (0 before it starts)
+     */
+    public long getElapsedMillis() {
+        return frameBuffer == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /**
+     * @return the noise of the noisiest pixel (infinite while a pixel has less than two samples)
+     */
+    public double getNoise() {
+        return frameBuffer == null ? 0 : frameBuffer.getNoise();
+    }
+
+    // ========================= Render (package private, used by the camera) ==========================
+
+    /**
+     * start the render
+     *
+     * @param nX the width of the image
+     * @param nY the height of the image
+     */
+    void start(int nX, int nY) {
+        if (frameBuffer != null)
+            throw new IllegalStateException("The progressive render was already used!");
+        this.startTime = System.nanoTime();
+        frameBuffer = new FrameBuffer(nX, nY).setToneMapping(toneMapping);
+    }
+
+    /**
+     * @return the amount of samples the next pass adds to every pixel (as many as it has, up to the max samples)
+     */
+    int nextPassSamples() {
+        return Math.min(Math.max(1, samples), maxSamples - samples);
+    }
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return true if the pixel reached the target noise
+     */
+    boolean isConverged(int x, int y) {
+        return targetNoise > 0 && frameBuffer.getCount(x, y) >= minSamples
+                && frameBuffer.getStandardError(x, y) <= targetNoise;
+    }
+
+    /**
+     * @return true if the pass should stop - the render was cancelled or its time is over
+     */
+    boolean isInterrupted() {
+        return cancelled || timeBudget > 0 && getElapsedMillis() >= timeBudget;
+    }
+
+    /**
+     * finish a pass, notify the listeners and decide if the render stops
+     *
+     * @param passSamples the amount of samples the pass added to every pixel
+     * @return true if the render stops
+     */
+    boolean passDone(int passSamples) {
+        passes++;
+        samples += passSamples;
+
+        StopReason reason = null;
+        if (cancelled)
+            reason = StopReason.CANCELLED;
+        else if (timeBudget > 0 && getElapsedMillis() >= timeBudget)
+            reason = StopReason.TIME_BUDGET;
+        else if (targetNoise > 0 && allConverged())
+            reason = StopReason.TARGET_NOISE;
+        else if (samples >= maxSamples)
+            reason = StopReason.MAX_SAMPLES;
+
+        stopReason = reason;
+        for (PassListener listener : listeners)
+            listener.passDone(this);
+
+        // a listener may cancel the render, there is no need for another pass
+        if (stopReason == null && cancelled)
+            stopReason = StopReason.CANCELLED;
+        return stopReason != null;
+    }
+
+    /**
+     * @return true if every pixel reached the target noise
+     */
+    private boolean allConverged() {
+        for (int y = 0; y < frameBuffer.getNy(); y++)
+            for (int x = 0; x < frameBuffer.getNx(); x++)
+                if (!isConverged(x, y))
+                    return false;
+        return true;
+    }
+}
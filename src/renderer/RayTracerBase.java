@@ -1,9 +1,12 @@
 package renderer;
 
 import primitives.Color;
+import primitives.CounterRandom;
 import primitives.Ray;
 import scene.Scene;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * this abstract class will represent a basic ray tracer for our project
  * <br>
@@ -20,6 +23,21 @@ public abstract class RayTracerBase {
      */
     protected Scene scene;
 
+    /**
+     * the progress of the current render, the rays are counted into it (may be null)
+     */
+    protected RenderProgress renderProgress;
+
+    /**
+     * the settings of the current render
+     */
+    protected RenderSettings renderSettings = new RenderSettings();
+
+    /**
+     * true while a render of a {@link Camera} uses the ray tracer
+     */
+    private final AtomicBoolean rendering = new AtomicBoolean(false);
+
     // ====================== Ctor ==========================
 
     /**
@@ -30,6 +48,67 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    // ==================== Setters ==========================
+
+    /**
+     * set by the {@link Camera} at the start of every render
+     *
+     * @param renderSettings the settings of the current render
+     * @return the ray tracer according to the builder pattern
+     * @throws IllegalStateException if the ray tracer is in the middle of a render
+     */
+    public RayTracerBase setRenderSettings(RenderSettings renderSettings) {
+        if (renderSettings == null)
+            throw new IllegalArgumentException("The render settings can't be null!");
+        if (rendering.get())
+            throw new IllegalStateException("The settings of the ray tracer can't change in the middle of a render!");
+        this.renderSettings = renderSettings;
+        return this;
+    }
+
+    /**
+     * set by the {@link Camera} at the start of every render
+     *
+     * @param renderProgress the progress of the current render (null to stop counting the rays)
+     * @return the ray tracer according to the builder pattern
+     */
+    public RayTracerBase setRenderProgress(RenderProgress renderProgress) {
+        this.renderProgress = renderProgress;
+        return this;
+    }
+
+    /**
+     * @return true while a render of a {@link Camera} uses the ray tracer
+     */
+    public boolean isRendering() {
+        return rendering.get();
+    }
+
+    // ==================== Render (package private, used by the camera) ==========================
+
+    /**
+     * start a render - a ray tracer renders a single image at a time, since the settings and the progress of the
+     * render are kept in it (the tiles of another render that is still running would switch to them)
+     *
+     * @param renderSettings the settings of the render
+     * @throws IllegalStateException if the ray tracer is in the middle of another render
+     */
+    void startRender(RenderSettings renderSettings) {
+        if (renderSettings == null)
+            throw new IllegalArgumentException("The render settings can't be null!");
+        if (!rendering.compareAndSet(false, true))
+            throw new IllegalStateException("The ray tracer is in the middle of another render!");
+        this.renderSettings = renderSettings;
+        this.renderProgress = null;
+    }
+
+    /**
+     * finish the render, once none of its rays is traced anymore - the next render may start
+     */
+    void finishRender() {
+        rendering.set(false);
+    }
+
     // ==================== Methods ==========================
 
     /**
@@ -37,4 +116,41 @@ public abstract class RayTracerBase {
      * @return the color at the first intersection of the ray
      */
     public abstract Color traceRay(Ray ray);
+
+    /**
+     * trace a packet of neighbouring rays, the default implementation traces them one by one
+     *
+     * @param rays the rays we will trace
+     * @param pixels the index of the pixel of every ray, the random numbers of its shading are keyed by it
+     * @return the color at the first intersection of every ray, in the order of the rays
+     */
+    public Color[] traceRays(Ray[] rays, long[] pixels) {
+        Color[] colors = new Color[rays.length];
+        for (int i = 0; i < rays.length; i++) {
+            startPixel(pixels[i]);
+            colors[i] = traceRay(rays[i]);
+        }
+        return colors;
+    }
+
+    /**
+     * start the random numbers of the single ray of a pixel on the current thread, like the {@link Camera} does
+     *
+     * @param pixel the index of the pixel
+     */
+    protected void startPixel(long pixel) {
+        CounterRandom.startPixel(renderSettings.getSeed(), pixel);
+        CounterRandom.startSample(0);
+    }
+
+    /**
+     * count a ray into the progress of the current render
+     *
+     * @param type the kind of the ray
+     */
+    protected void countRay(RenderProgress.RayType type) {
+        RenderProgress progress = renderProgress;
+        if (progress != null)
+            progress.rayCast(type);
+    }
 }
@@ -4,13 +4,15 @@ import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
 
-import static java.awt.Color.BLACK;
-import static lighting.PointLight.softShadowsRays;
 import static geometries.Intersectable.GeoPoint;
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VecMath.dot;
+import static primitives.VecMath.lengthSquared;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -20,19 +22,59 @@ import java.util.List;
  */
 public class RayTracerBasic extends RayTracerBase {
     /**
-     * the const value of the maximum amount of recursion in calculating refracted and reflected rays
+     * the transmittance under which a shadow ray is considered as fully blocked
      */
-    private static final int MAX_CALC_COLOR_LEVEL = 2;
+    private static final double MIN_TRANSMITTANCE = 0.00001d;
 
     /**
-     * the const value for the stopping condition in the recursion
+     * the buffers the directions of the glossy rays are written to, one for every thread so they are allocated once
      */
-    private static final double MIN_CALC_COLOR_K = 0.001;
+    private static final ThreadLocal<double[]> CONE_DIRECTIONS = ThreadLocal.withInitial(() -> new double[0]);
 
     /**
-     * the stating value of the parameter K in the function {@link RayTracerBasic#calcColor(GeoPoint, Ray, int, Double3)}
+     * a reflected or refracted ray waiting in the work list of {@link RayTracerBasic#calcColor(GeoPoint, Ray)}
      */
-    private static final double INITIAL_K = 1.0;
+    private static class SecondaryRay {
+        /**
+         * the ray
+         */
+        final Ray ray;
+
+        /**
+         * the kind of the ray (reflected or refracted)
+         */
+        final RenderProgress.RayType type;
+
+        /**
+         * the level of the ray, at level 1 only the local effects of the point it reaches are calculated
+         */
+        final int level;
+
+        /**
+         * the product of the coefficients along the path of the ray (the stopping condition)
+         */
+        final Double3 k;
+
+        /**
+         * the part of the color at the point the ray reaches that gets to the pixel
+         */
+        final Double3 weight;
+
+        /**
+         * @param ray the ray
+         * @param type the kind of the ray
+         * @param level the level of the ray
+         * @param k the product of the coefficients along the path of the ray
+         * @param weight the part of the color at the point the ray reaches that gets to the pixel
+         */
+        SecondaryRay(Ray ray, RenderProgress.RayType type, int level, Double3 k, Double3 weight) {
+            this.ray = ray;
+            this.type = type;
+            this.level = level;
+            this.k = k;
+            this.weight = weight;
+        }
+    }
 
 
     // =========================== Ctor ===========================
@@ -50,43 +92,161 @@ public class RayTracerBasic extends RayTracerBase {
 
     @Override
     public Color traceRay(Ray ray) {
+        countRay(RenderProgress.RayType.PRIMARY);
         GeoPoint closetPoint = findClosestIntersection(ray);
 
         // calc the color at the point
         return closetPoint == null ? scene.background : calcColor(closetPoint, ray);
     }
 
+    @Override
+    public Color[] traceRays(Ray[] rays, long[] pixels) {
+        // the packet finds its closest intersections together, the colors are calculated ray by ray
+        GeoPoint[] closestPoints = this.scene.geometries.findClosestGeoIntersections(rays);
+        Color[] colors = new Color[rays.length];
+        for (int i = 0; i < rays.length; i++) {
+            countRay(RenderProgress.RayType.PRIMARY);
+            startPixel(pixels[i]);
+            colors[i] = closestPoints[i] == null ? scene.background : calcColor(closestPoints[i], rays[i]);
+        }
+        return colors;
+    }
+
     /**
+     * the color at the point - the local effects at the point and at the points the reflected and refracted rays
+     * reach.
+     * <br>
+     * Instead of a recursion, the reflected and refracted rays wait in a work list and are traced level after level
+     * (so a {@link RenderSettings#setRayBudget(int) ray budget} is spent on the first bounces before the deep ones).
+     * Deeper than {@link RenderSettings#setMaxFanOutLevel(int) the fan out level} glossy surfaces trace a single ray,
+     * and with {@link RenderSettings#setRussianRoulette(boolean) russian roulette} weak rays are dropped at random
+     * (and the ones that survive count more), so the amount of rays doesn't grow exponentially with the depth.
+     *
      * @param gp the point which we want the color of
+     * @param ray the ray hitting the point
      * @return the color at the point
      */
     private Color calcColor(GeoPoint gp, Ray ray) {
-        return calcColor(gp, ray, MAX_CALC_COLOR_LEVEL, new Double3(INITIAL_K));
+        int level = renderSettings.getMaxCalcColorLevel();
+        int budget = renderSettings.getRayBudget();
+        Deque<SecondaryRay> rays = new ArrayDeque<>();
+
+        // the normal is calculated once for both the local and the global effects
+        Vector n = gp.geometry.getNormal(gp.point);
+        Color color = calcLocalEffects(gp, ray, n, Double3.ONE);
+        if (level > 1)
+            budget -= addSecondaryRays(rays, gp, ray.getDir(), n, level, Double3.ONE, Double3.ONE, budget);
+
+        while (!rays.isEmpty()) {
+            SecondaryRay secondary = rays.poll();
+            countRay(secondary.type);
+
+            GeoPoint next = findClosestIntersection(secondary.ray);
+            if (next == null) {
+                color = color.add(scene.background.scale(secondary.weight));
+                continue;
+            }
+
+            Vector nextN = next.geometry.getNormal(next.point);
+            if (isZero(nextN.dotProduct(secondary.ray.getDir())))
+                continue;
+
+            color = color.add(calcLocalEffects(next, secondary.ray, nextN, secondary.k).scale(secondary.weight));
+            if (secondary.level > 1)
+                budget -= addSecondaryRays(rays, next, secondary.ray.getDir(), nextN, secondary.level,
+                        secondary.k, secondary.weight, budget);
+        }
+        return color;
     }
 
     /**
-     * @param gp the point at which we want to calc the color
-     * @param ray the ray hitting the geometry
-     * @param level the level of recursion
-     * @param k the parameter helping us calculate how much color each ray is giving to the final pixel
-     * @return the color at the gp
+     * add the reflected and refracted rays of a point to the work list
+     *
+     * @param rays the work list
+     * @param gp the point
+     * @param v the direction of the ray hitting the point
+     * @param n the normal to the surface of the geometry at gp
+     * @param level the level of the ray hitting the point
+     * @param k the product of the coefficients along the path to the point
+     * @param weight the part of the color at the point that reaches the pixel
+     * @param budget the amount of rays that can still be added
+     * @return the amount of rays added
      */
-    private Color calcColor(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Color color = calcLocalEffects(gp, ray, k);
-        return 1 == level ? color : color.add(calcGlobalEffects(gp, ray, level, k));
+    private int addSecondaryRays(Deque<SecondaryRay> rays, GeoPoint gp, Vector v, Vector n, int level,
+                                 Double3 k, Double3 weight, int budget) {
+        Material material = gp.geometry.getMaterial();
+        // the first bounce is the level under the max level
+        boolean fanOut = renderSettings.getMaxCalcColorLevel() - level < renderSettings.getMaxFanOutLevel();
+
+        int added = addSecondaryRays(rays, RenderProgress.RayType.REFLECTED, gp, v, n, level, k, weight,
+                material.kR, fanOut, budget);
+        return added + addSecondaryRays(rays, RenderProgress.RayType.REFRACTED, gp, v, n, level, k, weight,
+                material.kT, fanOut, budget - added);
+    }
+
+    /**
+     * add the reflected or the refracted rays of a point to the work list
+     *
+     * @param rays the work list
+     * @param type the kind of the rays (reflected or refracted)
+     * @param gp the point
+     * @param v the direction of the ray hitting the point
+     * @param n the normal to the surface of the geometry at gp
+     * @param level the level of the ray hitting the point
+     * @param k the product of the coefficients along the path to the point
+     * @param weight the part of the color at the point that reaches the pixel
+     * @param kx the coefficient of the rays (kR or kT)
+     * @param fanOut a glossy surface traces all its rays (otherwise only the mirrored or the straight ray)
+     * @param budget the amount of rays that can still be added
+     * @return the amount of rays added
+     */
+    private int addSecondaryRays(Deque<SecondaryRay> rays, RenderProgress.RayType type, GeoPoint gp, Vector v,
+                                 Vector n, int level, Double3 k, Double3 weight, Double3 kx, boolean fanOut, int budget) {
+        Double3 kkx = k.product(kx);
+        if (budget <= 0 || kkx.lowerThan(renderSettings.getMinCalcColorK()))
+            return 0;
+
+        Double3 kWeight = weight.product(kx);
+        if (renderSettings.isRussianRoulette()) {
+            // a weak path goes on with a probability relative to its strength, and counts as much more if it does
+            double strength = Math.max(kkx.getX(), Math.max(kkx.getY(), kkx.getZ()));
+            double survival = strength / renderSettings.getRouletteThreshold();
+            if (survival < 1) {
+                if (CounterRandom.next() >= survival)
+                    return 0;
+                kWeight = kWeight.scale(1 / survival);
+            }
+        }
+
+        Material material = gp.geometry.getMaterial();
+        boolean reflected = type == RenderProgress.RayType.REFLECTED;
+        int glossyRays = reflected ? material.numRaysReflected : material.numRaysRefracted;
+        // the cone rays and their axis (the mirrored or the straight ray)
+        boolean glossy = fanOut && glossyRays + 1 <= budget;
+
+        List<Ray> secondary;
+        if (reflected)
+            secondary = glossy ? constructReflectedRays(gp, v, n) : List.of(constructReflectedRay(gp, v, n));
+        else
+            secondary = glossy ? constructRefractedRays(gp, v, n) : List.of(constructRefractedRay(gp, v, n));
+
+        Double3 rayWeight = kWeight.scale((double) 1 / secondary.size());
+        for (Ray ray : secondary)
+            rays.add(new SecondaryRay(ray, type, level - 1, kkx, rayWeight));
+        return secondary.size();
     }
 
     /**
      * @param gp the point at which we calculate the color
      * @param ray the ray hitting the geometry
+     * @param n the normal to the surface of the geometry at gp
      * @param k the parameter helping us calculate how much each ray is giving to the final pixel
      * @return the color at gp
      */
-    private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
+    private Color calcLocalEffects(GeoPoint gp, Ray ray, Vector n, Double3 k) {
         Color color = gp.geometry.getEmission();
 
         Vector v = ray.getDir();
-        Vector n = gp.geometry.getNormal(gp.point);
 
         double nv = alignZero(n.dotProduct(v));
         if (nv == 0) return color;
@@ -95,27 +255,14 @@ public class RayTracerBasic extends RayTracerBase {
 
         for (LightSource lightSource : scene.lights) {
 
-            List<Vector> vectors = lightSource.getL2(gp.point);
-
-            Double3 ktr = new Double3(0);
-
-            for(Vector l : vectors) {
-                double nl = alignZero(n.dotProduct(l));
-
-                // sign(nl) == sing(nv)
-                if (nl * nv > 0) {
-                    ktr = ktr.add(transparency(gp, lightSource, l, n));
-
-                }
-            }
-
             Vector l = lightSource.getL(gp.point);
             double nl = alignZero(n.dotProduct(l));
 
             if (nl * nv > 0) {
-                ktr = ktr.scale(((softShadowsRays == 0) ? 1 : ((double) 1 / softShadowsRays)));
+                // the average over all the rays towards the light
+                Double3 ktr = calcTransmittance(gp, lightSource, n, nv);
 
-                if(ktr.product(k).greaterThan(MIN_CALC_COLOR_K)) {
+                if(ktr.product(k).greaterThan(renderSettings.getMinCalcColorK())) {
 
                     Color iL = lightSource.getIntensity(gp.point).scale(ktr);
                     color = color.add(
@@ -131,54 +278,63 @@ public class RayTracerBasic extends RayTracerBase {
 
     /**
      * @param gp the point at which we calculate the color
-     * @param ray the ray hitting the geometry
-     * @param level the level of recursion
-     * @param k the parameter helping us calculate how much color each ray is giving to the final pixel
-     * @return the color at the gp
+     * @param lightSource the light source
+     * @param n the normal to the surface of the geometry at gp
+     * @param nv the dot product of the normal and the direction of the ray hitting the geometry
+     * @return the average transmittance of the shadow rays from gp towards the light source
      */
-    private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Vector v = ray.getDir();
-        Vector n = gp.geometry.getNormal(gp.point);
-        Material material = gp.geometry.getMaterial();
-        return calcGlobalEffect(constructReflectedRays(gp, v, n), level, k, material.kR)
-                .add(calcGlobalEffect(constructRefractedRays(gp, v, n), level, k, material.kT));
-    }
+    private Double3 calcTransmittance(GeoPoint gp, LightSource lightSource, Vector n, double nv) {
+        List<Vector> vectors = lightSource.getL2(gp.point, renderSettings.getSampler());
+        int size = vectors.size();
+        int probes = renderSettings.getSoftShadowProbes();
 
+        if (!renderSettings.isAdaptiveSoftShadows() || size <= probes) {
+            Double3 ktr = new Double3(0);
+            for (Vector l : vectors)
+                ktr = ktr.add(calcShadowRay(gp, lightSource, l, n, nv));
+            return ktr.scale((double) 1 / size);
+        }
 
-    /**
-     * @param ray the ray hitting the geometry
-     * @param level the level of recursion if level == 1 we stop the recursion
-     * @param k the parameter helping us calculate how much color each ray is giving to the final pixel
-     * @param kx a parameter helping us stop the recursion is the effect of the recursion is too small to notice
-     * @return the color at the intersection with ray
-     */
-    private Color calcGlobalEffect(Ray ray, int level, Double3 k, Double3 kx) {
-        Double3 kkx = k.product(kx);
-        if (kkx.lowerThan(MIN_CALC_COLOR_K)) return Color.BLACK;
-        GeoPoint gp = findClosestIntersection(ray);
-        if (gp == null) return scene.background.scale(kx);
-        return isZero(gp.geometry.getNormal(gp.point).dotProduct(ray.getDir())) ? Color.BLACK : calcColor(gp, ray, level - 1, kkx).scale(kx);
+        // adaptive soft shadows - a few probes spread over the light first
+        Vector[] ls = vectors.toArray(new Vector[0]);
+        boolean[] probed = new boolean[size];
+        boolean lit = true;
+        boolean occluded = true;
+        Double3 ktr = new Double3(0);
+        for (int i = 0; i < probes; i++) {
+            int index = i * size / probes;
+            probed[index] = true;
+            Double3 probe = calcShadowRay(gp, lightSource, ls[index], n, nv);
+            lit = lit && probe.equals(Double3.ONE);
+            occluded = occluded && probe.equals(Double3.ZERO);
+            ktr = ktr.add(probe);
+        }
+
+        // the whole light is seen (or hidden) from the point, the rest of the rays would agree
+        if (lit)
+            return Double3.ONE;
+        if (occluded)
+            return Double3.ZERO;
+
+        // the point is in the penumbra, it gets all the rays
+        for (int i = 0; i < size; i++)
+            if (!probed[i])
+                ktr = ktr.add(calcShadowRay(gp, lightSource, ls[i], n, nv));
+        return ktr.scale((double) 1 / size);
     }
 
     /**
-     * @param rays the list of rays hitting the geometry
-     * @param level the level of recursion if level == 1 we stop the recursion
-     * @param k the parameter helping us calculate how much color each ray is giving to the final pixel
-     * @param kx a parameter helping us stop the recursion is the effect of the recursion is too small to notice
-     * @return the color at the intersection with ray
+     * @param gp the point at which we calculate the color
+     * @param lightSource the light source
+     * @param l the vector from the light source to the point
+     * @param n the normal to the surface of the geometry at gp
+     * @param nv the dot product of the normal and the direction of the ray hitting the geometry
+     * @return the transmittance of the shadow ray, zero if the light is on the other side of the surface
      */
-    private Color calcGlobalEffect(List<Ray> rays, int level, Double3 k, Double3 kx) {
-        Color color = new Color(BLACK);
-
-        Double3 kkx = k.product(kx);
-        if (kkx.lowerThan(MIN_CALC_COLOR_K)) return Color.BLACK;
-
-        for(Ray ray: rays) {
-            GeoPoint gp = findClosestIntersection(ray);
-            if (gp == null) return scene.background.scale(kx);
-            color = color.add(isZero(gp.geometry.getNormal(gp.point).dotProduct(ray.getDir())) ? Color.BLACK : calcColor(gp, ray, level - 1, kkx).scale(kx));
-        }
-        return color.scale((double) 1 / rays.size());
+    private Double3 calcShadowRay(GeoPoint gp, LightSource lightSource, Vector l, Vector n, double nv) {
+        double nl = alignZero(n.dotProduct(l));
+        // sign(nl) == sing(nv)
+        return nl * nv > 0 ? transparency(gp, lightSource, l, n) : Double3.ZERO;
     }
 
     /**
@@ -199,9 +355,15 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the specular part of the light in the Phonge light model
      */
     private Double3 calcSpecular(Material mat, Vector n , Vector l, double nl, Vector v) {
-        Vector r = l.add(n.scale(-2 * nl)).normalize();
-
-        double val = alignZero(Math.pow(-v.dotProduct(r), mat.nShininess));
+        // r = l - 2 * nl * n (normalized), calculated without creating the vectors
+        double s = -2 * nl;
+        double rx = l.getX() + n.getX() * s;
+        double ry = l.getY() + n.getY() * s;
+        double rz = l.getZ() + n.getZ() * s;
+        double length = Math.sqrt(lengthSquared(rx, ry, rz));
+
+        double vr = dot(v.getX(), v.getY(), v.getZ(), rx / length, ry / length, rz / length);
+        double val = alignZero(Math.pow(-vr, mat.nShininess));
         return mat.kS.scale(Math.max(0.0d, val));
     }
 
@@ -238,21 +400,10 @@ public class RayTracerBasic extends RayTracerBase {
         Vector lightDirection = l.scale(-1);
         Ray rayShadow = new Ray(gp.point, lightDirection, n);
         double maxDistance = ls.getDistance(gp.point);
-        List<GeoPoint> intersection = this.scene.geometries.findGeoIntersections(rayShadow, maxDistance);
+        countRay(RenderProgress.RayType.SHADOW);
 
-        if(intersection == null)
-            return Double3.ONE;
-
-        Double3 ktr = Double3.ONE;
-        Double3 MIN_VALUE = new Double3(0.00001d);
-
-        for (GeoPoint gPoint: intersection) {
-            ktr = gPoint.geometry.getMaterial().kT.product(ktr);
-            if(ktr.lowerThan(MIN_VALUE))
-                return Double3.ZERO;
-        }
-
-        return ktr;
+        // the query stops at the first opaque occluder instead of collecting all of them
+        return this.scene.geometries.findTransmittance(rayShadow, maxDistance, MIN_TRANSMITTANCE);
     }
 
     /**
@@ -272,37 +423,40 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the retracted ray
      */
     private Ray constructReflectedRay(GeoPoint gp, Vector v, Vector n) {
-        Vector r = v.add(n.scale(-2 * n.dotProduct(v))).normalize();
+        // r = v - 2 * (n * v) * n, the ray normalizes it
+        double s = -2 * n.dotProduct(v);
+        Vector r = new Vector(v.getX() + n.getX() * s, v.getY() + n.getY() * s, v.getZ() + n.getZ() * s);
         return new Ray(gp.point, r, n);
     }
 
     /**
-     * Constructs a list of random reflected rays within the cone of the normal vector at the given surface point.
+     * Constructs a list of random reflected rays within the cone of the mirrored direction at the given surface
+     * point, with the mirrored ray itself.
      *
      * @param gp The GeoPoint at the surface of the geometry.
      * @param v The direction of the original ray.
      * @param n The normal to the surface of the geometry at the point of gp.point.
-     * @return A list of random reflected rays within the cone of the normal vector.
+     * @return A list of random reflected rays within the cone of the mirrored direction.
      */
     private List<Ray> constructReflectedRays(GeoPoint gp, Vector v, Vector n) {
         Material material = gp.geometry.getMaterial();
 
+        Ray mirrored = constructReflectedRay(gp, v, n);
         if (material.numRaysReflected == 1 || isZero(material.coneAngleReflected))
-            return List.of(constructReflectedRay(gp, v, n));
-
-        List<Ray> rays = new ArrayList<>();
-
-        // Generate random direction vectors within the cone of the normal vector
-        List<Vector> randomDirection = Vector.generateRandomDirectionInCone(gp, n, material.coneAngleReflected, material.numRaysReflected);
-
-        // Construct rays using the random direction vectors and add them to the list
-        for (int i = 0; i < randomDirection.size() && i < material.numRaysReflected; i++) {
-            Vector u = randomDirection.get(i);
-            Ray reflectedRay = new Ray(gp.point, u, n);
-            rays.add(reflectedRay);
+            return List.of(mirrored);
+
+        // Generate direction vectors within the cone of the mirrored direction
+        Vector r = mirrored.getDir();
+        double rn = n.dotProduct(r);
+        List<Ray> rays = constructConeRays(gp, r, n, material.coneAngleReflected, material.numRaysReflected);
+        for (int i = 0; i < rays.size(); i++) {
+            // a direction that went through the surface is flipped back to the side of the mirrored ray
+            Vector d = rays.get(i).getDir();
+            double dn = alignZero(n.dotProduct(d));
+            if (dn * rn < 0)
+                rays.set(i, new Ray(gp.point, d.subtract(n.scale(2 * dn)), n));
         }
-
-        rays.add(constructRefractedRay(gp, v, n));
+        rays.add(mirrored);
 
         return rays;
     }
@@ -321,19 +475,35 @@ public class RayTracerBasic extends RayTracerBase {
         if (material.numRaysRefracted == 1 || isZero(material.coneAngleRefracted))
             return List.of(constructRefractedRay(gp, v, n));
 
-        List<Ray> rays = new ArrayList<>();
+        // Generate direction vectors within the cone of the direction of the ray
+        List<Ray> rays = constructConeRays(gp, v, n, material.coneAngleRefracted, material.numRaysRefracted);
+        rays.add(constructRefractedRay(gp, v, n));
 
-        // Generate random direction vectors within the cone of the inverted normal vector
-        List<Vector> randomDirection = Vector.generateRandomDirectionInCone(gp, v, material.coneAngleRefracted, material.numRaysRefracted);
+        return rays;
+    }
 
-        // Construct rays using the random direction vectors and add them to the list
-        for (int i = 0; i < randomDirection.size() && i < material.numRaysRefracted; i++) {
-            Vector u = randomDirection.get(i);
-            Ray refractedRay = new Ray(gp.point, u, n);
-            rays.add(refractedRay);
+    /**
+     * Constructs rays from the surface point in directions spread over a cone, the directions are written to the
+     * buffer of the thread and only the rays themselves are allocated
+     *
+     * @param gp The GeoPoint at the surface of the geometry.
+     * @param axis The axis of the cone (normalized).
+     * @param n The normal to the surface of the geometry at the point of gp.point.
+     * @param coneAngle The angle of the cone (in radians).
+     * @param amount The number of rays.
+     * @return A list of the rays (with room for one more ray).
+     */
+    private List<Ray> constructConeRays(GeoPoint gp, Vector axis, Vector n, double coneAngle, int amount) {
+        double[] directions = CONE_DIRECTIONS.get();
+        if (directions.length < 3 * amount) {
+            directions = new double[3 * amount];
+            CONE_DIRECTIONS.set(directions);
         }
-        rays.add(constructRefractedRay(gp, v, n));
+        Vector.generateDirectionsInCone(axis, coneAngle, amount, renderSettings.getSampler(), directions);
 
+        List<Ray> rays = new ArrayList<>(amount + 1);
+        for (int i = 0; i < amount; i++)
+            rays.add(new Ray(gp.point, new Vector(directions[3 * i], directions[3 * i + 1], directions[3 * i + 2]), n));
         return rays;
     }
 
@@ -343,8 +513,7 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the closest intersection as GeoPoint or null if there is no intersection
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> points = this.scene.geometries.findGeoIntersections(ray);
-        return ray.findClosestGeoPoint(points);
+        return this.scene.geometries.findClosestGeoIntersection(ray);
     }
 
 }
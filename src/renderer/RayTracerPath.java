@@ -0,0 +1,503 @@
+package renderer;
+
+import lighting.LightSource;
+import lighting.PointLight;
+import primitives.*;
+import scene.Scene;
+
+import static geometries.Intersectable.GeoPoint;
+import static primitives.Util.alignZero;
+
+/**
+ * A path tracer - every camera ray goes on as a single path, at every point it reaches one reflected, refracted,
+ * diffuse or glossy direction is chosen at random (by the strength of the coefficients of the material), so the
+ * amount of rays grows linearly with the depth instead of exponentially like the glossy rays of
+ * {@link RayTracerBasic}. The average of many paths (the anti-aliasing and adaptive rays of the {@link Camera},
+ * and {@link RayTracerPath#setPathsPerRay(int)}) converges to the indirect light of the scene as well.
+ * <br>
+ * The scene is the same as for {@link RayTracerBasic}:
+ * <ul>
+ *     <li>kD is a lambertian surface, and kS a normalized phong lobe (nShininess) around the mirrored direction</li>
+ *     <li>kR and kT are a mirror and a straight transmission, spread over a cone when the material has a cone angle</li>
+ *     <li>if the coefficients add up to more than 1 they are scaled down so a surface doesn't create light</li>
+ *     <li>the emission of a geometry is light it gives to every path that reaches it</li>
+ *     <li>the direct light of a point, spot or directional light is the same as in {@link RayTracerBasic}
+ *     for a diffuse surface, the shadow rays pass through transparent geometries</li>
+ * </ul>
+ * At every point of a path the light sources are sampled directly (next event estimation). A point light with
+ * {@link PointLight#setLengthOfTheSide(double) a size} is a disk facing the point, it is sampled from both
+ * sides - a point on the disk, and the paths that hit the disk - and the two are combined with multiple importance
+ * sampling (the power heuristic), the other lights are points and are only sampled directly.
+ * The lights themselves are not seen by the camera.
+ *
+ * @author danielattali, itiskvales
+ */
+public class RayTracerPath extends RayTracerBase {
+    /**
+     * the default max amount of bounces of a path
+     */
+    public static final int DEFAULT_MAX_DEPTH = 5;
+
+    /**
+     * the bounce from which russian roulette may end a path
+     */
+    private static final int ROULETTE_DEPTH = 3;
+
+    /**
+     * the transmittance under which a shadow ray is considered as fully blocked
+     */
+    private static final double MIN_TRANSMITTANCE = 0.00001d;
+
+    /**
+     * the buffers the directions in the cones are written to, one for every thread so they are allocated once
+     */
+    private static final ThreadLocal<double[]> CONE_DIRECTION = ThreadLocal.withInitial(() -> new double[3]);
+
+    /**
+     * the max amount of bounces of a path
+     */
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+
+    /**
+     * the amount of paths averaged for every ray
+     */
+    private int pathsPerRay = 1;
+
+    /**
+     * The scattering of a material at a point, seen from the direction of the ray hitting it.
+     * The coefficients are already scaled to add up to at most 1, the lobes are chosen by their strength.
+     */
+    private static class Lobes {
+        /**
+         * the normal to the surface, on the side of the ray hitting it
+         */
+        final Vector n;
+
+        /**
+         * the mirrored direction of the ray hitting the surface
+         */
+        final Vector r;
+
+        /**
+         * the scaled coefficients of the diffuse, glossy, reflected and refracted lobes
+         */
+        final Double3 kD, kS, kR, kT;
+
+        /**
+         * the shininess of the glossy lobe
+         */
+        final double nShininess;
+
+        /**
+         * the probabilities of choosing the diffuse, glossy, reflected and refracted lobes
+         */
+        final double pD, pS, pR, pT;
+
+        /**
+         * @param material the material of the surface
+         * @param v the direction of the ray hitting the surface
+         * @param n the normal to the surface, on the side of the ray hitting it
+         * @param total the sum of the strengths of the coefficients (greater than 0)
+         */
+        Lobes(Material material, Vector v, Vector n, double total) {
+            this.n = n;
+            double s = -2 * n.dotProduct(v);
+            this.r = new Vector(v.getX() + n.getX() * s, v.getY() + n.getY() * s, v.getZ() + n.getZ() * s)
+                    .normalize();
+            this.nShininess = material.nShininess;
+
+            double scale = total > 1 ? 1 / total : 1;
+            this.kD = material.kD.scale(scale);
+            this.kS = material.kS.scale(scale);
+            this.kR = material.kR.scale(scale);
+            this.kT = material.kT.scale(scale);
+
+            this.pD = strength(material.kD) / total;
+            this.pS = strength(material.kS) / total;
+            this.pR = strength(material.kR) / total;
+            this.pT = strength(material.kT) / total;
+        }
+
+        /**
+         * @param l a direction (normalized)
+         * @return the phong term of the direction, 0 behind the mirrored direction
+         */
+        double phong(Vector l) {
+            double rl = r.dotProduct(l);
+            return rl <= 0 ? 0 : Math.pow(rl, nShininess);
+        }
+
+        /**
+         * @param l a direction on the side of the normal (normalized)
+         * @return the diffuse and glossy scattering towards the direction
+         */
+        Double3 eval(Vector l) {
+            return kD.scale(1 / Math.PI).add(kS.scale((nShininess + 2) / (2 * Math.PI) * phong(l)));
+        }
+
+        /**
+         * @param l a direction on the side of the normal (normalized)
+         * @param cos the cosine between the direction and the normal
+         * @return the probability density (per solid angle) of choosing the direction as a diffuse or glossy bounce
+         */
+        double pdf(Vector l, double cos) {
+            return pD * cos / Math.PI + pS * (nShininess + 1) / (2 * Math.PI) * phong(l);
+        }
+
+        /**
+         * @param u1 a random number in [0, 1)
+         * @param u2 a random number in [0, 1)
+         * @return a direction around the normal, with a density relative to its cosine
+         */
+        Vector sampleDiffuse(double u1, double u2) {
+            double[] disk = {u1, u2};
+            Sampler.squareToDisk(disk, 1);
+            double z = Math.sqrt(Math.max(0, 1 - disk[0] * disk[0] - disk[1] * disk[1]));
+            return around(n, disk[0], disk[1], z);
+        }
+
+        /**
+         * @param u1 a random number in [0, 1)
+         * @param u2 a random number in [0, 1)
+         * @return a direction around the mirrored direction, with a density relative to its phong term
+         */
+        Vector sampleGlossy(double u1, double u2) {
+            double cos = Math.pow(1 - u1, 1 / (nShininess + 1));
+            double sin = Math.sqrt(Math.max(0, 1 - cos * cos));
+            double phi = 2 * Math.PI * u2;
+            return around(r, sin * Math.cos(phi), sin * Math.sin(phi), cos);
+        }
+
+        /**
+         * @param axis the axis (normalized)
+         * @param a the coordinate along the first vector of the {@link Vector#orthonormalBasis()} of the axis
+         * @param b the coordinate along the second vector of the basis
+         * @param c the coordinate along the axis
+         * @return the direction a * u + b * v + c * axis
+         */
+        static Vector around(Vector axis, double a, double b, double c) {
+            Vector[] basis = axis.orthonormalBasis();
+            Vector u = basis[0], v = basis[1];
+            return new Vector(
+                    a * u.getX() + b * v.getX() + c * axis.getX(),
+                    a * u.getY() + b * v.getY() + c * axis.getY(),
+                    a * u.getZ() + b * v.getZ() + c * axis.getZ()).normalize();
+        }
+    }
+
+    // =========================== Ctor ===========================
+
+    /**
+     * ctor for the RayTracerPath
+     *
+     * @param scene the scene for our ray tracer
+     */
+    public RayTracerPath(Scene scene) {
+        super(scene);
+    }
+
+    // ==================== Setters ==========================
+
+    /**
+     * @param maxDepth the max amount of bounces of a path (0 for the direct light only)
+     * @return this according to the Builder Pattern
+     */
+    public RayTracerPath setMaxDepth(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("maxDepth can't be negative!");
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * @param pathsPerRay the amount of paths averaged for every ray (they share the first intersection)
+     * @return this according to the Builder Pattern
+     */
+    public RayTracerPath setPathsPerRay(int pathsPerRay) {
+        if (pathsPerRay < 1)
+            throw new IllegalArgumentException("pathsPerRay must be greater then 0!");
+        this.pathsPerRay = pathsPerRay;
+        return this;
+    }
+
+    // =========================== Methods ===========================
+
+    @Override
+    public Color traceRay(Ray ray) {
+        countRay(RenderProgress.RayType.PRIMARY);
+        GeoPoint closestPoint = this.scene.geometries.findClosestGeoIntersection(ray);
+        return closestPoint == null ? scene.background : calcColor(closestPoint, ray);
+    }
+
+    @Override
+    public Color[] traceRays(Ray[] rays, long[] pixels) {
+        // the packet finds its closest intersections together, the paths are traced ray by ray
+        GeoPoint[] closestPoints = this.scene.geometries.findClosestGeoIntersections(rays);
+        Color[] colors = new Color[rays.length];
+        for (int i = 0; i < rays.length; i++) {
+            countRay(RenderProgress.RayType.PRIMARY);
+            startPixel(pixels[i]);
+            colors[i] = closestPoints[i] == null ? scene.background : calcColor(closestPoints[i], rays[i]);
+        }
+        return colors;
+    }
+
+    /**
+     * @param gp the first intersection of the ray
+     * @param ray the ray
+     * @return the average color of the paths from the point
+     */
+    private Color calcColor(GeoPoint gp, Ray ray) {
+        if (pathsPerRay == 1)
+            return tracePath(gp, ray);
+        Color color = Color.BLACK;
+        for (int i = 0; i < pathsPerRay; i++)
+            color = color.add(tracePath(gp, ray));
+        return color.reduce(pathsPerRay);
+    }
+
+    /**
+     * trace a single path
+     *
+     * @param gp the first intersection of the ray
+     * @param ray the ray
+     * @return the color the path brings to the ray
+     */
+    private Color tracePath(GeoPoint gp, Ray ray) {
+        Color color = Color.BLACK;
+        Double3 throughput = Double3.ONE;
+
+        // the last point the path scattered from (null for the camera), the disks of the lights hit on the
+        // straight line from it are weighted against the light sampling at it (by the pdf, 0 for a mirror)
+        Point lightOrigin = null;
+        double bouncePdf = 0;
+        // the distance from the origin to the start of the ray (after straight transmissions)
+        double travelled = 0;
+
+        for (int depth = 0; ; depth++) {
+            if (lightOrigin != null) {
+                double end = gp == null ? Double.POSITIVE_INFINITY : travelled + gp.point.distance(ray.getP0());
+                color = color.add(calcHitLights(lightOrigin, ray.getDir(), travelled, end, bouncePdf)
+                        .scale(throughput));
+            }
+            if (gp == null)
+                return color.add(scene.background.scale(throughput));
+
+            color = color.add(gp.geometry.getEmission().scale(throughput));
+
+            Vector v = ray.getDir();
+            Vector n = gp.geometry.getNormal(gp.point);
+            double nv = alignZero(n.dotProduct(v));
+            if (nv == 0)
+                return color;
+            // the normal on the side of the ray
+            if (nv > 0)
+                n = n.scale(-1);
+
+            Material material = gp.geometry.getMaterial();
+            double total = strength(material.kD) + strength(material.kS)
+                    + strength(material.kR) + strength(material.kT);
+            if (total == 0)
+                return color;
+            Lobes lobes = new Lobes(material, v, n, total);
+
+            long key = CounterRandom.nextDimension();
+            boolean lastBounce = depth == maxDepth;
+            color = color.add(calcDirectLight(gp.point, lobes, key, lastBounce).scale(throughput));
+            if (lastBounce)
+                return color;
+
+            // choose one lobe, the weight is its scattering divided by the probability of the direction
+            RenderProgress.RayType type = RenderProgress.RayType.REFLECTED;
+            double u = CounterRandom.uniform(key, 0);
+            double u1 = CounterRandom.uniform(key, 1);
+            double u2 = CounterRandom.uniform(key, 2);
+            Vector dir;
+            if (u < lobes.pD + lobes.pS) {
+                dir = u < lobes.pD ? lobes.sampleDiffuse(u1, u2) : lobes.sampleGlossy(u1, u2);
+                double cos = alignZero(n.dotProduct(dir));
+                double pdf = cos <= 0 ? 0 : lobes.pdf(dir, cos);
+                if (pdf <= 0)
+                    return color;
+                throughput = throughput.product(lobes.eval(dir).scale(cos / pdf));
+                lightOrigin = gp.point;
+                bouncePdf = pdf;
+                travelled = 0;
+            } else if (u < lobes.pD + lobes.pS + lobes.pR) {
+                dir = coneDirection(lobes.r, material.coneAngleReflected);
+                if (alignZero(n.dotProduct(dir)) <= 0)
+                    return color;
+                throughput = throughput.product(lobes.kR.scale(1 / lobes.pR));
+                lightOrigin = gp.point;
+                bouncePdf = 0;
+                travelled = 0;
+            } else {
+                dir = coneDirection(v, material.coneAngleRefracted);
+                if (alignZero(n.dotProduct(dir)) >= 0)
+                    return color;
+                throughput = throughput.product(lobes.kT.scale(1 / lobes.pT));
+                type = RenderProgress.RayType.REFRACTED;
+                // a straight transmission is what the shadow rays pass through, the path stays on the same line
+                if (lightOrigin != null) {
+                    if (material.coneAngleRefracted == 0)
+                        travelled = lightOrigin.distance(gp.point);
+                    else {
+                        lightOrigin = gp.point;
+                        bouncePdf = 0;
+                        travelled = 0;
+                    }
+                }
+            }
+
+            if (depth >= ROULETTE_DEPTH) {
+                // a weak path goes on with a probability relative to its strength, and counts as much more if it does
+                double survival = Math.min(1,
+                        Math.max(throughput.getX(), Math.max(throughput.getY(), throughput.getZ())));
+                if (CounterRandom.uniform(key, 3) >= survival)
+                    return color;
+                throughput = throughput.scale(1 / survival);
+            }
+
+            ray = new Ray(gp.point, dir, n);
+            countRay(type);
+            gp = this.scene.geometries.findClosestGeoIntersection(ray);
+        }
+    }
+
+    /**
+     * the light that reaches a point directly from the light sources, a point of every disk light is chosen at
+     * random and weighted against the paths that hit the disk - unless no bounce follows the point, then the
+     * light sampling is the only way the disk is found and it takes the whole weight
+     *
+     * @param point the point
+     * @param lobes the scattering at the point
+     * @param key the key of the random numbers of the point
+     * @param lastBounce true if the path ends at the point (no bounce follows it)
+     * @return the light scattered from the point towards the ray hitting it
+     */
+    private Color calcDirectLight(Point point, Lobes lobes, long key, boolean lastBounce) {
+        if (lobes.pD + lobes.pS == 0)
+            return Color.BLACK;
+
+        Color color = Color.BLACK;
+        int index = 4;
+        for (LightSource lightSource : scene.lights) {
+            Vector l = lightSource.getL(point);
+            double radius = lightSource instanceof PointLight light ? light.getLengthOfTheSide() : 0;
+
+            Vector toLight;
+            double distance;
+            double weight = 1;
+            double lightPdf = 0;
+            if (radius == 0) {
+                toLight = l.scale(-1);
+                distance = lightSource.getDistance(point);
+            } else {
+                // a point on the disk of the light, facing the point
+                double[] disk = {CounterRandom.uniform(key, index), CounterRandom.uniform(key, index + 1)};
+                Sampler.squareToDisk(disk, 1);
+                Vector[] basis = l.orthonormalBasis();
+                Point center = ((PointLight) lightSource).getPosition();
+                double a = disk[0] * radius, b = disk[1] * radius;
+                Point onLight = new Point(
+                        center.getX() + a * basis[0].getX() + b * basis[1].getX(),
+                        center.getY() + a * basis[0].getY() + b * basis[1].getY(),
+                        center.getZ() + a * basis[0].getZ() + b * basis[1].getZ());
+                Vector vector = onLight.subtract(point);
+                distance = vector.length();
+                toLight = vector.scale(1 / distance);
+                double cosLight = -l.dotProduct(toLight);
+                if (cosLight <= 0)
+                    continue;
+                lightPdf = distance * distance / (Math.PI * radius * radius * cosLight);
+            }
+            index += 2;
+
+            double cos = alignZero(lobes.n.dotProduct(toLight));
+            if (cos <= 0)
+                continue;
+            if (radius != 0 && !lastBounce) {
+                double bsdfPdf = lobes.pdf(toLight, cos);
+                weight = lightPdf * lightPdf / (lightPdf * lightPdf + bsdfPdf * bsdfPdf);
+            }
+
+            countRay(RenderProgress.RayType.SHADOW);
+            Double3 ktr = this.scene.geometries.findTransmittance(new Ray(point, toLight, lobes.n), distance,
+                    MIN_TRANSMITTANCE);
+            if (ktr.equals(Double3.ZERO))
+                continue;
+
+            // the point light convention of RayTracerBasic - a diffuse surface gets intensity * kD * cos
+            Double3 f = lobes.eval(toLight).scale(Math.PI * cos * weight).product(ktr);
+            color = color.add(lightSource.getIntensity(point).scale(f));
+        }
+        return color;
+    }
+
+    /**
+     * the light of the disk lights a path hits after a bounce, weighted against the light sampling at the point of
+     * the bounce
+     *
+     * @param origin the point of the bounce
+     * @param dir the direction of the path from the point
+     * @param start the distance from the point where the current ray of the path starts
+     * @param end the distance from the point of the next intersection of the path
+     * @param bouncePdf the probability density of the direction of the bounce, 0 for a mirror
+     * @return the light of the disks hit between the start and the end
+     */
+    private Color calcHitLights(Point origin, Vector dir, double start, double end, double bouncePdf) {
+        Color color = Color.BLACK;
+        for (LightSource lightSource : scene.lights) {
+            if (!(lightSource instanceof PointLight light) || light.getLengthOfTheSide() == 0)
+                continue;
+            double radius = light.getLengthOfTheSide();
+
+            // the disk faces the origin
+            Vector l = light.getL(origin);
+            double cosLight = -dir.dotProduct(l);
+            if (cosLight <= 0)
+                continue;
+            Point center = light.getPosition();
+            double t = light.getDistance(origin) / cosLight;
+            if (t <= start || t >= end)
+                continue;
+
+            double x = origin.getX() + dir.getX() * t - center.getX();
+            double y = origin.getY() + dir.getY() * t - center.getY();
+            double z = origin.getZ() + dir.getZ() * t - center.getZ();
+            if (x * x + y * y + z * z > radius * radius)
+                continue;
+
+            // the intensity spread over the disk, as the light sampling sees it
+            double r2 = radius * radius;
+            double weight = 1;
+            if (bouncePdf > 0) {
+                double lightPdf = t * t / (Math.PI * r2 * cosLight);
+                weight = bouncePdf * bouncePdf / (bouncePdf * bouncePdf + lightPdf * lightPdf);
+            }
+            color = color.add(light.getIntensity(origin).scale(t * t / (r2 * cosLight) * weight));
+        }
+        return color;
+    }
+
+    /**
+     * @param axis the axis of the cone (normalized)
+     * @param coneAngle the angle of the cone (in radians), 0 for the axis itself
+     * @return a random direction in the cone
+     */
+    private Vector coneDirection(Vector axis, double coneAngle) {
+        if (coneAngle == 0)
+            return axis;
+        double[] direction = CONE_DIRECTION.get();
+        Vector.generateDirectionsInCone(axis, coneAngle, 1, renderSettings.getSampler(), direction);
+        return new Vector(direction[0], direction[1], direction[2]).normalize();
+    }
+
+    /**
+     * @param k a triad of coefficients
+     * @return the average of the coefficients
+     */
+    private static double strength(Double3 k) {
+        return (k.getX() + k.getY() + k.getZ()) / 3;
+    }
+}
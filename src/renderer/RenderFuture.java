@@ -0,0 +1,87 @@
+package renderer;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The future of an asynchronous render (see {@link Camera#renderAsync(java.util.concurrent.Executor)}), completed
+ * with the camera once all the pixels are done.
+ * <br>
+ * Cancelling the future (or completing it in any other way) stops the render cooperatively - the tiles that are
+ * being rendered are finished, and the tiles that are left are skipped. The image writer of the camera keeps the
+ * tiles that were done, so the partial image can be taken with {@link RenderFuture#getPartialResult()} (the pixels
+ * that weren't rendered keep their old color), and {@link RenderFuture#getProgress()} tells how many pixels were done.
+ *
+ * @author danielattali, itiskvales
+ */
+public class RenderFuture extends CompletableFuture<Camera> {
+    /**
+     * the camera that renders
+     */
+    private final Camera camera;
+
+    /**
+     * the progress of the render
+     */
+    private final RenderProgress progress;
+
+    /**
+     * completed with the camera once no tile is being rendered anymore (the render finished, failed or was stopped)
+     */
+    private final CompletableFuture<Camera> stopped = new CompletableFuture<>();
+
+    /**
+     * ctor for the future of a render that is starting
+     *
+     * @param camera the camera that renders
+     * @param progress the progress of the render
+     */
+    RenderFuture(Camera camera, RenderProgress progress) {
+        this.camera = camera;
+        this.progress = progress;
+    }
+
+    /**
+     * @return the progress of the render (the pixels done and the rays cast)
+     */
+    public RenderProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return true once no tile is being rendered anymore, the image writer of the camera won't change
+     */
+    public boolean isStopped() {
+        return stopped.isDone();
+    }
+
+    /**
+     * @return a future completed with the camera once no tile is being rendered anymore - after the render is done,
+     * failed or was cancelled (it is never cancelled or completed exceptionally itself)
+     */
+    public CompletableFuture<Camera> whenStopped() {
+        return stopped.copy();
+    }
+
+    /**
+     * wait until no tile is being rendered anymore, its image writer has all the tiles that were done
+     *
+     * @return the camera
+     */
+    public Camera getPartialResult() {
+        return stopped.join();
+    }
+
+    /**
+     * called once the workers of the render are done
+     *
+     * @param failure the exception of a tile that failed, null if none did
+     */
+    void workersDone(Throwable failure) {
+        stopped.complete(camera);
+        // does nothing if the future was cancelled
+        if (failure != null)
+            completeExceptionally(failure);
+        else
+            complete(camera);
+    }
+}
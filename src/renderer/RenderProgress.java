@@ -0,0 +1,253 @@
+package renderer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The progress and metrics of a single render.
+ * <br>
+ * Every call to {@link Camera#renderImage()} creates its own RenderProgress, so several cameras
+ * can render in the same JVM without mixing their counters. The counters are {@link LongAdder}s -
+ * the threads add to their own cells and never wait for each other, the sum is only calculated
+ * when someone asks for it.
+ * <br>
+ * The rays are counted on every ray, so they are first counted into plain counters of the thread that casts them,
+ * which are added to the shared counters with the batch of pixels they belong to (see
+ * {@link RenderProgress#pixelsDone(long)}) - the rays of a batch are seen once the batch is done.
+ * <br>
+ * The listeners are notified after every batch of pixels (a tile in multi threading mode, a column
+ * otherwise) from the thread that rendered the batch, when there are no listeners nothing is called.
+ *
+ * @author danielattali, itiskvales
+ */
+public class RenderProgress {
+    /**
+     * The kinds of rays the ray tracer casts
+     */
+    public enum RayType {
+        /**
+         * a ray from the camera
+         */
+        PRIMARY,
+        /**
+         * a ray from a point towards a light source
+         */
+        SHADOW,
+        /**
+         * a ray reflected from a surface
+         */
+        REFLECTED,
+        /**
+         * a ray refracted through a surface
+         */
+        REFRACTED
+    }
+
+    /**
+     * Observer of the progress of a render
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * called after a batch of pixels is done, may be called from several threads at once
+         *
+         * @param progress the progress of the render
+         */
+        void progressChanged(RenderProgress progress);
+    }
+
+    /**
+     * the amount of pixels in the image
+     */
+    private final long totalPixels;
+
+    /**
+     * the time the render started (in nanoseconds, see {@link System#nanoTime()})
+     */
+    private final long startTime = System.nanoTime();
+
+    /**
+     * the amount of pixels that are done
+     */
+    private final LongAdder pixels = new LongAdder();
+
+    /**
+     * the amount of rays cast, for every {@link RayType}
+     */
+    private final LongAdder[] rays = new LongAdder[RayType.values().length];
+
+    /**
+     * the amount of rays cast by the current thread since its last batch of pixels, for every {@link RayType}
+     */
+    private final ThreadLocal<long[]> threadRays = ThreadLocal.withInitial(() -> new long[RayType.values().length]);
+
+    /**
+     * the observers of the render
+     */
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // ========================== Ctor ===============================
+
+    /**
+     * ctor for the progress of a new render
+     *
+     * @param totalPixels the amount of pixels in the image
+     */
+    public RenderProgress(long totalPixels) {
+        this.totalPixels = totalPixels;
+        for (int i = 0; i < rays.length; i++)
+            rays[i] = new LongAdder();
+    }
+
+    /**
+     * @param listener an observer of the render
+     * @return the progress according to the builder pattern
+     */
+    public RenderProgress addListener(Listener listener) {
+        if (listener != null)
+            listeners.add(listener);
+        return this;
+    }
+
+    // ========================== Counting ===============================
+
+    /**
+     * finish processing of several pixels at once (with the rays the current thread cast for them) and notify the
+     * listeners
+     *
+     * @param count the amount of pixels that were done
+     */
+    public void pixelsDone(long count) {
+        long[] local = threadRays.get();
+        for (int i = 0; i < local.length; i++)
+            if (local[i] != 0) {
+                rays[i].add(local[i]);
+                local[i] = 0;
+            }
+        pixels.add(count);
+        for (Listener listener : listeners)
+            listener.progressChanged(this);
+    }
+
+    /**
+     * count a single ray, it is added to the amount of rays with the next batch of pixels of the current thread
+     *
+     * @param type the kind of the ray
+     */
+    public void rayCast(RayType type) {
+        threadRays.get()[type.ordinal()]++;
+    }
+
+    // ========================== Getters ===============================
+
+    /**
+     * @return the amount of pixels in the image
+     */
+    public long getTotalPixels() {
+        return totalPixels;
+    }
+
+    /**
+     * @return the amount of pixels that are done
+     */
+    public long getPixelsDone() {
+        return pixels.sum();
+    }
+
+    /**
+     * @return true if all the pixels are done
+     */
+    public boolean isDone() {
+        return getPixelsDone() >= totalPixels;
+    }
+
+    /**
+     * @return the part of the image that is done (between 0 and 1)
+     */
+    public double getFraction() {
+        return totalPixels == 0 ? 1 : (double) getPixelsDone() / totalPixels;
+    }
+
+    /**
+     * @param type the kind of the rays
+     * @return the amount of rays of the kind that were cast
+     */
+    public long getRays(RayType type) {
+        return rays[type.ordinal()].sum();
+    }
+
+    /**
+     * @return the amount of rays of all kinds that were cast
+     */
+    public long getTotalRays() {
+        long sum = 0;
+        for (LongAdder adder : rays)
+            sum += adder.sum();
+        return sum;
+    }
+
+    /**
+     * @return the time since the render started in milliseconds
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /**
+     * @return the average amount of pixels done in a second
+     */
+    public double getPixelsPerSecond() {
+        return perSecond(getPixelsDone());
+    }
+
+    /**
+     * @return the average amount of rays cast in a second
+     */
+    public double getRaysPerSecond() {
+        return perSecond(getTotalRays());
+    }
+
+    /**
+     * @return the estimated time until the render is done in milliseconds (-1 if nothing is done yet)
+     */
+    public long getEtaMillis() {
+        long done = getPixelsDone();
+        if (done == 0)
+            return -1;
+        return (long) ((double) getElapsedMillis() * (totalPixels - done) / done);
+    }
+
+    /**
+     * @param count a counter
+     * @return the average amount of the counter in a second
+     */
+    private double perSecond(long count) {
+        long elapsed = System.nanoTime() - startTime;
+        return elapsed == 0 ? 0 : count * 1e9 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RenderProgress{%.1f%%, pixels=%d/%d, rays=%d, %.0f rays/s, eta=%dms}",
+                getFraction() * 100, getPixelsDone(), totalPixels, getTotalRays(), getRaysPerSecond(), getEtaMillis());
+    }
+
+    // ========================== Listeners ===============================
+
+    /**
+     * @return a listener that prints the percentage of the image that is done to the console
+     * (every time it changes by 0.1%)
+     */
+    public static Listener printer() {
+        AtomicInteger lastPrinted = new AtomicInteger(-1);
+        return progress -> {
+            int current = (int) (1000 * progress.getFraction());
+            int last = lastPrinted.get();
+            if (current > last && lastPrinted.compareAndSet(last, current))
+                System.out.printf(current == 1000 ? "%5.1f%%%n" : "%5.1f%%\r", current / 10d);
+        };
+    }
+}
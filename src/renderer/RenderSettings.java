@@ -0,0 +1,565 @@
+package renderer;
+
+import primitives.Sampler;
+import primitives.StratifiedSampler;
+
+/**
+ * The settings of a render - how the work is split between the threads and how deep the ray tracer goes.
+ * <br>
+ * The {@link Camera} takes a copy of its settings at the start of every render and hands it to the
+ * ray tracer, so changing the settings while an image is rendered only affects the next render, and
+ * several cameras can render different scenes with different settings in the same JVM.
+ *
+ * @author danielattali, itiskvales
+ */
+public class RenderSettings {
+    /**
+     * the default maximum amount of recursion in calculating refracted and reflected rays
+     */
+    public static final int DEFAULT_MAX_CALC_COLOR_LEVEL = 2;
+
+    /**
+     * the default stopping condition of the recursion
+     */
+    public static final double DEFAULT_MIN_CALC_COLOR_K = 0.001;
+
+    /**
+     * the biggest width and height of a packet of primary rays
+     */
+    public static final int MAX_PACKET_SIZE = 4;
+
+    /**
+     * the default amount of rays every pixel gets in adaptive antialiasing before its noise is checked
+     */
+    public static final int DEFAULT_ADAPTIVE_MIN_RAYS = 4;
+
+    /**
+     * the default noise (the standard error of the color of a pixel, in 0-255 units) adaptive antialiasing stops at
+     */
+    public static final double DEFAULT_ADAPTIVE_THRESHOLD = 1.0;
+
+    /**
+     * the default amount of probe rays adaptive soft shadows start with
+     */
+    public static final int DEFAULT_SOFT_SHADOW_PROBES = 8;
+
+    /**
+     * the default amount of reflected and refracted rays a camera ray can add - no limit
+     */
+    public static final int DEFAULT_RAY_BUDGET = Integer.MAX_VALUE;
+
+    /**
+     * the default amount of bounces glossy surfaces trace all their rays in - all the bounces
+     */
+    public static final int DEFAULT_MAX_FAN_OUT_LEVEL = Integer.MAX_VALUE;
+
+    /**
+     * the default strength (the product of the coefficients along the path) under which russian roulette drops rays
+     */
+    public static final double DEFAULT_ROULETTE_THRESHOLD = 0.2;
+
+    /**
+     * render the image with several threads or not
+     */
+    private boolean multithreading = false;
+
+    /**
+     * the amount of threads in multi threading mode
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * the width and height of a tile in multi threading mode
+     */
+    private int tileSize = TileScheduler.DEFAULT_TILE_SIZE;
+
+    /**
+     * the order the tiles are rendered in
+     */
+    private TileScheduler.TileOrder tileOrder = TileScheduler.TileOrder.HILBERT;
+
+    /**
+     * print the progress of the render to the console in multi threading mode
+     */
+    private boolean printProgress = true;
+
+    /**
+     * the maximum amount of recursion in calculating refracted and reflected rays
+     */
+    private int maxCalcColorLevel = DEFAULT_MAX_CALC_COLOR_LEVEL;
+
+    /**
+     * the stopping condition of the recursion - rays that add less than this to the pixel are not traced
+     */
+    private double minCalcColorK = DEFAULT_MIN_CALC_COLOR_K;
+
+    /**
+     * the amount of reflected and refracted rays a single camera ray can add
+     */
+    private int rayBudget = DEFAULT_RAY_BUDGET;
+
+    /**
+     * the amount of bounces glossy surfaces trace all their rays in, deeper bounces trace a single ray
+     */
+    private int maxFanOutLevel = DEFAULT_MAX_FAN_OUT_LEVEL;
+
+    /**
+     * drop weak reflected and refracted rays at random
+     */
+    private boolean russianRoulette = false;
+
+    /**
+     * the strength under which russian roulette drops rays
+     */
+    private double rouletteThreshold = DEFAULT_ROULETTE_THRESHOLD;
+
+    /**
+     * the width and height (in pixels) of the packets the primary rays are traced in, 1 means every ray is traced
+     * on its own
+     */
+    private int packetSize = 1;
+
+    /**
+     * refine only the noisy pixels in antialiasing (the alias rays of the camera are the maximum for a pixel)
+     */
+    private boolean adaptiveAntialiasing = false;
+
+    /**
+     * the amount of rays every pixel gets in adaptive antialiasing before its noise is checked
+     */
+    private int adaptiveMinRays = DEFAULT_ADAPTIVE_MIN_RAYS;
+
+    /**
+     * the noise of a pixel (the standard error of its color) adaptive antialiasing stops at
+     */
+    private double adaptiveThreshold = DEFAULT_ADAPTIVE_THRESHOLD;
+
+    /**
+     * trace all the shadow rays of an area light only from the points in the penumbra
+     */
+    private boolean adaptiveSoftShadows = false;
+
+    /**
+     * the amount of probe rays adaptive soft shadows start with
+     */
+    private int softShadowProbes = DEFAULT_SOFT_SHADOW_PROBES;
+
+    /**
+     * the sampler that spreads the rays of antialiasing, depth of field, soft shadows and glossy surfaces
+     */
+    private Sampler sampler = new StratifiedSampler();
+
+    /**
+     * the seed of the random numbers of the render
+     */
+    private long seed = 0;
+
+    // ========================== Ctor ===============================
+
+    /**
+     * ctor for the default settings
+     */
+    public RenderSettings() {
+    }
+
+    /**
+     * copy ctor
+     *
+     * @param other the settings to copy
+     */
+    public RenderSettings(RenderSettings other) {
+        this.multithreading = other.multithreading;
+        this.threads = other.threads;
+        this.tileSize = other.tileSize;
+        this.tileOrder = other.tileOrder;
+        this.printProgress = other.printProgress;
+        this.maxCalcColorLevel = other.maxCalcColorLevel;
+        this.minCalcColorK = other.minCalcColorK;
+        this.rayBudget = other.rayBudget;
+        this.maxFanOutLevel = other.maxFanOutLevel;
+        this.russianRoulette = other.russianRoulette;
+        this.rouletteThreshold = other.rouletteThreshold;
+        this.packetSize = other.packetSize;
+        this.adaptiveAntialiasing = other.adaptiveAntialiasing;
+        this.adaptiveMinRays = other.adaptiveMinRays;
+        this.adaptiveThreshold = other.adaptiveThreshold;
+        this.adaptiveSoftShadows = other.adaptiveSoftShadows;
+        this.softShadowProbes = other.softShadowProbes;
+        this.sampler = other.sampler;
+        this.seed = other.seed;
+    }
+
+    // ========================= Getters / Setter (builder pattern) ==========================
+
+    /**
+     * @param multithreading true or false (on or off)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setMultithreading(boolean multithreading) {
+        this.multithreading = multithreading;
+        return this;
+    }
+
+    /**
+     * @param threads the amount of threads in multi threading mode (> 0)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("The number of threads must be greater then 0!");
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * @param tileSize the width and height of a tile in multi threading mode (> 0)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setTileSize(int tileSize) {
+        if (tileSize < 1)
+            throw new IllegalArgumentException("The tile size must be greater then 0!");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * @param tileOrder the order the tiles are rendered in
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setTileOrder(TileScheduler.TileOrder tileOrder) {
+        if (tileOrder == null)
+            throw new IllegalArgumentException("The tile order can't be null!");
+        this.tileOrder = tileOrder;
+        return this;
+    }
+
+    /**
+     * @param printProgress true or false (print the progress to the console in multi threading mode or not)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setPrintProgress(boolean printProgress) {
+        this.printProgress = printProgress;
+        return this;
+    }
+
+    /**
+     * @param maxCalcColorLevel the maximum amount of recursion in calculating refracted and reflected rays (> 0),
+     *                          1 means only the local effects are calculated
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setMaxCalcColorLevel(int maxCalcColorLevel) {
+        if (maxCalcColorLevel < 1)
+            throw new IllegalArgumentException("The recursion level must be greater then 0!");
+        this.maxCalcColorLevel = maxCalcColorLevel;
+        return this;
+    }
+
+    /**
+     * @param minCalcColorK the stopping condition of the recursion (>= 0)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setMinCalcColorK(double minCalcColorK) {
+        if (minCalcColorK < 0)
+            throw new IllegalArgumentException("The stopping condition can't be negative!");
+        this.minCalcColorK = minCalcColorK;
+        return this;
+    }
+
+    /**
+     * the reflected and refracted rays of a camera ray are traced bounce after bounce, once the budget is spent
+     * glossy surfaces trace a single ray, and then no more rays are traced.
+     * The budget is of every camera ray - a pixel with several aliasing (or depth of field) rays has a budget for
+     * each of them.
+     *
+     * @param rayBudget the amount of reflected and refracted rays a single camera ray can add (> 0)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setRayBudget(int rayBudget) {
+        if (rayBudget < 1)
+            throw new IllegalArgumentException("The ray budget must be greater then 0!");
+        this.rayBudget = rayBudget;
+        return this;
+    }
+
+    /**
+     * glossy surfaces fan out to all their rays only in the first bounces, deeper bounces trace only the mirrored
+     * (or the straight) ray, so the amount of rays doesn't grow exponentially with {@link #setMaxCalcColorLevel(int)}
+     *
+     * @param maxFanOutLevel the amount of bounces glossy surfaces trace all their rays in (>= 0, 0 turns the glossy
+     *                       rays off)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setMaxFanOutLevel(int maxFanOutLevel) {
+        if (maxFanOutLevel < 0)
+            throw new IllegalArgumentException("The fan out level can't be negative!");
+        this.maxFanOutLevel = maxFanOutLevel;
+        return this;
+    }
+
+    /**
+     * russian roulette - a reflected or refracted ray whose strength (the product of the coefficients along its path)
+     * is under {@link #setRouletteThreshold(double) the threshold} goes on only with a probability of its strength
+     * divided by the threshold, and the rays that go on count as much more. The average color stays the same, but
+     * weak paths cost much less
+     *
+     * @param russianRoulette true or false (on or off)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setRussianRoulette(boolean russianRoulette) {
+        this.russianRoulette = russianRoulette;
+        return this;
+    }
+
+    /**
+     * @param rouletteThreshold the strength under which russian roulette drops rays (> 0)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setRouletteThreshold(double rouletteThreshold) {
+        if (rouletteThreshold <= 0)
+            throw new IllegalArgumentException("The roulette threshold must be greater then 0!");
+        this.rouletteThreshold = rouletteThreshold;
+        return this;
+    }
+
+    /**
+     * trace the primary rays of neighbouring pixels as a packet (2 for 2x2 pixels, 4 for 4x4 pixels), the packet
+     * goes through the bounding volume hierarchy once instead of once for every ray.
+     * used only when every pixel has a single primary ray (no antialiasing and no depth of field)
+     *
+     * @param packetSize the width and height of a packet in pixels (between 1 and {@link #MAX_PACKET_SIZE}),
+     *                   1 turns the packets off
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setPacketSize(int packetSize) {
+        if (packetSize < 1)
+            throw new IllegalArgumentException("The packet size must be greater then 0!");
+        if (packetSize > MAX_PACKET_SIZE)
+            throw new IllegalArgumentException("The packet size can't be greater then " + MAX_PACKET_SIZE + "!");
+        this.packetSize = packetSize;
+        return this;
+    }
+
+    /**
+     * adaptive antialiasing - every pixel starts with {@link #setAdaptiveMinRays(int) a few rays}, and more rays are
+     * traced only while the color of the pixel is noisier than {@link #setAdaptiveThreshold(double) the threshold},
+     * up to the alias rays of the camera. Smooth areas (like the background) get only the first rays.
+     * used only with antialiasing (more than one alias ray) and without depth of field
+     *
+     * @param adaptiveAntialiasing true or false (on or off)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setAdaptiveAntialiasing(boolean adaptiveAntialiasing) {
+        this.adaptiveAntialiasing = adaptiveAntialiasing;
+        return this;
+    }
+
+    /**
+     * @param adaptiveMinRays the amount of rays every pixel gets in adaptive antialiasing before its noise is
+     *                        checked (> 1, the noise can't be estimated from a single ray)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setAdaptiveMinRays(int adaptiveMinRays) {
+        if (adaptiveMinRays < 2)
+            throw new IllegalArgumentException("The minimum amount of rays must be greater then 1!");
+        this.adaptiveMinRays = adaptiveMinRays;
+        return this;
+    }
+
+    /**
+     * @param adaptiveThreshold the noise adaptive antialiasing stops at - the standard error of the color of a
+     *                          pixel in 0-255 units (>= 0, 0 stops only where all the rays have the same color)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setAdaptiveThreshold(double adaptiveThreshold) {
+        if (adaptiveThreshold < 0)
+            throw new IllegalArgumentException("The adaptive threshold can't be negative!");
+        this.adaptiveThreshold = adaptiveThreshold;
+        return this;
+    }
+
+    /**
+     * adaptive soft shadows - from every point only {@link #setSoftShadowProbes(int) a few probe rays} spread over
+     * an area light are traced first, if all of them reach the light (or all of them are blocked) the point is fully
+     * lit (or in the umbra) and the rest of the shadow rays are skipped. Only the points in the penumbra get all the
+     * shadow rays
+     *
+     * @param adaptiveSoftShadows true or false (on or off)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setAdaptiveSoftShadows(boolean adaptiveSoftShadows) {
+        this.adaptiveSoftShadows = adaptiveSoftShadows;
+        return this;
+    }
+
+    /**
+     * @param softShadowProbes the amount of probe rays adaptive soft shadows start with (> 0)
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setSoftShadowProbes(int softShadowProbes) {
+        if (softShadowProbes < 1)
+            throw new IllegalArgumentException("The number of probes must be greater then 0!");
+        this.softShadowProbes = softShadowProbes;
+        return this;
+    }
+
+    /**
+     * the sampler spreads the rays of the distributed effects - antialiasing, depth of field, soft shadows and
+     * glossy surfaces. {@link StratifiedSampler} (the default) is a jittered grid, {@link primitives.HaltonSampler}
+     * and {@link primitives.SobolSampler} are low discrepancy sequences that spread any amount of rays evenly
+     *
+     * @param sampler the sampler of the rays
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setSampler(Sampler sampler) {
+        if (sampler == null)
+            throw new IllegalArgumentException("The sampler can't be null!");
+        this.sampler = sampler;
+        return this;
+    }
+
+    /**
+     * the random numbers of every pixel are keyed by the seed and the pixel (see {@link primitives.CounterRandom}),
+     * so renders with the same seed give exactly the same image - with any amount of threads and in any order of
+     * the tiles. Different seeds give different noise
+     *
+     * @param seed the seed of the random numbers of the render
+     * @return the settings according to the builder pattern
+     */
+    public RenderSettings setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @return true if the image is rendered with several threads
+     */
+    public boolean isMultithreading() {
+        return multithreading;
+    }
+
+    /**
+     * @return the amount of threads in multi threading mode
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the width and height of a tile in multi threading mode
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return the order the tiles are rendered in
+     */
+    public TileScheduler.TileOrder getTileOrder() {
+        return tileOrder;
+    }
+
+    /**
+     * @return true if the progress is printed to the console in multi threading mode
+     */
+    public boolean isPrintProgress() {
+        return printProgress;
+    }
+
+    /**
+     * @return the maximum amount of recursion in calculating refracted and reflected rays
+     */
+    public int getMaxCalcColorLevel() {
+        return maxCalcColorLevel;
+    }
+
+    /**
+     * @return the stopping condition of the recursion
+     */
+    public double getMinCalcColorK() {
+        return minCalcColorK;
+    }
+
+    /**
+     * @return the amount of reflected and refracted rays a single camera ray can add
+     */
+    public int getRayBudget() {
+        return rayBudget;
+    }
+
+    /**
+     * @return the amount of bounces glossy surfaces trace all their rays in
+     */
+    public int getMaxFanOutLevel() {
+        return maxFanOutLevel;
+    }
+
+    /**
+     * @return true if weak reflected and refracted rays are dropped at random
+     */
+    public boolean isRussianRoulette() {
+        return russianRoulette;
+    }
+
+    /**
+     * @return the strength under which russian roulette drops rays
+     */
+    public double getRouletteThreshold() {
+        return rouletteThreshold;
+    }
+
+    /**
+     * @return the width and height (in pixels) of the packets of primary rays
+     */
+    public int getPacketSize() {
+        return packetSize;
+    }
+
+    /**
+     * @return true if antialiasing refines only the noisy pixels
+     */
+    public boolean isAdaptiveAntialiasing() {
+        return adaptiveAntialiasing;
+    }
+
+    /**
+     * @return the amount of rays every pixel gets in adaptive antialiasing before its noise is checked
+     */
+    public int getAdaptiveMinRays() {
+        return adaptiveMinRays;
+    }
+
+    /**
+     * @return the noise of a pixel adaptive antialiasing stops at
+     */
+    public double getAdaptiveThreshold() {
+        return adaptiveThreshold;
+    }
+
+    /**
+     * @return true if only the points in the penumbra get all the shadow rays
+     */
+    public boolean isAdaptiveSoftShadows() {
+        return adaptiveSoftShadows;
+    }
+
+    /**
+     * @return the amount of probe rays adaptive soft shadows start with
+     */
+    public int getSoftShadowProbes() {
+        return softShadowProbes;
+    }
+
+    /**
+     * @return the sampler that spreads the rays of the distributed effects
+     */
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * @return the seed of the random numbers of the render
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,494 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The TileScheduler splits an image into rectangular tiles and renders them on a dedicated
+ * {@link ForkJoinPool} of a fixed size.
+ * <br>
+ * The tiles are put in a list according to the {@link TileOrder}, and the list is split in halves
+ * recursively - every worker renders a contiguous run of tiles, and an idle worker steals
+ * the other half of a busy worker's run. This keeps neighbouring pixels (which usually hit the
+ * same geometries) on the same core, and the threads only meet once per tile instead of once per pixel.
+ * <br>
+ * The pool is created by the first render and kept for the next ones (the renders of a camera reuse it),
+ * {@link TileScheduler#close()} shuts it down.
+ * <br>
+ * {@link TileScheduler#renderAsync(int, int, TileRenderer, TileListener, Executor)} renders on a given executor
+ * without waiting, and {@link TileScheduler#setStopCondition(BooleanSupplier) a stop condition} is checked before
+ * every tile, so a render can be stopped between tiles. A tile that fails stops the render the same way - the other
+ * workers finish their tiles and skip the rest.
+ *
+ * @author danielattali, itiskvales
+ */
+public class TileScheduler implements AutoCloseable {
+    /**
+     * the default width and height of a tile in pixels
+     */
+    public static final int DEFAULT_TILE_SIZE = 32;
+
+    /**
+     * The order the tiles are rendered in
+     */
+    public enum TileOrder {
+        /**
+         * row after row, from the top left corner
+         */
+        SCANLINE,
+
+        /**
+         * from the center of the image outwards (the interesting part of the image is done first)
+         */
+        SPIRAL,
+
+        /**
+         * along a Hilbert curve, every tile is a neighbour of the tile before it
+         */
+        HILBERT
+    }
+
+    /**
+     * A rectangle of pixels [x0, x1) x [y0, y1)
+     */
+    public static class Tile {
+        /**
+         * the first column of the tile
+         */
+        public final int x0;
+        /**
+         * the first row of the tile
+         */
+        public final int y0;
+        /**
+         * the column after the last column of the tile
+         */
+        public final int x1;
+        /**
+         * the row after the last row of the tile
+         */
+        public final int y1;
+
+        /**
+         * ctor for a tile
+         *
+         * @param x0 the first column
+         * @param y0 the first row
+         * @param x1 the column after the last column
+         * @param y1 the row after the last row
+         */
+        public Tile(int x0, int y0, int x1, int y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+
+        /**
+         * @return the amount of pixels in the tile
+         */
+        public int size() {
+            return (x1 - x0) * (y1 - y0);
+        }
+
+        @Override
+        public String toString() {
+            return "Tile{" + x0 + "," + y0 + " - " + x1 + "," + y1 + '}';
+        }
+    }
+
+    /**
+     * The work done for every pixel
+     */
+    @FunctionalInterface
+    public interface PixelRenderer {
+        /**
+         * render a single pixel
+         *
+         * @param x the column of the pixel
+         * @param y the row of the pixel
+         */
+        void renderPixel(int x, int y);
+    }
+
+    /**
+     * The work done for a whole tile, for renderers that handle several pixels at once
+     */
+    @FunctionalInterface
+    public interface TileRenderer {
+        /**
+         * render all the pixels of a tile
+         *
+         * @param tile the tile
+         */
+        void renderTile(Tile tile);
+    }
+
+    /**
+     * Called once a tile is done, from the thread that rendered it
+     */
+    @FunctionalInterface
+    public interface TileListener {
+        /**
+         * @param tile the tile that was rendered
+         */
+        void tileDone(Tile tile);
+    }
+
+    /**
+     * the width and height of a tile in pixels
+     */
+    private int tileSize = DEFAULT_TILE_SIZE;
+
+    /**
+     * the amount of threads in the pool
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * the order of the tiles
+     */
+    private TileOrder order = TileOrder.HILBERT;
+
+    /**
+     * the tiles that are left are skipped once it is true, checked before every tile
+     */
+    private BooleanSupplier stopCondition = () -> false;
+
+    /**
+     * the pool the tiles are rendered on, null until the first render
+     */
+    private ForkJoinPool pool;
+
+    // ========================= Setters (builder pattern) ==========================
+
+    /**
+     * @param tileSize the width and height of a tile in pixels (> 0)
+     * @return the scheduler according to the builder pattern
+     */
+    public TileScheduler setTileSize(int tileSize) {
+        if (tileSize < 1)
+            throw new IllegalArgumentException("The tile size must be greater then 0!");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * @param threads the amount of threads in the pool (> 0)
+     * @return the scheduler according to the builder pattern
+     */
+    public TileScheduler setThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("The number of threads must be greater then 0!");
+        // a pool of another size is created by the next render
+        if (threads != this.threads)
+            close();
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * @param order the order of the tiles
+     * @return the scheduler according to the builder pattern
+     */
+    public TileScheduler setTileOrder(TileOrder order) {
+        if (order == null)
+            throw new IllegalArgumentException("The tile order can't be null!");
+        this.order = order;
+        return this;
+    }
+
+    /**
+     * @param stopCondition checked before every tile, once it is true the tiles that are left are skipped
+     *                      (may be called from several threads at once)
+     * @return the scheduler according to the builder pattern
+     */
+    public TileScheduler setStopCondition(BooleanSupplier stopCondition) {
+        if (stopCondition == null)
+            throw new IllegalArgumentException("The stop condition can't be null!");
+        this.stopCondition = stopCondition;
+        return this;
+    }
+
+    /**
+     * @return the width and height of a tile in pixels
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return the amount of threads in the pool
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the order of the tiles
+     */
+    public TileOrder getTileOrder() {
+        return order;
+    }
+
+    // ========================= Scheduling ==========================
+
+    /**
+     * split an image into tiles, the tiles on the right and bottom edges may be smaller
+     *
+     * @param nX the width of the image
+     * @param nY the height of the image
+     * @return the tiles sorted according to the tile order
+     */
+    public List<Tile> createTiles(int nX, int nY) {
+        int tilesX = (nX + tileSize - 1) / tileSize;
+        int tilesY = (nY + tileSize - 1) / tileSize;
+
+        List<Tile> tiles = new ArrayList<>(tilesX * tilesY);
+        for (int ty = 0; ty < tilesY; ty++)
+            for (int tx = 0; tx < tilesX; tx++)
+                tiles.add(new Tile(tx * tileSize, ty * tileSize,
+                        Math.min(nX, (tx + 1) * tileSize), Math.min(nY, (ty + 1) * tileSize)));
+
+        switch (order) {
+            case SPIRAL -> {
+                double cx = tilesX / 2d, cy = tilesY / 2d;
+                tiles.sort(Comparator.comparingDouble((Tile t) -> ring(t, cx, cy))
+                        .thenComparingDouble(t -> angle(t, cx, cy)));
+            }
+            case HILBERT -> {
+                int n = Integer.highestOneBit(Math.max(1, Math.max(tilesX, tilesY) - 1)) << 1;
+                tiles.sort(Comparator.comparingLong(t -> hilbertIndex(n, t.x0 / tileSize, t.y0 / tileSize)));
+            }
+            case SCANLINE -> {
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * render all the pixels of an image, the method returns once all the pixels are done
+     *
+     * @param nX       the width of the image
+     * @param nY       the height of the image
+     * @param renderer the work done for every pixel
+     * @param listener called once a tile is done (may be null)
+     */
+    public void render(int nX, int nY, PixelRenderer renderer, TileListener listener) {
+        render(nX, nY, tile -> {
+            for (int y = tile.y0; y < tile.y1; y++)
+                for (int x = tile.x0; x < tile.x1; x++)
+                    renderer.renderPixel(x, y);
+        }, listener);
+    }
+
+    /**
+     * render all the tiles of an image, the method returns once all the tiles are done
+     *
+     * @param nX       the width of the image
+     * @param nY       the height of the image
+     * @param renderer the work done for every tile
+     * @param listener called once a tile is done (may be null)
+     */
+    public void render(int nX, int nY, TileRenderer renderer, TileListener listener) {
+        List<Tile> tiles = createTiles(nX, nY);
+        AtomicBoolean failed = new AtomicBoolean();
+        BooleanSupplier stop = stopCondition;
+        getPool().invoke(new TileTask(tiles, 0, tiles.size(), renderer, listener,
+                () -> failed.get() || stop.getAsBoolean(), failed));
+    }
+
+    /**
+     * shut down the pool of the scheduler, the next render creates a new one
+     */
+    @Override
+    public synchronized void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * @return the pool of the scheduler, created on the first call
+     */
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null)
+            pool = new ForkJoinPool(threads);
+        return pool;
+    }
+
+    /**
+     * render all the tiles of an image on the pool of the scheduler, the method returns at once (see
+     * {@link TileScheduler#renderAsync(int, int, TileRenderer, TileListener, Executor)})
+     *
+     * @param nX       the width of the image
+     * @param nY       the height of the image
+     * @param renderer the work done for every tile
+     * @param listener called once a tile is done (may be null)
+     * @return a future completed once all the workers are done, exceptionally if a tile failed
+     */
+    public CompletableFuture<Void> renderAsync(int nX, int nY, TileRenderer renderer, TileListener listener) {
+        return renderAsync(nX, nY, renderer, listener, getPool());
+    }
+
+    /**
+     * render all the tiles of an image on an executor, the method returns at once.
+     * <br>
+     * {@link TileScheduler#getThreads()} workers are submitted to the executor, every worker takes the next tile in
+     * the tile order until there are none left (or the stop condition is true) - no worker waits for another, so
+     * any executor can be used (the threads of the executor are shared with its other tasks)
+     *
+     * @param nX       the width of the image
+     * @param nY       the height of the image
+     * @param renderer the work done for every tile
+     * @param listener called once a tile is done (may be null)
+     * @param executor the executor the workers run on
+     * @return a future completed once all the workers are done, exceptionally if a tile failed (the tiles after
+     * the failure are skipped)
+     */
+    public CompletableFuture<Void> renderAsync(int nX, int nY, TileRenderer renderer, TileListener listener,
+                                               Executor executor) {
+        if (executor == null)
+            throw new IllegalArgumentException("The executor can't be null!");
+        List<Tile> tiles = createTiles(nX, nY);
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        BooleanSupplier stop = stopCondition;
+
+        Runnable worker = () -> {
+            while (!failed.get() && !stop.getAsBoolean()) {
+                int index = next.getAndIncrement();
+                if (index >= tiles.size())
+                    return;
+                Tile tile = tiles.get(index);
+                try {
+                    renderer.renderTile(tile);
+                } catch (RuntimeException | Error e) {
+                    // the other workers stop at their next tile
+                    failed.set(true);
+                    throw e;
+                }
+                if (listener != null)
+                    listener.tileDone(tile);
+            }
+        };
+
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.max(1, Math.min(threads, tiles.size()))];
+        for (int i = 0; i < workers.length; i++)
+            workers[i] = CompletableFuture.runAsync(worker, executor);
+        return CompletableFuture.allOf(workers);
+    }
+
+    /**
+     * Renders a run of tiles, splitting it in halves so idle workers can steal the second half
+     */
+    private static class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tile> tiles;
+        private final int from;
+        private final int to;
+        private final TileRenderer renderer;
+        private final TileListener listener;
+        private final BooleanSupplier stopCondition;
+        private final AtomicBoolean failed;
+
+        /**
+         * @param tiles         all the tiles
+         * @param from          the first tile of the run
+         * @param to            the tile after the last tile of the run
+         * @param renderer      the work done for every tile
+         * @param listener      called once a tile is done (may be null)
+         * @param stopCondition the tile is skipped once it is true
+         * @param failed        set once a tile fails
+         */
+        TileTask(List<Tile> tiles, int from, int to, TileRenderer renderer, TileListener listener,
+                 BooleanSupplier stopCondition, AtomicBoolean failed) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.renderer = renderer;
+            this.listener = listener;
+            this.stopCondition = stopCondition;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TileTask(tiles, from, mid, renderer, listener, stopCondition, failed),
+                        new TileTask(tiles, mid, to, renderer, listener, stopCondition, failed));
+                return;
+            }
+            if (to == from || stopCondition.getAsBoolean())
+                return;
+
+            Tile tile = tiles.get(from);
+            try {
+                renderer.renderTile(tile);
+            } catch (RuntimeException | Error e) {
+                failed.set(true);
+                throw e;
+            }
+
+            if (listener != null)
+                listener.tileDone(tile);
+        }
+    }
+
+    // ========================= Tile orders ==========================
+
+    /**
+     * @return the distance (in tiles) of the ring around the center the tile is on
+     */
+    private double ring(Tile tile, double cx, double cy) {
+        double x = tile.x0 / (double) tileSize + 0.5 - cx;
+        double y = tile.y0 / (double) tileSize + 0.5 - cy;
+        return Math.floor(Math.max(Math.abs(x), Math.abs(y)));
+    }
+
+    /**
+     * @return the angle of the tile around the center, so every ring is rendered in a circle
+     */
+    private double angle(Tile tile, double cx, double cy) {
+        return Math.atan2(tile.y0 / (double) tileSize + 0.5 - cy, tile.x0 / (double) tileSize + 0.5 - cx);
+    }
+
+    /**
+     * the index of a cell along the Hilbert curve that fills an n x n grid
+     *
+     * @param n the size of the grid (a power of 2)
+     * @param x the column of the cell
+     * @param y the row of the cell
+     * @return the index of the cell along the curve
+     */
+    static long hilbertIndex(int n, int x, int y) {
+        long d = 0;
+        for (int s = n / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant so the curve is continuous
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = n - 1 - x;
+                    y = n - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+}
@@ -1,5 +1,6 @@
 package scene;
 
+import geometries.AccelerationMode;
 import geometries.Geometries;
 import geometries.Intersectable;
 import lighting.AmbientLight;
@@ -198,6 +199,15 @@ public class Scene {
         return this;
     }
 
+    /**
+     * @param acceleration the acceleration structure the geometries of this scene use
+     * @return the object itself according to the builder design pattern
+     */
+    public Scene setAccelerationMode(AccelerationMode acceleration) {
+        this.geometries.setAccelerationMode(acceleration);
+        return this;
+    }
+
     /**
      * @param light the light source
      * @return the object itself according to the builder design pattern
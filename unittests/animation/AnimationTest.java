@@ -1,5 +1,6 @@
 package animation;
 
+import geometries.AccelerationMode;
 import geometries.Geometries;
 import geometries.Sphere;
 import lighting.AmbientLight;
@@ -100,7 +101,7 @@ public class AnimationTest {
             imageWriterList.add(new ImageWriter("animation/" + i, 400, 400));
         }
 
-        Geometries.axisAlignedBoundingBox = true;
+        scene.setAccelerationMode(AccelerationMode.AABB_TREE);
 
         camera1.setRayTracer(new RayTracerBasic(scene))
                 .setMultiThreading(true)
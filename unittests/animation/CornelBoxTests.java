@@ -10,6 +10,7 @@ import primitives.*;
 import renderer.Camera;
 import renderer.ImageWriter;
 import renderer.RayTracerBasic;
+import renderer.RayTracerPath;
 import scene.Scene;
 
 import static java.awt.Color.*;
@@ -219,6 +220,37 @@ public class CornelBoxTests {
                 .writeToImage();
     }
 
+    @Test
+    @DisplayName("testing cornel box with a path tracer")
+    void testingCornelBoxPathTraced() {
+        int n = 400;
+
+        // the colors of the walls are in kD instead of the emission, the light bouncing between emitting walls
+        // would add up to white
+        Material white = new Material().setKD(0.7);
+        Scene pathScene = new Scene("CornelBoxPathTest")
+                .addLights(spotLight1.setLengthOfTheSide(15))
+                .addLights(spotLight2.setLengthOfTheSide(15))
+                .addGeometries(
+                        new Plane(new Point(-150, 0, 0), new Vector(1, 0, 0))
+                                .setMaterial(new Material().setKD(new Double3(0.7, 0.1, 0.1))),
+                        new Plane(new Point(150, 0, 0), new Vector(-1, 0, 0))
+                                .setMaterial(new Material().setKD(new Double3(0.1, 0.1, 0.7))),
+                        new Plane(new Point(0, 0, 150), new Vector(0, 0, -1)).setMaterial(white),
+                        new Plane(new Point(0, 0, -150), new Vector(0, 0, 1)).setMaterial(white),
+                        new Plane(new Point(0, -150, 0), new Vector(0, 1, 0)).setMaterial(white),
+                        new Plane(new Point(0, 150, 0), new Vector(0, -1, 0)).setMaterial(white))
+                .addGeometries(cube11.getCube())
+                .addGeometries(sphere2);
+
+        camera
+                .pitchCamera(20)
+                .setAliasRays(32)
+                .setImageWriter(new ImageWriter("cornel/path", n, n))
+                .setRayTracer(new RayTracerPath(pathScene).setMaxDepth(6))
+                .renderImage()
+                .writeToImage();
+    }
 
     @Test
     @DisplayName("testing cornel box animation")
@@ -269,7 +269,7 @@ public class FinalImageTest {
    @DisplayName("testing without multi threading")
    void testingWithoutMultiThreading() {
        // turning BVH off
-       Geometries.axisAlignedBoundingBox = false;
+       scene.setAccelerationMode(AccelerationMode.NONE);
 
        camera = new Camera(new Point(-500, 100, 400), new Vector(5, -1, 0), new Vector(0, 0, 1))
                .setVPSize(500, 500)
@@ -289,7 +289,7 @@ public class FinalImageTest {
    @DisplayName("testing with multi threading")
    void testingWithMultiThreading() {
        // turning BVH off
-       Geometries.axisAlignedBoundingBox = false;
+       scene.setAccelerationMode(AccelerationMode.NONE);
 
        camera = new Camera(new Point(-500, 100, 400), new Vector(5, -1, 0), new Vector(0, 0, 1))
                .setVPSize(500, 500)
@@ -309,7 +309,7 @@ public class FinalImageTest {
    @DisplayName("testing with BVH")
    void testingWithBvh() {
         // turning BVH on
-        Geometries.axisAlignedBoundingBox = true;
+        scene.setAccelerationMode(AccelerationMode.AABB_TREE);
 
        camera = new Camera(new Point(-500, 100, 400), new Vector(5, -1, 0), new Vector(0, 0, 1))
                .setVPSize(500, 500)
@@ -328,7 +328,7 @@ public class FinalImageTest {
    @DisplayName("testing with all improvement")
    void testingWithAllImprovement() {
        // turning BVH on
-       Geometries.axisAlignedBoundingBox = true;
+       scene.setAccelerationMode(AccelerationMode.AABB_TREE);
 
        camera = new Camera(new Point(0, 320, 150), new Vector(0, -1, 0), new Vector(0, 0, 1))
                .setVPSize(100, 100)
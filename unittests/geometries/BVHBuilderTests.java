@@ -0,0 +1,82 @@
+package geometries;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for the {@link BVHBuilder} implementations
+ * @author danielattali, itiskvales
+ */
+class BVHBuilderTests {
+
+    /**
+     * a board of chess-like pieces, each one is a stack of cylinders with a sphere on top
+     */
+    private static Intersectable[] createBoard() {
+        List<Intersectable> pieces = new ArrayList<>();
+        Vector up = new Vector(0, 0, 1);
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 4; j++) {
+                Point p = new Point(i * 10, j * 10, 0);
+                pieces.add(new Cylinder(3, new Ray(p, up), 1));
+                pieces.add(new Cylinder(2, new Ray(p.add(up.scale(1)), up), 1));
+                pieces.add(new Cylinder(1, new Ray(p.add(up.scale(2)), up), 5));
+                pieces.add(new Sphere(p.add(up.scale(8)), 1.5));
+            }
+        }
+        return pieces.toArray(new Intersectable[0]);
+    }
+
+    /**
+     * Test method for {@link SAHBuilder#build(List)}
+     */
+    @Test
+    @DisplayName("testing the SAH tree finds the same intersections as the flat list")
+    void testingSahTreeIntersections() {
+        Intersectable[] board = createBoard();
+        Geometries flat = new Geometries(board);
+        Geometries tree = new Geometries(board).setAccelerationMode(AccelerationMode.AABB_TREE)
+                .setBVHBuilder(new SAHBuilder().setBins(8).setLeafSize(2));
+
+        for (int i = 0; i < 8; i++) {
+            Ray ray = new Ray(new Point(-20, 15, 4), new Vector(10, i - 4, 0.1 * i));
+            List<Point> expected = flat.findIntersections(ray);
+            List<Point> result = tree.findIntersections(ray);
+            assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(),
+                    "The tree and the flat list found a different amount of intersections");
+        }
+    }
+
+    /**
+     * Test method for {@link BVHCostReport#of(AxisAlignedBoundingBox)}
+     */
+    @Test
+    @DisplayName("testing the SAH tree is cheaper than the median split tree")
+    void testingSahTreeIsCheaper() {
+        Geometries geometries = new Geometries(createBoard()).setAccelerationMode(AccelerationMode.AABB_TREE);
+
+        BVHCostReport sah = geometries.setBVHBuilder(new SAHBuilder()).getTreeCostReport();
+        BVHCostReport median = geometries.setBVHBuilder(new MedianSplitBuilder()).getTreeCostReport();
+
+        assertEquals(128, sah.getGeometries(), "The SAH tree lost geometries");
+        assertEquals(128, median.getGeometries(), "The median split tree lost geometries");
+        assertTrue(sah.getCost() < median.getCost(), "The SAH tree is not cheaper: " + sah + " " + median);
+    }
+
+    /**
+     * Test method for {@link Geometries#getTreeCostReport()}
+     */
+    @Test
+    @DisplayName("testing there is no report without a tree")
+    void testingNoReportWithoutTree() {
+        assertNull(new Geometries(createBoard()).getTreeCostReport());
+    }
+}
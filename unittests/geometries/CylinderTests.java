@@ -6,6 +6,7 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -95,4 +96,47 @@ class CylinderTests {
         // TC7. a point in the center of the top
         assertEquals(v2, cylinder.getNormal(p4));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Cylinder#findGeoIntersections(Ray, double)}
+     */
+    @Test
+    @DisplayName("testing the intersections of a cylinder")
+    void testingIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC1. a ray crossing the round part twice
+        assertEquals(List.of(new Point(0, -1, 5), new Point(0, 1, 5)),
+                cylinder.findIntersections(new Ray(new Point(0, -3, 5), v1)), "wrong hits on the round part");
+
+        // TC2. a ray along the axis through both caps
+        assertEquals(List.of(new Point(0, 0.5, 0), new Point(0, 0.5, 10)),
+                cylinder.findIntersections(new Ray(new Point(0, 0.5, -2), v2)), "wrong hits on the caps");
+
+        // TC3. a ray entering through the round part and leaving through the top
+        assertEquals(List.of(new Point(0, -1, 9), new Point(0, 0, 10)),
+                cylinder.findIntersections(new Ray(new Point(0, -2, 8), new Vector(0, 1, 1))), "wrong hits");
+
+        // TC4. a ray from inside the cylinder hits only once, the hit is on the cylinder
+        List<Intersectable.GeoPoint> points = cylinder.findGeoIntersections(new Ray(new Point(0, 0, 5), v1));
+        assertEquals(List.of(new Intersectable.GeoPoint(cylinder, new Point(0, 1, 5))), points, "wrong hit from inside");
+
+        // TC5. a ray missing the cylinder, next to it and beyond the caps
+        assertNull(cylinder.findIntersections(new Ray(new Point(0, -3, 5), new Vector(1, 0, 0))), "a ray next to the cylinder");
+        assertNull(cylinder.findIntersections(new Ray(new Point(0, -3, 12), v1)), "a ray above the cylinder");
+
+        // TC6. the max distance - only the hits before it, the caps included
+        assertEquals(1, cylinder.findGeoIntersections(new Ray(new Point(0, 0.5, -2), v2), 5).size(),
+                "the far cap is after the max distance");
+        assertNull(cylinder.findGeoIntersections(new Ray(new Point(0, 0.5, -2), v2), 1),
+                "the near cap is after the max distance");
+        assertEquals(new Point(0, 0.5, 0),
+                cylinder.findClosestGeoIntersection(new Ray(new Point(0, 0.5, -2), v2), 5).point, "wrong closest hit");
+
+        // =============== Boundary Values Tests ==================
+        // TC7. a ray parallel to the axis on the round part
+        assertNull(cylinder.findIntersections(new Ray(new Point(0, 1, -2), v2)), "a ray on the round part");
+
+        // TC8. a ray touching only the rim of a cap (the rim isn't part of the cylinder)
+        assertNull(cylinder.findIntersections(new Ray(new Point(0, -2, 9), new Vector(0, 1, 1))), "a ray through the rim");
+    }
+}
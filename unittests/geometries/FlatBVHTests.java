@@ -0,0 +1,132 @@
+package geometries;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import geometries.Intersectable.GeoPoint;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link FlatBVH} class
+ * @author danielattali, itiskvales
+ */
+class FlatBVHTests {
+
+    /**
+     * a grid of spheres and triangles, with a plane (which can't be bounded) under them
+     */
+    private static Intersectable[] createScene() {
+        List<Intersectable> geometries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                geometries.add(new Sphere(new Point(i * 4, j * 4, 0), 1));
+                geometries.add(new Triangle(
+                        new Point(i * 4 + 2, j * 4, -1),
+                        new Point(i * 4 + 3, j * 4, -1),
+                        new Point(i * 4 + 2, j * 4 + 1, 1)));
+            }
+        }
+        geometries.add(new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)));
+        return geometries.toArray(new Intersectable[0]);
+    }
+
+    /**
+     * @param points a list of points (or null)
+     * @return the size of the list (0 for null)
+     */
+    private static int size(List<Point> points) {
+        return points == null ? 0 : points.size();
+    }
+
+    /**
+     * Test method for {@link FlatBVH#findGeoIntersections(Ray, double)}
+     */
+    @Test
+    @DisplayName("testing the flat BVH finds the same intersections as the flat list")
+    void testingFlatBvhIntersections() {
+        Intersectable[] scene = createScene();
+        Geometries list = new Geometries(scene);
+        Geometries bvh = new Geometries(scene).setAccelerationMode(AccelerationMode.FLAT_BVH);
+
+        List<Ray> rays = new ArrayList<>();
+        // rays in general directions
+        for (int i = 0; i < 10; i++)
+            rays.add(new Ray(new Point(-10, i * 3.7, 10), new Vector(3, 0.5 - 0.1 * i, -1)));
+        // rays parallel to the axes, some of them exactly on the faces of the boxes
+        rays.add(new Ray(new Point(-10, 0, 0), new Vector(1, 0, 0)));
+        rays.add(new Ray(new Point(-10, 1, 0), new Vector(1, 0, 0)));
+        rays.add(new Ray(new Point(4, 4, 10), new Vector(0, 0, -1)));
+        rays.add(new Ray(new Point(8, -10, 0.5), new Vector(0, 1, 0)));
+
+        for (Ray ray : rays)
+            assertEquals(size(list.findIntersections(ray)), size(bvh.findIntersections(ray)),
+                    "The flat BVH and the flat list found a different amount of intersections for " + ray);
+
+        // max distance
+        Ray ray = new Ray(new Point(-10, 0, 0), new Vector(1, 0, 0));
+        assertEquals(2, bvh.findGeoIntersections(ray, 12).size(), "The flat BVH ignored the max distance");
+    }
+
+    /**
+     * Test method for {@link Geometries#setAccelerationMode(AccelerationMode)}
+     */
+    @Test
+    @DisplayName("testing switching between acceleration modes keeps all the geometries")
+    void testingSwitchingModes() {
+        Geometries geometries = new Geometries(createScene());
+
+        BVHCostReport tree = geometries.setAccelerationMode(AccelerationMode.AABB_TREE).getTreeCostReport();
+        BVHCostReport flat = geometries.setAccelerationMode(AccelerationMode.FLAT_BVH).getTreeCostReport();
+
+        assertEquals(200, flat.getGeometries(), "The flat BVH lost geometries");
+        assertEquals(tree.getNodes(), flat.getNodes(), "The flat BVH has a different amount of nodes than the tree");
+        assertEquals(tree.getCost(), flat.getCost(), 1e-9, "The flat BVH has a different cost than the tree");
+
+        geometries.setAccelerationMode(AccelerationMode.NONE);
+        assertEquals(201, geometries.getGeometries().size(), "Turning the acceleration off lost geometries");
+    }
+
+    /**
+     * Test method for {@link Intersectable#findClosestGeoIntersections(Ray[])}
+     */
+    @Test
+    @DisplayName("testing a packet of rays finds the same closest hits as every ray on its own")
+    void testingPacketIntersections() {
+        Geometries bvh = new Geometries(createScene()).setAccelerationMode(AccelerationMode.FLAT_BVH);
+        Point p0 = new Point(18, 18, 30);
+
+        // TC01: a coherent 4x4 packet, the rays hit the spheres, the triangles and the plane
+        Ray[] coherent = new Ray[16];
+        for (int i = 0; i < 16; i++)
+            coherent[i] = new Ray(p0, new Vector((i % 4) * 0.3 - 0.45, (i / 4) * 0.3 - 0.45, -1));
+        // TC02: a packet that diverges right away, some of the rays miss everything
+        Ray[] diverging = {
+                new Ray(p0, new Vector(-1, -1, -1)), new Ray(p0, new Vector(1, 1, -1)),
+                new Ray(p0, new Vector(1, 0, 1)), new Ray(p0, new Vector(0, 0, -1))};
+        // TC03: a packet too big to be traversed together
+        Ray[] big = new Ray[40];
+        for (int i = 0; i < big.length; i++)
+            big[i] = new Ray(p0, new Vector(i * 0.05 - 1, 0.3, -1));
+
+        for (Ray[] packet : List.of(coherent, diverging, big)) {
+            GeoPoint[] hits = bvh.findClosestGeoIntersections(packet);
+            assertEquals(packet.length, hits.length, "wrong amount of results");
+            for (int i = 0; i < packet.length; i++) {
+                GeoPoint expected = bvh.findClosestGeoIntersection(packet[i]);
+                if (expected == null)
+                    assertNull(hits[i], "a hit for a ray that misses everything " + packet[i]);
+                else
+                    assertEquals(expected.point, hits[i].point, "wrong closest hit for " + packet[i]);
+            }
+        }
+
+        // TC04: a ray that goes up misses everything
+        assertNull(bvh.findClosestGeoIntersections(diverging)[2], "the ray goes away from the scene");
+    }
+}
@@ -2,6 +2,8 @@ package geometries;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -70,7 +72,8 @@ class GeometriesTest {
     @Test
     @DisplayName("testing when the ray is intersecting with all the items")
     void testingWhenTheRayIsIntersectingWithAllTheItems() {
-        assertEquals(3, geo2.findIntersections(ray3).size());
+        // the plane, the triangle and the sphere twice
+        assertEquals(4, geo2.findIntersections(ray3).size());
     }
 
     @Test
@@ -91,4 +94,52 @@ class GeometriesTest {
     void testingFindIntersectionWithMaxDistance() {
         assertNull(geo2.findGeoIntersections(ray2, 0.0d));
     }
+
+    /**
+     * Test method for {@link Geometries#findClosestGeoIntersection(Ray)}
+     */
+    @Test
+    @DisplayName("testing the closest intersection in every acceleration mode")
+    void testingFindClosestIntersection() {
+        for (AccelerationMode mode : AccelerationMode.values()) {
+            geo2.setAccelerationMode(mode);
+
+            // TC1. the ray is intersecting with all the items, the plane is the closest
+            assertEquals(new Point(1, 1, 0), geo2.findClosestGeoIntersection(ray3).point, mode + ": wrong closest point");
+            // TC2. the ray is intersecting with only the sphere, the closest of the two points
+            assertEquals(ray2.findClosestGeoPoint(geo2.findGeoIntersections(ray2)),
+                    geo2.findClosestGeoIntersection(ray2), mode + ": wrong closest point");
+            // TC3. the ray is not intersecting any item
+            assertNull(geo2.findClosestGeoIntersection(ray1), mode + ": found a point for a ray that doesn't intersect");
+            // TC4. the closest intersection is further than the max distance
+            assertNull(geo2.findClosestGeoIntersection(ray3, 0.5), mode + ": ignored the max distance");
+            // TC5. the composite is empty
+            assertNull(geo1.findClosestGeoIntersection(ray3), mode + ": found a point in an empty composite");
+        }
+    }
+
+    /**
+     * Test method for {@link Geometries#findTransmittance(Ray, double, double)}
+     */
+    @Test
+    @DisplayName("testing the transmittance along a shadow ray in every acceleration mode")
+    void testingFindTransmittance() {
+        Sphere glass = (Sphere) new Sphere(1, new Point(0, 0, 5)).setMaterial(new Material().setKT(0.5));
+        Sphere wall = new Sphere(1, new Point(0, 0, 10));
+        Geometries geometries = new Geometries(glass, wall);
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+
+        for (AccelerationMode mode : AccelerationMode.values()) {
+            geometries.setAccelerationMode(mode);
+
+            // TC1. the light is in front of all the geometries
+            assertEquals(Double3.ONE, geometries.findTransmittance(ray, 3, 0.001), mode + ": wrong transmittance");
+            // TC2. the light is behind the glass sphere (the ray passes through it twice)
+            assertEquals(new Double3(0.25), geometries.findTransmittance(ray, 8, 0.001), mode + ": wrong transmittance");
+            // TC3. the light is behind the opaque sphere
+            assertEquals(Double3.ZERO, geometries.findTransmittance(ray, 20, 0.001), mode + ": the light is not blocked");
+            // TC4. the transmittance through the glass is under the cutoff
+            assertEquals(Double3.ZERO, geometries.findTransmittance(ray, 8, 0.3), mode + ": the cutoff is ignored");
+        }
+    }
 }
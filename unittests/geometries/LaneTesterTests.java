@@ -0,0 +1,113 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link LaneTester} class (and {@link VectorLaneTester} when the Vector API is present)
+ * @author danielattali, itiskvales
+ */
+class LaneTesterTests {
+    /**
+     * @param random the random numbers
+     * @return random spheres and triangles in the cube [-10, 10]^3
+     */
+    private static Intersectable[] randomGeometries(Random random) {
+        Intersectable[] geometries = new Intersectable[13];
+        for (int i = 0; i < geometries.length; i++) {
+            Point p = new Point(random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10);
+            geometries[i] = i % 2 == 0
+                    ? new Sphere(p, 0.5 + random.nextDouble() * 2)
+                    : new Triangle(p, p.add(new Vector(3, random.nextDouble(), 0)), p.add(new Vector(0, 2, 2)));
+        }
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link LaneTester#cull(GeometryLanes, int, int, FlatBVH.RayData, double)}
+     */
+    @Test
+    @DisplayName("testing the lane tests skip only geometries the ray misses")
+    void testingCull() {
+        Random random = new Random(15);
+        LaneTester scalar = LaneTester.get(false);
+        LaneTester vector = LaneTester.get(true);
+
+        for (int test = 0; test < 50; test++) {
+            Intersectable[] geometries = randomGeometries(random);
+            GeometryLanes lanes = new GeometryLanes(geometries);
+            for (int k = 0; k < 50; k++) {
+                Ray ray = new Ray(new Point(0, 0, 0),
+                        new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, random.nextDouble() - 0.5));
+                double maxDistance = k % 2 == 0 ? Double.POSITIVE_INFINITY : random.nextDouble() * 15;
+                FlatBVH.RayData r = new FlatBVH.RayData(ray);
+
+                // TC01: the vector tester gives exactly the same lanes as the scalar one (also from a lane in the middle)
+                int mask = scalar.cull(lanes, 0, geometries.length, r, maxDistance);
+                assertEquals(mask, vector.cull(lanes, 0, geometries.length, r, maxDistance), "different lanes " + ray);
+                assertEquals(mask >>> 3, vector.cull(lanes, 3, geometries.length - 3, r, maxDistance),
+                        "different lanes from the middle " + ray);
+
+                // TC02: a geometry the ray hits is never skipped
+                for (int i = 0; i < geometries.length; i++)
+                    if (geometries[i].findClosestGeoIntersection(ray, maxDistance) != null)
+                        assertNotEquals(0, mask & 1 << i, "a hit geometry was skipped " + ray);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a ray parallel to an axis, inside and outside the slab of a sphere
+        GeometryLanes lanes = new GeometryLanes(new Intersectable[]{new Sphere(new Point(0, 0, -5), 1)});
+        FlatBVH.RayData inside = new FlatBVH.RayData(new Ray(new Point(0, 0.5, 0), new Vector(0, 0, -1)));
+        FlatBVH.RayData outside = new FlatBVH.RayData(new Ray(new Point(0, 1.5, 0), new Vector(0, 0, -1)));
+        assertEquals(1, vector.cull(lanes, 0, 1, inside, Double.POSITIVE_INFINITY), "a parallel ray through the sphere");
+        assertEquals(0, vector.cull(lanes, 0, 1, outside, Double.POSITIVE_INFINITY), "a parallel ray next to the sphere");
+        // TC04: the sphere is further than the max distance
+        assertEquals(0, vector.cull(lanes, 0, 1, inside, 3), "the sphere is after the max distance");
+    }
+
+    /**
+     * Test method for {@link Geometries#setSimd(boolean)}
+     */
+    @Test
+    @DisplayName("testing the flat BVH with lane tests finds the same hits")
+    void testingFlatBvhWithLanes() {
+        Random random = new Random(5);
+        List<Intersectable> scene = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            scene.addAll(List.of(randomGeometries(random)));
+        Geometries bvh = new Geometries(scene.toArray(new Intersectable[0])).setAccelerationMode(AccelerationMode.FLAT_BVH);
+        Geometries lanes = new Geometries(scene.toArray(new Intersectable[0])).setAccelerationMode(AccelerationMode.FLAT_BVH)
+                .setSimd(true);
+
+        for (int k = 0; k < 300; k++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 30 - 15, random.nextDouble() * 30 - 15, 20),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+
+            // TC01: the closest hit
+            GeoPoint expected = bvh.findClosestGeoIntersection(ray);
+            GeoPoint actual = lanes.findClosestGeoIntersection(ray);
+            assertEquals(expected == null ? null : expected.point, actual == null ? null : actual.point,
+                    "wrong closest hit " + ray);
+
+            // TC02: all the hits
+            List<GeoPoint> all = bvh.findGeoIntersections(ray);
+            List<GeoPoint> allLanes = lanes.findGeoIntersections(ray);
+            assertEquals(all == null ? 0 : all.size(), allLanes == null ? 0 : allLanes.size(), "wrong hits " + ray);
+
+            // TC03: the light through the geometries
+            assertEquals(bvh.findTransmittance(ray, 30, 0.001), lanes.findTransmittance(ray, 30, 0.001),
+                    "wrong transmittance " + ray);
+        }
+    }
+}
@@ -6,11 +6,14 @@ import static primitives.Util.isZero;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import geometries.Intersectable.GeoPoint;
 import geometries.Polygon;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 /** Testing Polygons
  * @author Dan
  * */
@@ -151,4 +154,46 @@ public class PolygonTest {
     void testingThePointIsOnALineOutsideTheSquare0Intersection() {
         assertNull(square.findIntersections(ray5));
     }
+
+    /**
+     * Test method for {@link Polygon#findGeoIntersections(Ray, double)}
+     */
+    @Test
+    @DisplayName("testing the intersections of a pentagon")
+    void testingPentagonIntersections() {
+        // a pentagon on the plane z = 1, with the vertices in the clockwise order
+        Polygon pentagon = new Polygon(
+                new Point(0, 2, 1),
+                new Point(2, 0.5, 1),
+                new Point(1.2, -2, 1),
+                new Point(-1.2, -2, 1),
+                new Point(-2, 0.5, 1));
+        Vector down = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC1. a point inside, the hit is on the polygon itself (not on its plane)
+        List<GeoPoint> points = pentagon.findGeoIntersections(new Ray(new Point(0.5, 0.5, 3), down));
+        assertEquals(List.of(new GeoPoint(pentagon, new Point(0.5, 0.5, 1))), points, "wrong intersection");
+        assertSame(pentagon, pentagon.findClosestGeoIntersection(new Ray(new Point(0.5, 0.5, 3), down)).geometry,
+                "the hit isn't on the polygon");
+
+        // TC2. a point outside of each of the edges
+        assertNull(pentagon.findIntersections(new Ray(new Point(1.5, 1.5, 3), down)), "outside the first edge");
+        assertNull(pentagon.findIntersections(new Ray(new Point(2, -1.5, 3), down)), "outside the second edge");
+        assertNull(pentagon.findIntersections(new Ray(new Point(0, -2.5, 3), down)), "outside the third edge");
+        assertNull(pentagon.findIntersections(new Ray(new Point(-2, -1.5, 3), down)), "outside the fourth edge");
+        assertNull(pentagon.findIntersections(new Ray(new Point(-1.5, 1.5, 3), down)), "outside the fifth edge");
+
+        // TC3. the polygon is further than the max distance
+        assertNull(pentagon.findGeoIntersections(new Ray(new Point(0.5, 0.5, 3), down), 1.5), "after the max distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC4. a point on an edge and a point on a vertex
+        assertNull(pentagon.findIntersections(new Ray(new Point(0, -2, 3), down)), "on an edge");
+        assertNull(pentagon.findIntersections(new Ray(new Point(2, 0.5, 3), down)), "on a vertex");
+
+        // TC5. a ray parallel to the polygon
+        assertNull(pentagon.findIntersections(new Ray(new Point(-3, 0, 1), new Vector(1, 0, 0))), "on the plane");
+        assertNull(pentagon.findIntersections(new Ray(new Point(-3, 0, 2), new Vector(1, 0, 0))), "parallel to the plane");
+    }
 }
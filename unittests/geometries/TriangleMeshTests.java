@@ -0,0 +1,205 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link TriangleMesh} class
+ * @author danielattali, itiskvales
+ */
+class TriangleMeshTests {
+    /**
+     * the size of the grid of the terrain
+     */
+    private static final int GRID = 20;
+
+    /**
+     * @return the vertices of a bumpy terrain over [0, GRID] x [0, GRID]
+     */
+    private static double[] terrainVertices() {
+        double[] vertices = new double[(GRID + 1) * (GRID + 1) * 3];
+        for (int i = 0; i <= GRID; i++)
+            for (int j = 0; j <= GRID; j++) {
+                int v = (i * (GRID + 1) + j) * 3;
+                vertices[v] = i;
+                vertices[v + 1] = j;
+                vertices[v + 2] = Math.sin(i * 0.7) + Math.cos(j * 0.5);
+            }
+        return vertices;
+    }
+
+    /**
+     * @return two triangles for every square of the terrain
+     */
+    private static int[] terrainIndices() {
+        int[] indices = new int[GRID * GRID * 6];
+        int k = 0;
+        for (int i = 0; i < GRID; i++)
+            for (int j = 0; j < GRID; j++) {
+                int v = i * (GRID + 1) + j;
+                indices[k++] = v;
+                indices[k++] = v + GRID + 1;
+                indices[k++] = v + 1;
+                indices[k++] = v + 1;
+                indices[k++] = v + GRID + 1;
+                indices[k++] = v + GRID + 2;
+            }
+        return indices;
+    }
+
+    /**
+     * @param vertices the coordinates of the vertices
+     * @param v        the index of a vertex
+     * @return the vertex
+     */
+    private static Point vertex(double[] vertices, int v) {
+        return new Point(vertices[v * 3], vertices[v * 3 + 1], vertices[v * 3 + 2]);
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#TriangleMesh(double[], int[])}
+     */
+    @Test
+    @DisplayName("testing the ctor rejects broken meshes")
+    void testingCtor() {
+        double[] vertices = {0, 0, 0, 1, 0, 0, 0, 1, 0};
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC1. a single triangle
+        TriangleMesh mesh = new TriangleMesh(vertices, new int[]{0, 1, 2});
+        assertEquals(3, mesh.getVertexCount(), "wrong amount of vertices");
+        assertEquals(1, mesh.getFaceCount(), "wrong amount of faces");
+
+        // TC2. coordinates that are not triplets
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0, 1}, new int[]{0, 0, 0}),
+                "vertices that are not triplets");
+        // TC3. indexes that are not triplets
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1}),
+                "faces that are not triplets");
+        // TC4. an index of a vertex that doesn't exist
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1, 3}),
+                "a face with a vertex out of the mesh");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findClosestGeoIntersection(Ray)}
+     */
+    @Test
+    @DisplayName("testing the mesh finds the same hits as separate triangles")
+    void testingSameAsTriangles() {
+        double[] vertices = terrainVertices();
+        int[] indices = terrainIndices();
+        TriangleMesh mesh = new TriangleMesh(vertices, indices);
+        List<Intersectable> triangles = new ArrayList<>();
+        for (int f = 0; f < indices.length; f += 3)
+            triangles.add(new Triangle(vertex(vertices, indices[f]), vertex(vertices, indices[f + 1]),
+                    vertex(vertices, indices[f + 2])));
+        Geometries list = new Geometries(triangles.toArray(new Intersectable[0]));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            Ray ray = new Ray(new Point(GRID * random.nextDouble(), GRID * random.nextDouble(), 10),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+
+            // TC01: the closest hit is the same as the closest hit of the triangles
+            GeoPoint expected = list.findClosestGeoIntersection(ray);
+            GeoPoint actual = mesh.findClosestGeoIntersection(ray);
+            if (expected == null) {
+                // the ray may go through an edge of the triangles (the mesh has no cracks)
+                continue;
+            }
+            assertNotNull(actual, "the mesh missed a hit " + ray);
+            assertEquals(expected.point, actual.point, "wrong closest hit " + ray);
+
+            // TC02: the normal of the face is the normal of the triangle
+            assertEquals(expected.geometry.getNormal(expected.point), actual.geometry.getNormal(actual.point),
+                    "wrong normal " + ray);
+            assertEquals(actual.geometry.getNormal(actual.point), mesh.getNormal(actual.point),
+                    "the normal of the mesh isn't the normal of the face " + ray);
+
+            // TC03: all the hits of the mesh
+            assertEquals(list.findGeoIntersections(ray).size(), mesh.findGeoIntersections(ray).size(),
+                    "wrong amount of hits " + ray);
+        }
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findGeoIntersections(Ray, double)}
+     */
+    @Test
+    @DisplayName("testing the hits of a mesh")
+    void testingHits() {
+        // a square of two triangles on the plane z = 0
+        TriangleMesh mesh = new TriangleMesh(new double[]{0, 0, 0, 2, 0, 0, 2, 2, 0, 0, 2, 0}, new int[]{0, 1, 2, 0, 2, 3});
+        Material material = new Material().setKD(0.5);
+        mesh.setMaterial(material).setEmission(new Color(20, 30, 40));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC1. a ray through the square
+        Ray ray = new Ray(new Point(1.5, 0.5, 1), new Vector(0, 0, -1));
+        GeoPoint gp = mesh.findClosestGeoIntersection(ray);
+        assertEquals(new Point(1.5, 0.5, 0), gp.point, "wrong hit");
+        assertTrue(gp.geometry instanceof TriangleMesh.Face, "the hit isn't on a face");
+        assertSame(material, gp.geometry.getMaterial(), "the face doesn't share the material of the mesh");
+        assertEquals(mesh.getEmission(), gp.geometry.getEmission(), "the face doesn't share the emission of the mesh");
+        assertEquals(new Vector(0, 0, 1), gp.geometry.getNormal(gp.point), "wrong normal");
+        Material other = new Material().setKS(0.5);
+        Color emission = new Color(1, 2, 3);
+        gp.geometry.setMaterial(other).setEmission(emission);
+        assertSame(other, mesh.getMaterial(), "the material of a face isn't the material of its mesh");
+        assertSame(emission, mesh.getEmission(), "the emission of a face isn't the emission of its mesh");
+
+        // TC2. a ray that misses the square
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(3, 1, 1), new Vector(0, 0, -1))), "a miss");
+
+        // TC3. the square is further than the max distance
+        assertNull(mesh.findGeoIntersections(ray, 0.5), "a hit after the max distance");
+        assertNull(mesh.findClosestGeoIntersection(ray, 0.5), "a hit after the max distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC4. a ray through the diagonal between the two faces hits the mesh
+        assertNotNull(mesh.findClosestGeoIntersection(new Ray(new Point(1, 1, 1), new Vector(0, 0, -1))),
+                "a ray through the shared edge missed the mesh");
+
+        // TC5. a ray on the plane of the square
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(-1, 1, 0), new Vector(1, 0, 0))), "a ray on the plane");
+
+        // TC6. the normal of a point on the shared edge, and of points off the mesh
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point(1, 1, 0)), "wrong normal on the edge");
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(1, 1, 0.5)),
+                "a point inside the bounds above the mesh");
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(3, 1, 0)),
+                "a point on the plane out of the bounds");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#getAxisAlignedBoundingBox()}
+     */
+    @Test
+    @DisplayName("testing a mesh inside the bounding volume hierarchy of a scene")
+    void testingMeshInBvh() {
+        TriangleMesh mesh = new TriangleMesh(terrainVertices(), terrainIndices());
+        Sphere sphere = new Sphere(new Point(5, 5, 5), 1);
+        Geometries bvh = new Geometries(mesh, sphere).setAccelerationMode(AccelerationMode.FLAT_BVH);
+
+        // TC01: a ray that hits the sphere before the mesh
+        Ray ray = new Ray(new Point(5, 5, 10), new Vector(0, 0, -1));
+        assertSame(sphere, bvh.findClosestGeoIntersection(ray).geometry, "the sphere is in front of the mesh");
+
+        // TC02: a ray that hits only the mesh
+        GeoPoint gp = bvh.findClosestGeoIntersection(new Ray(new Point(15, 15, 10), new Vector(0, 0, -1)));
+        assertSame(mesh, ((TriangleMesh.Face) gp.geometry).getMesh(), "the ray should hit the mesh");
+
+        // TC03: the mesh blocks the light
+        assertEquals(Double3.ZERO, bvh.findTransmittance(new Ray(new Point(15, 15, 10), new Vector(0, 0, -1)), 20, 0.001),
+                "the mesh doesn't block the light");
+    }
+}
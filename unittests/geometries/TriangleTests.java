@@ -6,6 +6,9 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -61,11 +64,11 @@ class TriangleTests {
         testingAPointBetweenTwoLine0Intersection2();
 
         // =============== Boundary Values Tests ==================
-        // TC4. testing a Point on the line not in the triangle
+        // TC4. testing a Point on the line not in the triangle (the edges are part of the triangle)
         testingAPointOnTheLineNotInTheTriangle();
         // TC5. testing a Point on the line in the triangle
         testingAPointOnTheLineInTheTriangle();
-        // TC6. testing a Point on one of the triangle Point
+        // TC6. testing a Point on one of the triangle Point (the vertices are part of the triangle)
         testingAPointOnOneOfTheTrianglePoint();
     }
 
@@ -92,7 +95,8 @@ class TriangleTests {
     @Test
     @DisplayName("testing a point on the line not in the triangle")
     void testingAPointOnTheLineNotInTheTriangle() {
-        assertNull(triangle.findIntersections(ray4));
+        // the edges are part of the triangle, so a mesh of triangles has no cracks
+        assertEquals(List.of(new Point(0, 1, 0)), triangle.findIntersections(ray4));
     }
 
     @Test
@@ -104,6 +108,56 @@ class TriangleTests {
     @Test
     @DisplayName("testing a point on one of the triangle point")
     void testingAPointOnOneOfTheTrianglePoint() {
-        assertNull(triangle.findIntersections(ray6));
+        assertEquals(List.of(new Point(1, 1, 0)), triangle.findIntersections(ray6));
+    }
+
+    /**
+     * Test method for {@link Triangle#findGeoIntersections(Ray, double)}
+     */
+    @Test
+    @DisplayName("testing two triangles sharing an edge have no crack between them")
+    void testingSharedEdge() {
+        // TC1. random rays through random points on the edge shared by the two halves of a random parallelogram
+        // hit one of them, whatever vertex each triangle starts from
+        Random random = new Random(11);
+        for (int i = 0; i < 10000; i++) {
+            Point p = randomPoint(random), q = randomPoint(random), r = randomPoint(random);
+            Vector pq = q.subtract(p), pr = r.subtract(p);
+            Vector n = pq.crossProduct(pr);
+            if (n.length() < 1)
+                continue;
+            Point s = q.add(pr);
+            Triangle half = switch (i % 3) {
+                case 0 -> new Triangle(s, r, q);
+                case 1 -> new Triangle(r, q, s);
+                default -> new Triangle(q, s, r);
+            };
+            Triangle other = new Triangle(p, q, r);
+
+            Point target = q.add(r.subtract(q).scale(random.nextDouble()));
+            Point head = target.add(n.normalize().scale((random.nextBoolean() ? 1 : -1) * (1 + 10 * random.nextDouble())))
+                    .add(pq.scale(random.nextDouble() - 0.5));
+            Ray ray = new Ray(head, target.subtract(head));
+            assertTrue(other.findIntersections(ray) != null || half.findIntersections(ray) != null,
+                    "a crack between " + other + " and " + half + " along " + ray);
+        }
+
+        Triangle first = new Triangle(new Point(0, 0, 0), new Point(1, 0, 0), new Point(1, 1, 0));
+
+        // TC2. the max distance
+        Ray ray = new Ray(new Point(0.7, 0.2, 1), new Vector(0, 0, -1));
+        assertNull(first.findGeoIntersections(ray, 1), "the hit is exactly at the max distance");
+        assertEquals(1, first.findGeoIntersections(ray, 1.5).size(), "the hit is before the max distance");
+
+        // TC3. a ray parallel to the triangle
+        assertNull(first.findIntersections(new Ray(new Point(-1, 0.5, 0), new Vector(1, 0, 0))), "a ray on the plane");
+    }
+
+    /**
+     * @param random the random numbers
+     * @return a random point in the cube [-10, 10]^3
+     */
+    private static Point randomPoint(Random random) {
+        return new Point(20 * random.nextDouble() - 10, 20 * random.nextDouble() - 10, 20 * random.nextDouble() - 10);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package lighting;
 
 import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -229,4 +230,22 @@ public class LightsTests {
          System.out.println(v);
       }
    }
+
+   @Test
+   @DisplayName("testing every light keeps its own amount of soft shadow rays")
+   void testingSoftShadowRaysPerLight() {
+      PointLight soft = new PointLight(new Color(WHITE), new Point(0, -50, 90))
+              .setLengthOfTheSide(10).setSoftShadowsRays(16);
+      PointLight hard = new PointLight(new Color(WHITE), new Point(0, -50, 90))
+              .setLengthOfTheSide(10).setSoftShadowsRays(4);
+
+      // the sampled points and the vector to the center of the light
+      assertEquals(17, soft.getL2(Point.ZERO).size(),
+              "the soft shadow rays of a light were changed by another light");
+      assertEquals(5, hard.getL2(Point.ZERO).size(),
+              "wrong amount of soft shadow rays");
+      assertEquals(1,
+              new PointLight(new Color(WHITE), new Point(0, -50, 90)).getL2(Point.ZERO).size(),
+              "a light without soft shadows has more than one ray");
+   }
 }
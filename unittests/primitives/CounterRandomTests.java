@@ -0,0 +1,79 @@
+package primitives;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link CounterRandom} class
+ * @author danielattali, itiskvales
+ */
+class CounterRandomTests {
+    /**
+     * @param sampler the sampler
+     * @param seed the seed
+     * @param pixel the pixel
+     * @return the points of two calls of the sampler in the pixel, with a sample started between them
+     */
+    private static double[] pixelSamples(Sampler sampler, long seed, long pixel) {
+        double[] samples = new double[16];
+        CounterRandom.startPixel(seed, pixel);
+        sampler.sample2D(samples, 4);
+        CounterRandom.startSample(1);
+        double[] second = new double[8];
+        sampler.sample2D(second, 4);
+        System.arraycopy(second, 0, samples, 8, 8);
+        return samples;
+    }
+
+    /**
+     * Test method for {@link CounterRandom#startPixel(long, long)}
+     */
+    @Test
+    @DisplayName("testing the random numbers of a pixel depend only on the seed and the pixel")
+    void testingStartPixel() {
+        Sampler sampler = new StratifiedSampler();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the same seed and pixel give the same samples, on another thread too
+        double[] expected = pixelSamples(sampler, 3, 42);
+        assertArrayEquals(expected, pixelSamples(sampler, 3, 42), "the samples of the pixel changed");
+        double[][] other = new double[1][];
+        Thread thread = new Thread(() -> other[0] = pixelSamples(sampler, 3, 42));
+        thread.start();
+        assertDoesNotThrow(() -> thread.join());
+        assertArrayEquals(expected, other[0], "the samples of the pixel changed on another thread");
+
+        // TC02: another pixel or another seed give other samples
+        assertFalse(Arrays.equals(expected, pixelSamples(sampler, 3, 43)), "two pixels got the same samples");
+        assertFalse(Arrays.equals(expected, pixelSamples(sampler, 4, 42)), "two seeds gave the same samples");
+
+        // TC03: every call and every sample of the pixel get other numbers
+        for (int k = 0; k < 8; k++)
+            assertNotEquals(expected[k], expected[k + 8], "two samples got the same numbers");
+        CounterRandom.startPixel(3, 42);
+        assertNotEquals(CounterRandom.next(), CounterRandom.next(), "two dimensions got the same number");
+    }
+
+    /**
+     * Test method for {@link CounterRandom#uniform(long, long)}
+     */
+    @Test
+    @DisplayName("testing the random numbers are uniform")
+    void testingUniform() {
+        int[] buckets = new int[10];
+        long key = CounterRandom.nextDimension();
+        for (int k = 0; k < 100000; k++) {
+            double u = CounterRandom.uniform(key, k);
+            // TC01: the numbers are in [0, 1)
+            assertTrue(u >= 0 && u < 1, "a number outside of [0, 1)");
+            buckets[(int) (u * 10)]++;
+        }
+        // TC02: about the same amount of numbers in every tenth
+        for (int bucket : buckets)
+            assertEquals(10000, bucket, 500, "the numbers are not uniform");
+    }
+}
@@ -0,0 +1,190 @@
+package primitives;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for the {@link Sampler} implementations
+ * @author danielattali, itiskvales
+ */
+class SamplerTests {
+    /**
+     * @param sampler the sampler
+     * @param count the amount of points in every estimate
+     * @return the average error of estimating the integral of x * y over the unit square (1/4) with the points
+     */
+    private static double integrationError(Sampler sampler, int count) {
+        double[] samples = new double[2 * count];
+        double error = 0;
+        for (int trial = 0; trial < 2000; trial++) {
+            sampler.sample2D(samples, count);
+            double sum = 0;
+            for (int k = 0; k < count; k++)
+                sum += samples[2 * k] * samples[2 * k + 1];
+            error += Math.abs(sum / count - 0.25);
+        }
+        return error / 2000;
+    }
+
+    /**
+     * Test method for {@link StratifiedSampler#sample2D(double[], int)}
+     */
+    @Test
+    @DisplayName("testing every cell of the jittered grid gets one point")
+    void testingStratifiedSampler() {
+        Sampler sampler = new StratifiedSampler();
+        double[] samples = new double[2 * 16];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a square amount of points, one point in every cell of a 4x4 grid
+        sampler.sample2D(samples, 16);
+        boolean[] cells = new boolean[16];
+        for (int k = 0; k < 16; k++) {
+            int cell = (int) (samples[2 * k + 1] * 4) * 4 + (int) (samples[2 * k] * 4);
+            assertFalse(cells[cell], "two points in the same cell");
+            cells[cell] = true;
+        }
+
+        // TC02: an amount that isn't a square, all the points are in the square
+        sampler.sample2D(samples, 10);
+        for (int k = 0; k < 20; k++)
+            assertTrue(samples[k] >= 0 && samples[k] < 1, "a point outside of the square");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a single point
+        sampler.sample2D(samples, 1);
+        assertTrue(samples[0] >= 0 && samples[0] < 1 && samples[1] >= 0 && samples[1] < 1, "a point outside of the square");
+    }
+
+    /**
+     * Test method for {@link HaltonSampler#sample2D(double[], int)}
+     */
+    @Test
+    @DisplayName("testing the halton sequence")
+    void testingHaltonSampler() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the first points of the sequence
+        assertEquals(0.5, HaltonSampler.radicalInverse2(1));
+        assertEquals(0.25, HaltonSampler.radicalInverse2(2));
+        assertEquals(0.75, HaltonSampler.radicalInverse2(3));
+        assertEquals(1.0 / 3, HaltonSampler.radicalInverse(1, 3), 1e-12);
+        assertEquals(2.0 / 3, HaltonSampler.radicalInverse(2, 3), 1e-12);
+        assertEquals(4.0 / 9, HaltonSampler.radicalInverse(4, 3), 1e-12);
+
+        // TC02: all the points are in the square
+        double[] samples = new double[2 * 37];
+        new HaltonSampler().sample2D(samples, 37);
+        for (double sample : samples)
+            assertTrue(sample >= 0 && sample < 1, "a point outside of the square");
+    }
+
+    /**
+     * Test method for {@link SobolSampler#sample2D(double[], int)}
+     */
+    @Test
+    @DisplayName("testing the sobol sequence")
+    void testingSobolSampler() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the first points of the second dimension
+        assertEquals(1 << 31, SobolSampler.sobol2(1));
+        assertEquals(3 << 30, SobolSampler.sobol2(2));
+        assertEquals(1 << 30, SobolSampler.sobol2(3));
+
+        // TC02: the scrambled points still have one point in every cell of a 4x4 grid
+        double[] samples = new double[2 * 16];
+        for (int test = 0; test < 10; test++) {
+            new SobolSampler().sample2D(samples, 16);
+            boolean[] cells = new boolean[16];
+            for (int k = 0; k < 16; k++) {
+                int cell = (int) (samples[2 * k + 1] * 4) * 4 + (int) (samples[2 * k] * 4);
+                assertFalse(cells[cell], "two points in the same cell");
+                cells[cell] = true;
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link Sampler#sample2D(double[], int)}
+     */
+    @Test
+    @DisplayName("testing the samplers are less noisy than random points")
+    void testingSamplersNoise() {
+        Random random = new Random(18);
+        Sampler randomSampler = (samples, count) -> {
+            for (int k = 0; k < 2 * count; k++)
+                samples[k] = random.nextDouble();
+        };
+
+        // TC01: the jittered grid
+        for (int count : new int[]{9, 10, 16})
+            assertTrue(integrationError(new StratifiedSampler(), count) < 0.8 * integrationError(randomSampler, count),
+                    "the stratified points are too noisy for " + count + " points");
+        // TC02: the halton sequence
+        for (int count : new int[]{9, 10, 16})
+            assertTrue(integrationError(new HaltonSampler(), count) < 0.8 * integrationError(randomSampler, count),
+                    "the halton points are too noisy for " + count + " points");
+        // TC03: the sobol sequence
+        for (int count : new int[]{16, 64})
+            assertTrue(integrationError(new SobolSampler(), count) < 0.8 * integrationError(randomSampler, count),
+                    "the sobol points are too noisy for " + count + " points");
+    }
+
+    /**
+     * Test method for {@link Sampler#squareToDisk(double[], int)}
+     */
+    @Test
+    @DisplayName("testing the mapping of the square to the disk")
+    void testingSquareToDisk() {
+        double[] samples = {0.5, 0.5, 0, 0.5, 0.5, 1, 0.9, 0.8, 0.1, 0.3};
+        Sampler.squareToDisk(samples, 5);
+
+        // =============== Boundary Values Tests ==================
+        // TC01: the center of the square is the center of the disk
+        assertEquals(0, samples[0], 1e-12);
+        assertEquals(0, samples[1], 1e-12);
+        // TC02: the middle of the edges of the square are on the circle
+        assertEquals(-1, samples[2], 1e-12);
+        assertEquals(0, samples[3], 1e-12);
+        assertEquals(0, samples[4], 1e-12);
+        assertEquals(1, samples[5], 1e-12);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC03: the other points are inside the disk
+        for (int k = 3; k < 5; k++)
+            assertTrue(samples[2 * k] * samples[2 * k] + samples[2 * k + 1] * samples[2 * k + 1] < 1,
+                    "a point outside of the disk");
+    }
+
+    /**
+     * Test method for {@link Point#generatePoints(Vector, Vector, int, Point, double, Sampler)} and
+     * {@link Point#generatePointsInRectangle(Vector, Vector, int, Point, double, double, Sampler)}
+     */
+    @Test
+    @DisplayName("testing the points of the samplers in the scene")
+    void testingGeneratePoints() {
+        Vector vX = new Vector(1, 0, 0);
+        Vector vY = new Vector(0, 1, 0);
+        Point center = new Point(1, 2, 3);
+
+        for (Sampler sampler : new Sampler[]{new StratifiedSampler(), new HaltonSampler(), new SobolSampler()}) {
+            // TC01: the exact amount of points, all of them inside the circle
+            List<Point> circle = Point.generatePoints(vX, vY, 10, center, 2, sampler);
+            assertEquals(10, circle.size(), "wrong amount of points");
+            for (Point p : circle)
+                assertTrue(p.distance(center) <= 2, "a point outside of the circle");
+
+            // TC02: the exact amount of points, all of them inside the rectangle
+            List<Point> rectangle = Point.generatePointsInRectangle(vX, vY, 7, center, 4, 1, sampler);
+            assertEquals(7, rectangle.size(), "wrong amount of points");
+            for (Point p : rectangle) {
+                assertTrue(Math.abs(p.getX() - 1) <= 2 && Math.abs(p.getY() - 2) <= 0.5, "a point outside of the rectangle");
+                assertEquals(3, p.getZ(), 1e-12, "a point outside of the plane");
+            }
+        }
+    }
+}
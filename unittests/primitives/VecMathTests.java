@@ -0,0 +1,56 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link VecMath} class
+ * @author danielattali, itiskvales
+ */
+class VecMathTests {
+    private final Vector v1 = new Vector(1, 2, 3);
+    private final Vector v2 = new Vector(-2, 0.5, 4);
+
+    /**
+     * Test method for {@link VecMath#dot(double, double, double, double, double, double)}
+     */
+    @Test
+    void dotTest() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC1. the same value as the vector operation
+        assertEquals(v1.dotProduct(v2), VecMath.dot(1, 2, 3, -2, 0.5, 4), "wrong dot product");
+        assertEquals(v1.lengthSquared(), VecMath.lengthSquared(1, 2, 3), "wrong length squared");
+    }
+
+    /**
+     * Test method for {@link VecMath#crossX(double, double, double, double, double, double)}
+     */
+    @Test
+    void crossTest() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC1. the same value as the vector operation
+        Vector cross = v1.crossProduct(v2);
+        assertEquals(cross, new Vector(
+                VecMath.crossX(1, 2, 3, -2, 0.5, 4),
+                VecMath.crossY(1, 2, 3, -2, 0.5, 4),
+                VecMath.crossZ(1, 2, 3, -2, 0.5, 4)), "wrong cross product");
+    }
+
+    /**
+     * Test method for {@link VecMath#isZeroVector(double, double, double)}
+     */
+    @Test
+    void isZeroVectorTest() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC1. a vector which is not zero
+        assertFalse(VecMath.isZeroVector(0, 0, 1e-5), "a small vector is not zero");
+
+        // =============== Boundary Values Tests ==================
+        // TC2. the zero vector and an almost zero vector, the same as the Vector ctor
+        assertTrue(VecMath.isZeroVector(0, 0, 0), "the zero vector");
+        assertTrue(VecMath.isZeroVector(1e-15, 0, -1e-15), "an almost zero vector");
+        assertThrows(IllegalArgumentException.class, () -> new Vector(1e-15, 0, -1e-15),
+                "the vector ctor didn't reject an almost zero vector");
+    }
+}
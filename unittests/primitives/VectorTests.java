@@ -239,4 +239,53 @@ class VectorTests {
 
         assertEquals(v1, v2);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Vector#orthonormalBasis()}
+     */
+    @Test
+    @DisplayName("testing the orthonormal basis of a vector")
+    void testingOrthonormalBasis() {
+        Vector[] axes = {
+                // ============ Equivalence Partitions Tests ==============
+                // TC01: vectors in every direction
+                new Vector(1, 2, 3).normalize(), new Vector(-3, 1, -2).normalize(), new Vector(0.2, -0.1, 0.9).normalize(),
+                // =============== Boundary Values Tests ==================
+                // TC02: the axes, where z is 0 or the sign of z changes
+                new Vector(1, 0, 0), new Vector(0, 1, 0), new Vector(0, 0, 1), new Vector(0, 0, -1),
+                new Vector(1, 1, -1e-12).normalize()
+        };
+        for (Vector n : axes) {
+            Vector[] basis = n.orthonormalBasis();
+            assertEquals(1, basis[0].length(), 1e-12, "u isn't a unit vector for " + n);
+            assertEquals(1, basis[1].length(), 1e-12, "v isn't a unit vector for " + n);
+            assertEquals(0, basis[0].dotProduct(n), 1e-12, "u isn't orthogonal to " + n);
+            assertEquals(0, basis[1].dotProduct(n), 1e-12, "v isn't orthogonal to " + n);
+            assertEquals(0, basis[0].dotProduct(basis[1]), 1e-12, "u and v aren't orthogonal for " + n);
+        }
+    }
+
+    /**
+     * Test method for {@link Vector#generateDirectionsInCone(Vector, double, int, Sampler, double[])}
+     */
+    @Test
+    @DisplayName("testing the directions in a cone")
+    void testingDirectionsInCone() {
+        Vector axis = new Vector(1, -2, 2).normalize();
+        double coneAngle = Math.toRadians(30);
+        // the directions are in a disk of radius tan(angle) / 2 at distance 1 along the axis
+        double maxCos = 1 / Math.sqrt(1 + Math.pow(Math.tan(coneAngle) / 2, 2));
+
+        for (Sampler sampler : new Sampler[]{new StratifiedSampler(), new HaltonSampler(), new SobolSampler()}) {
+            // TC01: all the directions are in the cone, the rest of the buffer isn't written
+            double[] directions = new double[3 * 11];
+            directions[30] = directions[31] = directions[32] = 7;
+            Vector.generateDirectionsInCone(axis, coneAngle, 10, sampler, directions);
+            for (int k = 0; k < 10; k++) {
+                Vector d = new Vector(directions[3 * k], directions[3 * k + 1], directions[3 * k + 2]).normalize();
+                assertTrue(d.dotProduct(axis) >= maxCos - 1e-12, "a direction outside of the cone " + d);
+            }
+            assertEquals(7, directions[30], "the buffer was written after the directions");
+        }
+    }
+}
@@ -5,9 +5,18 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import geometries.AccelerationMode;
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.PointLight;
 import primitives.*;
+import scene.Scene;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Testing Camera Class
@@ -97,4 +106,261 @@ class CameraTests {
             System.out.println(ray.getDir());
         }
     }
+
+    /**
+     * Test method for {@link renderer.Camera#setSampler(Sampler)}.
+     */
+    @Test
+    @DisplayName("testing every sampler constructs all the alias rays through the pixel")
+    void testingSamplerRays() {
+        for (Sampler sampler : new Sampler[]{new StratifiedSampler(), new HaltonSampler(), new SobolSampler()}) {
+            Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, -1, 0)).setVPDistance(10)
+                    .setVPSize(8, 8)
+                    .setAliasRays(15)
+                    .setSampler(sampler);
+            List<Ray> rays = camera.constructRays(4, 4, 1, 0);
+            Vector center = camera.constructRay(4, 4, 1, 0).getDir();
+            Point pCenter = center.scale(-10 / center.getZ());
+
+            // TC01: the exact amount of rays, all of them through the pixel (2x2 around its center on the view plane)
+            assertEquals(15, rays.size(), "wrong amount of rays");
+            for (Ray ray : rays) {
+                Vector dir = ray.getDir();
+                Point p = dir.scale(-10 / dir.getZ());
+                assertTrue(Math.abs(p.getX() - pCenter.getX()) <= 1 + 1e-9 && Math.abs(p.getY() - pCenter.getY()) <= 1 + 1e-9,
+                        "a ray outside of the pixel");
+            }
+        }
+
+        // TC02: a camera can't have no sampler
+        assertThrows(IllegalArgumentException.class, () -> new Camera(ZERO_POINT, new Vector(0, 0, -1),
+                new Vector(0, -1, 0)).setSampler(null), "a null sampler was accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setPacketSize(int)}.
+     */
+    @Test
+    @DisplayName("testing rendering with packets of rays gives the same image")
+    void testingPacketRender() {
+        Scene scene = new Scene("packets").setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.2));
+        for (int i = 0; i < 5; i++)
+            for (int j = 0; j < 5; j++)
+                scene.geometries.add(new Sphere(new Point(i * 30 - 60, j * 30 - 60, -100), 12)
+                        .setEmission(new Color(i * 50, j * 50, 100)));
+        scene.setAccelerationMode(AccelerationMode.FLAT_BVH);
+
+        // 30 pixels are not a multiple of 4, so there are packets at the edges that are smaller
+        int n = 30;
+        Color[][] expected = null;
+        for (int packetSize : new int[]{1, 2, 4}) {
+            for (boolean multithreading : new boolean[]{false, true}) {
+                PixelsWriter writer = new PixelsWriter(n, n);
+                new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setVPSize(200, 200).setVPDistance(100)
+                        .setImageWriter(writer)
+                        .setRayTracer(new RayTracerBasic(scene))
+                        .setMultiThreading(multithreading).setTileSize(7).setPrintProgress(false)
+                        .setPacketSize(packetSize)
+                        .renderImage();
+                if (expected == null)
+                    expected = writer.pixels;
+                for (int x = 0; x < n; x++)
+                    for (int y = 0; y < n; y++)
+                        assertEquals(expected[x][y].getRgb(), writer.pixels[x][y].getRgb(),
+                                "wrong pixel [" + x + ", " + y + "] with packets of " + packetSize);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> camera.setPacketSize(0), "an empty packet");
+        assertThrows(IllegalArgumentException.class, () -> camera.setPacketSize(RenderSettings.MAX_PACKET_SIZE + 1),
+                "a packet too big");
+    }
+
+    /**
+     * @param scene the scene
+     * @param seed the seed of the render
+     * @param aliasRays the alias rays of every pixel
+     * @param settings the threads, the tiles and the packets of the render
+     * @return the colors of the pixels of a 20x20 image
+     */
+    private static Color[][] renderSeeded(Scene scene, long seed, int aliasRays, RenderSettings settings) {
+        PixelsWriter writer = new PixelsWriter(20, 20);
+        new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(100)
+                .setImageWriter(writer)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setRenderSettings(settings.setPrintProgress(false))
+                .setAliasRays(aliasRays)
+                .setSeed(seed)
+                .renderImage();
+        return writer.pixels;
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setSeed(long)}.
+     */
+    @Test
+    @DisplayName("testing renders with the same seed give the same image with any threads and tiles")
+    void testingSeededRender() {
+        Scene scene = new Scene("seed").setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -50), 40).setEmission(new Color(100, 50, 20))
+                        .setMaterial(new Material().setKD(0.5).setKS(0.3).setKR(0.4).setNShininess(30)
+                                .setNumRaysReflected(9).setConeAngleReflected(0.2)),
+                new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setMaterial(new Material().setKD(0.6)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(60, 60, 50))
+                .setLengthOfTheSide(20).setSoftShadowsRays(9));
+
+        for (int aliasRays : new int[]{1, 4}) {
+            Color[][] expected = renderSeeded(scene, 7, aliasRays, new RenderSettings());
+            List<RenderSettings> others = List.of(
+                    new RenderSettings().setMultithreading(true).setThreads(3).setTileSize(7),
+                    new RenderSettings().setMultithreading(true).setThreads(2).setTileSize(5)
+                            .setTileOrder(TileScheduler.TileOrder.SCANLINE),
+                    new RenderSettings().setPacketSize(4));
+
+            // TC01: the same seed gives the same image, whatever thread renders every pixel
+            for (RenderSettings settings : others) {
+                Color[][] actual = renderSeeded(scene, 7, aliasRays, settings);
+                for (int x = 0; x < 20; x++)
+                    for (int y = 0; y < 20; y++)
+                        assertEquals(expected[x][y].getRgb(), actual[x][y].getRgb(),
+                                "wrong pixel [" + x + ", " + y + "] with " + aliasRays + " alias rays");
+            }
+
+            // TC02: another seed gives other noise
+            Color[][] other = renderSeeded(scene, 8, aliasRays, new RenderSettings());
+            boolean different = false;
+            for (int x = 0; x < 20; x++)
+                for (int y = 0; y < 20; y++)
+                    different |= !expected[x][y].getRgb().equals(other[x][y].getRgb());
+            assertTrue(different, "another seed gave the same image");
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setSampler(Sampler)}.
+     */
+    @Test
+    @DisplayName("testing changing the sampler in the middle of a render doesn't change its image")
+    void testingSamplerDuringRender() {
+        Scene scene = new Scene("sampler");
+        scene.geometries.add(new Sphere(new Point(0, 0, -50), 40).setEmission(new Color(100, 50, 20)));
+
+        // TC01: the sampler of the camera changes once the first pixels are done, in both modes
+        for (boolean multithreading : new boolean[]{false, true}) {
+            Color[][] expected = null;
+            for (boolean change : new boolean[]{false, true}) {
+                PixelsWriter writer = new PixelsWriter(20, 20);
+                Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setVPSize(200, 200).setVPDistance(100)
+                        .setImageWriter(writer)
+                        .setRayTracer(new RayTracerBasic(scene))
+                        .setMultiThreading(multithreading).setThreadsCount(2).setTileSize(5).setPrintProgress(false)
+                        .setAliasRays(9)
+                        .setSampler(new HaltonSampler());
+                if (change)
+                    camera.addProgressListener(progress -> camera.setSampler(new SobolSampler()));
+                camera.renderImage();
+                if (expected == null)
+                    expected = writer.pixels;
+                else
+                    for (int x = 0; x < 20; x++)
+                        for (int y = 0; y < 20; y++)
+                            assertEquals(expected[x][y].getRgb(), writer.pixels[x][y].getRgb(),
+                                    "the sampler changed at pixel [" + x + ", " + y + "]");
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setAdaptiveAntialiasing(boolean)}.
+     */
+    @Test
+    @DisplayName("testing adaptive antialiasing traces more rays only through the noisy pixels")
+    void testingAdaptiveAntialiasing() {
+        int n = 20;
+        int aliasRays = 16;
+        int minRays = RenderSettings.DEFAULT_ADAPTIVE_MIN_RAYS;
+        Scene scene = new Scene("adaptive");
+
+        // TC01: only the background, every pixel gets the first rays only
+        Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(100)
+                .setImageWriter(new PixelsWriter(n, n))
+                .setRayTracer(new RayTracerBasic(scene))
+                .setAliasRays(aliasRays)
+                .setAdaptiveAntialiasing(true)
+                .renderImage();
+        assertEquals((long) n * n * minRays, camera.getRenderProgress().getRays(RenderProgress.RayType.PRIMARY),
+                "the background isn't noisy");
+
+        // TC02: the edges of a sphere get more rays, the rest of the image doesn't
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 60).setEmission(new Color(200, 100, 50)));
+        PixelsWriter writer = new PixelsWriter(n, n);
+        long rays = camera.setImageWriter(writer).renderImage().getRenderProgress().getRays(RenderProgress.RayType.PRIMARY);
+        assertTrue(rays > (long) n * n * minRays, "the edges of the sphere weren't refined");
+        assertTrue(rays < (long) n * n * aliasRays / 2, "too many pixels were refined");
+        assertEquals(new Double3(200, 100, 50), writer.pixels[n / 2][n / 2].getRgb(), "wrong color inside the sphere");
+
+        // TC03: off - every pixel gets all the alias rays
+        camera.setAdaptiveAntialiasing(false).renderImage();
+        assertTrue(camera.getRenderProgress().getRays(RenderProgress.RayType.PRIMARY) >= (long) n * n * (aliasRays - 4),
+                "without adaptive antialiasing every pixel gets all the rays");
+
+        // TC04: a pixel that never converges gets the same jittered grid as without adaptive antialiasing
+        // (up to the float precision of the frame buffer)
+        PixelsWriter adaptive = new PixelsWriter(n, n);
+        camera.getRenderSettings().setAdaptiveMinRays(aliasRays);
+        camera.setAdaptiveAntialiasing(true).setImageWriter(adaptive).renderImage();
+        assertEquals((long) n * n * aliasRays, camera.getRenderProgress().getRays(RenderProgress.RayType.PRIMARY),
+                "every pixel gets all the rays");
+        for (int x = 0; x < n; x++)
+            for (int y = 0; y < n; y++)
+                for (int k = 1; k <= 3; k++)
+                    assertEquals(writer.pixels[x][y].getRgb().get(k), adaptive.pixels[x][y].getRgb().get(k), 1e-3,
+                            "the alias rays differ from the rays without adaptive antialiasing");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#close()}.
+     */
+    @Test
+    @DisplayName("testing the renders of a camera share its pool until it is closed")
+    void testingPool() throws Exception {
+        // the name of a worker is the name of its pool followed by its own number
+        Set<String> pools = ConcurrentHashMap.newKeySet();
+        Scene scene = new Scene("pool");
+        RayTracerBase rayTracer = new RayTracerBasic(scene);
+        try (Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(100)
+                .setImageWriter(new PixelsWriter(16, 16))
+                .setRayTracer(new RayTracerBase(scene) {
+                    @Override
+                    public Color traceRay(Ray ray) {
+                        String name = Thread.currentThread().getName();
+                        pools.add(name.substring(0, name.lastIndexOf("-worker")));
+                        return rayTracer.traceRay(ray);
+                    }
+                })
+                .setMultiThreading(true).setThreadsCount(2).setTileSize(4).setPrintProgress(false)) {
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: the frames of an animation and an asynchronous render run on the same pool
+            camera.renderImage();
+            camera.renderImage();
+            camera.renderAsync().get(10, TimeUnit.SECONDS);
+            assertEquals(1, pools.size(), "a render created a pool " + pools);
+
+            // TC02: another amount of threads, or a closed camera, has a new pool
+            camera.setThreadsCount(3).renderImage();
+            assertEquals(2, pools.size(), "the pool has the old amount of threads " + pools);
+            camera.close();
+            camera.renderImage();
+            assertEquals(3, pools.size(), "the pool wasn't shut down " + pools);
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package renderer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link FrameBuffer} class
+ * @author danielattali, itiskvales
+ */
+class FrameBufferTests {
+
+    /**
+     * Test method for {@link FrameBuffer#addSample(int, int, Color)} and
+     * {@link FrameBuffer#getStandardError(int, int)}
+     */
+    @Test
+    @DisplayName("testing the mean and the noise of the samples of a pixel")
+    void testingSamples() {
+        FrameBuffer frameBuffer = new FrameBuffer(3, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: samples of different colors, the noisiest channel decides
+        frameBuffer.addSample(2, 1, new Color(0, 20, 7));
+        frameBuffer.addSample(2, 1, new Color(10, 20, 9));
+        assertEquals(2, frameBuffer.getCount(2, 1), "wrong amount of samples");
+        assertEquals(new Double3(5, 20, 8), frameBuffer.getColor(2, 1).getRgb(), "wrong mean");
+        // the variance of the red channel is 50, so the error is sqrt(50 / 2)
+        assertEquals(5, frameBuffer.getStandardError(2, 1), 1e-5, "wrong standard error");
+
+        // TC02: samples of the same color have no noise
+        for (int k = 0; k < 3; k++)
+            frameBuffer.addSample(1, 0, new Color(30, 40, 50));
+        assertEquals(0, frameBuffer.getStandardError(1, 0), "the same color has no noise");
+
+        // TC03: the other pixels have no samples, a color above 255 isn't clamped
+        assertEquals(0, frameBuffer.getCount(1, 1), "a pixel without samples");
+        frameBuffer.setPixel(0, 0, new Color(1000, 300, 2));
+        assertEquals(1, frameBuffer.getCount(0, 0), "a set pixel has a single sample");
+        assertEquals(new Double3(1000, 300, 2), frameBuffer.getColor(0, 0).getRgb(), "the color was clamped");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: a single sample can't tell the noise, neither can the image while a pixel has less than two samples
+        assertEquals(Double.POSITIVE_INFINITY, frameBuffer.getStandardError(0, 0), "a single sample");
+        assertEquals(Double.POSITIVE_INFINITY, frameBuffer.getNoise(), "a pixel has a single sample");
+        frameBuffer.clear();
+        assertEquals(0, frameBuffer.getCount(2, 1), "the samples weren't cleared");
+
+        // TC05: the size of the frame buffer and the pixels out of it
+        assertThrows(IllegalArgumentException.class, () -> new FrameBuffer(0, 1), "an empty frame buffer");
+        assertThrows(IllegalArgumentException.class, () -> frameBuffer.addSample(3, 0, Color.BLACK), "out of it");
+        assertThrows(IllegalArgumentException.class, () -> frameBuffer.getCount(0, -1), "out of it");
+    }
+
+    /**
+     * Test method for {@link FrameBuffer#writeTo(ImageWriter)}
+     */
+    @Test
+    @DisplayName("testing the colors of the frame buffer are tone mapped to the image")
+    void testingWriteTo() {
+        FrameBuffer frameBuffer = new FrameBuffer(2, 2);
+        frameBuffer.setPixel(0, 0, new Color(100, 255, 510));
+        frameBuffer.addSample(1, 0, new Color(10, 20, 30));
+        frameBuffer.addSample(1, 0, new Color(30, 40, 50));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the colors are clamped, the pixels without samples keep their color
+        PixelsWriter writer = new PixelsWriter(2, 2);
+        frameBuffer.writeTo(writer);
+        assertEquals(new Double3(100, 255, 255), writer.pixels[0][0].getRgb(), "wrong clamped color");
+        assertEquals(new Double3(20, 30, 40), writer.pixels[1][0].getRgb(), "wrong mean color");
+        assertNull(writer.pixels[0][1], "a pixel without samples was written");
+
+        // TC02: the bright colors are compressed
+        frameBuffer.setToneMapping(FrameBuffer.ToneMapping.REINHARD).writeTo(writer);
+        assertEquals(new Double3(255 * 100 / 355d, 127.5, 170), writer.pixels[0][0].getRgb(), "wrong tone mapping");
+
+        // TC03: the exposure scales the colors before the tone mapping
+        frameBuffer.setToneMapping(FrameBuffer.ToneMapping.CLAMP).setExposure(0.5).writeTo(writer);
+        assertEquals(new Double3(50, 127.5, 255), writer.pixels[0][0].getRgb(), "wrong exposure");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: the image must be of the same size, the settings must be valid
+        assertThrows(IllegalArgumentException.class, () -> frameBuffer.writeTo(new PixelsWriter(2, 3)),
+                "an image of another size");
+        assertThrows(IllegalArgumentException.class, () -> frameBuffer.setExposure(0), "no exposure");
+        assertThrows(IllegalArgumentException.class, () -> frameBuffer.setToneMapping(null), "no tone mapping");
+    }
+
+    /**
+     * Test method for {@link FrameBuffer#addSample(int, int, Color)}
+     */
+    @Test
+    @DisplayName("testing the tiles of a frame buffer written by several threads")
+    void testingTiles() {
+        int nX = 53, nY = 31;
+        FrameBuffer single = new FrameBuffer(nX, nY);
+        FrameBuffer threaded = new FrameBuffer(nX, nY);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the same samples give the same frame buffer
+        for (FrameBuffer frameBuffer : new FrameBuffer[]{single, threaded})
+            new TileScheduler().setTileSize(8).setThreads(frameBuffer == single ? 1 : 4)
+                    .render(nX, nY, (TileScheduler.TileRenderer) tile -> {
+                        for (int y = tile.y0; y < tile.y1; y++)
+                            for (int x = tile.x0; x < tile.x1; x++)
+                                for (int k = 0; k < 5; k++)
+                                    frameBuffer.addSample(x, y, new Color(x + k, y * k, x * y % 7));
+                    }, null);
+        for (int y = 0; y < nY; y++)
+            for (int x = 0; x < nX; x++) {
+                assertEquals(5, threaded.getCount(x, y), "wrong amount of samples of [" + x + ", " + y + "]");
+                assertEquals(single.getColor(x, y).getRgb(), threaded.getColor(x, y).getRgb(),
+                        "wrong pixel [" + x + ", " + y + "]");
+            }
+    }
+}
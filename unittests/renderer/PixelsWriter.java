@@ -0,0 +1,28 @@
+package renderer;
+
+import primitives.Color;
+
+/**
+ * An image writer for the tests, it keeps the colors of the pixels instead of writing them to a file
+ * @author danielattali, itiskvales
+ */
+class PixelsWriter extends ImageWriter {
+    /**
+     * the colors of the pixels [x][y]
+     */
+    final Color[][] pixels;
+
+    /**
+     * @param nX the width of the image
+     * @param nY the height of the image
+     */
+    PixelsWriter(int nX, int nY) {
+        super("pixels", nX, nY);
+        pixels = new Color[nX][nY];
+    }
+
+    @Override
+    public void writePixel(int xIndex, int yIndex, Color color) {
+        pixels[xIndex][yIndex] = color;
+    }
+}
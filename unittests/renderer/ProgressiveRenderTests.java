@@ -0,0 +1,185 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link ProgressiveRender} class and {@link Camera#renderProgressive(ProgressiveRender)}
+ * @author danielattali, itiskvales
+ */
+class ProgressiveRenderTests {
+    /**
+     * the width and height of the images
+     */
+    private static final int N = 20;
+
+    /**
+     * @return a sphere in front of the background
+     */
+    private static Scene sphereScene() {
+        Scene scene = new Scene("progressive").setBackground(new Color(20, 40, 60));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 60).setEmission(new Color(200, 100, 50)));
+        return scene;
+    }
+
+    /**
+     * @param scene the scene
+     * @param writer the image of the render
+     * @return a camera looking at the scene
+     */
+    private static Camera camera(Scene scene, ImageWriter writer) {
+        return new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(100)
+                .setImageWriter(writer)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setPrintProgress(false);
+    }
+
+    /**
+     * Test method for {@link Camera#renderProgressive(ProgressiveRender)}
+     */
+    @Test
+    @DisplayName("testing the passes of a progressive render double the samples until the max samples")
+    void testingPasses() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 1 + 1 + 2 + 4 samples, the listener sees the image of every pass
+        List<Integer> samples = new ArrayList<>();
+        PixelsWriter writer = new PixelsWriter(N, N);
+        Camera camera = camera(sphereScene(), writer);
+        ProgressiveRender render = new ProgressiveRender().setMaxSamples(8)
+                .addPassListener(r -> {
+                    samples.add(r.getSamplesPerPixel());
+                    assertNotNull(writer.pixels[N - 1][N - 1], "the image of the pass isn't complete");
+                });
+        camera.renderProgressive(render);
+        assertEquals(List.of(1, 2, 4, 8), samples, "wrong samples of the passes");
+        assertEquals(4, render.getPasses(), "wrong amount of passes");
+        assertEquals(ProgressiveRender.StopReason.MAX_SAMPLES, render.getStopReason(), "wrong stop reason");
+        assertEquals(8, render.getFrameBuffer().getCount(0, 0), "wrong samples of a pixel");
+        assertEquals((long) N * N * 4, camera.getRenderProgress().getRays(RenderProgress.RayType.PRIMARY),
+                "the last pass traces 4 rays for every pixel");
+        assertEquals(new Double3(200, 100, 50), writer.pixels[N / 2][N / 2].getRgb(), "wrong color inside the sphere");
+        assertEquals(new Double3(200, 100, 50), render.getFrameBuffer().getColor(N / 2, N / 2).getRgb(),
+                "wrong color of the frame buffer");
+
+        // TC02: the same image in multi threading mode, the samples don't depend on the passes or the threads
+        PixelsWriter threaded = new PixelsWriter(N, N);
+        camera(sphereScene(), threaded).setMultiThreading(true).setTileSize(7)
+                .renderProgressive(new ProgressiveRender().setMaxSamples(8));
+        for (int x = 0; x < N; x++)
+            for (int y = 0; y < N; y++)
+                assertEquals(writer.pixels[x][y].getRgb(), threaded.pixels[x][y].getRgb(),
+                        "wrong pixel [" + x + ", " + y + "]");
+
+        // TC03: changing the sampler of the camera during the render doesn't change its image
+        PixelsWriter changed = new PixelsWriter(N, N);
+        Camera sampled = camera(sphereScene(), changed);
+        sampled.addProgressListener(progress -> sampled.setSampler(new SobolSampler()))
+                .renderProgressive(new ProgressiveRender().setMaxSamples(8));
+        for (int x = 0; x < N; x++)
+            for (int y = 0; y < N; y++)
+                assertEquals(writer.pixels[x][y].getRgb(), changed.pixels[x][y].getRgb(),
+                        "the sampler changed at pixel [" + x + ", " + y + "]");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: a render can't be used twice
+        assertThrows(IllegalStateException.class, () -> camera.renderProgressive(render), "a used render");
+    }
+
+    /**
+     * Test method for {@link ProgressiveRender#setTargetNoise(double)}
+     */
+    @Test
+    @DisplayName("testing a progressive render stops once the pixels are not noisy")
+    void testingTargetNoise() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: only the background, every pixel stops after the min samples
+        Camera camera = camera(new Scene("progressive background"), new PixelsWriter(N, N));
+        ProgressiveRender render = new ProgressiveRender().setTargetNoise(1);
+        camera.renderProgressive(render);
+        assertEquals(ProgressiveRender.StopReason.TARGET_NOISE, render.getStopReason(), "wrong stop reason");
+        assertEquals(ProgressiveRender.DEFAULT_MIN_SAMPLES, render.getSamplesPerPixel(), "too many samples");
+
+        // TC02: the edges of the sphere get more samples than the rest of the image
+        camera = camera(sphereScene(), new PixelsWriter(N, N));
+        render = new ProgressiveRender().setTargetNoise(5).setMaxSamples(1024);
+        camera.renderProgressive(render);
+        assertEquals(ProgressiveRender.StopReason.TARGET_NOISE, render.getStopReason(), "wrong stop reason");
+        assertTrue(render.getNoise() <= 5, "a pixel is too noisy");
+        assertEquals(ProgressiveRender.DEFAULT_MIN_SAMPLES, render.getFrameBuffer().getCount(0, 0),
+                "the background got more samples");
+        int most = 0;
+        for (int x = 0; x < N; x++)
+            for (int y = 0; y < N; y++)
+                most = Math.max(most, render.getFrameBuffer().getCount(x, y));
+        assertTrue(most > ProgressiveRender.DEFAULT_MIN_SAMPLES, "the edges of the sphere weren't refined");
+
+        // TC03: the min samples of the render decide, not the min rays of adaptive antialiasing
+        camera = camera(new Scene("progressive background"), new PixelsWriter(N, N));
+        camera.getRenderSettings().setAdaptiveMinRays(16);
+        render = new ProgressiveRender().setTargetNoise(1).setMinSamples(8);
+        camera.renderProgressive(render);
+        assertEquals(8, render.getSamplesPerPixel(), "wrong min samples");
+    }
+
+    /**
+     * Test method for {@link ProgressiveRender#cancel()} and {@link ProgressiveRender#setTimeBudget(long)}
+     */
+    @Test
+    @DisplayName("testing a progressive render stops when it is cancelled or its time is over")
+    void testingStop() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: cancelled by the listener of the first pass
+        ProgressiveRender render = new ProgressiveRender().setMaxSamples(1 << 20);
+        render.addPassListener(ProgressiveRender::cancel);
+        camera(sphereScene(), new PixelsWriter(N, N)).renderProgressive(render);
+        assertEquals(ProgressiveRender.StopReason.CANCELLED, render.getStopReason(), "wrong stop reason");
+        assertEquals(1, render.getPasses(), "the render went on after it was cancelled");
+
+        // TC02: cancelled from another thread in the middle of the fourth pass, the tiles after it are skipped
+        ProgressiveRender cancelled = new ProgressiveRender().setMaxSamples(1 << 20);
+        camera(sphereScene(), new PixelsWriter(N, N)).setMultiThreading(true).setThreadsCount(2).setTileSize(5)
+                .addProgressListener(progress -> {
+                    if (cancelled.getPasses() == 3 && progress.getFraction() > 0.25) {
+                        Thread thread = new Thread(cancelled::cancel);
+                        thread.start();
+                        assertDoesNotThrow(() -> thread.join());
+                    }
+                })
+                .renderProgressive(cancelled);
+        assertEquals(ProgressiveRender.StopReason.CANCELLED, cancelled.getStopReason(), "wrong stop reason");
+        assertEquals(4, cancelled.getPasses(), "wrong amount of passes");
+        int fewest = Integer.MAX_VALUE, most = 0;
+        for (int x = 0; x < N; x++)
+            for (int y = 0; y < N; y++) {
+                fewest = Math.min(fewest, cancelled.getFrameBuffer().getCount(x, y));
+                most = Math.max(most, cancelled.getFrameBuffer().getCount(x, y));
+            }
+        assertEquals(8, most, "the first tiles of the pass weren't rendered");
+        assertEquals(4, fewest, "the pass wasn't stopped");
+
+        // TC03: the time budget ends a render that would take very long
+        ProgressiveRender timed = new ProgressiveRender().setMaxSamples(1 << 20).setTimeBudget(200);
+        camera(sphereScene(), new PixelsWriter(N, N)).renderProgressive(timed);
+        assertEquals(ProgressiveRender.StopReason.TIME_BUDGET, timed.getStopReason(), "wrong stop reason");
+        assertTrue(timed.getElapsedMillis() < 5000, "the render went on after its time was over");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: the settings
+        ProgressiveRender settings = new ProgressiveRender();
+        assertThrows(IllegalArgumentException.class, () -> settings.setMaxSamples(0), "no samples");
+        assertThrows(IllegalArgumentException.class, () -> settings.setTimeBudget(-1), "negative time");
+        assertThrows(IllegalArgumentException.class, () -> settings.setTargetNoise(-1), "negative noise");
+        assertThrows(IllegalArgumentException.class, () -> settings.addPassListener(null), "no listener");
+        assertThrows(IllegalArgumentException.class, () -> settings.setToneMapping(null), "no tone mapping");
+        assertThrows(IllegalArgumentException.class, () -> settings.setMinSamples(1), "a single sample has no noise");
+    }
+}
@@ -0,0 +1,137 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link RayTracerPath} class
+ * @author danielattali, itiskvales
+ */
+class RayTracerPathTests {
+    /**
+     * @param expected the expected color
+     * @param actual the actual color
+     * @param tolerance the allowed relative difference of every channel
+     * @param message the message of the failure
+     */
+    private static void assertColor(Color expected, Color actual, double tolerance, String message) {
+        for (int i = 1; i <= 3; i++) {
+            double e = expected.getRgb().get(i);
+            double a = actual.getRgb().get(i);
+            assertEquals(e, a, Math.max(tolerance * e, 1e-9), message + " " + expected + " " + actual);
+        }
+    }
+
+    /**
+     * @return a diffuse floor under a point light
+     */
+    private static Scene floorScene() {
+        return new Scene("path floor")
+                .addGeometries(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1))
+                        .setEmission(new Color(10, 20, 30))
+                        .setMaterial(new Material().setKD(new Double3(0.5, 0.3, 0.2))));
+    }
+
+    /**
+     * Test method for {@link RayTracerPath#traceRay(Ray)}
+     */
+    @Test
+    @DisplayName("testing the direct light of a point light is the same as in the basic ray tracer")
+    void testingDirectLight() {
+        Scene scene = floorScene()
+                .addLights(new PointLight(new Color(300, 200, 100), new Point(3, -2, 10)).setKL(0.01));
+        RayTracerBasic basic = new RayTracerBasic(scene);
+        RayTracerPath path = new RayTracerPath(scene).setMaxDepth(0);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the floor seen from different directions
+        for (int i = -2; i <= 2; i++) {
+            Ray ray = new Ray(new Point(0, 0, 20), new Vector(i, 2 * i + 1, -5));
+            assertColor(basic.traceRay(ray), path.traceRay(ray), 1e-9, "wrong direct light");
+        }
+
+        // TC02: a point in the shadow of a sphere gets only its emission
+        scene.addGeometries(new Sphere(new Point(3, -2, 5), 0.5).setMaterial(new Material().setKD(0.5)));
+        Ray shadowed = new Ray(new Point(10, -2, 20), new Vector(-7, 0, -20));
+        assertColor(new Color(10, 20, 30), basic.traceRay(shadowed), 1e-9, "the basic ray tracer isn't in the shadow");
+        assertColor(new Color(10, 20, 30), path.traceRay(shadowed), 1e-9, "wrong shadow");
+    }
+
+    /**
+     * Test method for {@link RayTracerPath#traceRay(Ray)}
+     */
+    @Test
+    @DisplayName("testing the light sampling and the paths hitting a light with a size agree")
+    void testingAreaLight() {
+        PointLight light = new PointLight(new Color(300, 200, 100), new Point(3, -2, 10)).setLengthOfTheSide(1.5);
+        Scene scene = floorScene().addLights(light);
+        Ray ray = new Ray(new Point(0, 0, 20), new Vector(1, 1, -5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // the basic ray tracer with the whole light seen, its intensity times kD times cos
+        Color expected = new RayTracerBasic(scene).traceRay(ray);
+        // TC01: the light sampling and the hits of the paths combined
+        Color mis = new RayTracerPath(scene).setMaxDepth(1).setPathsPerRay(20000).traceRay(ray);
+        assertColor(expected, mis, 0.03, "wrong light of the disk");
+
+        // TC02: a big disk close to the floor, the paths that hit it have much of the weight - without a bounce
+        // after the point the light sampling alone has to bring the whole light of the disk
+        Scene close = new Scene("path close light")
+                .addGeometries(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1))
+                        .setMaterial(new Material().setKD(new Double3(0.5, 0.3, 0.2))))
+                .addLights(new PointLight(new Color(300, 200, 100), new Point(1, 0, 2)).setLengthOfTheSide(3));
+        Ray down = new Ray(new Point(0, 0, 20), new Vector(1, 1, -20));
+        Color combined = new RayTracerPath(close).setMaxDepth(1).setPathsPerRay(20000).traceRay(down);
+        Color sampled = new RayTracerPath(close).setMaxDepth(0).setPathsPerRay(20000).traceRay(down);
+        assertColor(combined, sampled, 0.02, "the light sampling lost the weight of the bounce that doesn't follow");
+    }
+
+    /**
+     * Test method for {@link RayTracerPath#traceRay(Ray)}
+     */
+    @Test
+    @DisplayName("testing the indirect light inside an emitting sphere converges to the geometric series")
+    void testingFurnace() {
+        // a sphere emitting e with kD = 0.5 all around, the paths bring e + 0.5e + 0.25e ... = 2e
+        Scene scene = new Scene("path furnace")
+                .addGeometries(new Sphere(new Point(0, 0, 0), 10)
+                        .setEmission(new Color(40, 20, 10))
+                        .setMaterial(new Material().setKD(0.5)));
+        RayTracerPath path = new RayTracerPath(scene).setMaxDepth(100).setPathsPerRay(20000);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: russian roulette ends the paths without changing the average
+        Color color = path.traceRay(new Ray(new Point(1, 2, 3), new Vector(1, 0, 0)));
+        assertColor(new Color(80, 40, 20), color, 0.03, "wrong indirect light");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: without bounces only the emission
+        color = path.setMaxDepth(0).traceRay(new Ray(new Point(1, 2, 3), new Vector(1, 0, 0)));
+        assertColor(new Color(40, 20, 10), color, 1e-9, "wrong emission");
+        // TC03: one bounce
+        color = path.setMaxDepth(1).traceRay(new Ray(new Point(1, 2, 3), new Vector(1, 0, 0)));
+        assertColor(new Color(60, 30, 15), color, 1e-9, "wrong single bounce");
+    }
+
+    /**
+     * Test method for {@link RayTracerPath#setMaxDepth(int)} and {@link RayTracerPath#setPathsPerRay(int)}
+     */
+    @Test
+    @DisplayName("testing the settings of the path tracer")
+    void testingSetters() {
+        RayTracerPath path = new RayTracerPath(new Scene("path settings"));
+        // =============== Boundary Values Tests ==================
+        // TC01: no bounces is allowed, a negative amount isn't
+        assertDoesNotThrow(() -> path.setMaxDepth(0), "0 bounces is the direct light");
+        assertThrows(IllegalArgumentException.class, () -> path.setMaxDepth(-1), "negative depth");
+        // TC02: at least one path
+        assertThrows(IllegalArgumentException.class, () -> path.setPathsPerRay(0), "no paths");
+    }
+}
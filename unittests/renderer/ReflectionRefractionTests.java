@@ -1,6 +1,7 @@
 package renderer;
 
 import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 import geometries.Plane;
 import geometries.Polygon;
@@ -274,4 +275,99 @@ public class ReflectionRefractionTests {
               .writeToImage();
 
    }
+
+   /**
+    * @param settings the settings of the render
+    * @return the camera after rendering two glossy mirrors facing each other, with a sphere between them
+    */
+   private static Camera renderMirrors(RenderSettings settings) {
+      Scene scene = new Scene("mirrors").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+      Material mirror = new Material().setKD(0.2).setKR(0.7).setNumRaysReflected(8).setConeAngleReflected(0.05);
+      scene.geometries.add(
+              new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setMaterial(mirror).setEmission(new Color(20, 20, 20)),
+              new Plane(new Point(0, 0, 150), new Vector(0, 0, -1)).setMaterial(mirror).setEmission(new Color(20, 20, 20)),
+              new Sphere(new Point(0, 0, 0), 30d).setMaterial(new Material().setKD(0.5).setKS(0.3).setNShininess(30))
+                      .setEmission(new Color(120, 30, 30)));
+      scene.lights.add(new PointLight(new Color(400, 400, 400), new Point(40, 40, 80)));
+
+      return new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+              .setVPSize(150, 150).setVPDistance(100)
+              .setImageWriter(new PixelsWriter(16, 16))
+              .setRayTracer(new RayTracerBasic(scene))
+              .setRenderSettings(settings.setPrintProgress(false))
+              .renderImage();
+   }
+
+   /**
+    * @param camera a camera after a render
+    * @return the amount of reflected rays of the render for every camera ray
+    */
+   private static double reflectedPerPixel(Camera camera) {
+      RenderProgress progress = camera.getRenderProgress();
+      return (double) progress.getRays(RenderProgress.RayType.REFLECTED) / progress.getRays(RenderProgress.RayType.PRIMARY);
+   }
+
+   /**
+    * @param camera a camera after a render into a {@link PixelsWriter}
+    * @return the average red channel of the image
+    */
+   private static double averageRed(Camera camera) {
+      PixelsWriter writer = (PixelsWriter) camera.getImageWriter();
+      double sum = 0;
+      for (Color[] column : writer.pixels)
+         for (Color color : column)
+            sum += color.getRgb().getX();
+      return sum / (16 * 16);
+   }
+
+   /** Test method for {@link RayTracerBasic#traceRay(Ray)} */
+   @Test
+   @DisplayName("testing the rays of a glossy mirror are spread around the mirrored direction")
+   void glossyMirrorAxis() {
+      Scene mirrorScene = new Scene("glossy").setBackground(new Color(BLACK));
+      mirrorScene.geometries.add(
+              new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).setMaterial(new Material().setKR(1)
+                      .setNumRaysReflected(16).setConeAngleReflected(0.02)),
+              new Sphere(new Point(0, 200, 100), 20d).setEmission(new Color(100, 50, 25)));
+      // the mirrored ray goes up at 45 degrees towards the sphere
+      Ray ray = new Ray(new Point(0, 0, 100), new Vector(0, 1, -1));
+
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: all the rays of a narrow cone see the sphere, like the mirrored ray
+      assertEquals(new Double3(100, 50, 25), new RayTracerBasic(mirrorScene).traceRay(ray).getRgb(),
+              "the glossy rays aren't around the mirrored ray");
+   }
+
+   /** Test method for {@link RenderSettings#setRayBudget(int)}, {@link RenderSettings#setMaxFanOutLevel(int)} and
+    * {@link RenderSettings#setRussianRoulette(boolean)} */
+   @Test
+   @DisplayName("testing deep reflections between glossy mirrors stay in budget")
+   void glossyMirrorsDepth() {
+      // every glossy bounce traces 9 rays (8 in the cone and the mirrored one)
+      // TC01: depth 2 fans out once (the pixels of the sphere have no reflections)
+      double single = reflectedPerPixel(renderMirrors(new RenderSettings().setMaxCalcColorLevel(2)));
+      assertTrue(single > 7 && single <= 9, "wrong amount of rays in a single bounce " + single);
+
+      // TC02: depth 6, only the first bounce fans out, the other 4 trace a single ray
+      Camera fanOut = renderMirrors(new RenderSettings().setMaxCalcColorLevel(6).setMaxFanOutLevel(1));
+      assertTrue(reflectedPerPixel(fanOut) <= 9 * 5, "too many rays with the fan out cut " + reflectedPerPixel(fanOut));
+
+      // TC03: depth 6 with the full fan out, the budget stops it
+      Camera budget = renderMirrors(new RenderSettings().setMaxCalcColorLevel(6).setRayBudget(30));
+      assertTrue(reflectedPerPixel(budget) <= 30, "the budget was passed " + reflectedPerPixel(budget));
+
+      // TC04: russian roulette drops weak rays but keeps the average color
+      Camera roulette = renderMirrors(new RenderSettings().setMaxCalcColorLevel(6).setMaxFanOutLevel(1)
+              .setRussianRoulette(true).setRouletteThreshold(0.5));
+      assertTrue(reflectedPerPixel(roulette) < reflectedPerPixel(fanOut), "russian roulette didn't drop rays");
+      assertEquals(averageRed(fanOut), averageRed(roulette), averageRed(fanOut) * 0.05,
+              "russian roulette changed the color");
+
+      // =============== Boundary Values Tests ==================
+      assertThrows(IllegalArgumentException.class, () -> new RenderSettings().setRayBudget(0), "an empty budget");
+      assertThrows(IllegalArgumentException.class, () -> new RenderSettings().setMaxFanOutLevel(-1),
+              "a negative fan out level");
+      assertThrows(IllegalArgumentException.class, () -> new RenderSettings().setRouletteThreshold(0),
+              "a zero roulette threshold");
+   }
 }
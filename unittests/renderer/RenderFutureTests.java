@@ -0,0 +1,197 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link RenderFuture} class and {@link Camera#renderAsync(java.util.concurrent.Executor)}
+ * @author danielattali, itiskvales
+ */
+class RenderFutureTests {
+    /**
+     * the width and height of the images
+     */
+    private static final int N = 40;
+
+    /**
+     * @param writer the image of the render
+     * @return a camera looking at a sphere, in multi threading mode with small tiles
+     */
+    private static Camera camera(ImageWriter writer) {
+        Scene scene = new Scene("async").setBackground(new Color(20, 40, 60));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 60).setEmission(new Color(200, 100, 50)));
+        return new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(100)
+                .setImageWriter(writer)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setMultiThreading(true).setThreadsCount(2).setTileSize(5).setPrintProgress(false)
+                .setAliasRays(4);
+    }
+
+    /**
+     * Test method for {@link Camera#renderAsync(java.util.concurrent.Executor)}
+     */
+    @Test
+    @DisplayName("testing an asynchronous render gives the same image as a synchronous one")
+    void testingRenderAsync() throws Exception {
+        PixelsWriter expected = new PixelsWriter(N, N);
+        camera(expected).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: on a pool of its own
+        PixelsWriter writer = new PixelsWriter(N, N);
+        Camera camera = camera(writer);
+        RenderFuture future = camera.renderAsync();
+        assertSame(camera, future.get(10, TimeUnit.SECONDS), "the future isn't completed with the camera");
+        assertEquals((long) N * N, future.getProgress().getPixelsDone(), "not all the pixels are done");
+        assertSame(camera, future.getPartialResult(), "the partial result of a finished render");
+
+        // TC02: on a shared executor with a single thread, in single thread mode as well
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (boolean multithreading : new boolean[]{true, false}) {
+                PixelsWriter shared = new PixelsWriter(N, N);
+                camera(shared).setMultiThreading(multithreading).renderAsync(executor).get(10, TimeUnit.SECONDS);
+                for (int x = 0; x < N; x++)
+                    for (int y = 0; y < N; y++) {
+                        assertEquals(expected.pixels[x][y].getRgb(), writer.pixels[x][y].getRgb(),
+                                "wrong pixel [" + x + ", " + y + "]");
+                        assertEquals(expected.pixels[x][y].getRgb(), shared.pixels[x][y].getRgb(),
+                                "wrong pixel [" + x + ", " + y + "] on the shared executor");
+                    }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // TC03: a failure of the ray tracer completes the future exceptionally
+        RenderFuture failed = camera(new PixelsWriter(N, N)).setRayTracer(new RayTracerBase(new Scene("failing")) {
+            @Override
+            public Color traceRay(Ray ray) {
+                throw new IllegalStateException("failing ray tracer");
+            }
+        }).renderAsync();
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS),
+                "the failure was lost");
+        assertInstanceOf(IllegalStateException.class, exception.getCause(), "wrong failure");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: an executor is needed
+        assertThrows(IllegalArgumentException.class, () -> camera.renderAsync(null), "no executor");
+    }
+
+    /**
+     * Test method for {@link RenderFuture#cancel(boolean)} and {@link RenderFuture#getPartialResult()}
+     */
+    @Test
+    @DisplayName("testing a cancelled render stops between tiles and keeps the tiles that were done")
+    void testingCancel() throws Exception {
+        // the first tiles wait until the render is cancelled
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        PixelsWriter writer = new PixelsWriter(N, N);
+        Camera camera = camera(writer);
+        RayTracerBase rayTracer = camera.getRayTracer();
+        camera.setRayTracer(new RayTracerBase(new Scene("waiting")) {
+            @Override
+            public Color traceRay(Ray ray) {
+                started.countDown();
+                try {
+                    cancelled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rayTracer.traceRay(ray);
+            }
+        });
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the future is cancelled while the first tile of every thread is being rendered
+        RenderFuture future = camera.renderAsync();
+        assertTrue(started.await(10, TimeUnit.SECONDS), "the render didn't start");
+        assertTrue(future.cancel(true), "the render couldn't be cancelled");
+        cancelled.countDown();
+
+        assertThrows(CancellationException.class, future::get, "the future isn't cancelled");
+        assertSame(camera, future.getPartialResult(), "wrong partial result");
+        assertTrue(future.isStopped(), "the render didn't stop");
+        // the tiles in the middle are finished, the rest are skipped
+        long done = future.getProgress().getPixelsDone();
+        assertTrue(done > 0 && done <= 2 * 25, "wrong amount of pixels done " + done);
+        int written = 0;
+        for (int x = 0; x < N; x++)
+            for (int y = 0; y < N; y++)
+                if (writer.pixels[x][y] != null)
+                    written++;
+        assertEquals(done, written, "the partial image doesn't have the tiles that were done");
+
+        // TC02: a render completed in another way (a timeout) stops as well
+        RenderFuture timed = camera(new PixelsWriter(N, N)).setRayTracer(new RayTracerBase(new Scene("slow")) {
+            @Override
+            public Color traceRay(Ray ray) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Color.BLACK;
+            }
+        }).renderAsync();
+        timed.orTimeout(50, TimeUnit.MILLISECONDS);
+        assertThrows(ExecutionException.class, timed::get, "the render didn't time out");
+        assertTrue(timed.whenStopped().get(10, TimeUnit.SECONDS).getRenderProgress().getPixelsDone() < (long) N * N,
+                "the render went on after the timeout");
+    }
+
+    /**
+     * Test method for {@link Camera#renderAsync()} and {@link Camera#renderImage()}
+     */
+    @Test
+    @DisplayName("testing a new render can't start before a cancelled render stops")
+    void testingBusyRayTracer() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Camera camera = camera(new PixelsWriter(N, N));
+        RayTracerBase rayTracer = camera.getRayTracer();
+        camera.setRayTracer(new RayTracerBase(new Scene("waiting")) {
+            @Override
+            public Color traceRay(Ray ray) {
+                started.countDown();
+                assertDoesNotThrow(() -> release.await());
+                return rayTracer.traceRay(ray);
+            }
+        });
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the future is cancelled but its tiles are still rendered, the ray tracer keeps the old render
+        RenderFuture future = camera.renderAsync();
+        assertTrue(started.await(10, TimeUnit.SECONDS), "the render didn't start");
+        future.cancel(true);
+        assertTrue(camera.getRayTracer().isRendering(), "the ray tracer was released before the render stopped");
+        assertThrows(IllegalStateException.class, camera::renderImage, "a render over a running render");
+        assertThrows(IllegalStateException.class, camera::renderAsync, "a render over a running render");
+        assertThrows(IllegalStateException.class, () -> camera.renderProgressive(new ProgressiveRender()),
+                "a render over a running render");
+        assertThrows(IllegalStateException.class, () -> camera.getRayTracer().setRenderSettings(new RenderSettings()),
+                "the settings changed in the middle of a render");
+
+        // TC02: once the render stops the next one may start
+        release.countDown();
+        future.whenStopped().get(10, TimeUnit.SECONDS);
+        assertFalse(camera.getRayTracer().isRendering(), "the ray tracer wasn't released");
+        assertSame(camera, camera.renderAsync().get(10, TimeUnit.SECONDS), "the next render failed");
+        assertDoesNotThrow(camera::renderImage, "the next render failed");
+    }
+}
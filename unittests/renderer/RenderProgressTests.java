@@ -0,0 +1,106 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link RenderProgress} class
+ * @author danielattali, itiskvales
+ */
+class RenderProgressTests {
+
+    /**
+     * @param size the width and height of the image
+     * @return a camera looking at a shiny sphere lit by a point light
+     */
+    private static Camera createCamera(int size) {
+        Scene scene = new Scene("progress scene");
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50)
+                .setEmission(new Color(java.awt.Color.BLUE))
+                .setMaterial(new Material().setKD(0.5).setKS(0.5).setKR(0.5).setNShininess(30)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(50, 50, 50)));
+
+        return new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(1000)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(new ImageWriter("progress", size, size))
+                .setMultiThreading(true).setThreadsCount(2).setTileSize(8)
+                .setPrintProgress(false);
+    }
+
+    /**
+     * Test method for {@link Camera#renderImage()}
+     */
+    @Test
+    @DisplayName("testing two cameras rendering together keep their own progress")
+    void testingConcurrentRenders() {
+        Camera small = createCamera(30);
+        Camera big = createCamera(50);
+        AtomicLong notified = new AtomicLong();
+        big.addProgressListener(progress -> notified.incrementAndGet());
+
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(small::renderImage),
+                CompletableFuture.runAsync(big::renderImage)).join();
+
+        RenderProgress smallProgress = small.getRenderProgress();
+        RenderProgress bigProgress = big.getRenderProgress();
+
+        // TC01: every render counted only its own pixels
+        assertEquals(900, smallProgress.getPixelsDone(), "wrong amount of pixels in the small render");
+        assertEquals(2500, bigProgress.getPixelsDone(), "wrong amount of pixels in the big render");
+        assertTrue(bigProgress.isDone(), "the big render isn't done");
+        assertEquals(0, bigProgress.getEtaMillis(), "a done render has time left");
+
+        // TC02: a primary ray for every pixel, shadow and reflected rays where the sphere is hit
+        assertEquals(900, smallProgress.getRays(RenderProgress.RayType.PRIMARY), "wrong amount of primary rays");
+        assertEquals(2500, bigProgress.getRays(RenderProgress.RayType.PRIMARY), "wrong amount of primary rays");
+        assertTrue(bigProgress.getRays(RenderProgress.RayType.SHADOW) > 0, "no shadow rays were counted");
+        assertTrue(bigProgress.getRays(RenderProgress.RayType.REFLECTED) > 0, "no reflected rays were counted");
+
+        // TC03: the listener was notified once per tile (7 x 7 tiles of 8 pixels)
+        assertEquals(49, notified.get(), "the listener wasn't notified once per tile");
+    }
+
+    /**
+     * Test method for {@link RenderProgress#rayCast(RenderProgress.RayType)}
+     */
+    @Test
+    @DisplayName("testing the rays are counted with the batch of pixels of the thread that cast them")
+    void testingRayBatches() throws Exception {
+        RenderProgress progress = new RenderProgress(4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the rays are seen once their batch is done
+        progress.rayCast(RenderProgress.RayType.PRIMARY);
+        progress.rayCast(RenderProgress.RayType.SHADOW);
+        assertEquals(0, progress.getTotalRays(), "the rays were seen before their batch");
+        progress.pixelsDone(1);
+        assertEquals(1, progress.getRays(RenderProgress.RayType.PRIMARY), "wrong amount of primary rays");
+        assertEquals(2, progress.getTotalRays(), "wrong amount of rays");
+
+        // TC02: the batch of another thread adds only its own rays
+        progress.rayCast(RenderProgress.RayType.REFLECTED);
+        CompletableFuture.runAsync(() -> {
+            progress.rayCast(RenderProgress.RayType.PRIMARY);
+            progress.pixelsDone(1);
+        }).get();
+        assertEquals(2, progress.getRays(RenderProgress.RayType.PRIMARY), "the rays of the other thread are missing");
+        assertEquals(0, progress.getRays(RenderProgress.RayType.REFLECTED), "the rays of this thread were added");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a batch without rays
+        progress.pixelsDone(2);
+        assertEquals(4, progress.getTotalRays(), "wrong amount of rays");
+        assertTrue(progress.isDone(), "the render isn't done");
+    }
+}
@@ -2,6 +2,8 @@ package renderer;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import static java.awt.Color.*;
 
 import geometries.*;
@@ -105,4 +107,40 @@ public class ShadowTests {
          .writeToImage();
    }
 
+   /**
+    * Test method for {@link RenderSettings#setAdaptiveSoftShadows(boolean)}, the soft shadow of a sphere on a plane
+    * is the same with fewer shadow rays
+    */
+   @Test
+   public void adaptiveSoftShadows() {
+      scene.geometries.add(new Sphere(new Point(0, 0, -50), 30d).setMaterial(trMaterial),
+                           new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setMaterial(trMaterial));
+      scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(20, 20, 100))
+                          .setLengthOfTheSide(40).setSoftShadowsRays(36));
+
+      int n = 40;
+      PixelsWriter full = new PixelsWriter(n, n);
+      PixelsWriter again = new PixelsWriter(n, n);
+      PixelsWriter adaptive = new PixelsWriter(n, n);
+      long fullRays = camera.setImageWriter(full).renderImage()
+         .getRenderProgress().getRays(RenderProgress.RayType.SHADOW);
+      camera.setImageWriter(again).setSeed(1).renderImage();
+      long adaptiveRays = camera.setImageWriter(adaptive).setSeed(2).setAdaptiveSoftShadows(true).renderImage()
+         .getRenderProgress().getRays(RenderProgress.RayType.SHADOW);
+
+      // the umbra and the fully lit parts are skipped after the probes
+      assertTrue(adaptiveRays < fullRays / 2, "too many shadow rays " + adaptiveRays + " of " + fullRays);
+
+      // the rays towards the light are jittered, so the penumbra is a bit different with every seed - the adaptive
+      // render has to be about as close to the full render as another full render is
+      double noise = 0;
+      double error = 0;
+      for (int x = 0; x < n; x++)
+         for (int y = 0; y < n; y++) {
+            double color = full.pixels[x][y].getRgb().getX();
+            noise += Math.abs(color - again.pixels[x][y].getRgb().getX());
+            error += Math.abs(color - adaptive.pixels[x][y].getRgb().getX());
+         }
+      assertTrue(error < noise * 2, "the adaptive render is too different " + error + " (noise " + noise + ")");
+   }
 }
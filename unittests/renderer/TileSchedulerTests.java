@@ -0,0 +1,180 @@
+package renderer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing unit for {@link TileScheduler} class
+ * @author danielattali, itiskvales
+ */
+class TileSchedulerTests {
+
+    /**
+     * Test method for {@link TileScheduler#render(int, int, TileScheduler.PixelRenderer, TileScheduler.TileListener)}
+     */
+    @Test
+    @DisplayName("testing every pixel is rendered exactly once")
+    void testingEveryPixelOnce() {
+        // an image that can't be split into whole tiles
+        int nX = 101, nY = 67;
+        for (TileScheduler.TileOrder order : TileScheduler.TileOrder.values()) {
+            AtomicIntegerArray rendered = new AtomicIntegerArray(nX * nY);
+            AtomicInteger reported = new AtomicInteger();
+
+            new TileScheduler().setTileSize(16).setThreads(4).setTileOrder(order)
+                    .render(nX, nY,
+                            (x, y) -> rendered.incrementAndGet(y * nX + x),
+                            tile -> reported.addAndGet(tile.size()));
+
+            for (int i = 0; i < nX * nY; i++)
+                assertEquals(1, rendered.get(i), order + ": pixel " + i + " wasn't rendered exactly once");
+            assertEquals(nX * nY, reported.get(), order + ": the tiles reported a wrong amount of pixels");
+        }
+    }
+
+    /**
+     * Test method for {@link TileScheduler#close()}
+     */
+    @Test
+    @DisplayName("testing the renders of a scheduler share its pool until it is closed")
+    void testingPool() {
+        // the name of a worker is the name of its pool followed by its own number
+        Set<String> pools = ConcurrentHashMap.newKeySet();
+        TileScheduler.PixelRenderer renderer = (x, y) -> {
+            String name = Thread.currentThread().getName();
+            pools.add(name.substring(0, name.lastIndexOf("-worker")));
+        };
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: two renders of the same scheduler run on the same pool
+        try (TileScheduler scheduler = new TileScheduler().setTileSize(4).setThreads(2)) {
+            scheduler.render(16, 16, renderer, null);
+            scheduler.render(16, 16, renderer, null);
+            assertEquals(1, pools.size(), "every render created a pool " + pools);
+
+            // TC02: once the scheduler is closed (or the amount of threads changes) the next render has a new pool
+            scheduler.close();
+            scheduler.render(16, 16, renderer, null);
+            assertEquals(2, pools.size(), "the pool wasn't shut down " + pools);
+            scheduler.setThreads(3).render(16, 16, renderer, null);
+            assertEquals(3, pools.size(), "the pool has the old amount of threads " + pools);
+
+            // =============== Boundary Values Tests ==================
+            // TC03: the same amount of threads keeps the pool
+            scheduler.setThreads(3).render(16, 16, renderer, null);
+            assertEquals(3, pools.size(), "the pool was replaced by one of the same size " + pools);
+        }
+    }
+
+    /**
+     * Test method for
+     * {@link TileScheduler#renderAsync(int, int, TileScheduler.TileRenderer, TileScheduler.TileListener, java.util.concurrent.Executor)}
+     */
+    @Test
+    @DisplayName("testing the tiles rendered on an executor and the stop condition")
+    void testingRenderAsync() {
+        int nX = 101, nY = 67;
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: more workers than the threads of the executor, every pixel is rendered exactly once
+            AtomicIntegerArray rendered = new AtomicIntegerArray(nX * nY);
+            AtomicInteger reported = new AtomicInteger();
+            new TileScheduler().setTileSize(16).setThreads(5)
+                    .renderAsync(nX, nY,
+                            tile -> {
+                                for (int y = tile.y0; y < tile.y1; y++)
+                                    for (int x = tile.x0; x < tile.x1; x++)
+                                        rendered.incrementAndGet(y * nX + x);
+                            },
+                            tile -> reported.addAndGet(tile.size()), executor)
+                    .join();
+            for (int i = 0; i < nX * nY; i++)
+                assertEquals(1, rendered.get(i), "pixel " + i + " wasn't rendered exactly once");
+            assertEquals(nX * nY, reported.get(), "the tiles reported a wrong amount of pixels");
+
+            // TC02: the tiles after the stop condition is true are skipped, in both modes
+            for (boolean async : new boolean[]{false, true}) {
+                AtomicInteger tiles = new AtomicInteger();
+                TileScheduler scheduler = new TileScheduler().setTileSize(10).setThreads(2)
+                        .setStopCondition(() -> tiles.get() >= 5);
+                if (async)
+                    scheduler.renderAsync(nX, nY, tile -> tiles.incrementAndGet(), null, executor).join();
+                else
+                    scheduler.render(nX, nY, (TileScheduler.TileRenderer) tile -> tiles.incrementAndGet(), null);
+                // every worker may be in the middle of a tile when the condition becomes true
+                assertTrue(tiles.get() >= 5 && tiles.get() <= 6, "wrong amount of tiles " + tiles.get());
+            }
+
+            // TC03: the first tile fails, the future is completed exceptionally and the tiles after it are skipped
+            // in both modes - every other worker may finish the single tile it is rendering
+            for (boolean async : new boolean[]{false, true}) {
+                AtomicInteger tiles = new AtomicInteger();
+                TileScheduler.TileRenderer failing = tile -> {
+                    if (tiles.incrementAndGet() == 1)
+                        throw new IllegalStateException("failed tile");
+                    assertDoesNotThrow(() -> Thread.sleep(5));
+                };
+                TileScheduler scheduler = new TileScheduler().setTileSize(10).setThreads(3);
+                if (async)
+                    assertThrows(RuntimeException.class,
+                            () -> scheduler.renderAsync(nX, nY, failing, null, executor).join(), "the failure was lost");
+                else
+                    assertThrows(IllegalStateException.class, () -> scheduler.render(nX, nY, failing, null),
+                            "the failure was lost");
+                scheduler.close();
+                assertTrue(tiles.get() <= 3, "the tiles after the failure weren't skipped " + tiles.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC04: an executor and a stop condition are needed
+        assertThrows(IllegalArgumentException.class, () -> new TileScheduler().renderAsync(1, 1, tile -> {}, null, null),
+                "no executor");
+        assertThrows(IllegalArgumentException.class, () -> new TileScheduler().setStopCondition(null),
+                "no stop condition");
+    }
+
+    /**
+     * Test method for {@link TileScheduler#createTiles(int, int)}
+     */
+    @Test
+    @DisplayName("testing the orders of the tiles")
+    void testingTileOrders() {
+        TileScheduler scheduler = new TileScheduler().setTileSize(10);
+
+        // TC01: every tile along the Hilbert curve is a neighbour of the tile before it
+        List<TileScheduler.Tile> tiles = scheduler.setTileOrder(TileScheduler.TileOrder.HILBERT).createTiles(80, 80);
+        assertEquals(64, tiles.size(), "wrong amount of tiles");
+        for (int i = 1; i < tiles.size(); i++) {
+            TileScheduler.Tile a = tiles.get(i - 1), b = tiles.get(i);
+            assertEquals(10, Math.abs(a.x0 - b.x0) + Math.abs(a.y0 - b.y0),
+                    "the Hilbert order jumped from " + a + " to " + b);
+        }
+
+        // TC02: the spiral starts at the center of the image
+        tiles = scheduler.setTileOrder(TileScheduler.TileOrder.SPIRAL).createTiles(50, 50);
+        assertEquals(25, tiles.size(), "wrong amount of tiles");
+        assertEquals(20, tiles.get(0).x0, "the spiral didn't start at the center");
+        assertEquals(20, tiles.get(0).y0, "the spiral didn't start at the center");
+
+        // TC03: the scanline order goes row after row
+        tiles = scheduler.setTileOrder(TileScheduler.TileOrder.SCANLINE).createTiles(25, 15);
+        assertEquals(6, tiles.size(), "wrong amount of tiles");
+        assertEquals(20, tiles.get(2).x0, "wrong scanline order");
+        assertEquals(25, tiles.get(2).x1, "the last tile in the row wasn't cut at the edge of the image");
+        assertEquals(10, tiles.get(3).y0, "wrong scanline order");
+    }
+}